@@ -3,16 +3,19 @@ package com.fincons.parkingsystem;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * The main entry point for the Parking System application.
  * This class initializes the Spring Boot context and enables application-wide features.
  * The @EnableScheduling annotation is used to activate Spring's scheduled task execution capabilities,
- * which is essential for features like the reservation expiration job.
+ * which is essential for features like the reservation expiration job. The @EnableAsync annotation
+ * lets startup work, such as the dashboard warm-up, run without delaying the application start.
  */
 @SpringBootApplication(exclude = KafkaAutoConfiguration.class)
 @EnableScheduling
+@EnableAsync
 public class ParkingSystemApplication {
 
     /**
@@ -0,0 +1,140 @@
+package com.fincons.parkingsystem.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
+import com.fincons.parkingsystem.dto.SlotStatusBatchDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+import com.fincons.parkingsystem.dto.WebSocketMessage;
+import com.fincons.parkingsystem.entity.SlotStatus;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+
+/**
+ * Message converter that encodes WebSocket payloads as CBOR for bandwidth-constrained clients.
+ * It only converts messages carrying the {@code x-encoding: cbor} header (see {@link #createHeaders()});
+ * other messages keep the default JSON encoding.
+ * <p>
+ * CBOR messages are sent with the content type {@code application/octet-stream}, because STOMP over
+ * WebSocket only uses binary frames for that type: any other content type is sent in a text frame,
+ * which decodes the payload as UTF-8 and destroys every byte from 0x80 up. The STOMP frame keeps the
+ * {@code x-encoding} header, so clients know how to decode the body.
+ * <p>
+ * The realtime DTOs use a compact fixed schema: {@link WebSocketMessage}, {@link OccupancyUpdateDto},
+ * {@link SlotStatusUpdateDto} and {@link SlotStatusBatchDto} are encoded as arrays of their fields in the
+ * order given below instead of maps with field names, and {@link SlotStatus} values as their ordinal
+ * (AVAILABLE=0, OCCUPIED=1, RESERVED=2, UNDER_SERVICE=3, the same codes as the slot status bitmap).
+ */
+public class CborMessageConverter extends MappingJackson2MessageConverter {
+
+    /** The STOMP header naming the encoding of a binary message body. */
+    public static final String ENCODING_HEADER = "x-encoding";
+
+    /** The value of {@link #ENCODING_HEADER} for CBOR-encoded messages. */
+    public static final String CBOR_ENCODING = "cbor";
+
+    /**
+     * Creates a converter for {@code x-encoding: cbor} messages with the compact schema.
+     */
+    public CborMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        setObjectMapper(createObjectMapper());
+        setStrictContentTypeMatch(true);
+    }
+
+    /**
+     * Creates the headers of a message to be sent CBOR-encoded: the {@code application/octet-stream}
+     * content type, so it goes out in a binary WebSocket frame, and the {@code x-encoding: cbor} header.
+     *
+     * @return Mutable headers to pass to {@code SimpMessagingTemplate.convertAndSend}.
+     */
+    public static MessageHeaders createHeaders() {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        headers.setNativeHeader(ENCODING_HEADER, CBOR_ENCODING);
+        headers.setLeaveMutable(true);
+        return headers.getMessageHeaders();
+    }
+
+    /**
+     * Converts only payloads whose headers ask for the CBOR encoding.
+     *
+     * @param payload The payload to convert.
+     * @param headers The headers of the message to create.
+     * @return {@code true} if the payload can be converted and the CBOR encoding was requested.
+     */
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        return isCbor(headers) && super.canConvertTo(payload, headers);
+    }
+
+    /**
+     * Converts only messages marked as CBOR-encoded.
+     *
+     * @param message The message to convert.
+     * @param targetClass The class to convert to.
+     * @return {@code true} if the message is CBOR-encoded and can be converted.
+     */
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        return isCbor(message.getHeaders()) && super.canConvertFrom(message, targetClass);
+    }
+
+    /**
+     * Helper method to check whether headers carry {@code x-encoding: cbor}.
+     *
+     * @param headers The message headers, or {@code null}.
+     * @return {@code true} if the CBOR encoding is named.
+     */
+    private static boolean isCbor(Map<String, Object> headers) {
+        return headers != null && CBOR_ENCODING.equals(NativeMessageHeaderAccessor.getFirstNativeHeader(ENCODING_HEADER, headers));
+    }
+
+    /**
+     * Creates the CBOR object mapper with the compact schema of the realtime DTOs.
+     *
+     * @return The configured CBOR mapper.
+     */
+    static CBORMapper createObjectMapper() {
+        CBORMapper mapper = CBORMapper.builder()
+                .addMixIn(WebSocketMessage.class, WebSocketMessageSchema.class)
+                .addMixIn(OccupancyUpdateDto.class, OccupancyUpdateSchema.class)
+                .addMixIn(SlotStatusUpdateDto.class, SlotStatusUpdateSchema.class)
+                .addMixIn(SlotStatusBatchDto.class, SlotStatusBatchSchema.class)
+                .build();
+        mapper.configOverride(SlotStatus.class).setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.NUMBER));
+        mapper.findAndRegisterModules();
+        return mapper;
+    }
+
+    /** Encodes a message as {@code [type, payload]}. */
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"type", "payload"})
+    private abstract static class WebSocketMessageSchema {
+    }
+
+    /** Encodes an occupancy update as {@code [lotId, occupied, available, percentage, reserved, sequence]}. */
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"parkingLotId", "occupiedSlots", "availableSlots", "occupancyPercentage", "reservedSlots", "sequence"})
+    private abstract static class OccupancyUpdateSchema {
+    }
+
+    /** Encodes a slot change as {@code [lotId, slotId, number, previousStatus, newStatus, sequence]}. */
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"parkingLotId", "slotId", "parkingSlotNumber", "previousStatus", "newStatus", "sequence"})
+    private abstract static class SlotStatusUpdateSchema {
+    }
+
+    /** Encodes a batch of slot changes as {@code [lotId, fromSequence, toSequence, changes]}. */
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"parkingLotId", "fromSequence", "toSequence", "changes"})
+    private abstract static class SlotStatusBatchSchema {
+    }
+}
@@ -6,6 +6,7 @@ import com.fincons.parkingsystem.dto.VehicleEnteredEvent;
 import com.fincons.parkingsystem.dto.VehicleExitedEvent;
 import com.fincons.parkingsystem.utils.ResourceFileUtil;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,16 +15,32 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import jakarta.annotation.PostConstruct;
+
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Configuration class for setting up Apache Kafka producers and consumers.
  * This class defines the necessary beans for serialization, deserialization, and factory configurations.
+ * <p>
+ * Consumers come in two roles. Work-sharing consumers use the shared group
+ * ({@code parking.kafka.shared-group-id}), so each event is handled by one instance; this is for
+ * anything that changes shared state. Broadcast consumers feed node-local state (WebSocket sessions
+ * and in-memory dashboards), so with {@code parking.kafka.broadcast.group-mode=per-instance} each
+ * instance joins its own group, starts from the latest offset and never commits, and every instance
+ * sees every event. All current listeners are broadcast consumers.
+ * <p>
+ * With the STOMP broker relay ({@code parking.websocket.broker.mode=relay}), broadcast consumers must
+ * stay per instance, or the in-memory state of all but one instance would miss events. Instead, every
+ * instance also joins the relay group ({@code parking.kafka.relay-group-id}), whose partition assignment
+ * decides which instance relays each message (see {@link com.fincons.parkingsystem.service.impl.RelayOwnershipServiceImpl}).
  */
 @EnableKafka
 @Configuration
@@ -55,6 +72,36 @@ public class KafkaConfig {
     @Value("${spring.kafka.properties.ssl.keystore.type}")
     private String keystoreType;
 
+    @Value("${parking.kafka.shared-group-id:group_id}")
+    private String sharedGroupId;
+
+    @Value("${parking.kafka.broadcast.group-mode:per-instance}")
+    private String broadcastGroupMode;
+
+    @Value("${parking.instance-id:${random.uuid}}")
+    private String instanceId;
+
+    @Value("${parking.kafka.relay-group-id:parking-relay}")
+    private String relayGroupId;
+
+    @Value("${parking.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    /**
+     * Rejects shared broadcast groups with the STOMP broker relay: each event would then reach the
+     * in-memory state of a single instance, while the relay group already keeps messages from being
+     * sent once per instance.
+     *
+     * @throws IllegalStateException if the broker relay is combined with shared broadcast groups.
+     */
+    @PostConstruct
+    void validateBroadcastGroupMode() {
+        if ("relay".equalsIgnoreCase(brokerMode) && !isPerInstanceBroadcast()) {
+            throw new IllegalStateException("parking.kafka.broadcast.group-mode=shared cannot be used with "
+                    + "parking.websocket.broker.mode=relay: use per-instance, messages are relayed once by the relay group");
+        }
+    }
+
 
 
     /**
@@ -103,7 +150,7 @@ public class KafkaConfig {
         deserializer.addTrustedPackages("com.fincons.parkingsystem.dto");
         deserializer.setUseTypeHeaders(false);
 
-        Map<String, Object> props = getConsumerProps();
+        Map<String, Object> props = getBroadcastConsumerProps();
         return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ErrorHandlingDeserializer<>(deserializer));
     }
 
@@ -117,6 +164,7 @@ public class KafkaConfig {
     public ConcurrentKafkaListenerContainerFactory<String, VehicleEnteredEvent> vehicleEnteredKafkaListenerFactory(ConsumerFactory<String, VehicleEnteredEvent> consumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, VehicleEnteredEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
+        configureBroadcastContainer(factory);
         return factory;
     }
 
@@ -131,7 +179,7 @@ public class KafkaConfig {
         deserializer.addTrustedPackages("com.fincons.parkingsystem.dto");
         deserializer.setUseTypeHeaders(false);
 
-        Map<String, Object> props = getConsumerProps();
+        Map<String, Object> props = getBroadcastConsumerProps();
         return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ErrorHandlingDeserializer<>(deserializer));
     }
 
@@ -144,6 +192,7 @@ public class KafkaConfig {
     public ConcurrentKafkaListenerContainerFactory<String, VehicleExitedEvent> vehicleExitedKafkaListenerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, VehicleExitedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(vehicleExitConsumerFactory());
+        configureBroadcastContainer(factory);
         return factory;
     }
 
@@ -158,7 +207,7 @@ public class KafkaConfig {
         deserializer.addTrustedPackages("com.fincons.parkingsystem.dto");
         deserializer.setUseTypeHeaders(false);
 
-        Map<String, Object> props = getConsumerProps();
+        Map<String, Object> props = getBroadcastConsumerProps();
         return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ErrorHandlingDeserializer<>(deserializer));
     }
 
@@ -171,6 +220,7 @@ public class KafkaConfig {
     public ConcurrentKafkaListenerContainerFactory<String, SlotStatusUpdateDto> slotUpdateKafkaListenerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, SlotStatusUpdateDto> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(slotUpdateConsumerFactory());
+        configureBroadcastContainer(factory);
         return factory;
     }
     @Bean
@@ -179,7 +229,7 @@ public class KafkaConfig {
         deserializer.addTrustedPackages("com.fincons.parkingsystem.dto");
         deserializer.setUseTypeHeaders(false);
 
-        Map<String, Object> props = getConsumerProps();
+        Map<String, Object> props = getBroadcastConsumerProps();
         return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ErrorHandlingDeserializer<>(deserializer));
     }
 
@@ -192,18 +242,95 @@ public class KafkaConfig {
     public ConcurrentKafkaListenerContainerFactory<String, ReservationUpdate> reservationUpdateKafkaListenerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, ReservationUpdate> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(reservationUpdateConsumerFactory());
+        configureBroadcastContainer(factory);
+        return factory;
+    }
+    /**
+     * Configures the consumer factory of the relay group, which only tracks partition assignments
+     * and never deserializes the records it receives.
+     *
+     * @return A configured ConsumerFactory for raw slot updates.
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> relayOwnershipConsumerFactory() {
+        Map<String, Object> props = getConsumerProps(relayGroupId, "latest");
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    /**
+     * Creates a listener container factory for the relay group, which reports partition assignments
+     * to the given rebalance listener.
+     *
+     * @param relayOwnershipListener The listener tracking the partitions this instance relays.
+     * @return A configured ConcurrentKafkaListenerContainerFactory.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> relayOwnershipKafkaListenerFactory(ConsumerAwareRebalanceListener relayOwnershipListener) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(relayOwnershipConsumerFactory());
+        factory.getContainerProperties().setConsumerRebalanceListener(relayOwnershipListener);
         return factory;
     }
+
+    /**
+     * Whether broadcast consumers join a group of their own on every instance.
+     *
+     * @return {@code true} for per-instance broadcast groups, {@code false} to share the work-sharing group.
+     */
+    private boolean isPerInstanceBroadcast() {
+        return !"shared".equalsIgnoreCase(broadcastGroupMode);
+    }
+
+    /**
+     * Helper method to create the properties of broadcast consumers.
+     * In per-instance mode, the group ID is unique to this instance, consumption starts from the latest
+     * offset, and offsets are never committed: a restarted instance only needs events from then on.
+     *
+     * @return A map of consumer properties.
+     */
+    private Map<String, Object> getBroadcastConsumerProps() {
+        if (!isPerInstanceBroadcast()) {
+            return getSharedConsumerProps();
+        }
+        Map<String, Object> props = getConsumerProps("parking-broadcast-" + instanceId, "latest");
+        props.put("enable.auto.commit", false);
+        return props;
+    }
+
+    /**
+     * Helper method to create the properties of work-sharing consumers, which share one group
+     * across all instances and resume from their committed offsets.
+     *
+     * @return A map of consumer properties.
+     */
+    private Map<String, Object> getSharedConsumerProps() {
+        return getConsumerProps(sharedGroupId, "earliest");
+    }
+
+    /**
+     * Stops a broadcast listener container from committing offsets when groups are per instance.
+     * Listeners never acknowledge, so with manual acknowledgment nothing is committed.
+     *
+     * @param factory The listener container factory of a broadcast consumer.
+     */
+    private void configureBroadcastContainer(ConcurrentKafkaListenerContainerFactory<String, ?> factory) {
+        if (isPerInstanceBroadcast()) {
+            factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        }
+    }
+
     /**
      * Helper method to create a map of common consumer properties.
      *
+     * @param groupId The consumer group ID.
+     * @param autoOffsetReset Where to start when the group has no committed offset.
      * @return A map of consumer properties.
      */
-    private Map<String, Object> getConsumerProps() {
+    private Map<String, Object> getConsumerProps(String groupId, String autoOffsetReset) {
         Map<String, Object> props = new HashMap<>();
         props.put("bootstrap.servers", bootstrapServers);
-        props.put("group.id", "group_id");
-        props.put("auto.offset.reset", "earliest");
+        props.put("group.id", groupId);
+        props.put("auto.offset.reset", autoOffsetReset);
 
         // SSL Configuration
         props.put("security.protocol", securityProtocol);
@@ -1,19 +1,53 @@
 package com.fincons.parkingsystem.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+
 /**
  * Configuration class for setting up WebSocket and STOMP messaging.
  * This class enables the message broker and registers the necessary endpoints.
+ * With {@code parking.websocket.broker.mode=relay}, "/topic" messages are relayed through an external
+ * STOMP broker (e.g. ActiveMQ) instead of the in-memory broker, so a message sent by any instance
+ * reaches the clients connected to every instance.
  */
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${parking.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${parking.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${parking.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${parking.websocket.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${parking.websocket.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${parking.websocket.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${parking.websocket.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    @Value("${parking.websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
     /**
      * Configures the message broker, which is responsible for routing messages
      * from one client to another.
@@ -22,14 +56,45 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enables a simple in-memory message broker to carry messages back to the client
-        // on destinations prefixed with "/topic".
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // Relays messages on destinations prefixed with "/topic" through an external STOMP broker,
+            // which fans them out to the subscribers of every instance.
+            log.info("Using STOMP broker relay at {}:{}", relayHost, relayPort);
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayClientLogin)
+                    .setClientPasscode(relayClientPasscode)
+                    .setSystemLogin(relaySystemLogin)
+                    .setSystemPasscode(relaySystemPasscode);
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else if ("simple".equalsIgnoreCase(brokerMode)) {
+            // Enables a simple in-memory message broker to carry messages back to the client
+            // on destinations prefixed with "/topic".
+            config.enableSimpleBroker("/topic");
+        } else {
+            throw new IllegalStateException("Unknown parking.websocket.broker.mode: " + brokerMode + " (expected simple or relay)");
+        }
         // Designates the "/app" prefix for messages that are bound for @MessageMapping-annotated
         // methods in controller classes.
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    /**
+     * Adds the CBOR converter in front of the default converters. It only handles messages sent with
+     * the {@code x-encoding: cbor} header, so all other messages are still encoded as JSON.
+     *
+     * @param messageConverters The converters to add to.
+     * @return {@code true} to keep the default converters.
+     */
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new CborMessageConverter());
+        return true;
+    }
+
     /**
      * Registers the STOMP endpoints, mapping each endpoint to a specific URL and
      * enabling CORS for allowed origins.
@@ -0,0 +1,104 @@
+package com.fincons.parkingsystem.controller;
+
+import com.fincons.parkingsystem.dto.OccupancyHistoryDto;
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
+import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.service.ParkingLotDashboardService;
+import com.fincons.parkingsystem.utils.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST controller for reading the in-memory dashboard state of parking lots.
+ * Responses are served from the occupancy snapshots without querying the database and carry a
+ * strong ETag derived from the snapshot version, so a poll with a matching {@code If-None-Match}
+ * header gets a 304 (Not Modified) without a body.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final ParkingLotDashboardService parkingLotDashboardService;
+
+    /**
+     * Handles the HTTP GET request to retrieve the occupancy of all parking lots.
+     * The ETag changes whenever the occupancy of any lot changes.
+     *
+     * @param request The current request, used to evaluate {@code If-None-Match}.
+     * @return A {@link ResponseEntity} containing the {@link OccupancyUpdateDto} of every lot, or
+     *         {@code null} once a 304 (Not Modified) response has been prepared.
+     */
+    @GetMapping("/lots")
+    public ResponseEntity<Response<List<OccupancyUpdateDto>>> getAllLots(WebRequest request) {
+        // The version is read before the snapshots, so an ETag never labels newer content than it covers.
+        String etag = etag(parkingLotDashboardService.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<OccupancyUpdateDto> occupancies = parkingLotDashboardService.getAllOccupancies();
+        Response<List<OccupancyUpdateDto>> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), occupancies, "Dashboard state fetched successfully.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(response);
+    }
+
+    /**
+     * Handles the HTTP GET request to retrieve the occupancy of a parking lot.
+     * The ETag is the lot's snapshot sequence, which increases with every change of the lot.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @param request The current request, used to evaluate {@code If-None-Match}.
+     * @return A {@link ResponseEntity} containing the lot's {@link OccupancyUpdateDto}, or
+     *         {@code null} once a 304 (Not Modified) response has been prepared.
+     */
+    @GetMapping("/lots/{id}")
+    public ResponseEntity<Response<OccupancyUpdateDto>> getLot(@PathVariable Long id, WebRequest request) {
+        OccupancyUpdateDto occupancy = parkingLotDashboardService.getOccupancy(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No dashboard state for parking lot with id: " + id));
+        String etag = etag(occupancy.getSequence());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Response<OccupancyUpdateDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), occupancy, "Dashboard state fetched successfully.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(response);
+    }
+
+    /**
+     * Handles the HTTP GET request to retrieve the recent occupancy of a parking lot, one sample per minute.
+     * The samples are kept in memory, so this endpoint does not query the database.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @param minutes The number of most recent minutes to return; defaults to the last 24 hours.
+     * @return A {@link ResponseEntity} containing the lot's {@link OccupancyHistoryDto}.
+     */
+    @GetMapping("/lots/{id}/history")
+    public ResponseEntity<Response<OccupancyHistoryDto>> getLotHistory(@PathVariable Long id,
+                                                                       @RequestParam(defaultValue = "1440") int minutes) {
+        OccupancyHistoryDto history = parkingLotDashboardService.getOccupancyHistory(id, minutes)
+                .orElseThrow(() -> new ResourceNotFoundException("No dashboard state for parking lot with id: " + id));
+        Response<OccupancyHistoryDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), history, "Occupancy history fetched successfully.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Helper method to build a strong ETag from a version of the dashboard state.
+     * The epoch is included because versions restart with the application.
+     *
+     * @param version The version or snapshot sequence.
+     * @return The quoted ETag.
+     */
+    private String etag(long version) {
+        return "\"" + parkingLotDashboardService.getEpoch() + "-" + version + "\"";
+    }
+}
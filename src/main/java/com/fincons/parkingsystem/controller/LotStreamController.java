@@ -0,0 +1,39 @@
+package com.fincons.parkingsystem.controller;
+
+import com.fincons.parkingsystem.service.LotStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller for Server-Sent Events streams.
+ * It serves clients that cannot use STOMP over WebSocket, such as digital signage, with the same
+ * occupancy and slot updates as the WebSocket dashboard over one long-lived HTTP response.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+public class LotStreamController {
+
+    private final LotStreamService lotStreamService;
+
+    /**
+     * Handles the HTTP GET request to open the event stream of a parking lot.
+     * The stream starts with a {@code slot-map} and an {@code occupancy} event, then carries
+     * {@code slot-deltas} and {@code occupancy} events as the lot changes. A reconnecting client
+     * that sends {@code Last-Event-ID} only receives the slot changes it missed.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @param lastEventId The ID of the last slot event the client received, if it is reconnecting.
+     * @return An {@link SseEmitter} streaming the lot's events.
+     */
+    @GetMapping(value = "/lots/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLot(@PathVariable Long id,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Received request to stream parking lot with ID: {}", id);
+        return lotStreamService.subscribe(id, lastEventId);
+    }
+}
@@ -0,0 +1,69 @@
+package com.fincons.parkingsystem.controller;
+
+import com.fincons.parkingsystem.dto.OccupancyAlertRuleDto;
+import com.fincons.parkingsystem.service.OccupancyAlertService;
+import com.fincons.parkingsystem.utils.Response;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+
+/**
+ * REST controller for managing the high occupancy alert rule of a parking lot.
+ * A lot without a rule of its own uses the configured default thresholds.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/parking-lots")
+@RequiredArgsConstructor
+public class OccupancyAlertRuleController {
+
+    private final OccupancyAlertService occupancyAlertService;
+
+    /**
+     * Handles the HTTP GET request to retrieve the alert rule in effect for a parking lot.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @return A {@link ResponseEntity} containing the effective {@link OccupancyAlertRuleDto} and the lot's alert state.
+     */
+    @GetMapping("/{id}/alert-rule")
+    public ResponseEntity<Response<OccupancyAlertRuleDto>> getAlertRule(@PathVariable Long id) {
+        log.info("Received request for the alert rule of parking lot with ID: {}", id);
+        OccupancyAlertRuleDto rule = occupancyAlertService.getRule(id);
+        Response<OccupancyAlertRuleDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), rule, "Alert rule fetched successfully.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Handles the HTTP PUT request to create or replace the alert rule of a parking lot.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @param ruleDto The thresholds and minimum re-alert interval of the rule.
+     * @return A {@link ResponseEntity} containing the saved {@link OccupancyAlertRuleDto}.
+     */
+    @PutMapping("/{id}/alert-rule")
+    public ResponseEntity<Response<OccupancyAlertRuleDto>> updateAlertRule(@PathVariable Long id, @Valid @RequestBody OccupancyAlertRuleDto ruleDto) {
+        log.info("Received request to update the alert rule of parking lot with ID: {}", id);
+        OccupancyAlertRuleDto rule = occupancyAlertService.updateRule(id, ruleDto);
+        Response<OccupancyAlertRuleDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), rule, "Alert rule updated successfully.", true, HttpStatus.OK.value());
+        log.info("Successfully updated the alert rule of parking lot with ID: {}", id);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Handles the HTTP DELETE request to remove the alert rule of a parking lot, restoring the default rule.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @return A {@link ResponseEntity} containing the default {@link OccupancyAlertRuleDto} now in effect.
+     */
+    @DeleteMapping("/{id}/alert-rule")
+    public ResponseEntity<Response<OccupancyAlertRuleDto>> deleteAlertRule(@PathVariable Long id) {
+        log.info("Received request to delete the alert rule of parking lot with ID: {}", id);
+        OccupancyAlertRuleDto rule = occupancyAlertService.deleteRule(id);
+        Response<OccupancyAlertRuleDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), rule, "Alert rule deleted successfully.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+}
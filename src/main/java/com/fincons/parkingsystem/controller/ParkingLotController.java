@@ -1,5 +1,6 @@
 package com.fincons.parkingsystem.controller;
 
+import com.fincons.parkingsystem.dto.CursorPage;
 import com.fincons.parkingsystem.dto.ParkingLotDto;
 import com.fincons.parkingsystem.service.ParkingLotService;
 import com.fincons.parkingsystem.utils.Response;
@@ -59,6 +60,23 @@ public class ParkingLotController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Handles the HTTP GET request to retrieve all parking lots, including deactivated ones, with keyset pagination.
+     * Selected when a {@code limit} parameter is present; the cost of a page does not depend on its depth.
+     *
+     * @param after The opaque cursor returned with the previous page; omit it for the first page.
+     * @param limit The maximum number of parking lots to return.
+     * @return A {@link ResponseEntity} containing a {@link CursorPage} of {@link ParkingLotDto} objects.
+     */
+    @GetMapping(value = "/with-inactive", params = "limit")
+    public ResponseEntity<Response<CursorPage<ParkingLotDto>>> getAllParkingLotsWithInactiveStatus(@RequestParam(required = false) String after,
+                                                                                                 @RequestParam int limit) {
+        log.info("Received request to retrieve all parking lots, including inactive ones, after cursor {}", after);
+        CursorPage<ParkingLotDto> parkingLotDtos = parkingLotService.getAllParkingLotsDeleted(after, limit);
+        Response<CursorPage<ParkingLotDto>> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), parkingLotDtos, "All parking lots, including inactive, fetched successfully.", true, HttpStatus.OK.value());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     /**
      * Handles the HTTP GET request to retrieve a non-paginated list of all active (non-deleted) parking lots.
      * This is useful for populating UI elements like dropdowns where all options are needed at once.
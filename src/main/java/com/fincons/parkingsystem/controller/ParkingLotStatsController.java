@@ -1,21 +1,31 @@
 package com.fincons.parkingsystem.controller;
 
+import com.fincons.parkingsystem.dto.ParkingLotStatsBucketDto;
 import com.fincons.parkingsystem.dto.ParkingLotStatsDto;
+import com.fincons.parkingsystem.entity.StatsGranularity;
 import com.fincons.parkingsystem.service.ParkingLotStatsService;
+import com.fincons.parkingsystem.service.StatsRollupService;
 import com.fincons.parkingsystem.utils.Response;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
 import java.time.Instant;
+import java.util.List;
 
 /**
  * REST controller for retrieving statistical data related to parking lots.
- * This controller provides an endpoint for monitoring the performance and status of a specific lot.
+ * This controller provides endpoints for monitoring the performance and status of one or many lots.
  */
 @Slf4j
 @RestController
@@ -23,7 +33,58 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class ParkingLotStatsController
 {
+    // Number of lots whose statistics are computed with one set of grouped queries and written at once.
+    private static final int STATS_BATCH_SIZE = 500;
+
     private final ParkingLotStatsService parkingLotStatsService;
+    private final StatsRollupService statsRollupService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Handles the HTTP GET request to retrieve the statistics of several parking lots in one round trip.
+     * Without {@code ids}, the statistics of all lots, including inactive ones, are returned.
+     * Lots are processed in batches with a constant number of grouped queries each, and every batch is
+     * written to the response as soon as it is computed, so the response is streamed as JSON.
+     *
+     * @param ids The unique identifiers of the parking lots; unknown IDs are skipped.
+     * @return A {@link ResponseEntity} streaming a response whose data is the list of {@link ParkingLotStatsDto}s, ordered by ID.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StreamingResponseBody> getStatsBatch(@RequestParam(required = false) List<Long> ids)
+    {
+        log.info("Received request for statistics of parking lots: {}", ids == null ? "all" : ids);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                // Same layout as a serialized Response, with the data array written batch by batch.
+                generator.writeStartObject();
+                generator.writeObjectField("time", Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant());
+                generator.writeArrayFieldStart("data");
+                if (ids == null) {
+                    long after = 0;
+                    List<ParkingLotStatsDto> batch;
+                    do {
+                        batch = parkingLotStatsService.getParkingLotStatsAfter(after, STATS_BATCH_SIZE);
+                        writeBatch(generator, batch);
+                        if (!batch.isEmpty()) {
+                            after = batch.get(batch.size() - 1).getParkingLotId();
+                        }
+                    } while (batch.size() == STATS_BATCH_SIZE);
+                } else {
+                    List<Long> distinctIds = ids.stream().distinct().sorted().toList();
+                    for (int from = 0; from < distinctIds.size(); from += STATS_BATCH_SIZE) {
+                        List<Long> batchIds = distinctIds.subList(from, Math.min(from + STATS_BATCH_SIZE, distinctIds.size()));
+                        writeBatch(generator, parkingLotStatsService.getParkingLotStats(batchIds));
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeStringField("message", "Parking Lot Statistics Fetched");
+                generator.writeBooleanField("success", true);
+                generator.writeNumberField("statucCode", HttpStatus.OK.value());
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 
     /**
      * Handles the HTTP GET request to retrieve statistics for a specific parking lot.
@@ -42,4 +103,40 @@ public class ParkingLotStatsController
         log.info("Successfully retrieved statistics for parking lot with ID: {}", id);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Handles the HTTP GET request to retrieve the hourly or daily statistics of a parking lot over a time range.
+     * The statistics are read from pre-aggregated buckets, so a month-long trend reads a few hundred rows.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @param from The start of the range, as an ISO-8601 instant.
+     * @param to The exclusive end of the range, as an ISO-8601 instant.
+     * @param granularity The length of the buckets, {@code HOURLY} or {@code DAILY}.
+     * @return A {@link ResponseEntity} containing the lot's {@link ParkingLotStatsBucketDto} objects, oldest first.
+     */
+    @GetMapping("/{id}/stats/history")
+    public ResponseEntity<Response<List<ParkingLotStatsBucketDto>>> getStatsHistory(@PathVariable Long id,
+                                                                                  @RequestParam Instant from,
+                                                                                  @RequestParam Instant to,
+                                                                                  @RequestParam(defaultValue = "HOURLY") StatsGranularity granularity)
+    {
+        log.info("Received request for {} statistics of parking lot with ID {} from {} to {}", granularity, id, from, to);
+        List<ParkingLotStatsBucketDto> history = statsRollupService.getHistory(id, from, to, granularity);
+        Response<List<ParkingLotStatsBucketDto>> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), history, "Parking Lot Statistics History Fetched", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Helper method to write a batch of statistics to the streamed response and flush it to the client.
+     *
+     * @param generator The generator writing the response.
+     * @param batch The statistics of the batch.
+     * @throws IOException if the response cannot be written.
+     */
+    private void writeBatch(JsonGenerator generator, List<ParkingLotStatsDto> batch) throws IOException {
+        for (ParkingLotStatsDto stats : batch) {
+            generator.writeObject(stats);
+        }
+        generator.flush();
+    }
 }
@@ -1,23 +1,31 @@
 package com.fincons.parkingsystem.controller;
 
+import com.fincons.parkingsystem.dto.CursorPage;
 import com.fincons.parkingsystem.dto.ParkingSessionDto;
+import com.fincons.parkingsystem.dto.SessionExportFormat;
+import com.fincons.parkingsystem.exception.BadRequestException;
 import com.fincons.parkingsystem.service.ParkingSessionService;
 import com.fincons.parkingsystem.utils.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.Instant;
 
 /**
  * REST controller for retrieving information about parking sessions.
  * This controller provides endpoints for viewing active and historical session data,
- * with support for pagination.
+ * with support for pagination, and for exporting the session history.
  */
 @Slf4j
 @RestController
@@ -55,4 +63,65 @@ public class ParkingSessionController {
         Response<Page<ParkingSessionDto>> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), sessionHistory, "Successfully retrieved session history.", true, HttpStatus.OK.value());
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Handles the HTTP GET request to retrieve currently active parking sessions with keyset pagination, newest first.
+     * Selected when a {@code limit} parameter is present; the cost of a page does not depend on its depth.
+     *
+     * @param after The opaque cursor returned with the previous page; omit it for the first page.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link ResponseEntity} containing a {@link CursorPage} of active {@link ParkingSessionDto} objects.
+     */
+    @GetMapping(value = "/active", params = "limit")
+    public ResponseEntity<Response<CursorPage<ParkingSessionDto>>> getActiveSessions(@RequestParam(required = false) String after,
+                                                                                    @RequestParam int limit) {
+        log.info("Received request to retrieve active parking sessions after cursor {}", after);
+        CursorPage<ParkingSessionDto> activeSessions = parkingSessionService.getActiveSessions(after, limit);
+        Response<CursorPage<ParkingSessionDto>> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), activeSessions, "Successfully retrieved all active sessions.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Handles the HTTP GET request to retrieve the parking session history with keyset pagination, newest first.
+     * Selected when a {@code limit} parameter is present; the cost of a page does not depend on its depth.
+     *
+     * @param after The opaque cursor returned with the previous page; omit it for the first page.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link ResponseEntity} containing a {@link CursorPage} of {@link ParkingSessionDto} objects.
+     */
+    @GetMapping(value = "/history", params = "limit")
+    public ResponseEntity<Response<CursorPage<ParkingSessionDto>>> getSessionHistory(@RequestParam(required = false) String after,
+                                                                                    @RequestParam int limit) {
+        log.info("Received request to retrieve parking session history after cursor {}", after);
+        CursorPage<ParkingSessionDto> sessionHistory = parkingSessionService.getSessionHistory(after, limit);
+        Response<CursorPage<ParkingSessionDto>> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), sessionHistory, "Successfully retrieved session history.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Handles the HTTP GET request to export the parking session history as NDJSON or CSV, ordered by session ID.
+     * The export is streamed from a database cursor as it is read, so it can span any time range without
+     * paging, and each row carries its lot name and slot number.
+     *
+     * @param format The format of the export, {@code NDJSON} (default) or {@code CSV}.
+     * @param from The inclusive start of the entry time range; omit it for no lower bound.
+     * @param to The exclusive end of the entry time range; omit it for no upper bound.
+     * @return A {@link ResponseEntity} streaming the exported sessions as a file attachment.
+     * @throws BadRequestException if {@code from} is not before {@code to}.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSessions(@RequestParam(defaultValue = "NDJSON") SessionExportFormat format,
+                                                                @RequestParam(required = false) Instant from,
+                                                                @RequestParam(required = false) Instant to) {
+        log.info("Received request to export parking sessions as {} from {} to {}", format, from, to);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("The start of the time range must be before its end.");
+        }
+        StreamingResponseBody body = outputStream -> parkingSessionService.exportSessions(format, from, to, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("sessions." + format.getExtension()).build().toString())
+                .body(body);
+    }
 }
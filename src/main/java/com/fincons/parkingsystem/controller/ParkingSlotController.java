@@ -1,6 +1,10 @@
 package com.fincons.parkingsystem.controller;
 import com.fincons.parkingsystem.dto.ParkingSlotDto;
+import com.fincons.parkingsystem.dto.SlotDeltasDto;
+import com.fincons.parkingsystem.dto.SlotMapSnapshotDto;
+import com.fincons.parkingsystem.dto.SlotStatusBitmapDto;
 import com.fincons.parkingsystem.service.ParkingSlotService;
+import com.fincons.parkingsystem.service.SlotMapService;
 import com.fincons.parkingsystem.utils.Response;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.Instant;
@@ -23,6 +28,7 @@ import java.time.Instant;
 public class    ParkingSlotController {
 
     private final ParkingSlotService parkingSlotService;
+    private final SlotMapService slotMapService;
 
     /**
      * Handles the HTTP GET request to retrieve a paginated list of parking slots for a given parking lot.
@@ -40,6 +46,75 @@ public class    ParkingSlotController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Handles the HTTP GET request to retrieve a compact snapshot of every slot in a parking lot.
+     * The snapshot carries the sequence number of the last slot change it reflects; later changes
+     * arrive on {@code /topic/slots/{parkingLotId}} or from the deltas endpoint.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A {@link ResponseEntity} containing the {@link SlotMapSnapshotDto}.
+     */
+    @GetMapping("/by-lot/{parkingLotId}/map")
+    public ResponseEntity<Response<SlotMapSnapshotDto>> getSlotMapSnapshot(@PathVariable Long parkingLotId) {
+        log.info("Received request to get the slot map of parking lot ID: {}", parkingLotId);
+        SlotMapSnapshotDto snapshot = slotMapService.getSnapshot(parkingLotId);
+        Response<SlotMapSnapshotDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), snapshot, "Slot map fetched successfully", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Handles the HTTP GET request to retrieve the statuses of every slot in a parking lot as a bitmap
+     * of 2 bits per slot, ordered by slot number. The packed statuses are base64-encoded in the JSON body.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A {@link ResponseEntity} containing the {@link SlotStatusBitmapDto}.
+     */
+    @GetMapping(value = "/by-lot/{parkingLotId}/map/bitmap", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response<SlotStatusBitmapDto>> getSlotStatusBitmap(@PathVariable Long parkingLotId) {
+        log.info("Received request to get the slot status bitmap of parking lot ID: {}", parkingLotId);
+        SlotStatusBitmapDto bitmap = slotMapService.getStatusBitmap(parkingLotId);
+        Response<SlotStatusBitmapDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), bitmap, "Slot status bitmap fetched successfully", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Handles the HTTP GET request to retrieve the slot status bitmap of a parking lot as raw bytes,
+     * for clients that send {@code Accept: application/octet-stream}. The slot count, epoch and sequence
+     * number are returned in the {@code X-Slot-Count}, {@code X-Slot-Map-Epoch} and {@code X-Slot-Map-Sequence} headers.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A {@link ResponseEntity} containing the packed statuses.
+     */
+    @GetMapping(value = "/by-lot/{parkingLotId}/map/bitmap", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getSlotStatusBitmapBinary(@PathVariable Long parkingLotId) {
+        log.info("Received request to get the binary slot status bitmap of parking lot ID: {}", parkingLotId);
+        SlotStatusBitmapDto bitmap = slotMapService.getStatusBitmap(parkingLotId);
+        return ResponseEntity.ok()
+                .header("X-Slot-Count", String.valueOf(bitmap.getSlotCount()))
+                .header("X-Slot-Map-Epoch", String.valueOf(bitmap.getEpoch()))
+                .header("X-Slot-Map-Sequence", String.valueOf(bitmap.getSequence()))
+                .body(bitmap.getStatuses());
+    }
+
+    /**
+     * Handles the HTTP GET request to retrieve the slot changes of a parking lot after a given sequence number.
+     * This lets a reconnecting client catch up without reloading the whole lot.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param epoch The epoch of the snapshot the client holds.
+     * @param since The sequence number of the last change the client has applied.
+     * @return A {@link ResponseEntity} containing the {@link SlotDeltasDto}; if {@code resyncRequired} is set, the client must reload the snapshot.
+     */
+    @GetMapping("/by-lot/{parkingLotId}/map/deltas")
+    public ResponseEntity<Response<SlotDeltasDto>> getSlotMapDeltas(@PathVariable Long parkingLotId,
+                                                                    @RequestParam long epoch,
+                                                                    @RequestParam long since) {
+        log.info("Received request to get slot changes of parking lot ID: {} since sequence {}", parkingLotId, since);
+        SlotDeltasDto deltas = slotMapService.getDeltasSince(parkingLotId, epoch, since);
+        Response<SlotDeltasDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), deltas, "Slot changes fetched successfully", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Handles the HTTP PATCH request to update the details of a specific parking slot.
      * This can be used for administrative purposes, such as manually changing a slot's status
@@ -1,5 +1,7 @@
 package com.fincons.parkingsystem.controller;
 
+import com.fincons.parkingsystem.dto.CursorPage;
+import com.fincons.parkingsystem.dto.ParkingSessionDto;
 import com.fincons.parkingsystem.dto.ReservationDto;
 import com.fincons.parkingsystem.dto.ReservationRequestDto;
 import com.fincons.parkingsystem.service.ReservationService;
@@ -74,6 +76,23 @@ public class ReservationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Handles the HTTP GET request to retrieve reservations with keyset pagination, newest first.
+     * Selected when a {@code limit} parameter is present; the cost of a page does not depend on its depth.
+     *
+     * @param after The opaque cursor returned with the previous page; omit it for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return A {@link ResponseEntity} containing a {@link CursorPage} of {@link ReservationDto} objects.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<Response<CursorPage<ReservationDto>>> getReservationStatus(@RequestParam(required = false) String after,
+                                                                                   @RequestParam int limit) {
+        log.info("Received request to retrieve reservation statuses after cursor {}", after);
+        CursorPage<ReservationDto> reservations = reservationService.getReservationStatus(after, limit);
+        Response<CursorPage<ReservationDto>> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), reservations, "Reservations retrieved successfully.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Handles the HTTP POST request to process the arrival of a vehicle with a reservation.
      * This endpoint transitions a reservation to an active parking session.
@@ -89,4 +108,22 @@ public class ReservationController {
         log.info("Successfully processed arrival for reservation with ID: {}", reservationId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Handles the HTTP POST request to process the arrival of a reserved vehicle by its number plate,
+     * so gates do not need to look up the reservation ID first.
+     *
+     * @param vehicleNumber The registration number of the arriving vehicle.
+     * @param parkingLotId Optional ID of the lot the gate belongs to; the reservation must be for this lot.
+     * @return A {@link ResponseEntity} containing the {@link ParkingSessionDto} of the started session.
+     */
+    @PostMapping("/arrival/by-vehicle/{vehicleNumber}")
+    public ResponseEntity<Response<ParkingSessionDto>> processArrivalByVehicle(@PathVariable String vehicleNumber,
+                                                                               @RequestParam(required = false) Long parkingLotId) {
+        log.info("Received request to process arrival for reserved vehicle: {}", vehicleNumber);
+        ParkingSessionDto session = reservationService.processArrivalByVehicle(vehicleNumber, parkingLotId);
+        Response<ParkingSessionDto> response = new Response<>(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), session, "Vehicle arrival processed successfully.", true, HttpStatus.OK.value());
+        log.info("Successfully processed arrival for reserved vehicle: {}", vehicleNumber);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,71 @@
+package com.fincons.parkingsystem.controller;
+
+import com.fincons.parkingsystem.dto.WaitlistEntryDto;
+import com.fincons.parkingsystem.dto.WaitlistRequestDto;
+import com.fincons.parkingsystem.service.WaitlistService;
+import com.fincons.parkingsystem.utils.Response;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST controller for the per-lot waitlist.
+ * Vehicles that find a lot full join its queue once and are notified on the reservation
+ * topic when a freed slot has been reserved for them.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    /**
+     * Handles the HTTP POST request to join the waitlist of a full parking lot.
+     *
+     * @param waitlistRequestDto A DTO containing the vehicle and parking lot details.
+     * @return A {@link ResponseEntity} with a status of 201 (Created) and a {@link Response} object
+     *         containing the new {@link WaitlistEntryDto}.
+     */
+    @PostMapping
+    public ResponseEntity<Response<WaitlistEntryDto>> joinWaitlist(@Valid @RequestBody WaitlistRequestDto waitlistRequestDto) {
+        log.info("Received request to add vehicle {} to the waitlist of parking lot {}", waitlistRequestDto.getVehicleNumber(), waitlistRequestDto.getParkingLotId());
+        WaitlistEntryDto entry = waitlistService.joinWaitlist(waitlistRequestDto);
+        Response<WaitlistEntryDto> response = new Response<>(Instant.now(), entry, "Vehicle added to the waitlist.", true, HttpStatus.CREATED.value());
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Handles the HTTP DELETE request to leave the waitlist.
+     *
+     * @param entryId The unique identifier of the waitlist entry.
+     * @return A {@link ResponseEntity} indicating the outcome of the operation.
+     */
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<Response<Void>> leaveWaitlist(@PathVariable Long entryId) {
+        log.info("Received request to remove waitlist entry with ID: {}", entryId);
+        waitlistService.leaveWaitlist(entryId);
+        Response<Void> response = new Response<>(Instant.now(), null, "Vehicle removed from the waitlist.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Handles the HTTP GET request to retrieve the waiting vehicles of a parking lot in queue order.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A {@link ResponseEntity} containing the list of waiting {@link WaitlistEntryDto} objects.
+     */
+    @GetMapping("/by-lot/{parkingLotId}")
+    public ResponseEntity<Response<List<WaitlistEntryDto>>> getWaitlist(@PathVariable Long parkingLotId) {
+        log.info("Received request to retrieve the waitlist of parking lot {}", parkingLotId);
+        List<WaitlistEntryDto> entries = waitlistService.getWaitlist(parkingLotId);
+        Response<List<WaitlistEntryDto>> response = new Response<>(Instant.now(), entries, "Waitlist retrieved successfully.", true, HttpStatus.OK.value());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,34 @@
+package com.fincons.parkingsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of results fetched with keyset (cursor) pagination.
+ * Unlike {@link org.springframework.data.domain.Page}, it carries no total count: the next page
+ * is requested with {@code nextCursor}, so fetching any page costs the same however deep it is.
+ *
+ * @param <T> the type of the items in the page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+
+    /** The items of this page. */
+    private List<T> content;
+
+    /** The opaque cursor to pass as {@code after} to fetch the next page; absent on the last page. */
+    private String nextCursor;
+
+    /** The maximum number of items requested for this page. */
+    private int limit;
+
+    /** Whether more items exist after this page. */
+    private boolean hasNext;
+}
@@ -6,7 +6,8 @@ import lombok.NoArgsConstructor;
 
 /**
  * Data Transfer Object for sending a high occupancy alert.
- * This event is triggered when a parking lot's occupancy exceeds a defined threshold.
+ * It is sent when a parking lot's occupancy reaches the enter threshold of its alert rule
+ * ({@code active} is true) and again when it drops below the exit threshold ({@code active} is false).
  */
 @Data
 @AllArgsConstructor
@@ -21,4 +22,10 @@ public class HighOccupancyAlertDto {
 
     /** The occupancy percentage that triggered the alert. */
     private double occupancyPercentage;
+
+    /** Whether the alert was raised ({@code true}) or cleared ({@code false}). */
+    private boolean active;
+
+    /** The threshold that was crossed: the enter threshold when raised, the exit threshold when cleared. */
+    private double threshold;
 }
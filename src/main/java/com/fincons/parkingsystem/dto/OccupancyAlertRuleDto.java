@@ -0,0 +1,48 @@
+package com.fincons.parkingsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the high occupancy alert rule of a parking lot and its current alert state.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OccupancyAlertRuleDto {
+
+    /** The identifier of the parking lot the rule applies to. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long parkingLotId;
+
+    /** The occupancy percentage at or above which an alert is raised. */
+    @NotNull(message = "Enter threshold cannot be null.")
+    @DecimalMin(value = "0.0", message = "Enter threshold must be between 0 and 100.")
+    @DecimalMax(value = "100.0", message = "Enter threshold must be between 0 and 100.")
+    private Double enterThreshold;
+
+    /** The occupancy percentage below which a raised alert is cleared; at most the enter threshold. */
+    @NotNull(message = "Exit threshold cannot be null.")
+    @DecimalMin(value = "0.0", message = "Exit threshold must be between 0 and 100.")
+    @DecimalMax(value = "100.0", message = "Exit threshold must be between 0 and 100.")
+    private Double exitThreshold;
+
+    /** The minimum number of seconds between two alerts raised for the lot. */
+    @NotNull(message = "Minimum re-alert interval cannot be null.")
+    @PositiveOrZero(message = "Minimum re-alert interval cannot be negative.")
+    private Long minRealertIntervalSeconds;
+
+    /** Whether the lot uses the configured default rule rather than a rule of its own. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean defaultRule;
+
+    /** Whether a high occupancy alert is currently raised for the lot. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean alertActive;
+}
@@ -0,0 +1,37 @@
+package com.fincons.parkingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the recent occupancy of a parking lot, sampled once per interval.
+ * The series are aligned: the n-th value of each describes the lot at {@code start + n * intervalSeconds}.
+ * A {@code null} value means no sample is known for that time, for example before the application started.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OccupancyHistoryDto {
+
+    /** The identifier of the parking lot. */
+    private Long parkingLotId;
+
+    /** The time of the first sample. */
+    private Instant start;
+
+    /** The number of seconds between two samples. */
+    private int intervalSeconds;
+
+    /** The number of occupied slots at each sample. */
+    private List<Integer> occupiedSlots;
+
+    /** The number of reserved slots at each sample; not known for samples rebuilt from sessions. */
+    private List<Integer> reservedSlots;
+
+    /** The number of available slots at each sample; not known for samples rebuilt from sessions. */
+    private List<Integer> availableSlots;
+}
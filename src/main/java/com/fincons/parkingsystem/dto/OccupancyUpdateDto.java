@@ -25,4 +25,14 @@ public class OccupancyUpdateDto {
 
     /** The calculated occupancy percentage. */
     private double occupancyPercentage;
+
+    /** The number of reserved slots, already included in {@code occupiedSlots}. */
+    private long reservedSlots;
+
+    /**
+     * The per-lot sequence number of this update. It grows by one with every change of the lot, so a
+     * client that sees a lower number than it already has can ignore the update. Updates are coalesced
+     * before broadcast, so numbers may skip. Sequences restart when the application restarts.
+     */
+    private long sequence;
 }
@@ -0,0 +1,36 @@
+package com.fincons.parkingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for the statistics of a parking lot over one hour or one day.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ParkingLotStatsBucketDto {
+
+    /** The start of the bucket, aligned to UTC. */
+    private Instant bucketStart;
+
+    /** The revenue of the sessions completed in the bucket. */
+    private double revenue;
+
+    /** The number of vehicles that entered in the bucket. */
+    private long entries;
+
+    /** The number of vehicles that exited in the bucket. */
+    private long exits;
+
+    /** The highest occupancy percentage observed in the bucket. */
+    private double peakOccupancy;
+
+    /** The average duration of the sessions completed in the bucket, in minutes. */
+    private double averageDwellMinutes;
+}
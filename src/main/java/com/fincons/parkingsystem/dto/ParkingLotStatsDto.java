@@ -44,6 +44,12 @@ public class ParkingLotStatsDto {
     /** The total revenue generated on the current day. */
     private Double revenueToday;
 
+    /** The number of completed parking sessions. */
+    private Long completedSessions;
+
+    /** The number of parking sessions completed on the current day. */
+    private Long sessionsToday;
+
     /** A flag indicating whether the parking lot has been soft-deleted. */
     private Boolean deleted;
 }
@@ -1,6 +1,7 @@
 package com.fincons.parkingsystem.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fincons.parkingsystem.entity.ReservationMode;
 import com.fincons.parkingsystem.entity.ReservationStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -39,6 +40,15 @@ public class ReservationDto {
     /** The timestamp when the reservation will expire if not claimed. */
     private Instant expirationTime;
 
+    /** The start of the booked time window. */
+    private Instant startTime;
+
+    /** The end (exclusive) of the booked time window. */
+    private Instant endTime;
+
     /** The current status of the reservation (e.g., ACTIVE, COMPLETED, CANCELLED). */
     private ReservationStatus status;
+
+    /** How the reservation holds space in the lot (SLOT or CAPACITY). */
+    private ReservationMode mode;
 }
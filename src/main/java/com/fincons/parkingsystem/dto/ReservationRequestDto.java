@@ -1,5 +1,6 @@
 package com.fincons.parkingsystem.dto;
 
+import com.fincons.parkingsystem.entity.ReservationMode;
 import com.fincons.parkingsystem.entity.VehicleType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,6 +8,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 /**
  * Data Transfer Object for handling incoming parking reservation requests.
  */
@@ -26,4 +29,30 @@ public class ReservationRequestDto {
     /** The unique identifier of the parking lot where the reservation is requested. */
     @NotNull(message = "Parking lot ID cannot be null.")
     private Long parkingLotId;
+
+    /**
+     * The start of a future booking window (e.g., Tuesday 09:00).
+     * When omitted, the reservation starts immediately and is held for the standard expiration period.
+     */
+    private Instant startTime;
+
+    /** The end (exclusive) of a future booking window. Required when {@code startTime} is set. */
+    private Instant endTime;
+
+    /**
+     * How the reservation holds space. Defaults to {@link ReservationMode#SLOT}.
+     * {@link ReservationMode#CAPACITY} cannot be combined with a booking window.
+     */
+    private ReservationMode mode;
+
+    /**
+     * Creates a request for an immediate reservation.
+     *
+     * @param vehicleNumber The registration number of the vehicle.
+     * @param vehicleType The type of the vehicle.
+     * @param parkingLotId The unique identifier of the parking lot.
+     */
+    public ReservationRequestDto(String vehicleNumber, VehicleType vehicleType, Long parkingLotId) {
+        this(vehicleNumber, vehicleType, parkingLotId, null, null, null);
+    }
 }
@@ -1,5 +1,6 @@
 package com.fincons.parkingsystem.dto;
 
+import com.fincons.parkingsystem.entity.ReservationMode;
 import com.fincons.parkingsystem.entity.ReservationStatus;
 import lombok.*;
 
@@ -22,6 +23,9 @@ public class ReservationUpdate {
         this.reservationTime=reservationDto.getReservationTime();
         this.expirationTime=reservationDto.getExpirationTime();
         this.status=reservationDto.getStatus();
+        this.startTime=reservationDto.getStartTime();
+        this.endTime=reservationDto.getEndTime();
+        this.mode=reservationDto.getMode();
 
     }
 
@@ -48,4 +52,16 @@ public class ReservationUpdate {
 
     /** The current status of the reservation (e.g., ACTIVE, COMPLETED, CANCELLED). */
     private ReservationStatus status;
+
+    /** The start of the booked time window. */
+    private Instant startTime;
+
+    /** The end (exclusive) of the booked time window. */
+    private Instant endTime;
+
+    /** How the reservation holds space in the lot (SLOT or CAPACITY). */
+    private ReservationMode mode;
+
+    /** The waitlist entry this reservation was handed to, when a freed slot was assigned from the waitlist. */
+    private Long waitlistEntryId;
 }
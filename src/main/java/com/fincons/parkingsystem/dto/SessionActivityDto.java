@@ -0,0 +1,27 @@
+package com.fincons.parkingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object summarizing the vehicle entries and exits of a parking lot during one flush window.
+ * It is broadcast on the aggregated operator stream instead of one message per vehicle.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionActivityDto {
+
+    /** The identifier of the parking lot. */
+    private Long parkingLotId;
+
+    /** The name of the parking lot. */
+    private String parkingLotName;
+
+    /** The number of vehicles that entered the lot during the window. */
+    private int entries;
+
+    /** The number of vehicles that exited the lot during the window. */
+    private int exits;
+}
@@ -0,0 +1,24 @@
+package com.fincons.parkingsystem.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The file formats in which the parking session history can be exported.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SessionExportFormat {
+
+    /** One JSON object per line. */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** Comma-separated values with a header row. */
+    CSV("text/csv", "csv");
+
+    /** The media type of the exported file. */
+    private final String mediaType;
+
+    /** The file name extension of the exported file. */
+    private final String extension;
+}
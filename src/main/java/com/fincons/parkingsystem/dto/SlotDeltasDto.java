@@ -0,0 +1,33 @@
+package com.fincons.parkingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the slot changes of a parking lot after a given sequence number.
+ * When the requested changes are no longer held by the server, {@code resyncRequired} is set
+ * and the client must reload the lot's snapshot instead.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotDeltasDto {
+
+    /** The identifier of the parking lot. */
+    private Long parkingLotId;
+
+    /** The identifier of the server's slot map stream; it changes when the server restarts. */
+    private long epoch;
+
+    /** The sequence number of the last change of the lot. */
+    private long sequence;
+
+    /** Whether the changes after the requested sequence number can no longer be replayed. */
+    private boolean resyncRequired;
+
+    /** The changes after the requested sequence number, oldest first; empty when a resync is required. */
+    private List<SlotStatusUpdateDto> deltas;
+}
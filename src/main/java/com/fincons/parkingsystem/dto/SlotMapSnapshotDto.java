@@ -0,0 +1,38 @@
+package com.fincons.parkingsystem.dto;
+
+import com.fincons.parkingsystem.entity.SlotStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a compact, full snapshot of the slots of a parking lot.
+ * Slots are returned as parallel lists (the i-th ID, number and status describe the same slot)
+ * instead of one object per slot, to keep large lots small on the wire. They are ordered by slot
+ * number, the same order as the slot status bitmap.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotMapSnapshotDto {
+
+    /** The identifier of the parking lot. */
+    private Long parkingLotId;
+
+    /** The identifier of the server's slot map stream; it changes when the server restarts. */
+    private long epoch;
+
+    /** The sequence number of the last change included in this snapshot. */
+    private long sequence;
+
+    /** The IDs of the slots. */
+    private List<Long> slotIds;
+
+    /** The slot numbers, in the same order as {@code slotIds}. */
+    private List<String> slotNumbers;
+
+    /** The slot statuses, in the same order as {@code slotIds}. */
+    private List<SlotStatus> statuses;
+}
@@ -0,0 +1,31 @@
+package com.fincons.parkingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the slot changes of a parking lot broadcast together after a flush window.
+ * Several changes of the same slot are merged into one, so a batch covers every sequence number from
+ * {@code fromSequence} to {@code toSequence} even if it holds fewer changes. A client whose last seen
+ * sequence is not {@code fromSequence - 1} has missed changes and should request them as deltas.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotStatusBatchDto {
+
+    /** The identifier of the parking lot. */
+    private Long parkingLotId;
+
+    /** The sequence number of the first change covered by this batch. */
+    private long fromSequence;
+
+    /** The sequence number of the last change covered by this batch. */
+    private long toSequence;
+
+    /** The latest change of each slot that changed, in the order the slots first changed. */
+    private List<SlotStatusUpdateDto> changes;
+}
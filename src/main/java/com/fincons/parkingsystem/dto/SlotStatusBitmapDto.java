@@ -0,0 +1,32 @@
+package com.fincons.parkingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the statuses of every slot of a parking lot, packed 2 bits per slot.
+ * Slots are ordered by slot number, the same order as the slot map snapshot. Slot {@code i} is held
+ * in byte {@code i / 4} at bit offset {@code (i % 4) * 2}, with the codes 0 = AVAILABLE, 1 = OCCUPIED,
+ * 2 = RESERVED and 3 = UNDER_SERVICE. In JSON, {@code statuses} is base64-encoded.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotStatusBitmapDto {
+
+    /** The identifier of the parking lot. */
+    private Long parkingLotId;
+
+    /** The identifier of the server's slot map stream; it changes when the server restarts. */
+    private long epoch;
+
+    /** The sequence number of the last change reflected in the bitmap. */
+    private long sequence;
+
+    /** The number of slots encoded; the last byte may be partly unused. */
+    private int slotCount;
+
+    /** The packed slot statuses. */
+    private byte[] statuses;
+}
@@ -18,6 +18,26 @@ public class SlotStatusUpdateDto {
     private Long slotId;
     /** The identifier of the parking slot number according to the parking lot that was done. */
     private String parkingSlotNumber;
+    /** The status of the parking slot before the update, so consumers can apply the change as a delta. */
+    private SlotStatus previousStatus;
     /** The new status of the parking slot. */
     private SlotStatus newStatus;
+    /**
+     * The position of this change in the lot's slot map stream, assigned by the slot map service when
+     * the change is consumed, whether or not the lot's slot map is loaded. It is 0 until then.
+     */
+    private long sequence;
+
+    /**
+     * Creates a slot status update that has no sequence yet.
+     *
+     * @param parkingLotId The identifier of the parking lot to which the slot belongs.
+     * @param slotId The unique identifier of the parking slot that was updated.
+     * @param parkingSlotNumber The number of the slot within its parking lot.
+     * @param previousStatus The status of the parking slot before the update.
+     * @param newStatus The new status of the parking slot.
+     */
+    public SlotStatusUpdateDto(Long parkingLotId, Long slotId, String parkingSlotNumber, SlotStatus previousStatus, SlotStatus newStatus) {
+        this(parkingLotId, slotId, parkingSlotNumber, previousStatus, newStatus, 0);
+    }
 }
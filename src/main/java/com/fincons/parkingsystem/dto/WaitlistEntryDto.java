@@ -0,0 +1,41 @@
+package com.fincons.parkingsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fincons.parkingsystem.entity.WaitlistStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for representing a waitlist entry.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WaitlistEntryDto {
+
+    /** The unique identifier of the waitlist entry. */
+    private Long id;
+
+    /** The registration number of the waiting vehicle. */
+    private String vehicleNumber;
+
+    /** The identifier of the parking lot the vehicle is waiting for. */
+    private Long parkingLotId;
+
+    /** The current status of the entry (e.g., WAITING, ASSIGNED, CANCELLED). */
+    private WaitlistStatus status;
+
+    /** The 1-based position in the lot's queue, present while the entry is waiting. */
+    private Long position;
+
+    /** The reservation created when a slot was handed to this entry. */
+    private Long reservationId;
+
+    /** The timestamp when the vehicle joined the waitlist. */
+    private Instant createdAt;
+}
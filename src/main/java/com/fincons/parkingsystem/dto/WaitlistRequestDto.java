@@ -0,0 +1,29 @@
+package com.fincons.parkingsystem.dto;
+
+import com.fincons.parkingsystem.entity.VehicleType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for handling requests to join the waitlist of a full parking lot.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitlistRequestDto {
+
+    /** The registration number of the vehicle joining the waitlist. */
+    @NotBlank(message = "Vehicle number cannot be empty.")
+    private String vehicleNumber;
+
+    /** The type of the vehicle (e.g., CAR, BIKE). */
+    @NotNull(message = "Vehicle type cannot be null.")
+    private VehicleType vehicleType;
+
+    /** The unique identifier of the parking lot to wait for. */
+    @NotNull(message = "Parking lot ID cannot be null.")
+    private Long parkingLotId;
+}
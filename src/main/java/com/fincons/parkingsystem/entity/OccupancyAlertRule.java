@@ -0,0 +1,60 @@
+package com.fincons.parkingsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * Represents the high occupancy alert rule of a parking lot, overriding the configured defaults.
+ * An alert is raised when the occupancy reaches the enter threshold and cleared only once it drops
+ * below the lower exit threshold, so a lot hovering around one value does not flap.
+ * This entity is mapped to the `occupancy_alert_rules` table.
+ */
+@Entity
+@Table(name = "occupancy_alert_rules")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OccupancyAlertRule {
+
+    /**
+     * The parking lot the rule applies to, serving as the primary key.
+     */
+    @Id
+    @Column(name = "parking_lot_id")
+    private Long parkingLotId;
+
+    /**
+     * The occupancy percentage at or above which an alert is raised.
+     */
+    @Column(nullable = false)
+    private double enterThreshold;
+
+    /**
+     * The occupancy percentage below which a raised alert is cleared.
+     */
+    @Column(nullable = false)
+    private double exitThreshold;
+
+    /**
+     * The minimum number of seconds between two alerts raised for the lot.
+     */
+    @Column(nullable = false)
+    private long minRealertIntervalSeconds;
+
+    /**
+     * The timestamp of the last change to the rule.
+     */
+    private Instant updatedAt;
+
+    /**
+     * A JPA callback method that records the time of every change to the rule.
+     */
+    @PrePersist
+    @PreUpdate
+    public void onSave() {
+        this.updatedAt = Instant.now();
+    }
+}
@@ -54,6 +54,15 @@ public class ParkingLot
     @Column(nullable = false)
     private Double basePricePerHour;
 
+    /**
+     * The number of capacity-counted reservations currently holding space in this lot.
+     * These reservations do not pin a slot; one is assigned when the vehicle arrives.
+     * The column is only changed through atomic updates in the repository, so saving the
+     * entity never overwrites it with a stale value.
+     */
+    @Column(name = "reserved_capacity", nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int reservedCapacity;
+
     /**
      * The timestamp recorded when the parking lot was first created.
      */
@@ -0,0 +1,64 @@
+package com.fincons.parkingsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Represents the revenue and session statistics of a parking lot, maintained incrementally as sessions
+ * complete instead of being aggregated from all past sessions on every read.
+ * The daily counters refer to {@link #statsDate} (a UTC day) and restart on the first exit of a new day.
+ * This entity is mapped to the `parking_lot_stats` table.
+ */
+@Entity
+@Table(name = "parking_lot_stats")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ParkingLotStats {
+
+    /**
+     * The parking lot the statistics belong to, serving as the primary key.
+     */
+    @Id
+    @Column(name = "parking_lot_id")
+    private Long parkingLotId;
+
+    /**
+     * The total revenue of all completed sessions of the lot.
+     */
+    @Column(nullable = false)
+    private double totalRevenue;
+
+    /**
+     * The number of completed sessions of the lot.
+     */
+    @Column(nullable = false)
+    private long completedSessions;
+
+    /**
+     * The UTC day the daily counters refer to.
+     */
+    @Column(nullable = false)
+    private LocalDate statsDate;
+
+    /**
+     * The revenue of the sessions completed on {@link #statsDate}.
+     */
+    @Column(nullable = false)
+    private double revenueToday;
+
+    /**
+     * The number of sessions completed on {@link #statsDate}.
+     */
+    @Column(nullable = false)
+    private long sessionsToday;
+
+    /**
+     * The timestamp of the last change to the statistics.
+     */
+    private Instant updatedAt;
+}
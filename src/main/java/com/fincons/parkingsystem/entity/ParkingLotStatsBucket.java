@@ -0,0 +1,83 @@
+package com.fincons.parkingsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * Represents the statistics of a parking lot over one hour or one day, pre-aggregated from its sessions
+ * so that trend queries read a few rows per period instead of every session.
+ * This entity is mapped to the `parking_lot_stats_buckets` table.
+ */
+@Entity
+@Table(name = "parking_lot_stats_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stats_buckets_lot_granularity_start", columnNames = {"parking_lot_id", "granularity", "bucket_start"})
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ParkingLotStatsBucket {
+
+    /**
+     * The unique identifier for the bucket, serving as the primary key.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The parking lot the statistics belong to.
+     */
+    @Column(name = "parking_lot_id", nullable = false)
+    private Long parkingLotId;
+
+    /**
+     * The length of the bucket.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatsGranularity granularity;
+
+    /**
+     * The start of the bucket, aligned to UTC.
+     */
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    /**
+     * The revenue of the sessions completed in the bucket.
+     */
+    @Column(nullable = false)
+    private double revenue;
+
+    /**
+     * The number of vehicles that entered in the bucket.
+     */
+    @Column(nullable = false)
+    private long entries;
+
+    /**
+     * The number of vehicles that exited in the bucket.
+     */
+    @Column(nullable = false)
+    private long exits;
+
+    /**
+     * The summed duration of the sessions completed in the bucket, in seconds.
+     */
+    @Column(nullable = false)
+    private double totalDwellSeconds;
+
+    /**
+     * The highest occupancy percentage observed in the bucket.
+     */
+    @Column(nullable = false)
+    private double peakOccupancy;
+
+    /**
+     * The timestamp of the last change to the bucket.
+     */
+    private Instant updatedAt;
+}
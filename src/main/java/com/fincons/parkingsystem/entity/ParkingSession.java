@@ -11,7 +11,9 @@ import java.time.Instant;
  * This entity is mapped to the `parking_sessions` table and includes a soft-delete mechanism.
  */
 @Entity
-@Table(name = "parking_sessions")
+@Table(name = "parking_sessions", indexes = {
+        @Index(name = "idx_parking_sessions_status_id", columnList = "status, id")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -75,6 +77,13 @@ public class ParkingSession {
     @Column(nullable = false)
     private ParkingSessionStatus status;
 
+    /**
+     * A flag indicating whether the session has been added to the statistics of its parking lot.
+     * Set on exit together with the statistics; completed sessions without it are added by a background job.
+     */
+    @Column(name = "stats_counted", nullable = false, columnDefinition = "boolean default false")
+    private boolean statsCounted;
+
     /**
      * A flag indicating whether the entity has been soft-deleted.
      */
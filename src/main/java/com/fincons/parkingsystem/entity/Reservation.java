@@ -11,7 +11,10 @@ import java.time.Instant;
  * This entity is mapped to the `reservations` table and includes a soft-delete mechanism.
  */
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_vehicle_status", columnList = "vehicle_id, status"),
+        @Index(name = "idx_reservations_slot_status", columnList = "parking_slot_id, status")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -38,10 +41,11 @@ public class Reservation {
     private Vehicle vehicle;
 
     /**
-     * The parking lot where the reservation is made.
+     * The parking slot held by the reservation. For capacity-counted reservations this is empty
+     * until the vehicle arrives and a slot is assigned.
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "parking_slot_id", nullable = false)
+    @JoinColumn(name = "parking_slot_id")
     private ParkingSlot parkingSlot;
 
     /**
@@ -52,6 +56,13 @@ public class Reservation {
     @Column(name = "parking_slot_id", insertable = false, updatable = false)
     private Long parkingSlotId;
 
+    /**
+     * The parking lot where the reservation is made. Stored directly so that reservations
+     * without an assigned slot still know their lot.
+     */
+    @Column(name = "parking_lot_id")
+    private Long parkingLotId;
+
     /**
      * The timestamp recorded when the reservation was created.
      */
@@ -64,6 +75,23 @@ public class Reservation {
     @Column(nullable = false)
     private Instant expirationTime;
 
+    /**
+     * The start of the time window for which the slot is booked.
+     * For immediate reservations this equals the reservation time.
+     */
+    private Instant startTime;
+
+    /**
+     * The end (exclusive) of the time window for which the slot is booked.
+     */
+    private Instant endTime;
+
+    /**
+     * How the reservation holds space in the lot. A missing value is treated as {@link ReservationMode#SLOT}.
+     */
+    @Enumerated(EnumType.STRING)
+    private ReservationMode mode;
+
     /**
      * The current status of the reservation (e.g., ACTIVE, COMPLETED, CANCELLED).
      */
@@ -0,0 +1,16 @@
+package com.fincons.parkingsystem.entity;
+
+/**
+ * An enumeration representing how a reservation holds space in a parking lot.
+ */
+public enum ReservationMode {
+    /**
+     * The reservation pins a specific slot, which is marked RESERVED until the vehicle arrives.
+     */
+    SLOT,
+    /**
+     * The reservation only holds one unit of the lot's reserved capacity.
+     * A concrete slot is assigned when the vehicle arrives.
+     */
+    CAPACITY
+}
@@ -5,6 +5,11 @@ package com.fincons.parkingsystem.entity;
  * This is used to track the lifecycle of a reservation from creation to completion or cancellation.
  */
 public enum ReservationStatus {
+    /**
+     * The reservation is booked for a future time window and does not hold its slot yet.
+     * It becomes ACTIVE once the window starts.
+     */
+    SCHEDULED,
     /**
      * The reservation is active and waiting for the vehicle to arrive.
      */
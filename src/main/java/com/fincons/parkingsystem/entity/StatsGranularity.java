@@ -0,0 +1,57 @@
+package com.fincons.parkingsystem.entity;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * An enumeration representing the length of the time buckets parking lot statistics are rolled up into.
+ * Buckets are aligned to UTC.
+ */
+public enum StatsGranularity {
+    /**
+     * One bucket per hour.
+     */
+    HOURLY("hour", ChronoUnit.HOURS),
+    /**
+     * One bucket per UTC day.
+     */
+    DAILY("day", ChronoUnit.DAYS);
+
+    private final String sqlUnit;
+    private final ChronoUnit unit;
+
+    StatsGranularity(String sqlUnit, ChronoUnit unit) {
+        this.sqlUnit = sqlUnit;
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the unit of this granularity as understood by PostgreSQL's {@code date_trunc}.
+     *
+     * @return The PostgreSQL field name.
+     */
+    public String getSqlUnit() {
+        return sqlUnit;
+    }
+
+    /**
+     * Returns the start of the bucket containing the given time.
+     *
+     * @param time The point in time.
+     * @return The start of its bucket.
+     */
+    public Instant truncate(Instant time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * Returns the number of buckets of this granularity between two points in time, rounded up.
+     *
+     * @param from The start of the range.
+     * @param to The end of the range.
+     * @return The number of buckets the range spans.
+     */
+    public long countBuckets(Instant from, Instant to) {
+        return unit.between(truncate(from), to.minusNanos(1).truncatedTo(unit)) + 1;
+    }
+}
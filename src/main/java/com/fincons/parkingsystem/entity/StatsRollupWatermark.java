@@ -0,0 +1,37 @@
+package com.fincons.parkingsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * Represents how far a background rollup job has processed its source data.
+ * The row is locked while the job runs, so only one instance processes a window at a time.
+ * This entity is mapped to the `stats_rollup_watermarks` table.
+ */
+@Entity
+@Table(name = "stats_rollup_watermarks")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StatsRollupWatermark {
+
+    /**
+     * The name of the rollup job, serving as the primary key.
+     */
+    @Id
+    private String name;
+
+    /**
+     * The end of the last processed window; data before it has been rolled up.
+     */
+    @Column(nullable = false)
+    private Instant processedUntil;
+
+    /**
+     * The timestamp of the last change to the watermark.
+     */
+    private Instant updatedAt;
+}
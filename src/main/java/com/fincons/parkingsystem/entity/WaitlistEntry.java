@@ -0,0 +1,74 @@
+package com.fincons.parkingsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * Represents a vehicle queued for a slot in a full parking lot.
+ * Entries are served in FIFO order: when a slot in the lot frees up, it is handed to the
+ * oldest waiting entry as a reservation. This entity is mapped to the `waitlist_entries` table.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_lot_status_id", columnList = "parking_lot_id, status, id")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WaitlistEntry {
+
+    /**
+     * The unique identifier for the entry, serving as the primary key. It also defines the queue order.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The vehicle waiting for a slot.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicle_id", nullable = false)
+    private Vehicle vehicle;
+
+    /**
+     * The parking lot the vehicle is waiting for.
+     */
+    @Column(name = "parking_lot_id", nullable = false)
+    private Long parkingLotId;
+
+    /**
+     * The current status of the entry (e.g., WAITING, ASSIGNED, CANCELLED).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status;
+
+    /**
+     * The reservation created when a slot was handed to this entry.
+     */
+    private Long reservationId;
+
+    /**
+     * The timestamp recorded when the vehicle joined the waitlist.
+     */
+    private Instant createdAt;
+
+    /**
+     * A version field managed by JPA for optimistic locking.
+     */
+    @Version
+    private int version;
+
+    /**
+     * A JPA callback method that automatically sets the `createdAt` timestamp
+     * before the entity is first persisted.
+     */
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = Instant.now();
+    }
+}
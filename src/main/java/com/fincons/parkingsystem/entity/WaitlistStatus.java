@@ -0,0 +1,19 @@
+package com.fincons.parkingsystem.entity;
+
+/**
+ * An enumeration representing the possible statuses of a waitlist entry.
+ */
+public enum WaitlistStatus {
+    /**
+     * The vehicle is queued and waiting for a slot in the lot to free up.
+     */
+    WAITING,
+    /**
+     * A freed slot was handed to the vehicle as a reservation.
+     */
+    ASSIGNED,
+    /**
+     * The entry was withdrawn by the user or dropped because the vehicle no longer needed a slot.
+     */
+    CANCELLED
+}
@@ -0,0 +1,31 @@
+package com.fincons.parkingsystem.health;
+
+import com.fincons.parkingsystem.service.ParkingLotDashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator that reports the application as out of service until the dashboard state of
+ * all parking lots has been loaded. It is part of the readiness group, so a load balancer only
+ * routes traffic to an instance once its dashboards are warm.
+ */
+@Component("dashboardWarmup")
+@RequiredArgsConstructor
+public class DashboardWarmupHealthIndicator implements HealthIndicator {
+
+    private final ParkingLotDashboardService parkingLotDashboardService;
+
+    /**
+     * Reports whether the dashboard warm-up has completed.
+     *
+     * @return UP once the dashboards are loaded, OUT_OF_SERVICE before.
+     */
+    @Override
+    public Health health() {
+        return parkingLotDashboardService.isWarmedUp()
+                ? Health.up().build()
+                : Health.outOfService().withDetail("reason", "Dashboard state is still loading").build();
+    }
+}
@@ -3,6 +3,7 @@ package com.fincons.parkingsystem.mapper;
 import com.fincons.parkingsystem.dto.ParkingLotDto;
 import com.fincons.parkingsystem.entity.ParkingLot;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * MapStruct mapper for converting between {@link ParkingLot} entities and {@link ParkingLotDto} objects.
@@ -21,9 +22,11 @@ public interface ParkingLotMapper {
 
     /**
      * Converts a {@link ParkingLotDto} to a {@link ParkingLot} entity.
+     * The reserved capacity is maintained by the database and never taken from a DTO.
      *
      * @param parkingLotDto The DTO to be converted.
      * @return The corresponding entity.
      */
+    @Mapping(target = "reservedCapacity", ignore = true)
     ParkingLot toEntity(ParkingLotDto parkingLotDto);
 }
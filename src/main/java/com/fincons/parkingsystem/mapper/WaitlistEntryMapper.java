@@ -0,0 +1,24 @@
+package com.fincons.parkingsystem.mapper;
+
+import com.fincons.parkingsystem.dto.WaitlistEntryDto;
+import com.fincons.parkingsystem.entity.WaitlistEntry;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * MapStruct mapper for converting {@link WaitlistEntry} entities to {@link WaitlistEntryDto} objects.
+ */
+@Mapper(componentModel = "spring")
+public interface WaitlistEntryMapper {
+
+    /**
+     * Converts a {@link WaitlistEntry} entity to a {@link WaitlistEntryDto}.
+     * The queue position is computed by the service.
+     *
+     * @param waitlistEntry The entity to be converted.
+     * @return The resulting DTO.
+     */
+    @Mapping(source = "vehicle.vehicleNumber", target = "vehicleNumber")
+    @Mapping(target = "position", ignore = true)
+    WaitlistEntryDto toDto(WaitlistEntry waitlistEntry);
+}
@@ -0,0 +1,13 @@
+package com.fincons.parkingsystem.repository;
+
+import com.fincons.parkingsystem.entity.OccupancyAlertRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for {@link OccupancyAlertRule} entities.
+ * This interface provides the mechanism for data access and manipulation of the `occupancy_alert_rules` table.
+ */
+@Repository
+public interface OccupancyAlertRuleRepository extends JpaRepository<OccupancyAlertRule, Long> {
+}
@@ -6,10 +6,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -54,4 +57,49 @@ public interface ParkingLotRepository extends JpaRepository<ParkingLot, Long> {
      */
     @Query(value = "SELECT * FROM parking_lots WHERE id = :id", nativeQuery = true)
     Optional<ParkingLot> findByIdWithInactive(@Param("id") Long id);
+
+    /**
+     * Retrieves parking lots, including inactive ones, after a cursor in ID order for keyset pagination.
+     *
+     * @param after The ID of the last parking lot of the previous page.
+     * @param limit The maximum number of parking lots to return.
+     * @return A list of {@link ParkingLot} entities.
+     */
+    @Query(value = "SELECT * FROM parking_lots WHERE id > :after ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<ParkingLot> findAllWithInactiveAfter(@Param("after") Long after, @Param("limit") int limit);
+
+    /**
+     * Finds the parking lots with the given IDs, including inactive ones, in ID order.
+     *
+     * @param ids The unique identifiers of the parking lots.
+     * @return A list of the {@link ParkingLot} entities that exist.
+     */
+    @Query(value = "SELECT * FROM parking_lots WHERE id IN (:ids) ORDER BY id", nativeQuery = true)
+    List<ParkingLot> findAllByIdWithInactive(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Atomically takes one unit of reserved capacity in an active parking lot, but only if the lot still
+     * has more available slots than capacity already held. This is a single conditional update that
+     * does not lock any slot rows.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @return The number of updated rows: 1 if capacity was taken, 0 if the lot is full or does not exist.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE parking_lots l SET reserved_capacity = l.reserved_capacity + 1 " +
+            "WHERE l.id = :id AND l.deleted = false AND l.reserved_capacity < " +
+            "(SELECT count(*) FROM parking_slots s WHERE s.parking_lot_id = l.id AND s.status = 'AVAILABLE' AND s.deleted = false)",
+            nativeQuery = true)
+    int incrementReservedCapacity(@Param("id") Long id);
+
+    /**
+     * Atomically gives back one unit of reserved capacity in a parking lot.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @return The number of updated rows: 1 if capacity was released, 0 if none was held.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE parking_lots SET reserved_capacity = reserved_capacity - 1 WHERE id = :id AND reserved_capacity > 0",
+            nativeQuery = true)
+    int decrementReservedCapacity(@Param("id") Long id);
 }
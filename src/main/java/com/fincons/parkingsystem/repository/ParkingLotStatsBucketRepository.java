@@ -0,0 +1,103 @@
+package com.fincons.parkingsystem.repository;
+
+import com.fincons.parkingsystem.entity.ParkingLotStatsBucket;
+import com.fincons.parkingsystem.entity.StatsGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link ParkingLotStatsBucket} entities.
+ * This interface provides the mechanism for data access and manipulation of the `parking_lot_stats_buckets` table.
+ * The rollup statements add to existing buckets, so every window of sessions must be rolled up exactly once.
+ */
+@Repository
+public interface ParkingLotStatsBucketRepository extends JpaRepository<ParkingLotStatsBucket, Long> {
+
+    /**
+     * Retrieves the buckets of a parking lot that start within a time range, oldest first.
+     * Served by the (parking_lot_id, granularity, bucket_start) unique index.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @param granularity The length of the buckets.
+     * @param from The inclusive start of the range.
+     * @param to The exclusive end of the range.
+     * @return A list of {@link ParkingLotStatsBucket} entities.
+     */
+    @Query("SELECT b FROM ParkingLotStatsBucket b WHERE b.parkingLotId = :parkingLotId AND b.granularity = :granularity " +
+            "AND b.bucketStart >= :from AND b.bucketStart < :to ORDER BY b.bucketStart")
+    List<ParkingLotStatsBucket> findRange(@Param("parkingLotId") Long parkingLotId, @Param("granularity") StatsGranularity granularity,
+                                          @Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * Adds the vehicles that entered within a time window to the buckets of their parking lots.
+     *
+     * @param granularity The name of the bucket granularity.
+     * @param unit The PostgreSQL {@code date_trunc} unit of the granularity.
+     * @param from The inclusive start of the window.
+     * @param to The exclusive end of the window.
+     * @param now The current time.
+     * @return The number of buckets inserted or updated.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO parking_lot_stats_buckets (parking_lot_id, granularity, bucket_start, revenue, entries, exits, total_dwell_seconds, peak_occupancy, updated_at) " +
+            "SELECT s.parking_lot_id, :granularity, date_trunc(:unit, ps.entry_time AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', 0, COUNT(*), 0, 0, 0, :now " +
+            "FROM parking_sessions ps JOIN parking_slots s ON s.id = ps.parking_slot_id " +
+            "WHERE ps.entry_time >= :from AND ps.entry_time < :to " +
+            "GROUP BY 1, 3 " +
+            "ON CONFLICT (parking_lot_id, granularity, bucket_start) DO UPDATE SET " +
+            "entries = parking_lot_stats_buckets.entries + EXCLUDED.entries, updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int addEntries(@Param("granularity") String granularity, @Param("unit") String unit,
+                   @Param("from") Instant from, @Param("to") Instant to, @Param("now") Instant now);
+
+    /**
+     * Adds the sessions completed within a time window to the buckets of their parking lots:
+     * their revenue, their number and their summed duration.
+     *
+     * @param granularity The name of the bucket granularity.
+     * @param unit The PostgreSQL {@code date_trunc} unit of the granularity.
+     * @param from The inclusive start of the window.
+     * @param to The exclusive end of the window.
+     * @param now The current time.
+     * @return The number of buckets inserted or updated.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO parking_lot_stats_buckets (parking_lot_id, granularity, bucket_start, revenue, entries, exits, total_dwell_seconds, peak_occupancy, updated_at) " +
+            "SELECT s.parking_lot_id, :granularity, date_trunc(:unit, ps.exit_time AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', " +
+            "COALESCE(SUM(ps.total_amount), 0), 0, COUNT(*), COALESCE(SUM(EXTRACT(EPOCH FROM (ps.exit_time - ps.entry_time))), 0), 0, :now " +
+            "FROM parking_sessions ps JOIN parking_slots s ON s.id = ps.parking_slot_id " +
+            "WHERE ps.status = 'COMPLETED' AND ps.exit_time >= :from AND ps.exit_time < :to " +
+            "GROUP BY 1, 3 " +
+            "ON CONFLICT (parking_lot_id, granularity, bucket_start) DO UPDATE SET " +
+            "revenue = parking_lot_stats_buckets.revenue + EXCLUDED.revenue, " +
+            "exits = parking_lot_stats_buckets.exits + EXCLUDED.exits, " +
+            "total_dwell_seconds = parking_lot_stats_buckets.total_dwell_seconds + EXCLUDED.total_dwell_seconds, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int addExits(@Param("granularity") String granularity, @Param("unit") String unit,
+                 @Param("from") Instant from, @Param("to") Instant to, @Param("now") Instant now);
+
+    /**
+     * Raises the peak occupancy of a bucket to the given percentage if it is higher, creating the bucket if needed.
+     * Idempotent, so every instance may record the occupancy it observes.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @param granularity The name of the bucket granularity.
+     * @param bucketStart The start of the bucket.
+     * @param occupancy The observed occupancy percentage.
+     * @param now The current time.
+     * @return The number of buckets inserted or updated.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO parking_lot_stats_buckets (parking_lot_id, granularity, bucket_start, revenue, entries, exits, total_dwell_seconds, peak_occupancy, updated_at) " +
+            "VALUES (:parkingLotId, :granularity, :bucketStart, 0, 0, 0, 0, :occupancy, :now) " +
+            "ON CONFLICT (parking_lot_id, granularity, bucket_start) DO UPDATE SET " +
+            "peak_occupancy = EXCLUDED.peak_occupancy, updated_at = EXCLUDED.updated_at " +
+            "WHERE parking_lot_stats_buckets.peak_occupancy < EXCLUDED.peak_occupancy", nativeQuery = true)
+    int raisePeakOccupancy(@Param("parkingLotId") Long parkingLotId, @Param("granularity") String granularity,
+                           @Param("bucketStart") Instant bucketStart, @Param("occupancy") double occupancy, @Param("now") Instant now);
+}
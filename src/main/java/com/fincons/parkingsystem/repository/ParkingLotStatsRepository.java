@@ -0,0 +1,92 @@
+package com.fincons.parkingsystem.repository;
+
+import com.fincons.parkingsystem.entity.ParkingLotStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link ParkingLotStats} entities.
+ * This interface provides the mechanism for data access and manipulation of the `parking_lot_stats` table.
+ */
+@Repository
+public interface ParkingLotStatsRepository extends JpaRepository<ParkingLotStats, Long> {
+
+    /**
+     * Adds a completed session to the statistics of a parking lot, creating the row if needed.
+     * The increment is a single atomic upsert, so concurrent exits never overwrite each other. The daily
+     * counters restart when the session completes on a later day than the one they refer to.
+     * Must be called within the transaction that completes the session, which also marks it as counted.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @param amount The amount charged for the session.
+     * @param day The UTC day the session completed on.
+     * @param now The current time.
+     * @return The number of rows inserted or updated.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO parking_lot_stats (parking_lot_id, total_revenue, completed_sessions, stats_date, revenue_today, sessions_today, updated_at) " +
+            "VALUES (:parkingLotId, :amount, 1, :day, :amount, 1, :now) " +
+            "ON CONFLICT (parking_lot_id) DO UPDATE SET " +
+            "total_revenue = parking_lot_stats.total_revenue + EXCLUDED.total_revenue, " +
+            "completed_sessions = parking_lot_stats.completed_sessions + 1, " +
+            "revenue_today = CASE WHEN parking_lot_stats.stats_date = EXCLUDED.stats_date THEN parking_lot_stats.revenue_today + EXCLUDED.revenue_today " +
+            "WHEN parking_lot_stats.stats_date < EXCLUDED.stats_date THEN EXCLUDED.revenue_today ELSE parking_lot_stats.revenue_today END, " +
+            "sessions_today = CASE WHEN parking_lot_stats.stats_date = EXCLUDED.stats_date THEN parking_lot_stats.sessions_today + 1 " +
+            "WHEN parking_lot_stats.stats_date < EXCLUDED.stats_date THEN 1 ELSE parking_lot_stats.sessions_today END, " +
+            "stats_date = GREATEST(parking_lot_stats.stats_date, EXCLUDED.stats_date), " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int addCompletedSession(@Param("parkingLotId") Long parkingLotId, @Param("amount") double amount,
+                            @Param("day") LocalDate day, @Param("now") Instant now);
+
+    /**
+     * Adds the completed sessions that exited within a window and are not counted yet to the statistics
+     * of their parking lots, and marks them as counted in the same statement. Sessions completed by
+     * {@link #addCompletedSession} are marked in their exit transaction, so each session is counted once,
+     * including sessions completed by instances that do not update the statistics themselves.
+     * The daily counters of a lot restart when the statistics refer to an earlier day.
+     *
+     * @param from The inclusive start of the exit time window.
+     * @param to The exclusive end of the exit time window.
+     * @param day The current UTC day.
+     * @param dayStart The start of the current UTC day.
+     * @param now The current time.
+     * @return The number of parking lots whose statistics were created or updated.
+     */
+    @Modifying
+    @Query(value = "WITH counted AS (" +
+            "UPDATE parking_sessions ps SET stats_counted = true FROM parking_slots s " +
+            "WHERE s.id = ps.parking_slot_id AND ps.status = 'COMPLETED' AND ps.stats_counted = false " +
+            "AND ps.exit_time >= :from AND ps.exit_time < :to " +
+            "RETURNING s.parking_lot_id, ps.total_amount, ps.exit_time) " +
+            "INSERT INTO parking_lot_stats (parking_lot_id, total_revenue, completed_sessions, stats_date, revenue_today, sessions_today, updated_at) " +
+            "SELECT parking_lot_id, COALESCE(SUM(total_amount), 0), COUNT(*), :day, " +
+            "COALESCE(SUM(total_amount) FILTER (WHERE exit_time >= :dayStart), 0), COUNT(*) FILTER (WHERE exit_time >= :dayStart), :now " +
+            "FROM counted GROUP BY parking_lot_id " +
+            "ON CONFLICT (parking_lot_id) DO UPDATE SET " +
+            "total_revenue = parking_lot_stats.total_revenue + EXCLUDED.total_revenue, " +
+            "completed_sessions = parking_lot_stats.completed_sessions + EXCLUDED.completed_sessions, " +
+            "revenue_today = CASE WHEN parking_lot_stats.stats_date = EXCLUDED.stats_date THEN parking_lot_stats.revenue_today + EXCLUDED.revenue_today " +
+            "WHEN parking_lot_stats.stats_date < EXCLUDED.stats_date THEN EXCLUDED.revenue_today ELSE parking_lot_stats.revenue_today END, " +
+            "sessions_today = CASE WHEN parking_lot_stats.stats_date = EXCLUDED.stats_date THEN parking_lot_stats.sessions_today + EXCLUDED.sessions_today " +
+            "WHEN parking_lot_stats.stats_date < EXCLUDED.stats_date THEN EXCLUDED.sessions_today ELSE parking_lot_stats.sessions_today END, " +
+            "stats_date = GREATEST(parking_lot_stats.stats_date, EXCLUDED.stats_date), " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int addUncountedSessions(@Param("from") Instant from, @Param("to") Instant to, @Param("day") LocalDate day,
+                             @Param("dayStart") Instant dayStart, @Param("now") Instant now);
+
+    /**
+     * Finds the parking lots whose statistics changed since a given time.
+     *
+     * @param since The time after which changes are returned.
+     * @return The IDs of the parking lots.
+     */
+    @Query("SELECT s.parkingLotId FROM ParkingLotStats s WHERE s.updatedAt > :since")
+    List<Long> findParkingLotIdsUpdatedSince(@Param("since") Instant since);
+}
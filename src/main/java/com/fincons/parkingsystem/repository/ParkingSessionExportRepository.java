@@ -0,0 +1,96 @@
+package com.fincons.parkingsystem.repository;
+
+import com.fincons.parkingsystem.dto.ParkingSessionDto;
+import com.fincons.parkingsystem.entity.ParkingSessionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * JDBC repository that reads the parking session history for exports.
+ * Sessions are read through a server-side cursor with the vehicle number, slot number and lot name
+ * joined in the same query, so an export of any size holds only one fetch of rows in memory.
+ */
+@Repository
+public class ParkingSessionExportRepository {
+
+    // Slots and lots are joined without the soft-delete filter, so sessions of removed lots stay complete.
+    private static final String EXPORT_SQL = """
+            SELECT s.id, v.vehicle_number, s.parking_slot_id, ps.slot_number, pl.name AS parking_lot_name,
+                   s.entry_time, s.exit_time, s.total_amount, s.status
+            FROM parking_sessions s
+            JOIN vehicles v ON v.id = s.vehicle_id
+            JOIN parking_slots ps ON ps.id = s.parking_slot_id
+            JOIN parking_lots pl ON pl.id = ps.parking_lot_id
+            WHERE s.deleted = false
+              AND (CAST(? AS timestamptz) IS NULL OR s.entry_time >= ?)
+              AND (CAST(? AS timestamptz) IS NULL OR s.entry_time < ?)
+            ORDER BY s.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${parking.sessions.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Constructs the repository.
+     *
+     * @param jdbcTemplate The template used to run the export query.
+     */
+    public ParkingSessionExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads the sessions that entered in a time range, ordered by ID, and passes each one to an action as it is read.
+     * PostgreSQL only uses a cursor inside a transaction, so this must be called from a transactional method.
+     *
+     * @param from The inclusive start of the entry time range, or {@code null} for no lower bound.
+     * @param to The exclusive end of the entry time range, or {@code null} for no upper bound.
+     * @param action The action applied to each session.
+     */
+    public void forEachSession(Instant from, Instant to, Consumer<ParkingSessionDto> action) {
+        Timestamp fromTimestamp = from != null ? Timestamp.from(from) : null;
+        Timestamp toTimestamp = to != null ? Timestamp.from(to) : null;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, fromTimestamp);
+            statement.setTimestamp(2, fromTimestamp);
+            statement.setTimestamp(3, toTimestamp);
+            statement.setTimestamp(4, toTimestamp);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> action.accept(toDto(resultSet)));
+    }
+
+    /**
+     * Helper method to map the current row of the export query to a DTO.
+     *
+     * @param resultSet The result set positioned on a row.
+     * @return The session DTO.
+     * @throws SQLException if a column cannot be read.
+     */
+    private static ParkingSessionDto toDto(ResultSet resultSet) throws SQLException {
+        Timestamp exitTime = resultSet.getTimestamp("exit_time");
+        return ParkingSessionDto.builder()
+                .id(resultSet.getLong("id"))
+                .vehicleNumber(resultSet.getString("vehicle_number"))
+                .parkingSlotId(resultSet.getLong("parking_slot_id"))
+                .parkingSlotNumber(Long.parseLong(resultSet.getString("slot_number")))
+                .parkingLotName(resultSet.getString("parking_lot_name"))
+                .entryTime(resultSet.getTimestamp("entry_time").toInstant())
+                .exitTime(exitTime != null ? exitTime.toInstant() : null)
+                .totalAmount(resultSet.getObject("total_amount", Double.class))
+                .status(ParkingSessionStatus.valueOf(resultSet.getString("status")))
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import com.fincons.parkingsystem.entity.ParkingSession;
 import com.fincons.parkingsystem.entity.ParkingSessionStatus;
 import com.fincons.parkingsystem.entity.Vehicle;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +13,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -42,6 +44,34 @@ public interface ParkingSessionRepository extends JpaRepository<ParkingSession,
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<ParkingSession> findByVehicleAndStatus(Vehicle vehicle, ParkingSessionStatus parkingSessionStatus);
 
+    /**
+     * Finds the entry time of the oldest parking session.
+     * This is where the statistics rollup starts on a database that has not been rolled up yet.
+     *
+     * @return An {@link Optional} containing the earliest entry time, or empty if there are no sessions.
+     */
+    @Query("SELECT MIN(s.entryTime) FROM ParkingSession s")
+    Optional<Instant> findEarliestEntryTime();
+
+    /**
+     * Sums the occupancy changes of every parking lot per minute within a time window, in a single pass:
+     * +1 for each entry and -1 for each exit. Sessions that started before the window count as an entry
+     * at its start, so the running sum of a lot's changes is its number of occupied slots.
+     * This is used to rebuild the recent occupancy history at startup.
+     *
+     * @param from The start of the window.
+     * @param to The end of the window.
+     * @return A list of {@code [parkingLotId, epochMinute, change]} rows, ordered by lot and minute.
+     */
+    @Query(value = "SELECT s.parking_lot_id, CAST(FLOOR(EXTRACT(EPOCH FROM e.t) / 60) AS bigint), SUM(e.delta) FROM (" +
+            "SELECT parking_slot_id, GREATEST(entry_time, :from) AS t, 1 AS delta FROM parking_sessions " +
+            "WHERE deleted = false AND entry_time < :to AND (status = 'ACTIVE' OR exit_time > :from) " +
+            "UNION ALL " +
+            "SELECT parking_slot_id, exit_time, -1 FROM parking_sessions " +
+            "WHERE deleted = false AND status = 'COMPLETED' AND entry_time < :to AND exit_time > :from AND exit_time < :to" +
+            ") e JOIN parking_slots s ON s.id = e.parking_slot_id GROUP BY 1, 2 ORDER BY 1, 2", nativeQuery = true)
+    List<Object[]> sumOccupancyChangesByParkingLotAndMinute(@Param("from") Instant from, @Param("to") Instant to);
+
     /**
      * Retrieves a paginated list of sessions with a specific status.
      *
@@ -51,27 +81,26 @@ public interface ParkingSessionRepository extends JpaRepository<ParkingSession,
      */
     Page<ParkingSession> findByStatus(ParkingSessionStatus status, Pageable pageable);
 
+    Page<ParkingSession> findAll(Pageable pageable);
+
     /**
-     * Calculates the sum of the `totalAmount` for all completed sessions associated with a specific parking lot.
+     * Retrieves sessions older than a cursor, newest first, for keyset pagination.
+     * Served by the primary key, so the cost does not grow with the page depth.
      *
-     * @param parkingLotId The unique identifier of the parking lot.
-     * @return The total revenue as a {@link Double}.
+     * @param id The ID of the last session of the previous page.
+     * @param limit The maximum number of sessions to return.
+     * @return A list of {@link ParkingSession} entities.
      */
-    @Query(value = "SELECT SUM(total_amount) FROM parking_sessions WHERE status = 'COMPLETED' AND parking_slot_id IN (SELECT id FROM parking_slots WHERE parking_lot_id = :parkingLotId)", nativeQuery = true)
-    Double sumOfTotalAmountByParkingLot(@Param("parkingLotId") Long parkingLotId);
+    List<ParkingSession> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
 
     /**
-     * Calculates the sum of the `totalAmount` for a specific parking lot within a given time range.
-     * This is used to calculate daily revenue.
+     * Retrieves sessions with a given status older than a cursor, newest first, for keyset pagination.
+     * Served by the (status, id) index.
      *
-     * @param parkingLotId The unique identifier of the parking lot.
-     * @param startDateNow The start of the time range.
-     * @param endDateNow The end of the time range.
-     * @return The total revenue for the period as a {@link Double}.
+     * @param status The status to filter the sessions by.
+     * @param id The ID of the last session of the previous page.
+     * @param limit The maximum number of sessions to return.
+     * @return A list of {@link ParkingSession} entities.
      */
-    @Query(value = "SELECT SUM(total_amount) FROM parking_sessions WHERE status = 'COMPLETED' AND parking_slot_id IN (SELECT id FROM parking_slots WHERE parking_lot_id = :parkingLotId) " +
-            "AND exit_time BETWEEN :startDateNow AND :endDateNow", nativeQuery = true)
-    Double sumOfTotalAmountByParkingLotAndExitTime(@Param("parkingLotId") Long parkingLotId, Instant startDateNow, Instant endDateNow);
-
-    Page<ParkingSession> findAll(Pageable pageable);
+    List<ParkingSession> findByStatusAndIdLessThanOrderByIdDesc(ParkingSessionStatus status, Long id, Limit limit);
 }
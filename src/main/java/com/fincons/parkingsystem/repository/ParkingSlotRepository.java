@@ -13,6 +13,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -80,7 +81,63 @@ public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long>
     @Query(value = "SELECT * FROM parking_slots WHERE id = :id", nativeQuery = true)
     Optional<ParkingSlot> findByIdWithInactive(@Param("id") Long id);
 
+    /**
+     * Retrieves all slots in a given parking lot with a specific status, ordered by ID.
+     * No lock is taken; callers lock the chosen slot with {@link #findByIdForUpdate(Long)}.
+     *
+     * @param parkingLot The parking lot to search within.
+     * @param slotStatus The desired status of the slots.
+     * @return A list of matching slots, ordered by ID.
+     */
+    List<ParkingSlot> findByParkingLotAndStatusOrderByIdAsc(ParkingLot parkingLot, SlotStatus slotStatus);
+
+    /**
+     * Finds a single active parking slot by its ID and applies a pessimistic write lock to it.
+     *
+     * @param id The unique identifier of the parking slot.
+     * @return An {@link Optional} containing the locked slot, or empty if not found.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ParkingSlot s WHERE s.id = :id")
+    Optional<ParkingSlot> findByIdForUpdate(@Param("id") Long id);
+
     long countByParkingLot(ParkingLot parkingLot);
 
+    /**
+     * Counts the active slots of every parking lot grouped by status, in a single query.
+     * Each row holds the parking lot ID, the {@link SlotStatus} and the number of slots.
+     *
+     * @return A list of {@code [parkingLotId, status, count]} rows.
+     */
+    @Query("SELECT s.parkingLotId, s.status, COUNT(s) FROM ParkingSlot s GROUP BY s.parkingLotId, s.status")
+    List<Object[]> countSlotsGroupedByParkingLotAndStatus();
+
+    /**
+     * Counts the active slots of the given parking lots grouped by lot and status, in a single query.
+     *
+     * @param parkingLotIds The unique identifiers of the parking lots.
+     * @return A list of {@code [parkingLotId, status, count]} rows.
+     */
+    @Query("SELECT s.parkingLotId, s.status, COUNT(s) FROM ParkingSlot s WHERE s.parkingLotId IN :parkingLotIds GROUP BY s.parkingLotId, s.status")
+    List<Object[]> countSlotsGroupedByParkingLotAndStatus(@Param("parkingLotIds") Collection<Long> parkingLotIds);
+
+    /**
+     * Counts the active slots of one parking lot grouped by status, in a single query.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A list of {@code [status, count]} rows.
+     */
+    @Query("SELECT s.status, COUNT(s) FROM ParkingSlot s WHERE s.parkingLotId = :parkingLotId GROUP BY s.status")
+    List<Object[]> countSlotsGroupedByStatus(@Param("parkingLotId") Long parkingLotId);
+
     List<ParkingSlot> findByParkingLotId(Long id);
+
+    /**
+     * Retrieves the IDs of all active slots in a parking lot, without loading the slots.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A list of slot IDs.
+     */
+    @Query("SELECT s.id FROM ParkingSlot s WHERE s.parkingLotId = :parkingLotId")
+    List<Long> findIdsByParkingLotId(@Param("parkingLotId") Long parkingLotId);
 }
@@ -1,12 +1,16 @@
 package com.fincons.parkingsystem.repository;
 
 import com.fincons.parkingsystem.entity.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,9 +55,92 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
      */
     boolean existsByParkingSlotAndStatus(ParkingSlot parkingSlot, ReservationStatus reservationStatus);
 
+    /**
+     * Finds the reservation of a vehicle with a given status.
+     * Served by the (vehicle_id, status) index.
+     *
+     * @param vehicle The vehicle entity to find the reservation for.
+     * @param status The status of the reservation to find.
+     * @return An {@link Optional} containing the found reservation, or empty if not found.
+     */
+    Optional<Reservation> findFirstByVehicleAndStatus(Vehicle vehicle, ReservationStatus status);
+
+    /**
+     * Retrieves all reservations with a given status, fetching their vehicles in the same query.
+     *
+     * @param status The status of the reservations to retrieve.
+     * @return A list of matching {@link Reservation} entities.
+     */
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.vehicle WHERE r.status = :status")
+    List<Reservation> findByStatusWithVehicle(@Param("status") ReservationStatus status);
+
     @Query(
             value = "SELECT r FROM Reservation r",
             countQuery = "SELECT COUNT(r) FROM Reservation r"
     )
     Page<Reservation> findAllByCustom(Pageable pageable);
+
+    /**
+     * Retrieves reservations older than a cursor, newest first, for keyset pagination.
+     * Served by the primary key, so the cost does not grow with the page depth.
+     *
+     * @param id The ID of the last reservation of the previous page.
+     * @param limit The maximum number of reservations to return.
+     * @return A list of {@link Reservation} entities.
+     */
+    List<Reservation> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    /**
+     * Finds all reservations in a given status whose booked window has started by the given time.
+     * This is used to activate future-dated reservations once their window opens.
+     *
+     * @param status The status of the reservations to find (typically SCHEDULED).
+     * @param time The point in time the window must have started by.
+     * @return A list of matching reservations.
+     */
+    List<Reservation> findByStatusAndStartTimeLessThanEqual(ReservationStatus status, Instant time);
+
+    /**
+     * Finds all reservations in the given statuses whose booked window has not ended yet.
+     * Legacy reservations without a window fall back to their expiration time.
+     * This is used to rebuild the in-memory reservation calendar at startup.
+     *
+     * @param statuses The statuses that hold a slot for their window.
+     * @param now The current time; windows ending at or before it are ignored.
+     * @return A list of reservations with open windows.
+     */
+    @Query("SELECT r FROM Reservation r WHERE r.status IN :statuses AND COALESCE(r.endTime, r.expirationTime) > :now")
+    List<Reservation> findOpenWindows(@Param("statuses") Collection<ReservationStatus> statuses, @Param("now") Instant now);
+
+    /**
+     * Checks whether a slot has a reservation in one of the given statuses whose window overlaps [start, end).
+     * This is the authoritative check behind the per-instance reservation calendar: run in a SERIALIZABLE
+     * transaction, two instances booking the same slot concurrently cannot both commit.
+     * Served by the (parking_slot_id, status) index.
+     *
+     * @param parkingSlotId The unique identifier of the parking slot.
+     * @param statuses The statuses that hold a slot for their window.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @return {@code true} if an overlapping reservation exists, {@code false} otherwise.
+     */
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r WHERE r.parkingSlotId = :parkingSlotId " +
+            "AND r.status IN :statuses AND COALESCE(r.startTime, r.reservationTime) < :end AND COALESCE(r.endTime, r.expirationTime) > :start")
+    boolean existsOverlappingOnSlot(@Param("parkingSlotId") Long parkingSlotId, @Param("statuses") Collection<ReservationStatus> statuses,
+                                    @Param("start") Instant start, @Param("end") Instant end);
+
+    /**
+     * Checks whether a vehicle has a reservation in one of the given statuses whose window overlaps [start, end).
+     * Served by the (vehicle_id, status) index.
+     *
+     * @param vehicle The vehicle to check.
+     * @param statuses The statuses that hold a slot or capacity for their window.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @return {@code true} if an overlapping reservation exists, {@code false} otherwise.
+     */
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r WHERE r.vehicle = :vehicle " +
+            "AND r.status IN :statuses AND COALESCE(r.startTime, r.reservationTime) < :end AND COALESCE(r.endTime, r.expirationTime) > :start")
+    boolean existsOverlappingForVehicle(@Param("vehicle") Vehicle vehicle, @Param("statuses") Collection<ReservationStatus> statuses,
+                                        @Param("start") Instant start, @Param("end") Instant end);
 }
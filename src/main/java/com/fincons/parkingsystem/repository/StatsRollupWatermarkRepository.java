@@ -0,0 +1,45 @@
+package com.fincons.parkingsystem.repository;
+
+import com.fincons.parkingsystem.entity.StatsRollupWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for {@link StatsRollupWatermark} entities.
+ * This interface provides the mechanism for data access and manipulation of the `stats_rollup_watermarks` table.
+ */
+@Repository
+public interface StatsRollupWatermarkRepository extends JpaRepository<StatsRollupWatermark, String> {
+
+    /**
+     * Creates the watermark of a rollup job unless it exists, without failing if another instance creates it concurrently.
+     *
+     * @param name The name of the rollup job.
+     * @param processedUntil The initial watermark.
+     * @param now The current time.
+     * @return 1 if the watermark was created, 0 if it already existed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stats_rollup_watermarks (name, processed_until, updated_at) VALUES (:name, :processedUntil, :now) " +
+            "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int createIfMissing(@Param("name") String name, @Param("processedUntil") Instant processedUntil, @Param("now") Instant now);
+
+    /**
+     * Finds the watermark of a rollup job and locks it until the end of the transaction,
+     * so concurrent runs on other instances wait and then continue from the advanced watermark.
+     *
+     * @param name The name of the rollup job.
+     * @return An {@link Optional} containing the locked watermark, or empty if it does not exist.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM StatsRollupWatermark w WHERE w.name = :name")
+    Optional<StatsRollupWatermark> findByNameForUpdate(@Param("name") String name);
+}
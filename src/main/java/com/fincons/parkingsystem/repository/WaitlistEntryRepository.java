@@ -0,0 +1,61 @@
+package com.fincons.parkingsystem.repository;
+
+import com.fincons.parkingsystem.entity.Vehicle;
+import com.fincons.parkingsystem.entity.WaitlistEntry;
+import com.fincons.parkingsystem.entity.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for {@link WaitlistEntry} entities.
+ * This interface provides the mechanism for data access and manipulation of the `waitlist_entries` table.
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Locks and returns the oldest waiting entry for a parking lot.
+     * Rows already locked by a concurrent hand-over are skipped, so two freed slots in the same
+     * lot are handed to two different waiters without blocking each other.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return An {@link Optional} containing the next waiting entry, or empty if the queue is empty.
+     */
+    @Query(value = "SELECT * FROM waitlist_entries WHERE parking_lot_id = :parkingLotId AND status = 'WAITING' " +
+            "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<WaitlistEntry> findNextWaitingForUpdate(@Param("parkingLotId") Long parkingLotId);
+
+    /**
+     * Retrieves the entries of a parking lot with the given status, in queue order.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param status The status of the entries to retrieve.
+     * @return A list of matching {@link WaitlistEntry} entities, oldest first.
+     */
+    List<WaitlistEntry> findByParkingLotIdAndStatusOrderByIdAsc(Long parkingLotId, WaitlistStatus status);
+
+    /**
+     * Counts the entries of a parking lot with the given status that joined at or before the given entry.
+     * For a waiting entry this is its 1-based position in the queue.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param status The status of the entries to count.
+     * @param id The unique identifier of the entry.
+     * @return The number of matching entries.
+     */
+    long countByParkingLotIdAndStatusAndIdLessThanEqual(Long parkingLotId, WaitlistStatus status, Long id);
+
+    /**
+     * Checks if a vehicle already has an entry with the given status.
+     *
+     * @param vehicle The vehicle to check.
+     * @param status The status to check for.
+     * @return {@code true} if such an entry exists, {@code false} otherwise.
+     */
+    boolean existsByVehicleAndStatus(Vehicle vehicle, WaitlistStatus status);
+}
@@ -0,0 +1,29 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.entity.Reservation;
+
+import java.util.Optional;
+
+/**
+ * Service interface for the in-memory index of active reservations by vehicle number.
+ * The index is a fast path only: callers must verify the reservation it points to and fall
+ * back to the database when it misses.
+ */
+public interface ActiveReservationLookupService {
+
+    /**
+     * Looks up the active reservation of a vehicle.
+     *
+     * @param vehicleNumber The registration number of the vehicle.
+     * @return An {@link Optional} containing the reservation ID, or empty if none is indexed.
+     */
+    Optional<Long> findReservationId(String vehicleNumber);
+
+    /**
+     * Records the current status of a reservation in the index: an ACTIVE reservation is added,
+     * any other status removes it. Inside a transaction, the change is applied only after commit.
+     *
+     * @param reservation The reservation whose status changed.
+     */
+    void track(Reservation reservation);
+}
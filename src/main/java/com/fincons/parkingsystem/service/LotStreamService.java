@@ -0,0 +1,22 @@
+package com.fincons.parkingsystem.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service interface for the Server-Sent Events stream of a parking lot.
+ * This contract defines how clients that cannot use STOMP over WebSocket follow the occupancy
+ * and slot changes of a lot over a single long-lived HTTP response.
+ */
+public interface LotStreamService {
+
+    /**
+     * Opens the event stream of a parking lot.
+     * Without a last event ID, the stream starts with the lot's slot map and occupancy. With the ID of
+     * the last slot event a client received, it starts with the slot changes the client missed.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param lastEventId The value of the {@code Last-Event-ID} header, or {@code null}.
+     * @return The emitter that streams the lot's events to the client.
+     */
+    SseEmitter subscribe(Long parkingLotId, String lastEventId);
+}
@@ -0,0 +1,45 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.OccupancyAlertRuleDto;
+
+/**
+ * Service interface for the high occupancy alert engine.
+ * This contract defines how occupancy changes are evaluated against per-lot alert rules
+ * and how those rules are managed.
+ */
+public interface OccupancyAlertService {
+
+    /**
+     * Evaluates the alert rule of a parking lot against its new occupancy.
+     * An alert is only sent when the lot's alert state changes, i.e. when it is raised or cleared.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param occupancyPercentage The new occupancy percentage of the lot.
+     */
+    void evaluate(Long parkingLotId, double occupancyPercentage);
+
+    /**
+     * Retrieves the effective alert rule of a parking lot and its current alert state.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The lot's own rule, or the default rule if it has none.
+     */
+    OccupancyAlertRuleDto getRule(Long parkingLotId);
+
+    /**
+     * Creates or replaces the alert rule of a parking lot.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param ruleDto The thresholds and re-alert interval of the rule.
+     * @return The saved rule.
+     */
+    OccupancyAlertRuleDto updateRule(Long parkingLotId, OccupancyAlertRuleDto ruleDto);
+
+    /**
+     * Deletes the alert rule of a parking lot, so that it falls back to the default rule.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The default rule now in effect for the lot.
+     */
+    OccupancyAlertRuleDto deleteRule(Long parkingLotId);
+}
@@ -1,7 +1,12 @@
 package com.fincons.parkingsystem.service;
 
+import com.fincons.parkingsystem.dto.OccupancyHistoryDto;
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
 import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Service interface for managing the real-time state of parking lot dashboards.
  * This contract defines methods for initializing and updating the occupancy state.
@@ -22,5 +27,52 @@ public interface ParkingLotDashboardService {
      * @param parkingLotId The unique identifier of the parking lot to initialize.
      */
     void initializeDashboard(Long parkingLotId);
+
+    /**
+     * Checks whether the dashboard state of all parking lots has been loaded since startup.
+     *
+     * @return {@code true} once the warm-up has completed.
+     */
+    boolean isWarmedUp();
+
+    /**
+     * Returns the current in-memory occupancy snapshot of a parking lot.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return An {@link Optional} containing the latest occupancy update, or empty if the lot has no state yet.
+     */
+    Optional<OccupancyUpdateDto> getOccupancy(Long parkingLotId);
+
+    /**
+     * Returns the current in-memory occupancy snapshots of all parking lots.
+     *
+     * @return The latest occupancy update of every lot with state, ordered by parking lot ID.
+     */
+    List<OccupancyUpdateDto> getAllOccupancies();
+
+    /**
+     * Returns the recent occupancy of a parking lot, sampled once per minute from its in-memory state.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param minutes The number of most recent minutes to return, at most the size of the kept history.
+     * @return An {@link Optional} containing the occupancy history, or empty if the lot has no state yet.
+     */
+    Optional<OccupancyHistoryDto> getOccupancyHistory(Long parkingLotId, int minutes);
+
+    /**
+     * Returns the version of the dashboard state as a whole, which increases with every change of any lot.
+     * Together with {@link #getEpoch()}, it identifies the content of {@link #getAllOccupancies()}.
+     *
+     * @return The number of changes published since startup.
+     */
+    long getVersion();
+
+    /**
+     * Returns the identifier of this instance's dashboard state. Versions and per-lot sequence numbers
+     * restart with the application, so they are only comparable within one epoch.
+     *
+     * @return The time the dashboard state was created, in milliseconds since the Unix epoch.
+     */
+    long getEpoch();
     public void SendSlotUpdate(SlotStatusUpdateDto statusUpdateDto);
 }
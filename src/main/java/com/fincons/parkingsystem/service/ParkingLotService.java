@@ -1,5 +1,6 @@
 package com.fincons.parkingsystem.service;
 
+import com.fincons.parkingsystem.dto.CursorPage;
 import com.fincons.parkingsystem.dto.ParkingLotDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -37,6 +38,15 @@ public interface ParkingLotService {
      */
     Page<ParkingLotDto> getAllParkingLotsDeleted(Pageable pageable);
 
+    /**
+     * Retrieves a page of all parking lots, including soft-deleted ones, using keyset pagination in ID order.
+     *
+     * @param after The opaque cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of parking lots to return.
+     * @return A {@link CursorPage} of DTOs representing parking lots, both active and inactive.
+     */
+    CursorPage<ParkingLotDto> getAllParkingLotsDeleted(String after, int limit);
+
     /**
      * Deactivates a parking lot using a soft-delete mechanism.
      *
@@ -2,6 +2,10 @@ package com.fincons.parkingsystem.service;
 
 import com.fincons.parkingsystem.dto.ParkingLotStatsDto;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Service interface for retrieving statistical data about parking lots.
  * This contract defines how to fetch aggregated statistics for a specific parking lot.
@@ -11,9 +15,53 @@ public interface ParkingLotStatsService {
     /**
      * Retrieves a set of statistics for a specific parking lot, identified by its ID.
      * This includes data like total slots, occupied slots, total revenue, and daily revenue.
+     * The result is cached until {@link #evict(Long)} is called for the lot.
      *
      * @param id The unique identifier of the parking lot for which to retrieve statistics.
      * @return A DTO containing the various statistics for the specified parking lot.
      */
     ParkingLotStatsDto getParkingLotStats(Long id);
+
+    /**
+     * Retrieves the statistics of several parking lots with a constant number of queries.
+     * IDs of parking lots that do not exist are skipped.
+     *
+     * @param ids The unique identifiers of the parking lots.
+     * @return A list of statistics DTOs, ordered by parking lot ID.
+     */
+    List<ParkingLotStatsDto> getParkingLotStats(Collection<Long> ids);
+
+    /**
+     * Retrieves the statistics of the parking lots following a cursor in ID order, including inactive lots,
+     * with a constant number of queries. Used to go through all lots in batches.
+     *
+     * @param after The ID of the last parking lot of the previous batch, or 0 for the first batch.
+     * @param limit The maximum number of parking lots to return.
+     * @return A list of statistics DTOs, ordered by parking lot ID.
+     */
+    List<ParkingLotStatsDto> getParkingLotStatsAfter(Long after, int limit);
+
+    /**
+     * Adds a completed parking session to the revenue and session statistics of its parking lot.
+     * Must be called within the transaction that completes the session.
+     *
+     * @param parkingLotId The ID of the parking lot the session belongs to.
+     * @param amount The amount charged for the session.
+     * @param exitTime The time the session completed.
+     */
+    void recordCompletedSession(Long parkingLotId, double amount, Instant exitTime);
+
+    /**
+     * Adds the completed sessions that were not added on exit, such as past sessions or sessions completed
+     * by instances of an earlier version during a rolling upgrade, to the statistics of their parking lots.
+     */
+    void catchUpStats();
+
+    /**
+     * Drops the cached statistics of a parking lot after a change that affects them, such as a slot
+     * status change, a vehicle exit or the lot being deactivated. Inside a transaction, this happens after commit.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     */
+    void evict(Long parkingLotId);
 }
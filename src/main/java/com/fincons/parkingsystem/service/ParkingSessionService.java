@@ -1,9 +1,15 @@
 package com.fincons.parkingsystem.service;
 
 import com.fincons.parkingsystem.dto.ParkingSessionDto;
+import com.fincons.parkingsystem.dto.CursorPage;
+import com.fincons.parkingsystem.dto.SessionExportFormat;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
 /**
  * Service interface for retrieving information about parking sessions.
  * This contract defines how to fetch paginated lists of active and completed sessions.
@@ -25,4 +31,33 @@ public interface ParkingSessionService {
      * @return A paginated list of DTOs, each representing a completed parking session.
      */
     Page<ParkingSessionDto> getSessionHistory(Pageable pageable);
+
+    /**
+     * Retrieves a page of currently active parking sessions using keyset pagination, newest first.
+     *
+     * @param after The opaque cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link CursorPage} of DTOs representing active sessions.
+     */
+    CursorPage<ParkingSessionDto> getActiveSessions(String after, int limit);
+
+    /**
+     * Retrieves a page of the parking session history using keyset pagination, newest first.
+     *
+     * @param after The opaque cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link CursorPage} of DTOs representing sessions.
+     */
+    CursorPage<ParkingSessionDto> getSessionHistory(String after, int limit);
+
+    /**
+     * Writes the parking session history to a stream as NDJSON or CSV, ordered by session ID.
+     *
+     * @param format The format of the export.
+     * @param from The inclusive start of the entry time range, or {@code null} for no lower bound.
+     * @param to The exclusive end of the entry time range, or {@code null} for no upper bound.
+     * @param outputStream The stream the export is written to; it is flushed but not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    void exportSessions(SessionExportFormat format, Instant from, Instant to, OutputStream outputStream) throws IOException;
 }
@@ -0,0 +1,26 @@
+package com.fincons.parkingsystem.service;
+
+/**
+ * Service interface for deciding which instance relays a message to the external STOMP broker.
+ * Every instance consumes every realtime event to keep its own in-memory state, but with the broker
+ * relay a message sent by each of them would reach every client once per instance. Instead, each
+ * message is relayed only by the instance that owns it.
+ */
+public interface RelayOwnershipService {
+
+    /**
+     * Checks whether this instance sends the messages of a parking lot.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return {@code true} with the in-memory broker, or if this instance owns the lot with the broker relay.
+     */
+    boolean ownsLot(Long parkingLotId);
+
+    /**
+     * Checks whether this instance sends the messages of topics that are not tied to one parking lot,
+     * such as {@code /topic/sessions-activity} and {@code /topic/reservation}.
+     *
+     * @return {@code true} with the in-memory broker, or if this instance owns them with the broker relay.
+     */
+    boolean ownsGlobalTopics();
+}
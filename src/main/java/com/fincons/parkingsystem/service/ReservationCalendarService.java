@@ -0,0 +1,73 @@
+package com.fincons.parkingsystem.service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Service interface for the in-memory calendar of booked reservation windows.
+ * This contract defines how to check slot availability for a time window and how to
+ * book and release windows without querying the `reservations` table.
+ */
+public interface ReservationCalendarService {
+
+    /**
+     * Checks whether a slot has no booking overlapping the window [start, end).
+     *
+     * @param parkingSlotId The unique identifier of the parking slot.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @return {@code true} if the slot is free for the whole window, {@code false} otherwise.
+     */
+    boolean isSlotFree(Long parkingSlotId, Instant start, Instant end);
+
+    /**
+     * Finds a slot of a parking lot that is free for the window [start, end), in logarithmic time.
+     * Only bookings known to this instance are considered, so callers confirm the slot against the database.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @param excludedSlotIds Slots to skip, for example because they are under service.
+     * @return An {@link Optional} containing a free slot ID, or empty if every slot is booked or excluded.
+     */
+    Optional<Long> findFreeSlot(Long parkingLotId, Instant start, Instant end, Set<Long> excludedSlotIds);
+
+    /**
+     * Atomically books the window [start, end) on a slot for a reservation.
+     * If called inside a transaction, the booking is undone when the transaction rolls back.
+     *
+     * @param reservationId The unique identifier of the reservation holding the window.
+     * @param parkingLotId The unique identifier of the slot's parking lot.
+     * @param parkingSlotId The unique identifier of the parking slot.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @return {@code true} if the window was booked, {@code false} if it overlaps an existing booking.
+     */
+    boolean tryBook(Long reservationId, Long parkingLotId, Long parkingSlotId, Instant start, Instant end);
+
+    /**
+     * Moves a booking made under a provisional key to the reservation that now holds it, so a window
+     * can be booked before its reservation is persisted. If called inside a transaction, the booking is
+     * removed when the transaction rolls back.
+     *
+     * @param provisionalKey The key the window was booked under.
+     * @param reservationId The unique identifier of the persisted reservation.
+     */
+    void rekey(Long provisionalKey, Long reservationId);
+
+    /**
+     * Releases the window held by a reservation.
+     * If called inside a transaction, the window is booked again when the transaction rolls back.
+     *
+     * @param reservationId The unique identifier of the reservation.
+     */
+    void release(Long reservationId);
+
+    /**
+     * Removes all bookings whose window ended before the given time.
+     *
+     * @param cutoff The point in time before which finished windows are discarded.
+     */
+    void pruneEndedBefore(Instant cutoff);
+}
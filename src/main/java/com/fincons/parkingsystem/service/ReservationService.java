@@ -1,5 +1,7 @@
 package com.fincons.parkingsystem.service;
 
+import com.fincons.parkingsystem.dto.CursorPage;
+import com.fincons.parkingsystem.dto.ParkingSessionDto;
 import com.fincons.parkingsystem.dto.ReservationDto;
 import com.fincons.parkingsystem.dto.ReservationRequestDto;
 
@@ -36,6 +38,15 @@ public interface ReservationService {
      */
     Page<ReservationDto> getReservationStatus(Pageable pageable);
 
+    /**
+     * Retrieves a page of reservations using keyset pagination, newest first.
+     *
+     * @param after The opaque cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return A {@link CursorPage} of DTOs representing reservations.
+     */
+    CursorPage<ReservationDto> getReservationStatus(String after, int limit);
+
     /**
      * Processes the arrival of a vehicle with a reservation, converting the reservation
      * into an active parking session.
@@ -43,4 +54,25 @@ public interface ReservationService {
      * @param reservationId The unique identifier of the reservation to be processed.
      */
     void processArrival(Long reservationId);
+
+    /**
+     * Processes the arrival of a vehicle identified by its number plate, converting its active
+     * reservation into a parking session.
+     *
+     * @param vehicleNumber The registration number of the arriving vehicle.
+     * @param parkingLotId The lot the vehicle is arriving at, or {@code null} to accept any lot.
+     * @return The DTO of the parking session started for the vehicle.
+     */
+    ParkingSessionDto processArrivalByVehicle(String vehicleNumber, Long parkingLotId);
+
+    /**
+     * Checks in a vehicle identified by its number plate inside the caller's transaction, converting
+     * its active reservation into a parking session. Unlike {@link #processArrivalByVehicle}, it is not
+     * retried, so a transactional caller that retries itself restarts the whole transaction.
+     *
+     * @param vehicleNumber The registration number of the arriving vehicle.
+     * @param parkingLotId The lot the vehicle is arriving at, or {@code null} to accept any lot.
+     * @return The DTO of the parking session started for the vehicle.
+     */
+    ParkingSessionDto checkInByVehicle(String vehicleNumber, Long parkingLotId);
 }
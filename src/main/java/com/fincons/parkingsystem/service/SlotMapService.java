@@ -0,0 +1,59 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.SlotDeltasDto;
+import com.fincons.parkingsystem.dto.SlotMapSnapshotDto;
+import com.fincons.parkingsystem.dto.SlotStatusBitmapDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+
+/**
+ * Service interface for the in-memory slot map of each parking lot.
+ * A client loads a lot's snapshot once, then follows its numbered slot changes; after a
+ * disconnect it asks for the changes since the last sequence number it saw instead of
+ * reloading the whole lot.
+ */
+public interface SlotMapService {
+
+    /**
+     * Returns the full slot map of a parking lot, loading it from the database on first use.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A compact snapshot of every active slot with the sequence number it reflects.
+     */
+    SlotMapSnapshotDto getSnapshot(Long parkingLotId);
+
+    /**
+     * Returns the statuses of every slot of a parking lot, packed 2 bits per slot in slot number
+     * order, loading the lot from the database on first use.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The packed statuses with the sequence number they reflect.
+     */
+    SlotStatusBitmapDto getStatusBitmap(Long parkingLotId);
+
+    /**
+     * Returns the slot changes of a parking lot after a given sequence number.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param epoch The epoch of the snapshot or deltas the client holds.
+     * @param since The sequence number of the last change the client has applied.
+     * @return The missed changes, or a response asking the client to reload the snapshot.
+     */
+    SlotDeltasDto getDeltasSince(Long parkingLotId, long epoch, long since);
+
+    /**
+     * Applies a slot status change to the lot's slot map, if it is loaded, and stamps the
+     * change with its sequence number.
+     *
+     * @param statusUpdateDto The slot status change; its {@code sequence} is set by this method.
+     */
+    void applyUpdate(SlotStatusUpdateDto statusUpdateDto);
+
+    /**
+     * Drops the slot map of a parking lot whose slots changed without slot events (for example
+     * when the lot is deactivated or reactivated). Inside a transaction, this happens after commit.
+     * Sequence numbers keep increasing, but earlier changes can no longer be replayed.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     */
+    void evict(Long parkingLotId);
+}
@@ -0,0 +1,42 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.ParkingLotStatsBucketDto;
+import com.fincons.parkingsystem.entity.StatsGranularity;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Service interface for the hourly and daily statistics rollups of parking lots.
+ * This contract defines how occupancy is observed, how sessions are rolled up into time buckets,
+ * and how the buckets are queried for trend charts.
+ */
+public interface StatsRollupService {
+
+    /**
+     * Records the current occupancy of a parking lot, to be written as the peak occupancy of the
+     * current buckets if it is the highest observed.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @param occupancyPercentage The current occupancy percentage.
+     */
+    void recordOccupancy(Long parkingLotId, double occupancyPercentage);
+
+    /**
+     * Rolls the sessions that entered or completed since the last run up into the hourly and daily
+     * buckets of their parking lots, and writes the observed peak occupancies.
+     */
+    void rollUp();
+
+    /**
+     * Retrieves the statistics buckets of a parking lot within a time range.
+     * Buckets without any activity or observed occupancy are omitted.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @param from The start of the range; the bucket containing it is included.
+     * @param to The exclusive end of the range.
+     * @param granularity The length of the buckets.
+     * @return A list of {@link ParkingLotStatsBucketDto} objects, oldest first.
+     */
+    List<ParkingLotStatsBucketDto> getHistory(Long parkingLotId, Instant from, Instant to, StatsGranularity granularity);
+}
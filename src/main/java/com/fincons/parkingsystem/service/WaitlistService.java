@@ -0,0 +1,48 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.WaitlistEntryDto;
+import com.fincons.parkingsystem.dto.WaitlistRequestDto;
+import com.fincons.parkingsystem.entity.ParkingSlot;
+
+import java.util.List;
+
+/**
+ * Service interface for the per-lot FIFO waitlist.
+ * This contract defines how vehicles queue for a full lot and how a freed slot is handed
+ * directly to the next waiting vehicle as a reservation.
+ */
+public interface WaitlistService {
+
+    /**
+     * Adds a vehicle to the waitlist of a full parking lot.
+     *
+     * @param waitlistRequestDto The request DTO containing the vehicle and parking lot details.
+     * @return A DTO representing the new waitlist entry, including its queue position.
+     */
+    WaitlistEntryDto joinWaitlist(WaitlistRequestDto waitlistRequestDto);
+
+    /**
+     * Removes a waiting vehicle from the waitlist.
+     *
+     * @param entryId The unique identifier of the waitlist entry.
+     */
+    void leaveWaitlist(Long entryId);
+
+    /**
+     * Retrieves the waiting entries of a parking lot in queue order.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A list of DTOs for the waiting entries, first in line first.
+     */
+    List<WaitlistEntryDto> getWaitlist(Long parkingLotId);
+
+    /**
+     * Hands a slot that has just become available to the next waiting vehicle of its lot.
+     * Must be called inside the transaction that freed the slot. On success the slot is marked
+     * RESERVED (the caller persists and publishes it) and the waiter is notified of the new reservation.
+     *
+     * @param parkingSlot The freed slot, with status AVAILABLE.
+     * @return {@code true} if the slot was handed to a waiter, {@code false} if nobody was waiting.
+     */
+    boolean handOverSlot(ParkingSlot parkingSlot);
+}
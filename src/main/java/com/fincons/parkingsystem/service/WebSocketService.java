@@ -16,6 +16,15 @@ public interface WebSocketService {
      */
     void sendSlotUpdate(Long parkingLotId, Object payload);
 
+    /**
+     * Checks whether any client watches the updates of a parking lot, so that callers can skip
+     * building messages that nobody would receive.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @return {@code true} if the lot's dashboard, slot or alert destination has subscribers.
+     */
+    boolean isLotWatched(Long parkingLotId);
+
     /**
      * Sends a real-time notification that a vehicle has entered.
      *
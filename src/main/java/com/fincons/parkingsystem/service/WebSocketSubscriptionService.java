@@ -0,0 +1,17 @@
+package com.fincons.parkingsystem.service;
+
+/**
+ * Service interface for tracking which STOMP destinations have subscribers.
+ * This contract lets broadcasters skip building and serializing messages that nobody would receive.
+ */
+public interface WebSocketSubscriptionService {
+
+    /**
+     * Checks whether a message sent to a destination could reach a subscriber.
+     * Subscriptions to destination patterns (e.g. {@code /topic/slots/*}) are taken into account.
+     *
+     * @param destination The destination, e.g. {@code /topic/slots/1}.
+     * @return {@code true} if the destination may have subscribers, {@code false} if it certainly has none.
+     */
+    boolean hasSubscribers(String destination);
+}
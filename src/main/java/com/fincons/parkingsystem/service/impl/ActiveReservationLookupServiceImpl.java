@@ -0,0 +1,84 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.entity.Reservation;
+import com.fincons.parkingsystem.entity.ReservationStatus;
+import com.fincons.parkingsystem.repository.ReservationRepository;
+import com.fincons.parkingsystem.service.ActiveReservationLookupService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation for the in-memory index of active reservations by vehicle number.
+ * It is rebuilt from the `reservations` table at startup and kept up to date by the services
+ * that change reservation status. Entries written by other instances are not seen here, which
+ * is why lookups are always verified against the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveReservationLookupServiceImpl implements ActiveReservationLookupService {
+
+    private final ReservationRepository reservationRepository;
+
+    // Vehicle number -> ID of its active reservation.
+    private final Map<String, Long> activeReservations = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the index at application startup from every active reservation.
+     */
+    @PostConstruct
+    public void rebuildIndex() {
+        for (Reservation reservation : reservationRepository.findByStatusWithVehicle(ReservationStatus.ACTIVE)) {
+            activeReservations.put(reservation.getVehicle().getVehicleNumber(), reservation.getId());
+        }
+        log.info("Active reservation index rebuilt with {} entries", activeReservations.size());
+    }
+
+    /**
+     * Looks up the active reservation of a vehicle.
+     *
+     * @param vehicleNumber The registration number of the vehicle.
+     * @return An {@link Optional} containing the reservation ID, or empty if none is indexed.
+     */
+    @Override
+    public Optional<Long> findReservationId(String vehicleNumber) {
+        return Optional.ofNullable(activeReservations.get(vehicleNumber));
+    }
+
+    /**
+     * Records the current status of a reservation in the index, after the surrounding transaction commits.
+     *
+     * @param reservation The reservation whose status changed.
+     */
+    @Override
+    public void track(Reservation reservation) {
+        String vehicleNumber = reservation.getVehicle().getVehicleNumber();
+        Long reservationId = reservation.getId();
+        boolean active = reservation.getStatus() == ReservationStatus.ACTIVE;
+        Runnable apply = () -> {
+            if (active) {
+                activeReservations.put(vehicleNumber, reservationId);
+            } else {
+                activeReservations.remove(vehicleNumber, reservationId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
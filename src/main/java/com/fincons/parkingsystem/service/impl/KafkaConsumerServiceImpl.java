@@ -6,6 +6,8 @@ import com.fincons.parkingsystem.dto.VehicleEnteredEvent;
 import com.fincons.parkingsystem.dto.VehicleExitedEvent;
 import com.fincons.parkingsystem.service.KafkaConsumerService;
 import com.fincons.parkingsystem.service.ParkingLotDashboardService;
+import com.fincons.parkingsystem.service.ParkingLotStatsService;
+import com.fincons.parkingsystem.service.SlotMapService;
 import com.fincons.parkingsystem.service.WebSocketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +17,10 @@ import org.springframework.stereotype.Service;
 /**
  * Service implementation for consuming messages from Kafka topics.
  * This class contains methods annotated with @KafkaListener to handle incoming events
- * and delegate them to the appropriate services.
+ * and delegate them to the appropriate services. All listeners are broadcast consumers: they feed
+ * this instance's WebSocket clients and in-memory dashboards, so their group comes from the
+ * container factory (see {@link com.fincons.parkingsystem.config.KafkaConfig}) and every instance
+ * receives every event.
  */
 @Service
 @Slf4j
@@ -24,6 +29,8 @@ public class KafkaConsumerServiceImpl implements KafkaConsumerService {
 
     private final WebSocketService webSocketService;
     private final ParkingLotDashboardService parkingLotDashboardService;
+    private final ParkingLotStatsService parkingLotStatsService;
+    private final SlotMapService slotMapService;
 
     /**
      * Consumes a generic string message from a Kafka topic.
@@ -44,7 +51,6 @@ public class KafkaConsumerServiceImpl implements KafkaConsumerService {
      */
     @KafkaListener(
             topics = "vehicle-entry",
-            groupId = "group_id",
             containerFactory = "vehicleEnteredKafkaListenerFactory"
     )
     @Override
@@ -55,13 +61,13 @@ public class KafkaConsumerServiceImpl implements KafkaConsumerService {
 
     /**
      * Listens for and consumes {@link VehicleExitedEvent} messages from the "vehicle-exit" topic.
-     * Upon consumption, it forwards the event to the WebSocket service to notify clients.
+     * Upon consumption, it forwards the event to the WebSocket service to notify clients. The lot's
+     * statistics are evicted by the slot update of the exit, which is only sent once the exit has committed.
      *
      * @param vehicleExitedEvent The event object representing a vehicle exit.
      */
     @KafkaListener(
             topics = "vehicle-exit",
-            groupId = "group_id",
             containerFactory = "vehicleExitedKafkaListenerFactory"
     )
     @Override
@@ -73,25 +79,27 @@ public class KafkaConsumerServiceImpl implements KafkaConsumerService {
     /**
      * Listens for and consumes {@link SlotStatusUpdateDto} messages from the "slot-update" topic.
      * Upon consumption, it delegates the event to the ParkingLotDashboardService to update
-     * the real-time occupancy state.
+     * the real-time occupancy state, and to the SlotMapService, which stamps it with its sequence
+     * number before it is broadcast. Slot updates are sent after their transaction commits, so the
+     * lot's cached statistics are evicted only once the change is visible.
      *
      * @param slotUpdateDto The DTO containing the slot status update information.
      */
     @KafkaListener(
             topics = "slot-update",
-            groupId = "group_id",
             containerFactory = "slotUpdateKafkaListenerFactory"
     )
     @Override
     public void slotUpdateConsume(SlotStatusUpdateDto slotUpdateDto) {
         log.info("Slot Update Notified: {}", slotUpdateDto);
         parkingLotDashboardService.updateOccupancy(slotUpdateDto);
+        slotMapService.applyUpdate(slotUpdateDto);
+        parkingLotStatsService.evict(slotUpdateDto.getParkingLotId());
         webSocketService.SendSlotStatusUpdate(slotUpdateDto.getParkingLotId(), slotUpdateDto);
     }
 
     @KafkaListener(
             topics = "reservation",
-            groupId = "group_id",
             containerFactory = "reservationUpdateKafkaListenerFactory"
     )
     @Override
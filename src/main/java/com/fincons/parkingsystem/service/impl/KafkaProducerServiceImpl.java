@@ -9,6 +9,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.ObjectError;
 
 /**
@@ -64,14 +66,23 @@ public class KafkaProducerServiceImpl implements KafkaProducerService {
 
     /**
      * Publishes a {@link SlotStatusUpdateDto} to the slot update topic.
+     * Inside a transaction the event is sent only after the transaction commits, so consumers never
+     * apply a change that was rolled back or is retried; a rolled-back transaction sends nothing.
      *
      * @param slotUpdateDto The DTO containing the slot status update information.
      */
     @Override
     public void sendSlotUpdateProduce(SlotStatusUpdateDto slotUpdateDto) {
-        log.info("Producing slot update event to topic {}: {}", SLOT_UPDATE_TOPIC_NAME, slotUpdateDto);
-        kafkaSlotUpdateMessageTemplate.send(SLOT_UPDATE_TOPIC_NAME, slotUpdateDto);
-
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendSlotUpdate(slotUpdateDto);
+                }
+            });
+        } else {
+            sendSlotUpdate(slotUpdateDto);
+        }
     }
 
     @Override
@@ -79,4 +90,15 @@ public class KafkaProducerServiceImpl implements KafkaProducerService {
         log.info("Sending Reservation Update");
         kafkaReservationUpdateMessageTemplate.send(RESERVATION_UPDATE_TOPIC_NAME, reservationUpdate);
     }
+
+    /**
+     * Helper method to send a slot status update to the slot update topic.
+     *
+     * @param slotUpdateDto The DTO containing the slot status update information.
+     */
+    private void sendSlotUpdate(SlotStatusUpdateDto slotUpdateDto) {
+        log.info("Producing slot update event to topic {}: {}", SLOT_UPDATE_TOPIC_NAME, slotUpdateDto);
+        // Keyed by lot so the changes of a lot stay in order on one partition.
+        kafkaSlotUpdateMessageTemplate.send(SLOT_UPDATE_TOPIC_NAME, String.valueOf(slotUpdateDto.getParkingLotId()), slotUpdateDto);
+    }
 }
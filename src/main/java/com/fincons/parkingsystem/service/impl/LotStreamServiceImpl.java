@@ -0,0 +1,321 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
+import com.fincons.parkingsystem.dto.SlotDeltasDto;
+import com.fincons.parkingsystem.dto.SlotMapSnapshotDto;
+import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.service.LotStreamService;
+import com.fincons.parkingsystem.service.ParkingLotDashboardService;
+import com.fincons.parkingsystem.service.SlotMapService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service implementation of the Server-Sent Events stream of a parking lot.
+ * Events are read from the same in-memory state as the WebSocket dashboard, the occupancy snapshot
+ * of {@link ParkingLotDashboardService} and the slot map of {@link SlotMapService}, so an open stream
+ * costs no queries. Three events are sent:
+ * <ul>
+ *     <li>{@code slot-map}: a {@link SlotMapSnapshotDto} of every slot, when the stream opens or a client must resync;</li>
+ *     <li>{@code slot-deltas}: a {@link SlotDeltasDto} of the slot changes since the previous slot event;</li>
+ *     <li>{@code occupancy}: an {@link OccupancyUpdateDto}, when the lot's occupancy changed.</li>
+ * </ul>
+ * Slot events carry the ID {@code {epoch}-{sequence}}; a reconnecting client sends the last one
+ * as {@code Last-Event-ID} and only receives what it missed. Each subscriber keeps its own position,
+ * and new changes are pushed once per flush window ({@code parking.websocket.flush-window-ms}).
+ * Events are sent on a pool of {@code parking.sse.send-threads} threads rather than on the scheduler
+ * thread, so a slow client cannot hold up other scheduled jobs. A subscriber whose previous send is
+ * still blocked is skipped, and catches up from its position in a later window.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LotStreamServiceImpl implements LotStreamService {
+
+    private final SlotMapService slotMapService;
+    private final ParkingLotDashboardService parkingLotDashboardService;
+
+    @Value("${parking.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${parking.sse.send-threads:4}")
+    private int sendThreads;
+
+    // Open streams per parking lot. Lists are only changed inside compute(), so a stream is never
+    // added to a list that has just been dropped for being empty.
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private ExecutorService sendExecutor;
+
+    /**
+     * An open stream and the position of the last events sent on it. Guarded by its own monitor.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private long epoch;
+        private long sequence;
+        private long occupancySequence;
+        // Set while a send to this stream is queued or running.
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Starts the threads that send events to open streams.
+     */
+    @PostConstruct
+    void startSendExecutor() {
+        sendExecutor = Executors.newFixedThreadPool(sendThreads, Thread.ofPlatform().name("sse-send-", 1).daemon().factory());
+    }
+
+    /**
+     * Stops the threads that send events to open streams.
+     */
+    @PreDestroy
+    void stopSendExecutor() {
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Opens the event stream of a parking lot, starting with the lot's current state or with the
+     * slot changes missed since {@code lastEventId}.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param lastEventId The value of the {@code Last-Event-ID} header, or {@code null}.
+     * @return The emitter that streams the lot's events to the client.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     */
+    @Override
+    public SseEmitter subscribe(Long parkingLotId, String lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs));
+        synchronized (subscriber) {
+            try {
+                catchUp(parkingLotId, subscriber, lastEventId);
+            } catch (IOException e) {
+                subscriber.emitter.completeWithError(e);
+                return subscriber.emitter;
+            }
+        }
+        subscribers.compute(parkingLotId, (id, lotSubscribers) -> {
+            List<Subscriber> added = lotSubscribers != null ? lotSubscribers : new CopyOnWriteArrayList<>();
+            added.add(subscriber);
+            return added;
+        });
+        Runnable remove = () -> subscribers.computeIfPresent(parkingLotId, (id, lotSubscribers) -> {
+            lotSubscribers.remove(subscriber);
+            return lotSubscribers.isEmpty() ? null : lotSubscribers;
+        });
+        subscriber.emitter.onCompletion(remove);
+        subscriber.emitter.onTimeout(remove);
+        subscriber.emitter.onError(error -> remove.run());
+        log.info("Opened event stream for parking lot {} (resuming from {})", parkingLotId, lastEventId);
+        return subscriber.emitter;
+    }
+
+    /**
+     * Hands the changes made during the last flush window to the send threads, one task per open stream.
+     * Subscribers of a lot at the same position share one read of the slot map.
+     */
+    @Scheduled(fixedRateString = "${parking.websocket.flush-window-ms:100}")
+    public void pushUpdates() {
+        subscribers.forEach((parkingLotId, lotSubscribers) -> {
+            LotPush push = new LotPush(parkingLotId, parkingLotDashboardService.getOccupancy(parkingLotId));
+            lotSubscribers.forEach(subscriber -> submit(subscriber, () -> pushUpdates(push, subscriber)));
+        });
+    }
+
+    /**
+     * Sends a comment to every open stream, so that idle connections are not closed by proxies
+     * and closed connections are detected. Streams with a send in progress are skipped.
+     */
+    @Scheduled(fixedRateString = "${parking.sse.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(lotSubscribers -> lotSubscribers.forEach(subscriber -> submit(subscriber, () -> {
+            synchronized (subscriber) {
+                send(subscriber, SseEmitter.event().comment("keep-alive"));
+            }
+        })));
+    }
+
+    /**
+     * Helper method to run a send on the send threads, unless a send to the same stream is still queued or running.
+     *
+     * @param subscriber The subscriber to send to.
+     * @param task The send.
+     */
+    private void submit(Subscriber subscriber, Runnable task) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    subscriber.sending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.sending.set(false);
+        }
+    }
+
+    /**
+     * Helper method to push the new slot changes and occupancy of a parking lot to one of its subscribers.
+     * The stream is closed if the lot no longer exists.
+     *
+     * @param push The state of the lot read for this flush window.
+     * @param subscriber The open stream.
+     */
+    private void pushUpdates(LotPush push, Subscriber subscriber) {
+        Long parkingLotId = push.parkingLotId;
+        Optional<OccupancyUpdateDto> occupancy = push.occupancy;
+        synchronized (subscriber) {
+            try {
+                // Every open stream follows this instance's epoch, so the sequence alone identifies a position.
+                SlotDeltasDto deltas = push.deltasByPosition.computeIfAbsent(subscriber.sequence,
+                        since -> slotMapService.getDeltasSince(parkingLotId, subscriber.epoch, since));
+                boolean sent;
+                if (deltas.isResyncRequired()) {
+                    SlotMapSnapshotDto snapshot = push.snapshot.updateAndGet(read -> read != null ? read : slotMapService.getSnapshot(parkingLotId));
+                    sent = send(subscriber, slotMapEvent(snapshot));
+                    subscriber.epoch = snapshot.getEpoch();
+                    subscriber.sequence = snapshot.getSequence();
+                } else if (!deltas.getDeltas().isEmpty()) {
+                    sent = send(subscriber, slotDeltasEvent(deltas));
+                    subscriber.sequence = deltas.getSequence();
+                } else {
+                    sent = true;
+                }
+                if (sent && occupancy.isPresent() && occupancy.get().getSequence() > subscriber.occupancySequence) {
+                    send(subscriber, SseEmitter.event().name("occupancy").data(occupancy.get()));
+                    subscriber.occupancySequence = occupancy.get().getSequence();
+                }
+            } catch (ResourceNotFoundException e) {
+                log.info("Closing event stream of parking lot {}: {}", parkingLotId, e.getMessage());
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * The state of a parking lot read once per flush window and shared by the sends to its subscribers.
+     */
+    private static final class LotPush {
+        private final Long parkingLotId;
+        private final Optional<OccupancyUpdateDto> occupancy;
+        private final Map<Long, SlotDeltasDto> deltasByPosition = new ConcurrentHashMap<>();
+        private final AtomicReference<SlotMapSnapshotDto> snapshot = new AtomicReference<>();
+
+        private LotPush(Long parkingLotId, Optional<OccupancyUpdateDto> occupancy) {
+            this.parkingLotId = parkingLotId;
+            this.occupancy = occupancy;
+        }
+    }
+
+    /**
+     * Helper method to send the first events of a new stream.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param subscriber The new subscriber.
+     * @param lastEventId The value of the {@code Last-Event-ID} header, or {@code null}.
+     * @throws IOException if an event cannot be sent.
+     */
+    private void catchUp(Long parkingLotId, Subscriber subscriber, String lastEventId) throws IOException {
+        long[] position = parseEventId(lastEventId);
+        SlotDeltasDto deltas = position != null ? slotMapService.getDeltasSince(parkingLotId, position[0], position[1]) : null;
+        if (deltas == null || deltas.isResyncRequired()) {
+            SlotMapSnapshotDto snapshot = slotMapService.getSnapshot(parkingLotId);
+            subscriber.emitter.send(slotMapEvent(snapshot));
+            subscriber.epoch = snapshot.getEpoch();
+            subscriber.sequence = snapshot.getSequence();
+        } else {
+            if (!deltas.getDeltas().isEmpty()) {
+                subscriber.emitter.send(slotDeltasEvent(deltas));
+            }
+            subscriber.epoch = deltas.getEpoch();
+            subscriber.sequence = deltas.getSequence();
+        }
+        Optional<OccupancyUpdateDto> occupancy = parkingLotDashboardService.getOccupancy(parkingLotId);
+        if (occupancy.isPresent()) {
+            subscriber.emitter.send(SseEmitter.event().name("occupancy").data(occupancy.get()));
+            subscriber.occupancySequence = occupancy.get().getSequence();
+        }
+    }
+
+    /**
+     * Helper method to build a {@code slot-map} event.
+     *
+     * @param snapshot The slot map snapshot.
+     * @return The event, identified by the snapshot's epoch and sequence.
+     */
+    private static SseEmitter.SseEventBuilder slotMapEvent(SlotMapSnapshotDto snapshot) {
+        return SseEmitter.event().name("slot-map").id(snapshot.getEpoch() + "-" + snapshot.getSequence()).data(snapshot);
+    }
+
+    /**
+     * Helper method to build a {@code slot-deltas} event.
+     *
+     * @param deltas The slot changes.
+     * @return The event, identified by the epoch and sequence of the last change.
+     */
+    private static SseEmitter.SseEventBuilder slotDeltasEvent(SlotDeltasDto deltas) {
+        return SseEmitter.event().name("slot-deltas").id(deltas.getEpoch() + "-" + deltas.getSequence()).data(deltas);
+    }
+
+    /**
+     * Helper method to parse a {@code Last-Event-ID} of the form {@code {epoch}-{sequence}}.
+     *
+     * @param lastEventId The header value, or {@code null}.
+     * @return The epoch and sequence, or {@code null} if the ID is absent or malformed.
+     */
+    private static long[] parseEventId(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        int separator = lastEventId.indexOf('-');
+        try {
+            return new long[]{Long.parseLong(lastEventId.substring(0, separator)), Long.parseLong(lastEventId.substring(separator + 1))};
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to send an event, closing the stream if the client is gone.
+     *
+     * @param subscriber The subscriber to send to.
+     * @param event The event.
+     * @return {@code true} if the event was sent.
+     */
+    private static boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
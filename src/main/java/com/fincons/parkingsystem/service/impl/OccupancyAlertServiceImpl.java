@@ -0,0 +1,231 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.dto.HighOccupancyAlertDto;
+import com.fincons.parkingsystem.dto.OccupancyAlertRuleDto;
+import com.fincons.parkingsystem.entity.OccupancyAlertRule;
+import com.fincons.parkingsystem.exception.BadRequestException;
+import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.repository.OccupancyAlertRuleRepository;
+import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.service.OccupancyAlertService;
+import com.fincons.parkingsystem.service.WebSocketService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation of the high occupancy alert engine.
+ * Rules are kept in memory, so evaluating an occupancy change never touches the database. Each lot
+ * has an alert state: an inactive lot raises an alert when its occupancy reaches the enter threshold,
+ * unless the previous alert was raised less than the minimum re-alert interval ago, and an active
+ * lot clears it once the occupancy drops below the exit threshold. Only these transitions are sent,
+ * so the number of alerts does not grow with the slot churn of a full lot.
+ * Lots without a rule of their own use the {@code parking.alerts.*} defaults.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OccupancyAlertServiceImpl implements OccupancyAlertService {
+
+    private final OccupancyAlertRuleRepository occupancyAlertRuleRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final WebSocketService webSocketService;
+
+    @Value("${parking.alerts.enter-threshold:80}")
+    private double defaultEnterThreshold;
+
+    @Value("${parking.alerts.exit-threshold:70}")
+    private double defaultExitThreshold;
+
+    @Value("${parking.alerts.min-realert-interval-seconds:300}")
+    private long defaultMinRealertIntervalSeconds;
+
+    // The rules of lots that have one, refreshed periodically so changes made on other instances apply too.
+    private final Map<Long, Rule> rules = new ConcurrentHashMap<>();
+    // The alert state of every lot evaluated so far. Transitions happen inside compute().
+    private final Map<Long, AlertState> alertStates = new ConcurrentHashMap<>();
+
+    /**
+     * The thresholds and re-alert interval of an alert rule.
+     *
+     * @param enterThreshold The occupancy percentage at or above which an alert is raised.
+     * @param exitThreshold The occupancy percentage below which a raised alert is cleared.
+     * @param minRealertInterval The minimum time between two raised alerts.
+     */
+    private record Rule(double enterThreshold, double exitThreshold, Duration minRealertInterval) {
+    }
+
+    /**
+     * The alert state of a lot.
+     *
+     * @param active Whether an alert is currently raised.
+     * @param lastRaisedAt When the last alert was raised, or {@code null} if none was.
+     */
+    private record AlertState(boolean active, Instant lastRaisedAt) {
+        private static final AlertState INACTIVE = new AlertState(false, null);
+    }
+
+    /**
+     * Loads the alert rules of all parking lots at startup and reloads them every minute.
+     */
+    @PostConstruct
+    @Scheduled(fixedRate = 60000, initialDelay = 60000)
+    public void refreshRules() {
+        Map<Long, Rule> loaded = new HashMap<>();
+        for (OccupancyAlertRule rule : occupancyAlertRuleRepository.findAll()) {
+            loaded.put(rule.getParkingLotId(), toRule(rule));
+        }
+        rules.putAll(loaded);
+        rules.keySet().retainAll(loaded.keySet());
+        log.debug("Loaded {} occupancy alert rule(s)", loaded.size());
+    }
+
+    /**
+     * Evaluates the alert rule of a parking lot against its new occupancy and sends an alert
+     * if the lot's alert state changes.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param occupancyPercentage The new occupancy percentage of the lot.
+     */
+    @Override
+    public void evaluate(Long parkingLotId, double occupancyPercentage) {
+        Rule rule = ruleFor(parkingLotId);
+        Instant now = Instant.now();
+        HighOccupancyAlertDto[] transition = new HighOccupancyAlertDto[1];
+        alertStates.compute(parkingLotId, (id, state) -> {
+            AlertState current = state != null ? state : AlertState.INACTIVE;
+            if (!current.active() && occupancyPercentage >= rule.enterThreshold()
+                    && (current.lastRaisedAt() == null || !now.isBefore(current.lastRaisedAt().plus(rule.minRealertInterval())))) {
+                transition[0] = new HighOccupancyAlertDto(id, "High occupancy detected!", occupancyPercentage, true, rule.enterThreshold());
+                return new AlertState(true, now);
+            }
+            if (current.active() && occupancyPercentage < rule.exitThreshold()) {
+                transition[0] = new HighOccupancyAlertDto(id, "Occupancy is back to normal.", occupancyPercentage, false, rule.exitThreshold());
+                return new AlertState(false, current.lastRaisedAt());
+            }
+            return current;
+        });
+        if (transition[0] != null) {
+            log.info("High occupancy alert for parking lot {} {} at {}%", parkingLotId,
+                    transition[0].isActive() ? "raised" : "cleared", occupancyPercentage);
+            webSocketService.sendHighOccupancyAlert(transition[0]);
+        }
+    }
+
+    /**
+     * Retrieves the effective alert rule of a parking lot and its current alert state.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The lot's own rule, or the default rule if it has none.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OccupancyAlertRuleDto getRule(Long parkingLotId) {
+        requireParkingLot(parkingLotId);
+        return toDto(parkingLotId);
+    }
+
+    /**
+     * Creates or replaces the alert rule of a parking lot. The new rule applies from the next evaluation.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param ruleDto The thresholds and re-alert interval of the rule.
+     * @return The saved rule.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     * @throws BadRequestException if the exit threshold is above the enter threshold.
+     */
+    @Override
+    @Transactional
+    public OccupancyAlertRuleDto updateRule(Long parkingLotId, OccupancyAlertRuleDto ruleDto) {
+        requireParkingLot(parkingLotId);
+        if (ruleDto.getExitThreshold() > ruleDto.getEnterThreshold()) {
+            throw new BadRequestException("Exit threshold cannot be above the enter threshold.");
+        }
+        OccupancyAlertRule rule = occupancyAlertRuleRepository.findById(parkingLotId)
+                .orElseGet(() -> OccupancyAlertRule.builder().parkingLotId(parkingLotId).build());
+        rule.setEnterThreshold(ruleDto.getEnterThreshold());
+        rule.setExitThreshold(ruleDto.getExitThreshold());
+        rule.setMinRealertIntervalSeconds(ruleDto.getMinRealertIntervalSeconds());
+        occupancyAlertRuleRepository.save(rule);
+        rules.put(parkingLotId, toRule(rule));
+        log.info("Updated occupancy alert rule of parking lot {}", parkingLotId);
+        return toDto(parkingLotId);
+    }
+
+    /**
+     * Deletes the alert rule of a parking lot, so that it falls back to the default rule.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The default rule now in effect for the lot.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     */
+    @Override
+    @Transactional
+    public OccupancyAlertRuleDto deleteRule(Long parkingLotId) {
+        requireParkingLot(parkingLotId);
+        if (occupancyAlertRuleRepository.existsById(parkingLotId)) {
+            occupancyAlertRuleRepository.deleteById(parkingLotId);
+        }
+        rules.remove(parkingLotId);
+        log.info("Deleted occupancy alert rule of parking lot {}", parkingLotId);
+        return toDto(parkingLotId);
+    }
+
+    /**
+     * Helper method to check that a parking lot exists.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     */
+    private void requireParkingLot(Long parkingLotId) {
+        if (!parkingLotRepository.existsById(parkingLotId)) {
+            throw new ResourceNotFoundException("Parking lot not found with id: " + parkingLotId);
+        }
+    }
+
+    /**
+     * Helper method to find the rule in effect for a parking lot.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The lot's own rule, or the default rule.
+     */
+    private Rule ruleFor(Long parkingLotId) {
+        Rule rule = rules.get(parkingLotId);
+        return rule != null ? rule
+                : new Rule(defaultEnterThreshold, defaultExitThreshold, Duration.ofSeconds(defaultMinRealertIntervalSeconds));
+    }
+
+    /**
+     * Helper method to convert a stored rule into its in-memory form.
+     *
+     * @param rule The stored rule.
+     * @return The in-memory rule.
+     */
+    private static Rule toRule(OccupancyAlertRule rule) {
+        return new Rule(rule.getEnterThreshold(), rule.getExitThreshold(), Duration.ofSeconds(rule.getMinRealertIntervalSeconds()));
+    }
+
+    /**
+     * Helper method to build the DTO of the rule in effect for a parking lot.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The DTO of the effective rule and the lot's alert state.
+     */
+    private OccupancyAlertRuleDto toDto(Long parkingLotId) {
+        Rule rule = ruleFor(parkingLotId);
+        AlertState state = alertStates.getOrDefault(parkingLotId, AlertState.INACTIVE);
+        return new OccupancyAlertRuleDto(parkingLotId, rule.enterThreshold(), rule.exitThreshold(),
+                rule.minRealertInterval().toSeconds(), !rules.containsKey(parkingLotId), state.active());
+    }
+}
@@ -1,77 +1,231 @@
 package com.fincons.parkingsystem.service.impl;
 
-import com.fincons.parkingsystem.dto.HighOccupancyAlertDto;
+import com.fincons.parkingsystem.dto.OccupancyHistoryDto;
 import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
 import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
-import com.fincons.parkingsystem.entity.ParkingLot;
 import com.fincons.parkingsystem.entity.SlotStatus;
-import com.fincons.parkingsystem.exception.ConflictException;
-import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.exception.BadRequestException;
+import com.fincons.parkingsystem.repository.ParkingSessionRepository;
 import com.fincons.parkingsystem.repository.ParkingSlotRepository;
+import com.fincons.parkingsystem.service.OccupancyAlertService;
 import com.fincons.parkingsystem.service.ParkingLotDashboardService;
+import com.fincons.parkingsystem.service.StatsRollupService;
 import com.fincons.parkingsystem.service.WebSocketService;
-import jakarta.annotation.PostConstruct;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Service implementation for managing the real-time state of parking lot dashboards.
- * This service maintains an in-memory state of each lot's occupancy and broadcasts updates.
+ * This service maintains an immutable in-memory occupancy snapshot of each lot, updated from slot status
+ * deltas and periodically reconciled with the database, and broadcasts every new snapshot.
+ * Each snapshot carries a per-lot sequence number that increases by one with every change, so clients
+ * can detect missed or out-of-order updates. The snapshots are also sampled once per minute into a
+ * fixed-size ring buffer per lot, which serves recent occupancy charts without storing raw events.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ParkingLotDashboardServiceImpl implements ParkingLotDashboardService {
 
-    private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
     private final WebSocketService webSocketService;
+    private final OccupancyAlertService occupancyAlertService;
+    private final StatsRollupService statsRollupService;
+    private final ParkingSessionRepository parkingSessionRepository;
 
-    // In-memory map to hold the real-time state of each parking lot.
-    private final Map<Long, ParkingLotState> dashboardState = new ConcurrentHashMap<>();
-    private static final double HIGH_OCCUPANCY_THRESHOLD = 80.0;
+    // In-memory map to hold the latest occupancy snapshot of each parking lot.
+    // Snapshots are immutable and replaced by compare-and-set, so readers never need a lock.
+    private final Map<Long, AtomicReference<OccupancySnapshot>> dashboardState = new ConcurrentHashMap<>();
+
+    // Number of snapshots published since startup, across all lots.
+    private final AtomicLong version = new AtomicLong();
+    private final long epoch = System.currentTimeMillis();
+
+    // Set once the counts of every lot have been loaded; reported by the readiness probe.
+    private volatile boolean warmedUp;
+
+    // Number of one-minute occupancy samples kept per lot.
+    @Value("${parking.dashboard.history-minutes:1440}")
+    private int historyMinutes;
+
+    private final Map<Long, OccupancyHistory> occupancyHistory = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the dashboard state of all parking lots once the application has started.
+     * It runs asynchronously, so startup does not wait for it; the readiness probe reports the
+     * application as not ready until it has completed (see {@link #isWarmedUp()}). If it fails, the
+     * next scheduled reconciliation loads the state instead.
+     */
+    @Async
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUpDashboards() {
+        long start = System.nanoTime();
+        try {
+            reconcileDashboards();
+            log.info("Dashboard state of {} parking lot(s) loaded in {} ms", dashboardState.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Dashboard warm-up failed; retrying with the next reconciliation", e);
+            return;
+        }
+        try {
+            rehydrateOccupancyHistory();
+        } catch (RuntimeException e) {
+            log.error("Occupancy history could not be rebuilt; it starts empty", e);
+        }
+    }
+
+    /**
+     * Rebuilds the occupancy history of all lots for the minutes before startup from a single aggregate
+     * query over recent parking sessions. Sessions only tell how many slots were occupied, so the reserved
+     * and available counts of rebuilt samples are unknown. Samples already taken are kept.
+     */
+    public void rehydrateOccupancyHistory() {
+        int currentMinute = currentMinute();
+        // Changes are summed from one minute before the first sample, so that sessions which started
+        // before the window count towards the first sample.
+        int baseMinute = currentMinute - historyMinutes;
+        Map<Long, long[]> changesByLot = new HashMap<>();
+        for (Object[] row : parkingSessionRepository.sumOccupancyChangesByParkingLotAndMinute(
+                Instant.ofEpochSecond(baseMinute * 60L), Instant.ofEpochSecond(currentMinute * 60L))) {
+            long[] changes = changesByLot.computeIfAbsent(((Number) row[0]).longValue(), id -> new long[historyMinutes]);
+            changes[(int) (((Number) row[1]).longValue() - baseMinute)] += ((Number) row[2]).longValue();
+        }
+        for (Long parkingLotId : dashboardState.keySet()) {
+            long[] changes = changesByLot.getOrDefault(parkingLotId, new long[historyMinutes]);
+            OccupancyHistory history = historyOf(parkingLotId);
+            long occupied = 0;
+            // The sample of a minute reflects the changes made before it started.
+            for (int offset = 1; offset < historyMinutes; offset++) {
+                occupied += changes[offset - 1];
+                history.fill(baseMinute + offset, (int) Math.max(0, occupied));
+            }
+        }
+    }
 
     /**
-     * Initializes the dashboard state for all parking lots at application startup.
+     * A scheduled task that runs at the start of every minute to record the current snapshot of each lot
+     * into its occupancy history. Recording a sample writes into preallocated arrays only.
      */
-    @PostConstruct
-    public void initializeAllDashboards() {
-        List<ParkingLot> parkingLots = parkingLotRepository.findAll();
-        parkingLots.forEach(lot -> initializeDashboard(lot.getId()));
+    @Scheduled(cron = "0 * * * * *")
+    public void sampleOccupancyHistory() {
+        int minute = currentMinute();
+        dashboardState.forEach((parkingLotId, reference) -> {
+            OccupancySnapshot snapshot = reference.get();
+            historyOf(parkingLotId).record(minute, (int) snapshot.occupiedSlots(), (int) snapshot.reservedSlots(), (int) snapshot.availableSlots());
+        });
+    }
+
+    /**
+     * Returns the recent occupancy of a parking lot from its in-memory history, oldest sample first.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param minutes The number of most recent minutes to return; larger values are limited to the kept history.
+     * @return An {@link Optional} containing the occupancy history, or empty if the lot has no state yet.
+     * @throws BadRequestException if {@code minutes} is not positive.
+     */
+    @Override
+    public Optional<OccupancyHistoryDto> getOccupancyHistory(Long parkingLotId, int minutes) {
+        if (minutes < 1) {
+            throw new BadRequestException("The number of minutes must be positive.");
+        }
+        if (!dashboardState.containsKey(parkingLotId)) {
+            return Optional.empty();
+        }
+        return Optional.of(historyOf(parkingLotId).read(parkingLotId, currentMinute(), Math.min(minutes, historyMinutes)));
+    }
+
+    /**
+     * Checks whether the dashboard state of all parking lots has been loaded.
+     *
+     * @return {@code true} once a full reconciliation has completed.
+     */
+    @Override
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    /**
+     * Returns the current in-memory occupancy snapshot of a parking lot, without querying the database.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return An {@link Optional} containing the latest occupancy update, or empty if the lot has no state yet.
+     */
+    @Override
+    public Optional<OccupancyUpdateDto> getOccupancy(Long parkingLotId) {
+        AtomicReference<OccupancySnapshot> reference = dashboardState.get(parkingLotId);
+        return reference != null ? Optional.of(reference.get().toUpdate(parkingLotId)) : Optional.empty();
+    }
+
+    /**
+     * Returns the current in-memory occupancy snapshots of all parking lots, without querying the database.
+     *
+     * @return The latest occupancy update of every lot with state, ordered by parking lot ID.
+     */
+    @Override
+    public List<OccupancyUpdateDto> getAllOccupancies() {
+        return dashboardState.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getValue().get().toUpdate(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * Returns the number of snapshots published since startup, across all lots.
+     *
+     * @return The version of the dashboard state as a whole.
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the time this instance's dashboard state was created.
+     *
+     * @return The epoch of the versions and sequence numbers.
+     */
+    @Override
+    public long getEpoch() {
+        return epoch;
     }
 
     /**
      * Initializes or re-initializes the state for a single parking lot.
-     * It fetches the current state from the database and broadcasts an initial update.
+     * It reads the lot's counts with a single grouped query and broadcasts an initial update.
      *
      * @param parkingLotId The unique identifier of the parking lot to initialize.
      */
     @Override
     public void initializeDashboard(Long parkingLotId) {
-        ParkingLot parkingLot = parkingLotRepository.findById(parkingLotId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid parking lot ID: " + parkingLotId));
-        // Get counts from DB
-        long totalSlots = parkingSlotRepository.countByParkingLot(parkingLot);
-        long occupiedSlots = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.OCCUPIED);
-        long availableSlots = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE);
-        long reservedSlots=parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.RESERVED);
-        // Update State
-        ParkingLotState state = new ParkingLotState(totalSlots, occupiedSlots, availableSlots,reservedSlots);
-        dashboardState.put(parkingLotId, state);
-
-        broadcastOccupancyUpdate(parkingLotId);
+        OccupancySnapshot counts = initializeNewDashboardState(parkingLotId);
+        publish(parkingLotId, current -> current.withCounts(counts.totalSlots(), counts.occupiedSlots(),
+                counts.availableSlots(), counts.reservedSlots()));
     }
 
     /**
      * Updates the occupancy state for a parking lot based on a slot status change event.
-     * After updating the state, it broadcasts the new occupancy and checks for high occupancy alerts.
+     * The change is applied as a delta from the event's previous status to its new status, so no
+     * database query is made on the consumer thread. Drift (for example from events without a
+     * previous status, or slots removed with their lot) is corrected by {@link #reconcileDashboards()}.
+     * After updating the state, it broadcasts the new occupancy and evaluates the lot's high occupancy alert rule.
      *
      * @param statusUpdateDto A DTO containing the details of the slot status update.
      */
@@ -79,79 +233,118 @@ public class ParkingLotDashboardServiceImpl implements ParkingLotDashboardServic
     public void updateOccupancy(SlotStatusUpdateDto statusUpdateDto) {
         Long parkingLotId = statusUpdateDto.getParkingLotId();
 
-        // Ensure state exists, or re-initialize it if missing
-        ParkingLotState state = dashboardState.computeIfAbsent(parkingLotId, this::initializeNewDashboardState);
+        if (!dashboardState.containsKey(parkingLotId)) {
+            // A lot unknown at startup is read once. Slot updates are sent after commit, so the counts
+            // include this change; changes committed since then may be counted twice until reconciled.
+            OccupancySnapshot initial = initializeNewDashboardState(parkingLotId);
+            publish(parkingLotId, current -> current.withCounts(initial.totalSlots(), initial.occupiedSlots(),
+                    initial.availableSlots(), initial.reservedSlots()));
+        } else if (statusUpdateDto.getPreviousStatus() == null) {
+            log.warn("Slot update for lot {} has no previous status; its counts will be corrected by the next reconciliation", parkingLotId);
+        } else {
+            publish(parkingLotId, current -> current.withTransition(statusUpdateDto.getPreviousStatus(), statusUpdateDto.getNewStatus()));
+        }
+    }
 
-        // Fetch fresh counts from DB to ensure accuracy
-        ParkingLot parkingLot = parkingLotRepository.findById(parkingLotId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid parking lot ID: " + parkingLotId));
+    /**
+     * A scheduled task that runs every minute to reconcile the in-memory counters with the database.
+     * The counts of every lot are read with a single grouped query; lots whose counts changed are
+     * corrected and re-broadcast. A lot whose snapshot changed while the counts were read is left
+     * as is, since the counts may predate that change; the next run corrects it instead.
+     * The first run happens at startup in {@link #warmUpDashboards()}.
+     */
+    @Scheduled(fixedRate = 60000, initialDelay = 60000)
+    public void reconcileDashboards() {
+        Map<Long, Long> sequencesBeforeRead = new HashMap<>();
+        dashboardState.forEach((parkingLotId, reference) -> sequencesBeforeRead.put(parkingLotId, reference.get().sequence()));
+        Map<Long, long[]> countsByLot = new HashMap<>();
+        for (Object[] row : parkingSlotRepository.countSlotsGroupedByParkingLotAndStatus()) {
+            long[] counts = countsByLot.computeIfAbsent((Long) row[0], id -> new long[SlotStatus.values().length]);
+            counts[((SlotStatus) row[1]).ordinal()] = (Long) row[2];
+        }
 
-        long currentOccupied = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.OCCUPIED);
-        long currentAvailable = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE);
-        long reservedSlots=parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.RESERVED);
-        // Update the in-memory state
-        state.setOccupiedSlots(currentOccupied);
-        state.setAvailableSlots(currentAvailable);
-        state.setReservedSlots(reservedSlots);
-        broadcastOccupancyUpdate(parkingLotId);
-        checkAndSendHighOccupancyAlert(parkingLotId);
+        countsByLot.forEach((parkingLotId, counts) -> {
+            long sequenceBeforeRead = sequencesBeforeRead.getOrDefault(parkingLotId, OccupancySnapshot.EMPTY.sequence());
+            publish(parkingLotId, current -> current.sequence() != sequenceBeforeRead ? current : current.withCounts(
+                    Arrays.stream(counts).sum(),
+                    counts[SlotStatus.OCCUPIED.ordinal()],
+                    counts[SlotStatus.AVAILABLE.ordinal()],
+                    counts[SlotStatus.RESERVED.ordinal()]));
+        });
+        // Lots with no active slots left (e.g. deactivated) are reset to empty.
+        sequencesBeforeRead.forEach((parkingLotId, sequenceBeforeRead) -> {
+            if (!countsByLot.containsKey(parkingLotId)) {
+                publish(parkingLotId, current -> current.sequence() != sequenceBeforeRead ? current : current.withCounts(0, 0, 0, 0));
+            }
+        });
+        warmedUp = true;
     }
 
     /**
-     * Broadcasts the current occupancy state of a parking lot to all subscribed clients.
+     * Atomically replaces the snapshot of a parking lot with the result of the given change and
+     * broadcasts the new snapshot and evaluates the lot's alert rule against it. The change may be
+     * re-applied if another thread publishes first, so it must be free of side effects. Nothing happens
+     * if the change leaves the snapshot as is, and nothing is broadcast if no client watches the lot.
      *
-     * @param parkingLotId The ID of the parking lot to broadcast an update for.
-     */
-    private void broadcastOccupancyUpdate(Long parkingLotId) {
-        ParkingLotState state = dashboardState.get(parkingLotId);
-
-        if (state != null) {
-            OccupancyUpdateDto update = new OccupancyUpdateDto(
-                    parkingLotId,
-                    state.getOccupiedSlots()+state.getReservedSlots(),
-                    state.getAvailableSlots(),
-                    state.getOccupancyPercentage()
-            );
-            webSocketService.sendSlotUpdate(parkingLotId, update);
-        } else {
-            // This is safer than throwing ConflictException if a lot is just temporarily empty
-            log.warn("Attempted to broadcast update for uninitialized parking lot: {}", parkingLotId);
+     * @param parkingLotId The ID of the parking lot.
+     * @param change A function deriving the next snapshot from the current one.
+     */
+    private void publish(Long parkingLotId, UnaryOperator<OccupancySnapshot> change) {
+        AtomicReference<OccupancySnapshot> reference = dashboardState.computeIfAbsent(parkingLotId,
+                id -> new AtomicReference<>(OccupancySnapshot.EMPTY));
+        OccupancySnapshot current;
+        OccupancySnapshot next;
+        do {
+            current = reference.get();
+            next = change.apply(current);
+        } while (next != current && !reference.compareAndSet(current, next));
+
+        if (next != current) {
+            version.incrementAndGet();
+            if (webSocketService.isLotWatched(parkingLotId)) {
+                webSocketService.sendSlotUpdate(parkingLotId, next.toUpdate(parkingLotId));
+            }
+            occupancyAlertService.evaluate(parkingLotId, next.occupancyPercentage());
+            statsRollupService.recordOccupancy(parkingLotId, next.occupancyPercentage());
         }
     }
 
     /**
-     * Checks if the occupancy of a parking lot has exceeded the high occupancy threshold
-     * and sends an alert if it has.
+     * Helper method to get the occupancy history of a lot, creating it on first use.
      *
-     * @param parkingLotId The ID of the parking lot to check.
+     * @param parkingLotId The ID of the parking lot.
+     * @return The lot's occupancy history.
      */
-    private void checkAndSendHighOccupancyAlert(Long parkingLotId) {
-        ParkingLotState state = dashboardState.get(parkingLotId);
-        if (state != null && state.getOccupancyPercentage() >= HIGH_OCCUPANCY_THRESHOLD) {
-            HighOccupancyAlertDto alert = new HighOccupancyAlertDto(
-                    parkingLotId,
-                    "High occupancy detected!",
-                    state.getOccupancyPercentage()
-            );
-            webSocketService.sendHighOccupancyAlert(alert);
+    private OccupancyHistory historyOf(Long parkingLotId) {
+        OccupancyHistory history = occupancyHistory.get(parkingLotId);
+        if (history == null) {
+            history = occupancyHistory.computeIfAbsent(parkingLotId, id -> new OccupancyHistory(historyMinutes));
         }
+        return history;
     }
 
     /**
-     * Helper method to initialize the state for a new parking lot if it's not already in the map.
+     * Helper method to return the current time in minutes since the Unix epoch.
      *
-     * @param parkingLotId The ID of the new parking lot.
-     * @return The newly created ParkingLotState.
+     * @return The current epoch minute.
      */
-    private ParkingLotState initializeNewDashboardState(Long parkingLotId) {
-        ParkingLot parkingLot = parkingLotRepository.findById(parkingLotId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid parking lot ID: " + parkingLotId));
+    private static int currentMinute() {
+        return (int) (System.currentTimeMillis() / 60_000);
+    }
 
-        long totalSlots = parkingLot.getTotalSlots(); // Assuming this is defined in Entity
-        long occupiedSlots = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.OCCUPIED);
-        long availableSlots = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE);
-        long reservedSlots=parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.RESERVED);
-        return new ParkingLotState(totalSlots, occupiedSlots, availableSlots,reservedSlots);
+    /**
+     * Helper method to read the counts of a parking lot that is not in the map yet, with a single grouped query.
+     *
+     * @param parkingLotId The ID of the new parking lot.
+     * @return A snapshot holding the counts read from the database.
+     */
+    private OccupancySnapshot initializeNewDashboardState(Long parkingLotId) {
+        long[] counts = new long[SlotStatus.values().length];
+        for (Object[] row : parkingSlotRepository.countSlotsGroupedByStatus(parkingLotId)) {
+            counts[((SlotStatus) row[0]).ordinal()] = (Long) row[1];
+        }
+        return OccupancySnapshot.EMPTY.withCounts(Arrays.stream(counts).sum(), counts[SlotStatus.OCCUPIED.ordinal()],
+                counts[SlotStatus.AVAILABLE.ordinal()], counts[SlotStatus.RESERVED.ordinal()]);
     }
 
     public void SendSlotUpdate(SlotStatusUpdateDto statusUpdateDto) {
@@ -159,36 +352,139 @@ public class ParkingLotDashboardServiceImpl implements ParkingLotDashboardServic
     }
 
     /**
-     * An inner class to hold the real-time state of a parking lot's occupancy.
-     * Using Lombok for cleaner code.
+     * A fixed-size ring buffer of one-minute occupancy samples of a parking lot, held in primitive arrays.
+     * The sample of an epoch minute is stored at the minute modulo the capacity, along with the minute
+     * itself, so stale entries from an earlier lap are recognized as missing.
+     */
+    private static final class OccupancyHistory {
+
+        private static final int UNKNOWN = -1;
+
+        private final int[] minutes;
+        private final int[] occupied;
+        private final int[] reserved;
+        private final int[] available;
+
+        OccupancyHistory(int capacity) {
+            this.minutes = new int[capacity];
+            this.occupied = new int[capacity];
+            this.reserved = new int[capacity];
+            this.available = new int[capacity];
+        }
+
+        /**
+         * Records the sample of a minute, replacing any sample stored for it.
+         */
+        synchronized void record(int minute, int occupiedSlots, int reservedSlots, int availableSlots) {
+            int index = Math.floorMod(minute, minutes.length);
+            minutes[index] = minute;
+            occupied[index] = occupiedSlots;
+            reserved[index] = reservedSlots;
+            available[index] = availableSlots;
+        }
+
+        /**
+         * Records a rebuilt sample of a minute that only knows the number of occupied slots,
+         * unless a sample has already been taken for that minute.
+         */
+        synchronized void fill(int minute, int occupiedSlots) {
+            int index = Math.floorMod(minute, minutes.length);
+            if (minutes[index] != minute) {
+                record(minute, occupiedSlots, UNKNOWN, UNKNOWN);
+            }
+        }
+
+        /**
+         * Copies the samples of the given number of minutes up to and including the current one.
+         */
+        synchronized OccupancyHistoryDto read(Long parkingLotId, int currentMinute, int count) {
+            int firstMinute = currentMinute - count + 1;
+            List<Integer> occupiedSeries = new ArrayList<>(count);
+            List<Integer> reservedSeries = new ArrayList<>(count);
+            List<Integer> availableSeries = new ArrayList<>(count);
+            for (int minute = firstMinute; minute <= currentMinute; minute++) {
+                int index = Math.floorMod(minute, minutes.length);
+                boolean present = minutes[index] == minute;
+                occupiedSeries.add(present ? occupied[index] : null);
+                reservedSeries.add(present && reserved[index] != UNKNOWN ? reserved[index] : null);
+                availableSeries.add(present && available[index] != UNKNOWN ? available[index] : null);
+            }
+            return new OccupancyHistoryDto(parkingLotId, Instant.ofEpochSecond(firstMinute * 60L), 60,
+                    occupiedSeries, reservedSeries, availableSeries);
+        }
+    }
+
+    /**
+     * An immutable view of a parking lot's occupancy. Every change produces a new snapshot with the
+     * next sequence number, so a published snapshot is never modified.
+     *
+     * @param sequence The per-lot sequence number of this snapshot; 0 before the first publication.
+     * @param totalSlots The number of active slots in the lot.
+     * @param occupiedSlots The number of occupied slots.
+     * @param availableSlots The number of available slots.
+     * @param reservedSlots The number of reserved slots.
      */
-    @Getter
-    @Setter
-    private static class ParkingLotState {
-        private long totalSlots;
-        private long occupiedSlots;
-        private long availableSlots;
-        private long reservedSlots;
-        public ParkingLotState(long totalSlots, long occupiedSlots, long availableSlots,long reservedSlots) {
-            this.totalSlots = totalSlots;
-            this.occupiedSlots = occupiedSlots;
-            this.availableSlots = availableSlots;
-            this.reservedSlots=reservedSlots;
+    private record OccupancySnapshot(long sequence, long totalSlots, long occupiedSlots, long availableSlots, long reservedSlots) {
+
+        private static final OccupancySnapshot EMPTY = new OccupancySnapshot(0, 0, 0, 0, 0);
+
+        /**
+         * Returns the snapshot after one slot moved from its previous status to its new status.
+         *
+         * @param previousStatus The status the slot had before the change.
+         * @param newStatus The status the slot has after the change.
+         * @return The next snapshot, or this one if no counter changes.
+         */
+        OccupancySnapshot withTransition(SlotStatus previousStatus, SlotStatus newStatus) {
+            if (previousStatus == newStatus) {
+                return this;
+            }
+            long occupied = occupiedSlots + delta(SlotStatus.OCCUPIED, previousStatus, newStatus);
+            long available = availableSlots + delta(SlotStatus.AVAILABLE, previousStatus, newStatus);
+            long reserved = reservedSlots + delta(SlotStatus.RESERVED, previousStatus, newStatus);
+            return withCounts(totalSlots, Math.max(0, occupied), Math.max(0, available), Math.max(0, reserved));
+        }
+
+        /**
+         * Returns the snapshot holding the given counts.
+         *
+         * @return The next snapshot, or this one if the counts are unchanged.
+         */
+        OccupancySnapshot withCounts(long totalSlots, long occupiedSlots, long availableSlots, long reservedSlots) {
+            if (this.sequence > 0 && this.totalSlots == totalSlots && this.occupiedSlots == occupiedSlots
+                    && this.availableSlots == availableSlots && this.reservedSlots == reservedSlots) {
+                return this;
+            }
+            return new OccupancySnapshot(sequence + 1, totalSlots, occupiedSlots, availableSlots, reservedSlots);
+        }
+
+        private static long delta(SlotStatus counted, SlotStatus previousStatus, SlotStatus newStatus) {
+            return (newStatus == counted ? 1 : 0) - (previousStatus == counted ? 1 : 0);
         }
 
-        public double getOccupancyPercentage() {
-            // FIX: Denominator must be (Occupied + Available) = Total Active Capacity
-            // This ignores "Maintenance/Unavailable" slots from the calculation.
-            long activeCapacity = occupiedSlots + availableSlots+reservedSlots;
-            occupiedSlots+=reservedSlots;
+        /**
+         * Calculates the occupancy percentage over the active capacity (occupied + reserved + available);
+         * "under service" slots are left out of the calculation. Reserved slots count as occupied.
+         *
+         * @return The percentage, rounded to the nearest whole number.
+         */
+        double occupancyPercentage() {
+            long activeCapacity = occupiedSlots + availableSlots + reservedSlots;
             if (activeCapacity == 0) {
                 return 0.0;
             }
+            return Math.round(((double) (occupiedSlots + reservedSlots) / activeCapacity) * 100.0);
+        }
 
-            double percentage = ((double) occupiedSlots / activeCapacity) * 100.0;
-
-            // FIX: Round to nearest whole number (e.g., 33.0 instead of 33.33333)
-            return Math.round(percentage);
+        /**
+         * Builds the occupancy update broadcast to clients from this snapshot.
+         *
+         * @param parkingLotId The ID of the parking lot.
+         * @return The occupancy update.
+         */
+        OccupancyUpdateDto toUpdate(Long parkingLotId) {
+            return new OccupancyUpdateDto(parkingLotId, occupiedSlots + reservedSlots, availableSlots,
+                    occupancyPercentage(), reservedSlots, sequence);
         }
     }
-}
\ No newline at end of file
+}
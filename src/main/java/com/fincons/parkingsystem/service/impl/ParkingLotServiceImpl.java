@@ -1,5 +1,6 @@
 package com.fincons.parkingsystem.service.impl;
 
+import com.fincons.parkingsystem.dto.CursorPage;
 import com.fincons.parkingsystem.dto.ParkingLotDto;
 import com.fincons.parkingsystem.entity.ParkingLot;
 import com.fincons.parkingsystem.entity.ParkingSlot;
@@ -13,7 +14,10 @@ import com.fincons.parkingsystem.repository.ParkingLotRepository;
 import com.fincons.parkingsystem.repository.ParkingSlotRepository;
 import com.fincons.parkingsystem.repository.ReservationRepository;
 import com.fincons.parkingsystem.service.ParkingLotService;
+import com.fincons.parkingsystem.service.ParkingLotStatsService;
 import com.fincons.parkingsystem.service.ParkingSlotService;
+import com.fincons.parkingsystem.service.SlotMapService;
+import com.fincons.parkingsystem.utils.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -36,8 +40,10 @@ public class ParkingLotServiceImpl implements ParkingLotService {
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingLotMapper parkingLotMapper;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final SlotMapService slotMapService;
     private final ParkingSlotService parkingSlotService;
     private final ReservationRepository reservationRepository;
+    private final ParkingLotStatsService parkingLotStatsService;
 
     /**
      * Creates a new parking lot and its associated parking slots.
@@ -91,6 +97,22 @@ public class ParkingLotServiceImpl implements ParkingLotService {
                 .map(parkingLotMapper::toDto);
     }
 
+    /**
+     * Retrieves a page of all parking lots, including soft-deleted ones, using keyset pagination in ID order.
+     * The page is read through the primary key without a count query.
+     *
+     * @param after The opaque cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of parking lots to return.
+     * @return A {@link CursorPage} of DTOs for parking lots, both active and inactive.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public CursorPage<ParkingLotDto> getAllParkingLotsDeleted(String after, int limit) {
+        Long afterId = CursorUtil.decode(after);
+        List<ParkingLot> parkingLots = parkingLotRepository.findAllWithInactiveAfter(afterId != null ? afterId : 0L, CursorUtil.validateLimit(limit) + 1);
+        return CursorUtil.toPage(parkingLots, limit, ParkingLot::getId, parkingLotMapper::toDto);
+    }
+
     /**
      * Deactivates a parking lot (soft delete).
      * Before deactivating, it performs crucial checks to ensure the lot is not currently in use.
@@ -110,13 +132,22 @@ public class ParkingLotServiceImpl implements ParkingLotService {
             throw new ConflictException("Can't delete Parking Lot because slots are occupied");
         }
 
+        if (parkingLot.getReservedCapacity() > 0) {
+            throw new BadRequestException("Parking Can't be deleted due to active reservation");
+        }
+
         List<ParkingSlot> parkingSlots = parkingSlotRepository.findAllByParkingLotIdWithInactive(parkingLot.getId());
         for (ParkingSlot parkingSlot : parkingSlots) {
             if (reservationRepository.existsByParkingSlotAndStatus(parkingSlot, ReservationStatus.ACTIVE)) {
                 throw new BadRequestException("Parking Can't be deleted due to active reservation");
             }
+            if (reservationRepository.existsByParkingSlotAndStatus(parkingSlot, ReservationStatus.SCHEDULED)) {
+                throw new BadRequestException("Parking Can't be deleted due to scheduled reservation");
+            }
         }
         parkingLotRepository.delete(parkingLot);
+        slotMapService.evict(id);
+        parkingLotStatsService.evict(id);
     }
 
     /**
@@ -139,6 +170,8 @@ public class ParkingLotServiceImpl implements ParkingLotService {
             slot.setDeleted(false);
         }
         parkingSlotRepository.saveAll(slots);
+        slotMapService.evict(id);
+        parkingLotStatsService.evict(id);
     }
 
     /**
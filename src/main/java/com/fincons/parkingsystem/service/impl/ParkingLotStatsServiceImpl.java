@@ -2,54 +2,327 @@ package com.fincons.parkingsystem.service.impl;
 
 import com.fincons.parkingsystem.dto.ParkingLotStatsDto;
 import com.fincons.parkingsystem.entity.ParkingLot;
-import com.fincons.parkingsystem.entity.ParkingSession;
+import com.fincons.parkingsystem.entity.ParkingLotStats;
 import com.fincons.parkingsystem.entity.SlotStatus;
+import com.fincons.parkingsystem.entity.StatsRollupWatermark;
 import com.fincons.parkingsystem.exception.ResourceNotFoundException;
 import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.repository.ParkingLotStatsRepository;
 import com.fincons.parkingsystem.repository.ParkingSessionRepository;
 import com.fincons.parkingsystem.repository.ParkingSlotRepository;
+import com.fincons.parkingsystem.repository.StatsRollupWatermarkRepository;
 import com.fincons.parkingsystem.service.ParkingLotStatsService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation for retrieving statistical data about parking lots.
- * This class handles the business logic for calculating and aggregating performance data.
+ * Revenue and session counts are read from the `parking_lot_stats` rollup, which is updated in the
+ * transaction of every vehicle exit, so reading them does not depend on the number of past sessions.
+ * The statistics of each lot are cached until an event that changes them evicts them, and concurrent
+ * requests for a lot that is not cached share a single load. Writes on this instance evict after their
+ * commit, and the slot updates of other instances, which are sent after commit, evict on consumption.
+ * Whether the daily counters still refer to the current day is decided on every read, so a lot without
+ * exits since midnight reports zero without being evicted.
+ * Completed sessions that were not counted on exit, such as past sessions or exits handled by instances of
+ * an earlier version during a rolling upgrade, are added by a scheduled job that follows a watermark.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ParkingLotStatsServiceImpl implements ParkingLotStatsService {
 
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final ParkingLotStatsRepository parkingLotStatsRepository;
     private final ParkingSessionRepository parkingSessionRepository;
+    private final StatsRollupWatermarkRepository statsRollupWatermarkRepository;
+
+    private static final String WATERMARK = "parking-lot-stats";
+
+    // Sessions are counted by the catch-up job once they exited this long ago, so exits still in flight are not skipped.
+    @Value("${parking.stats.catch-up.lag-ms:60000}")
+    private long catchUpLagMs;
+
+    // Start of the previous catch-up run on this instance; only accessed by the scheduled job.
+    private Instant lastCatchUp;
+
+    // Cached statistics per lot. A pending future marks a load in progress that other callers wait for.
+    private final Map<Long, CompletableFuture<CachedStats>> statsCache = new ConcurrentHashMap<>();
+
+    /**
+     * The statistics of a lot as loaded, with the daily counters of the day of its last exit.
+     *
+     * @param stats The statistics, with the daily counters as stored.
+     * @param statsDate The day the daily counters refer to, or {@code null} if the lot has no completed sessions.
+     */
+    private record CachedStats(ParkingLotStatsDto stats, LocalDate statsDate) {
+
+        /**
+         * Returns the statistics as of the given day: the daily counters are zero until the first exit of that day.
+         */
+        ParkingLotStatsDto asOf(LocalDate today) {
+            if (statsDate == null || today.equals(statsDate)) {
+                return stats;
+            }
+            return ParkingLotStatsDto.builder()
+                    .parkingLotId(stats.getParkingLotId())
+                    .parkingLotName(stats.getParkingLotName())
+                    .totalSlots(stats.getTotalSlots())
+                    .occupiedSlots(stats.getOccupiedSlots())
+                    .availableSlots(stats.getAvailableSlots())
+                    .totalRevenue(stats.getTotalRevenue())
+                    .deleted(stats.getDeleted())
+                    .basePricePerHour(stats.getBasePricePerHour())
+                    .occupancyPercentage(stats.getOccupancyPercentage())
+                    .revenueToday(0.0)
+                    .completedSessions(stats.getCompletedSessions())
+                    .sessionsToday(0L)
+                    .build();
+        }
+    }
+
+    /**
+     * A scheduled task that adds the completed sessions not counted on exit to the statistics, from the
+     * watermark up to the configured lag, and advances the watermark in the same transaction. The first run
+     * starts at the oldest session, so past sessions are counted once. The watermark row is locked while a
+     * window is processed, so concurrent instances never process the same window twice.
+     * Every instance then evicts the lots whose statistics changed since its previous run, including
+     * changes made by the runs of other instances.
+     */
+    @Override
+    @Scheduled(fixedRateString = "${parking.stats.catch-up.interval-ms:60000}")
+    @Transactional
+    public void catchUpStats() {
+        Instant now = Instant.now();
+        if (!statsRollupWatermarkRepository.existsById(WATERMARK)) {
+            Instant start = parkingSessionRepository.findEarliestEntryTime().orElse(now);
+            statsRollupWatermarkRepository.createIfMissing(WATERMARK, start, now);
+        }
+        StatsRollupWatermark watermark = statsRollupWatermarkRepository.findByNameForUpdate(WATERMARK)
+                .orElseThrow(() -> new IllegalStateException("Parking lot statistics watermark is missing."));
+
+        Instant from = watermark.getProcessedUntil();
+        Instant to = now.minusMillis(catchUpLagMs);
+        if (to.isAfter(from)) {
+            LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+            int updated = parkingLotStatsRepository.addUncountedSessions(from, to, today, today.atStartOfDay(ZoneOffset.UTC).toInstant(), now);
+            watermark.setProcessedUntil(to);
+            watermark.setUpdatedAt(now);
+            statsRollupWatermarkRepository.save(watermark);
+            if (updated > 0) {
+                log.info("Added uncounted sessions to the statistics of {} parking lots.", updated);
+            }
+        }
+
+        // Reach back by the lag, so runs of other instances that committed after the previous check are included.
+        Instant since = (lastCatchUp != null ? lastCatchUp : now).minusMillis(catchUpLagMs);
+        parkingLotStatsRepository.findParkingLotIdsUpdatedSince(since).forEach(this::evict);
+        lastCatchUp = now;
+    }
 
     /**
-     * Retrieves and calculates key statistics for a single parking lot.
+     * Retrieves the statistics of a single parking lot, from the cache if possible.
+     * On a cache miss, the first caller loads the statistics and concurrent callers for the same lot wait
+     * for its result instead of querying the database themselves. Failed loads are not cached.
      * This operation is read-only and can retrieve stats for both active and inactive lots.
      *
      * @param id The unique identifier of the parking lot for which to retrieve statistics.
      * @return A DTO containing the calculated statistics.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
      */
     @Override
-    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public ParkingLotStatsDto getParkingLotStats(Long id) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        CompletableFuture<CachedStats> cached = statsCache.get(id);
+        if (cached == null) {
+            CompletableFuture<CachedStats> loading = new CompletableFuture<>();
+            cached = statsCache.putIfAbsent(id, loading);
+            if (cached == null) {
+                try {
+                    CachedStats stats = loadParkingLotStats(id);
+                    loading.complete(stats);
+                    return stats.asOf(today);
+                } catch (RuntimeException e) {
+                    statsCache.remove(id, loading);
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return cached.join().asOf(today);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached statistics of a parking lot, after the surrounding transaction commits.
+     * A load in progress still completes for its callers, but its result is not cached.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     */
+    @Override
+    public void evict(Long parkingLotId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    statsCache.remove(parkingLotId);
+                }
+            });
+        } else {
+            statsCache.remove(parkingLotId);
+        }
+    }
 
+    /**
+     * Helper method to read the statistics of a single parking lot from the database.
+     * Each query runs in its own read-only transaction, so callers waiting for the load hold no connection.
+     *
+     * @param id The unique identifier of the parking lot.
+     * @return The statistics with the daily counters as stored, and the day they refer to.
+     */
+    private CachedStats loadParkingLotStats(Long id) {
         ParkingLot parkingLot = parkingLotRepository.findByIdWithInactive(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Parking lot not found with id: " + id));
 
-        Double totalRevenue = Optional.ofNullable(parkingSessionRepository.sumOfTotalAmountByParkingLot(parkingLot.getId())).orElse(0.0);
+        ParkingLotStats stats = parkingLotStatsRepository.findById(parkingLot.getId()).orElse(null);
         long occupiedSlots = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.OCCUPIED);
-        double occupancyPercentage = (parkingLot.getTotalSlots() > 0) ? ((double) occupiedSlots / parkingLot.getTotalSlots() * 100) : 0.0;
         long availableSlots = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE);
-        LocalDate today = LocalDate.now();
-        Double revenueToday = Optional.ofNullable(parkingSessionRepository.sumOfTotalAmountByParkingLotAndExitTime(parkingLot.getId(), today.atStartOfDay(ZoneOffset.UTC).toInstant(),  Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant())).orElse(0.0);
+        if (stats == null) {
+            return new CachedStats(toDto(parkingLot, null, occupiedSlots, availableSlots), null);
+        }
+        // Built as of the day of the last exit, so the stored daily counters are kept; see CachedStats.asOf.
+        return new CachedStats(toDto(parkingLot, stats, occupiedSlots, availableSlots, stats.getStatsDate()), stats.getStatsDate());
+    }
+
+    /**
+     * Retrieves the statistics of several parking lots with three queries: the lots, their rollup rows
+     * and their slot counts grouped by lot and status.
+     *
+     * @param ids The unique identifiers of the parking lots.
+     * @return A list of statistics DTOs, ordered by parking lot ID.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public List<ParkingLotStatsDto> getParkingLotStats(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return toDtos(parkingLotRepository.findAllByIdWithInactive(ids));
+    }
+
+    /**
+     * Retrieves the statistics of the parking lots following a cursor in ID order with three queries.
+     *
+     * @param after The ID of the last parking lot of the previous batch, or 0 for the first batch.
+     * @param limit The maximum number of parking lots to return.
+     * @return A list of statistics DTOs, ordered by parking lot ID.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public List<ParkingLotStatsDto> getParkingLotStatsAfter(Long after, int limit) {
+        return toDtos(parkingLotRepository.findAllWithInactiveAfter(after, limit));
+    }
+
+    /**
+     * Adds a completed parking session to the statistics of its parking lot with a single atomic upsert.
+     * Joins the transaction of the exit, so the statistics change if and only if the session is completed.
+     *
+     * @param parkingLotId The ID of the parking lot the session belongs to.
+     * @param amount The amount charged for the session.
+     * @param exitTime The time the session completed.
+     */
+    @Override
+    @Transactional
+    public void recordCompletedSession(Long parkingLotId, double amount, Instant exitTime) {
+        parkingLotStatsRepository.addCompletedSession(parkingLotId, amount, LocalDate.ofInstant(exitTime, ZoneOffset.UTC), Instant.now());
+        // Evict here after the commit; other instances evict when they consume the slot-update event sent for the exit.
+        evict(parkingLotId);
+    }
+
+    /**
+     * Helper method to build the statistics of a batch of parking lots from their rollup rows and
+     * grouped slot counts, reading each with a single query.
+     *
+     * @param parkingLots The parking lots, in the order of the result.
+     * @return A list of statistics DTOs.
+     */
+    private List<ParkingLotStatsDto> toDtos(List<ParkingLot> parkingLots) {
+        if (parkingLots.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = parkingLots.stream().map(ParkingLot::getId).toList();
+        Map<Long, ParkingLotStats> statsByLot = parkingLotStatsRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ParkingLotStats::getParkingLotId, Function.identity()));
+        Map<Long, Map<SlotStatus, Long>> countsByLot = new HashMap<>();
+        for (Object[] row : parkingSlotRepository.countSlotsGroupedByParkingLotAndStatus(ids)) {
+            countsByLot.computeIfAbsent((Long) row[0], id -> new EnumMap<>(SlotStatus.class)).put((SlotStatus) row[1], (Long) row[2]);
+        }
+        return parkingLots.stream()
+                .map(parkingLot -> {
+                    Map<SlotStatus, Long> counts = countsByLot.getOrDefault(parkingLot.getId(), Map.of());
+                    return toDto(parkingLot, statsByLot.get(parkingLot.getId()),
+                            counts.getOrDefault(SlotStatus.OCCUPIED, 0L), counts.getOrDefault(SlotStatus.AVAILABLE, 0L));
+                })
+                .toList();
+    }
+
+    /**
+     * Helper method to build the statistics DTO of a parking lot.
+     *
+     * @param parkingLot The parking lot.
+     * @param stats The rollup row of the lot, or {@code null} if it has no completed sessions.
+     * @param occupiedSlots The number of occupied slots.
+     * @param availableSlots The number of available slots.
+     * @return The statistics DTO.
+     */
+    private ParkingLotStatsDto toDto(ParkingLot parkingLot, ParkingLotStats stats, long occupiedSlots, long availableSlots) {
+        return toDto(parkingLot, stats, occupiedSlots, availableSlots, LocalDate.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Helper method to build the statistics DTO of a parking lot as of a given day.
+     *
+     * @param parkingLot The parking lot.
+     * @param stats The rollup row of the lot, or {@code null} if it has no completed sessions.
+     * @param occupiedSlots The number of occupied slots.
+     * @param availableSlots The number of available slots.
+     * @param day The day the daily counters are reported for.
+     * @return The statistics DTO.
+     */
+    private ParkingLotStatsDto toDto(ParkingLot parkingLot, ParkingLotStats stats, long occupiedSlots, long availableSlots, LocalDate day) {
+        if (stats == null) {
+            stats = ParkingLotStats.builder().parkingLotId(parkingLot.getId()).build();
+        }
+        // The daily counters refer to the day of the last exit; they are zero until the first exit of the given day.
+        boolean today = day.equals(stats.getStatsDate());
+        double occupancyPercentage = (parkingLot.getTotalSlots() > 0) ? ((double) occupiedSlots / parkingLot.getTotalSlots() * 100) : 0.0;
 
         return ParkingLotStatsDto.builder()
                 .parkingLotId(parkingLot.getId())
@@ -57,11 +330,13 @@ public class ParkingLotStatsServiceImpl implements ParkingLotStatsService {
                 .totalSlots(parkingLot.getTotalSlots())
                 .occupiedSlots(occupiedSlots)
                 .availableSlots(availableSlots)
-                .totalRevenue(totalRevenue)
+                .totalRevenue(stats.getTotalRevenue())
                 .deleted(parkingLot.isDeleted())
                 .basePricePerHour(parkingLot.getBasePricePerHour())
                 .occupancyPercentage(Math.ceil(occupancyPercentage))
-                .revenueToday(revenueToday)
+                .revenueToday(today ? stats.getRevenueToday() : 0.0)
+                .completedSessions(stats.getCompletedSessions())
+                .sessionsToday(today ? stats.getSessionsToday() : 0L)
                 .build();
     }
 }
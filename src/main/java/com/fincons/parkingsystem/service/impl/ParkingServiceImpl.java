@@ -9,7 +9,10 @@ import com.fincons.parkingsystem.exception.ResourceNotFoundException;
 import com.fincons.parkingsystem.mapper.ParkingSessionMapper;
 import com.fincons.parkingsystem.repository.*;
 import com.fincons.parkingsystem.service.KafkaProducerService;
+import com.fincons.parkingsystem.service.ParkingLotStatsService;
 import com.fincons.parkingsystem.service.ParkingService;
+import com.fincons.parkingsystem.service.ReservationService;
+import com.fincons.parkingsystem.service.WaitlistService;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -45,6 +48,9 @@ public class ParkingServiceImpl implements ParkingService {
     private final ParkingSessionMapper parkingSessionMapper;
     private final ReservationRepository parkingReservationRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final WaitlistService waitlistService;
+    private final ReservationService reservationService;
+    private final ParkingLotStatsService parkingLotStatsService;
     private final ObjectMapper objectMapper; // Injected but not used in the provided methods, might be for other methods.
 
     /**
@@ -66,12 +72,13 @@ public class ParkingServiceImpl implements ParkingService {
      * This method is transactional and set to the highest isolation level (SERIALIZABLE)
      * to prevent race conditions, such as two vehicles trying to claim the same last spot.
      * It's also retryable for transient database issues like optimistic locking failures or deadlocks.
+     * A vehicle with an active reservation for this lot is converted into a session on its reserved slot.
      *
      * @param entryRequest The request DTO containing the vehicle's details and the target parking lot ID.
      * @return A DTO representing the newly created, active parking session.
      * @throws ResourceNotFoundException if the specified parking lot does not exist.
-     * @throws ConflictException if the vehicle already has an active parking session or reservation,
-     *                           or if no available parking slots are found.
+     * @throws ConflictException if the vehicle already has an active parking session, a reservation
+     *                           for another lot, or if no available parking slots are found.
      * @throws IllegalArgumentException if the entry request is null or contains invalid data.
      */
     @Override
@@ -115,9 +122,18 @@ public class ParkingServiceImpl implements ParkingService {
         if (parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)) {
             throw new ConflictException("Vehicle already has an active parking session.");
         }
+        // A vehicle arriving with an active reservation for this lot is checked in against it
         if(parkingReservationRepository.existsByVehicleAndStatus(vehicle,ReservationStatus.ACTIVE))
         {
-            throw new ConflictException("This vehicle already has an active reservation for this parking lot.");
+            log.info("Vehicle {} has an active reservation; converting it into a session", vehicle.getVehicleNumber());
+            // Not the retryable variant: a retry must restart this method's transaction, not run inside it
+            return reservationService.checkInByVehicle(vehicle.getVehicleNumber(), parkingLot.getId());
+        }
+
+        // Leave enough available slots for vehicles holding capacity reservations in this lot
+        if (parkingLot.getReservedCapacity() > 0
+                && parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE) <= parkingLot.getReservedCapacity()) {
+            throw new ConflictException("The remaining slots in this lot are held for reservations.");
         }
 
         // Find the first available parking slot in the specified lot.
@@ -141,7 +157,9 @@ public class ParkingServiceImpl implements ParkingService {
         // Publish events to Kafka to notify other services (e.g., WebSocket dashboard)
         VehicleEnteredEvent event = new VehicleEnteredEvent(savedSession.getId(), vehicle.getVehicleNumber(), parkingLot.getId(),updatedSlot.getId(), updatedSlot.getSlotNumber(), parkingLot.getName(), savedSession.getEntryTime());
         kafkaProducerService.sendVehicleEntry(event);
-        kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(parkingLot.getId(),updatedSlot.getId(), updatedSlot.getSlotNumber(), updatedSlot.getStatus()));
+        kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(parkingLot.getId(),updatedSlot.getId(), updatedSlot.getSlotNumber(), SlotStatus.AVAILABLE, updatedSlot.getStatus()));
+        // The slot update evicts the lot's statistics on every instance; this one also evicts after its own commit.
+        parkingLotStatsService.evict(parkingLot.getId());
 
         // Map the saved session entity to a DTO and return it
         return parkingSessionMapper.toDto(savedSession);
@@ -202,9 +220,13 @@ public class ParkingServiceImpl implements ParkingService {
         ChargeCalculationResult chargeResult = calculateCharges(activeSession, parkingLot);
         activeSession.setTotalAmount(chargeResult.totalAmount());
         activeSession.setStatus(ParkingSessionStatus.COMPLETED); // Mark session as completed
+        activeSession.setStatsCounted(true); // Counted below, in this transaction
         ParkingSession savedSession = parkingSessionRepository.save(activeSession); // Persist session updates
+        parkingLotStatsService.recordCompletedSession(parkingLot.getId(), savedSession.getTotalAmount(), exitTime);
 
         parkingSlot.setStatus(SlotStatus.AVAILABLE);
+        // Hand the freed slot straight to the next vehicle on the lot's waitlist, if any.
+        waitlistService.handOverSlot(parkingSlot);
         ParkingSlot updatedSlot = parkingSlotRepository.save(parkingSlot); // Persist slot updates
         // Publish events to Kafka to notify other services
         VehicleExitedEvent event = new VehicleExitedEvent(savedSession.getId(), vehicle.getVehicleNumber(), parkingSlot.getParkingLotId(), parkingLot.getName(),activeSession.getParkingSlot().getId(),activeSession.getParkingSlot().getSlotNumber(),activeSession.getEntryTime() ,Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), savedSession.getTotalAmount());
@@ -218,7 +240,7 @@ public class ParkingServiceImpl implements ParkingService {
         resultDto.setOccupancyPercentage(chargeResult.occupancyPercentage());
         resultDto.setMultiplier(chargeResult.multiplier());
         resultDto.setExitTime(exitTime);
-        kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(parkingSlot.getParkingLotId(),updatedSlot.getId(), updatedSlot.getSlotNumber(),updatedSlot.getStatus()));
+        kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(parkingSlot.getParkingLotId(),updatedSlot.getId(), updatedSlot.getSlotNumber(), SlotStatus.OCCUPIED, updatedSlot.getStatus()));
         kafkaProducerService.sendVehicleExit(event);
         return resultDto;
 
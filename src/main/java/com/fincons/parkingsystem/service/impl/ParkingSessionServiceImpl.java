@@ -1,6 +1,10 @@
 package com.fincons.parkingsystem.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fincons.parkingsystem.dto.CursorPage;
 import com.fincons.parkingsystem.dto.ParkingSessionDto;
+import com.fincons.parkingsystem.dto.SessionExportFormat;
 import com.fincons.parkingsystem.entity.ParkingLot;
 import com.fincons.parkingsystem.entity.ParkingSession;
 import com.fincons.parkingsystem.entity.ParkingSessionStatus;
@@ -8,16 +12,29 @@ import com.fincons.parkingsystem.entity.ParkingSlot;
 import com.fincons.parkingsystem.exception.ResourceNotFoundException;
 import com.fincons.parkingsystem.mapper.ParkingSessionMapper;
 import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.repository.ParkingSessionExportRepository;
 import com.fincons.parkingsystem.repository.ParkingSessionRepository;
 import com.fincons.parkingsystem.repository.ParkingSlotRepository;
 import com.fincons.parkingsystem.service.ParkingSessionService;
+import com.fincons.parkingsystem.utils.CursorUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
 /**
  * Service implementation for retrieving parking session information.
  * This class handles the business logic for fetching paginated lists of active and completed sessions,
@@ -27,10 +44,15 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ParkingSessionServiceImpl implements ParkingSessionService {
 
+    private static final String[] CSV_HEADER = {"id", "vehicleNumber", "parkingSlotId", "parkingSlotNumber",
+            "parkingLotName", "entryTime", "exitTime", "totalAmount", "status"};
+
     private final ParkingSessionRepository parkingSessionRepository;
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
     private final ParkingSessionMapper parkingSessionMapper;
+    private final ParkingSessionExportRepository parkingSessionExportRepository;
+    private final ObjectMapper objectMapper;
 
     /**
      * Retrieves a paginated list of all currently active parking sessions.
@@ -62,6 +84,127 @@ public class ParkingSessionServiceImpl implements ParkingSessionService {
         return sessionPage.map(this::enrichDto);
     }
 
+    /**
+     * Retrieves a page of currently active parking sessions using keyset pagination, newest first.
+     * The page is read through the (status, id) index without a count query.
+     *
+     * @param after The opaque cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link CursorPage} of DTOs representing active sessions.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public CursorPage<ParkingSessionDto> getActiveSessions(String after, int limit) {
+        Long afterId = CursorUtil.decode(after);
+        List<ParkingSession> sessions = parkingSessionRepository.findByStatusAndIdLessThanOrderByIdDesc(
+                ParkingSessionStatus.ACTIVE, afterId != null ? afterId : Long.MAX_VALUE, Limit.of(CursorUtil.validateLimit(limit) + 1));
+        return CursorUtil.toPage(sessions, limit, ParkingSession::getId, this::enrichDto);
+    }
+
+    /**
+     * Retrieves a page of the parking session history using keyset pagination, newest first.
+     * The page is read through the primary key without a count query.
+     *
+     * @param after The opaque cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link CursorPage} of DTOs representing sessions.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public CursorPage<ParkingSessionDto> getSessionHistory(String after, int limit) {
+        Long afterId = CursorUtil.decode(after);
+        List<ParkingSession> sessions = parkingSessionRepository.findByIdLessThanOrderByIdDesc(
+                afterId != null ? afterId : Long.MAX_VALUE, Limit.of(CursorUtil.validateLimit(limit) + 1));
+        return CursorUtil.toPage(sessions, limit, ParkingSession::getId, this::enrichDto);
+    }
+
+    /**
+     * Writes the parking session history to a stream as NDJSON or CSV.
+     * The sessions are read through a database cursor with their lot name and slot number joined in,
+     * and each one is written as soon as it is read, so memory use does not depend on the size of the export.
+     *
+     * @param format The format of the export.
+     * @param from The inclusive start of the entry time range, or {@code null} for no lower bound.
+     * @param to The exclusive end of the entry time range, or {@code null} for no upper bound.
+     * @param outputStream The stream the export is written to; it is flushed but not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public void exportSessions(SessionExportFormat format, Instant from, Instant to, OutputStream outputStream) throws IOException {
+        try {
+            if (format == SessionExportFormat.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                writer.write(String.join(",", CSV_HEADER));
+                writer.write("\n");
+                parkingSessionExportRepository.forEachSession(from, to, session -> writeCsvRow(writer, session));
+                writer.flush();
+            } else {
+                try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    parkingSessionExportRepository.forEachSession(from, to, session -> writeJsonLine(generator, session));
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Helper method to write a session as one line of JSON.
+     *
+     * @param generator The generator writing the export.
+     * @param session The session to write.
+     */
+    private static void writeJsonLine(JsonGenerator generator, ParkingSessionDto session) {
+        try {
+            generator.writeObject(session);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Helper method to write a session as one CSV row, in the order of {@link #CSV_HEADER}.
+     *
+     * @param writer The writer of the export.
+     * @param session The session to write.
+     */
+    private static void writeCsvRow(Writer writer, ParkingSessionDto session) {
+        Object[] values = {session.getId(), session.getVehicleNumber(), session.getParkingSlotId(), session.getParkingSlotNumber(),
+                session.getParkingLotName(), session.getEntryTime(), session.getExitTime(), session.getTotalAmount(), session.getStatus()};
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(toCsvField(values[i]));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Helper method to format a value as a CSV field, quoting it if it contains a separator, quote or line break.
+     *
+     * @param value The value, or {@code null} for an empty field.
+     * @return The CSV field.
+     */
+    private static String toCsvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
     /**
      * Enriches a ParkingSessionDto with the name of the associated parking lot and the slot number.
      * This method safely fetches related entities, even if they have been soft-deleted, by using
@@ -107,12 +107,13 @@ public class ParkingSlotServiceImpl implements ParkingSlotService {
         ParkingSlot updateSlot = parkingSlotRepository.findById(parkingSlotDto.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Parking slot not found with id: " + parkingSlotDto.getId()));
 
+        SlotStatus previousStatus = updateSlot.getStatus();
         if (parkingSlotDto.getStatus() != null) {
             updateSlot.setStatus(parkingSlotDto.getStatus());
         }
         
         ParkingSlot savedSlot = parkingSlotRepository.save(updateSlot);
-        SlotStatusUpdateDto statusUpdateDto = new SlotStatusUpdateDto(updateSlot.getParkingLot().getId(), updateSlot.getId(), updateSlot.getSlotNumber(),updateSlot.getStatus());
+        SlotStatusUpdateDto statusUpdateDto = new SlotStatusUpdateDto(updateSlot.getParkingLot().getId(), updateSlot.getId(), updateSlot.getSlotNumber(), previousStatus, updateSlot.getStatus());
         kafkaProducerService.sendSlotUpdateProduce(statusUpdateDto);
         return parkingSlotMapper.toDto(savedSlot);
     }
@@ -0,0 +1,135 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.service.RelayOwnershipService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation that assigns the relaying of messages through the consumer group
+ * {@code parking.kafka.relay-group-id}. With {@code parking.websocket.broker.mode=relay}, every instance
+ * joins this one group on the "slot-update" topic, so each partition belongs to exactly one instance.
+ * A lot's messages are relayed by the owner of the partition its slot updates are keyed to, and the
+ * messages of global topics by the owner of partition 0. While the group rebalances, a message may be
+ * relayed twice or not at all. With the in-memory broker, every instance sends its own messages.
+ */
+@Service
+@Slf4j
+public class RelayOwnershipServiceImpl implements RelayOwnershipService, ConsumerAwareRebalanceListener {
+
+    private static final String SLOT_UPDATE_TOPIC_NAME = "slot-update";
+
+    @Value("${parking.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    // Partitions of the slot-update topic assigned to this instance in the relay group.
+    private final Set<Integer> ownedPartitions = ConcurrentHashMap.newKeySet();
+    private volatile int partitionCount;
+
+    /**
+     * Checks whether this instance sends the messages of a parking lot.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return {@code true} with the in-memory broker, or if this instance owns the lot's partition.
+     */
+    @Override
+    public boolean ownsLot(Long parkingLotId) {
+        if (!isRelay()) {
+            return true;
+        }
+        int count = partitionCount;
+        return count > 0 && ownedPartitions.contains(partitionOf(parkingLotId, count));
+    }
+
+    /**
+     * Checks whether this instance sends the messages of topics that are not tied to one parking lot.
+     *
+     * @return {@code true} with the in-memory broker, or if this instance owns partition 0.
+     */
+    @Override
+    public boolean ownsGlobalTopics() {
+        return !isRelay() || ownedPartitions.contains(0);
+    }
+
+    /**
+     * Keeps this instance in the relay group. The records themselves are handled by the broadcast
+     * consumers; only the partition assignment of this listener matters. It is started in relay mode only.
+     *
+     * @param record The raw slot update, ignored.
+     */
+    @KafkaListener(
+            topics = SLOT_UPDATE_TOPIC_NAME,
+            containerFactory = "relayOwnershipKafkaListenerFactory",
+            autoStartup = "#{'${parking.websocket.broker.mode:simple}'.equalsIgnoreCase('relay')}"
+    )
+    public void trackOwnership(byte[] record) {
+        // Nothing to do: see onPartitionsAssigned.
+    }
+
+    /**
+     * Records the partitions assigned to this instance and the partition count of the topic.
+     *
+     * @param consumer The consumer of the relay group.
+     * @param partitions The newly assigned partitions.
+     */
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitionCount = consumer.partitionsFor(SLOT_UPDATE_TOPIC_NAME).size();
+        partitions.forEach(partition -> ownedPartitions.add(partition.partition()));
+        log.info("Relaying WebSocket messages for slot-update partitions {} of {}", ownedPartitions, partitionCount);
+    }
+
+    /**
+     * Forgets the partitions taken away from this instance.
+     *
+     * @param consumer The consumer of the relay group.
+     * @param partitions The revoked partitions.
+     */
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(partition -> ownedPartitions.remove(partition.partition()));
+    }
+
+    /**
+     * Forgets the partitions lost by this instance, for example after missing the session timeout.
+     *
+     * @param consumer The consumer of the relay group.
+     * @param partitions The lost partitions.
+     */
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        onPartitionsRevokedBeforeCommit(consumer, partitions);
+    }
+
+    /**
+     * Helper method to compute the partition of a lot's slot updates, the way the producer's default
+     * partitioner does for the lot ID key.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param partitionCount The number of partitions of the topic.
+     * @return The partition number.
+     */
+    private static int partitionOf(Long parkingLotId, int partitionCount) {
+        byte[] key = String.valueOf(parkingLotId).getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % partitionCount;
+    }
+
+    /**
+     * Helper method to check whether "/topic" messages go through the external STOMP broker.
+     *
+     * @return {@code true} in relay mode.
+     */
+    private boolean isRelay() {
+        return "relay".equalsIgnoreCase(brokerMode);
+    }
+}
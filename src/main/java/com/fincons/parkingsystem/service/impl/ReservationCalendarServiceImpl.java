@@ -0,0 +1,558 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.entity.ParkingSlot;
+import com.fincons.parkingsystem.entity.Reservation;
+import com.fincons.parkingsystem.entity.ReservationStatus;
+import com.fincons.parkingsystem.repository.ParkingSlotRepository;
+import com.fincons.parkingsystem.repository.ReservationRepository;
+import com.fincons.parkingsystem.service.ReservationCalendarService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service implementation for the in-memory reservation calendar.
+ * Each slot keeps its booked windows in a {@link TreeMap} keyed by window start. Windows on the
+ * same slot never overlap, so the booking with the greatest start before a window's end is the
+ * only one that can overlap it, which makes every availability check a single O(log n) lookup.
+ * Each lot also indexes the free gaps between the bookings of all its slots, so finding a slot
+ * that is free for a whole window takes O(log n) as well, whatever the number of slots and bookings.
+ * The calendar is rebuilt from the `reservations` table at startup. It only knows the bookings made
+ * or loaded by this instance, so callers confirm a chosen slot against the `reservations` table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationCalendarServiceImpl implements ReservationCalendarService {
+
+    private final ReservationRepository reservationRepository;
+    private final ParkingSlotRepository parkingSlotRepository;
+
+    // Bookings and free gaps per lot. Each lot calendar is guarded by its own monitor.
+    private final Map<Long, LotCalendar> lotCalendars = new ConcurrentHashMap<>();
+    // The lot calendar of every slot known to the calendar, for checks by slot ID.
+    private final Map<Long, LotCalendar> calendarsBySlot = new ConcurrentHashMap<>();
+    // Reverse index used to release a reservation's window without knowing its slot.
+    private final Map<Long, Booking> bookingsByReservation = new ConcurrentHashMap<>();
+
+    /**
+     * A booked window on a single slot.
+     *
+     * @param reservationId The reservation holding the window.
+     * @param parkingLotId The lot of the slot.
+     * @param parkingSlotId The slot the window is booked on.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     */
+    private record Booking(Long reservationId, Long parkingLotId, Long parkingSlotId, Instant start, Instant end) {
+    }
+
+    /**
+     * Rebuilds the calendar at application startup from every reservation whose window is still open.
+     */
+    @PostConstruct
+    public void rebuildCalendar() {
+        List<Reservation> reservations = reservationRepository.findOpenWindows(
+                EnumSet.of(ReservationStatus.SCHEDULED, ReservationStatus.ACTIVE), Instant.now());
+        for (Reservation reservation : reservations) {
+            if (reservation.getParkingSlotId() == null) {
+                // Capacity reservations hold no slot, so they have nothing to book.
+                continue;
+            }
+            Long parkingLotId = reservation.getParkingLotId() != null
+                    ? reservation.getParkingLotId()
+                    : parkingSlotRepository.findByIdWithInactive(reservation.getParkingSlotId()).map(ParkingSlot::getParkingLotId).orElse(null);
+            if (parkingLotId == null) {
+                continue;
+            }
+            Instant start = reservation.getStartTime() != null ? reservation.getStartTime() : reservation.getReservationTime();
+            Instant end = reservation.getEndTime() != null ? reservation.getEndTime() : reservation.getExpirationTime();
+            if (!insert(new Booking(reservation.getId(), parkingLotId, reservation.getParkingSlotId(), start, end))) {
+                log.warn("Reservation {} overlaps another booking on slot {}; skipped while rebuilding the calendar",
+                        reservation.getId(), reservation.getParkingSlotId());
+            }
+        }
+        log.info("Reservation calendar rebuilt with {} bookings", bookingsByReservation.size());
+    }
+
+    /**
+     * Checks whether a slot has no booking overlapping the window [start, end).
+     *
+     * @param parkingSlotId The unique identifier of the parking slot.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @return {@code true} if the slot is free for the whole window, {@code false} otherwise.
+     */
+    @Override
+    public boolean isSlotFree(Long parkingSlotId, Instant start, Instant end) {
+        LotCalendar calendar = calendarsBySlot.get(parkingSlotId);
+        return calendar == null || calendar.isFree(parkingSlotId, start, end);
+    }
+
+    /**
+     * Finds a slot of a lot that is free for the window [start, end), using the lot's free-gap index.
+     * The slot IDs of a lot are loaded once, the first time the lot is searched.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @param excludedSlotIds Slots to skip, for example because they are under service.
+     * @return An {@link Optional} containing a free slot ID, or empty if every slot is booked or excluded.
+     */
+    @Override
+    public Optional<Long> findFreeSlot(Long parkingLotId, Instant start, Instant end, Set<Long> excludedSlotIds) {
+        LotCalendar calendar = lotCalendars.computeIfAbsent(parkingLotId, id -> new LotCalendar());
+        if (!calendar.isSlotsLoaded()) {
+            List<Long> slotIds = parkingSlotRepository.findIdsByParkingLotId(parkingLotId);
+            slotIds.forEach(slotId -> calendarsBySlot.putIfAbsent(slotId, calendar));
+            calendar.addSlots(slotIds);
+        }
+        return Optional.ofNullable(calendar.findFree(start, end, excludedSlotIds));
+    }
+
+    /**
+     * Atomically books the window [start, end) on a slot for a reservation.
+     * Inside a transaction, the booking is removed again if the transaction does not commit,
+     * so a rolled-back reservation never leaves a phantom booking behind.
+     *
+     * @param reservationId The unique identifier of the reservation holding the window.
+     * @param parkingLotId The unique identifier of the slot's parking lot.
+     * @param parkingSlotId The unique identifier of the parking slot.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @return {@code true} if the window was booked, {@code false} if it overlaps an existing booking.
+     */
+    @Override
+    public boolean tryBook(Long reservationId, Long parkingLotId, Long parkingSlotId, Instant start, Instant end) {
+        Booking booking = new Booking(reservationId, parkingLotId, parkingSlotId, start, end);
+        if (!insert(booking)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(booking);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+    /**
+     * Moves a booking made under a provisional key to the reservation that now holds it.
+     * Inside a transaction, the re-keyed booking is removed if the transaction does not commit.
+     *
+     * @param provisionalKey The key the window was booked under.
+     * @param reservationId The unique identifier of the persisted reservation.
+     */
+    @Override
+    public void rekey(Long provisionalKey, Long reservationId) {
+        Booking provisional = bookingsByReservation.get(provisionalKey);
+        if (provisional == null) {
+            return;
+        }
+        Booking booking = new Booking(reservationId, provisional.parkingLotId(), provisional.parkingSlotId(), provisional.start(), provisional.end());
+        lotCalendars.get(booking.parkingLotId()).replace(provisional, booking);
+        bookingsByReservation.remove(provisionalKey, provisional);
+        bookingsByReservation.put(reservationId, booking);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(booking);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Releases the window held by a reservation right away, so the rest of the surrounding
+     * transaction (e.g. handing the slot to a waiting vehicle) already sees the slot as free.
+     * Inside a transaction, the booking is restored if the transaction does not commit.
+     *
+     * @param reservationId The unique identifier of the reservation.
+     */
+    @Override
+    public void release(Long reservationId) {
+        Booking booking = bookingsByReservation.get(reservationId);
+        if (booking == null) {
+            return;
+        }
+        remove(booking);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED && !insert(booking)) {
+                        log.warn("Could not restore the booking of reservation {} on slot {} after a rollback",
+                                booking.reservationId(), booking.parkingSlotId());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes all bookings whose window ended before the given time.
+     *
+     * @param cutoff The point in time before which finished windows are discarded.
+     */
+    @Override
+    public void pruneEndedBefore(Instant cutoff) {
+        bookingsByReservation.values().stream()
+                .filter(booking -> !booking.end().isAfter(cutoff))
+                .toList()
+                .forEach(this::remove);
+    }
+
+    /**
+     * Inserts a booking into its lot calendar if it does not overlap an existing one.
+     *
+     * @param booking The booking to insert.
+     * @return {@code true} if inserted, {@code false} on overlap.
+     */
+    private boolean insert(Booking booking) {
+        LotCalendar calendar = lotCalendars.computeIfAbsent(booking.parkingLotId(), id -> new LotCalendar());
+        calendarsBySlot.putIfAbsent(booking.parkingSlotId(), calendar);
+        if (!calendar.insert(booking)) {
+            return false;
+        }
+        bookingsByReservation.put(booking.reservationId(), booking);
+        return true;
+    }
+
+    /**
+     * Removes a specific booking from the calendar. A newer booking for the same reservation is left untouched.
+     *
+     * @param booking The booking to remove.
+     */
+    private void remove(Booking booking) {
+        LotCalendar calendar = lotCalendars.get(booking.parkingLotId());
+        if (calendar != null) {
+            calendar.remove(booking);
+        }
+        bookingsByReservation.remove(booking.reservationId(), booking);
+    }
+
+    /**
+     * The bookings of the slots of one lot, with an index of the free gaps between them.
+     * Every slot known to the calendar has its free time split into gaps [previous booking end,
+     * next booking start), unbounded at both ends; booking or releasing a window splits or merges gaps.
+     */
+    private static final class LotCalendar {
+
+        private final Map<Long, NavigableMap<Instant, Booking>> slotBookings = new HashMap<>();
+        private final FreeGapIndex freeGaps = new FreeGapIndex();
+        private volatile boolean slotsLoaded;
+
+        /**
+         * @return {@code true} once the IDs of all slots of the lot have been added.
+         */
+        boolean isSlotsLoaded() {
+            return slotsLoaded;
+        }
+
+        /**
+         * Adds the slots of the lot; slots without bookings are free for all time.
+         *
+         * @param slotIds The IDs of the slots of the lot.
+         */
+        synchronized void addSlots(List<Long> slotIds) {
+            slotIds.forEach(this::bookingsOf);
+            slotsLoaded = true;
+        }
+
+        /**
+         * Checks whether a slot has no booking overlapping the window [start, end).
+         */
+        synchronized boolean isFree(Long parkingSlotId, Instant start, Instant end) {
+            NavigableMap<Instant, Booking> bookings = slotBookings.get(parkingSlotId);
+            return bookings == null || findOverlap(bookings, start, end) == null;
+        }
+
+        /**
+         * Finds a slot with a free gap covering the window [start, end).
+         */
+        synchronized Long findFree(Instant start, Instant end, Set<Long> excludedSlotIds) {
+            return freeGaps.find(start, end, excludedSlotIds);
+        }
+
+        /**
+         * Books a window, splitting the free gap it falls into, unless it overlaps another booking.
+         */
+        synchronized boolean insert(Booking booking) {
+            NavigableMap<Instant, Booking> bookings = bookingsOf(booking.parkingSlotId());
+            if (findOverlap(bookings, booking.start(), booking.end()) != null) {
+                return false;
+            }
+            Instant gapStart = gapStartBefore(bookings, booking.start());
+            Instant gapEnd = gapEndAfter(bookings, booking.start());
+            freeGaps.remove(gapStart, booking.parkingSlotId());
+            if (gapStart.isBefore(booking.start())) {
+                freeGaps.insert(gapStart, booking.parkingSlotId(), booking.start());
+            }
+            if (booking.end().isBefore(gapEnd)) {
+                freeGaps.insert(booking.end(), booking.parkingSlotId(), gapEnd);
+            }
+            bookings.put(booking.start(), booking);
+            return true;
+        }
+
+        /**
+         * Releases a booked window, merging it with the free gaps around it.
+         */
+        synchronized void remove(Booking booking) {
+            NavigableMap<Instant, Booking> bookings = slotBookings.get(booking.parkingSlotId());
+            if (bookings == null || !bookings.remove(booking.start(), booking)) {
+                return;
+            }
+            Instant gapStart = gapStartBefore(bookings, booking.start());
+            Instant gapEnd = gapEndAfter(bookings, booking.start());
+            if (gapStart.isBefore(booking.start())) {
+                freeGaps.remove(gapStart, booking.parkingSlotId());
+            }
+            if (booking.end().isBefore(gapEnd)) {
+                freeGaps.remove(booking.end(), booking.parkingSlotId());
+            }
+            freeGaps.insert(gapStart, booking.parkingSlotId(), gapEnd);
+        }
+
+        /**
+         * Replaces a booking with one for the same window held under another key; the free gaps do not change.
+         */
+        synchronized void replace(Booking booking, Booking replacement) {
+            NavigableMap<Instant, Booking> bookings = slotBookings.get(booking.parkingSlotId());
+            if (bookings != null) {
+                bookings.replace(booking.start(), booking, replacement);
+            }
+        }
+
+        /**
+         * Returns the bookings of a slot, registering the slot with a single unbounded free gap if it is new.
+         */
+        private NavigableMap<Instant, Booking> bookingsOf(Long parkingSlotId) {
+            NavigableMap<Instant, Booking> bookings = slotBookings.get(parkingSlotId);
+            if (bookings == null) {
+                bookings = new TreeMap<>();
+                slotBookings.put(parkingSlotId, bookings);
+                freeGaps.insert(Instant.MIN, parkingSlotId, Instant.MAX);
+            }
+            return bookings;
+        }
+
+        /**
+         * Returns the start of the free gap before a time: the end of the previous booking, or unbounded.
+         */
+        private static Instant gapStartBefore(NavigableMap<Instant, Booking> bookings, Instant time) {
+            Map.Entry<Instant, Booking> previous = bookings.lowerEntry(time);
+            return previous != null ? previous.getValue().end() : Instant.MIN;
+        }
+
+        /**
+         * Returns the end of the free gap after a time: the start of the next booking, or unbounded.
+         */
+        private static Instant gapEndAfter(NavigableMap<Instant, Booking> bookings, Instant time) {
+            Map.Entry<Instant, Booking> next = bookings.higherEntry(time);
+            return next != null ? next.getKey() : Instant.MAX;
+        }
+    }
+
+    /**
+     * Index of free gaps [start, end) of the slots of a lot, answering "which slot has a gap covering
+     * [from, to)" in O(log n). It is a treap ordered by gap start, then slot ID, in which every node also
+     * stores the latest gap end of its subtree: among the gaps starting at or before {@code from},
+     * subtrees whose gaps all end before {@code to} are skipped without being visited.
+     * Not thread-safe; guarded by the monitor of its lot calendar.
+     */
+    private static final class FreeGapIndex {
+
+        private static final class Node {
+            private final Instant start;
+            private final Long slotId;
+            private final Instant end;
+            private final int priority = ThreadLocalRandom.current().nextInt();
+            private Instant maxEnd;
+            private Node left;
+            private Node right;
+
+            private Node(Instant start, Long slotId, Instant end) {
+                this.start = start;
+                this.slotId = slotId;
+                this.end = end;
+                this.maxEnd = end;
+            }
+        }
+
+        private Node root;
+
+        /**
+         * Adds the free gap [start, end) of a slot.
+         */
+        void insert(Instant start, Long slotId, Instant end) {
+            root = insert(root, new Node(start, slotId, end));
+        }
+
+        /**
+         * Removes the free gap of a slot that starts at the given time, if there is one.
+         */
+        void remove(Instant start, Long slotId) {
+            root = remove(root, start, slotId);
+        }
+
+        /**
+         * Finds a slot, other than the excluded ones, with a free gap covering [from, to).
+         *
+         * @return The slot ID, or {@code null} if there is none.
+         */
+        Long find(Instant from, Instant to, Set<Long> excludedSlotIds) {
+            return find(root, from, to, excludedSlotIds);
+        }
+
+        private static Long find(Node node, Instant from, Instant to, Set<Long> excludedSlotIds) {
+            if (node == null || node.maxEnd.isBefore(to)) {
+                return null;
+            }
+            Long found = find(node.left, from, to, excludedSlotIds);
+            if (found != null || node.start.isAfter(from)) {
+                // Gaps in the right subtree start even later than this one.
+                return found;
+            }
+            if (!node.end.isBefore(to) && !excludedSlotIds.contains(node.slotId)) {
+                return node.slotId;
+            }
+            return find(node.right, from, to, excludedSlotIds);
+        }
+
+        private static Node insert(Node node, Node added) {
+            if (node == null) {
+                return added;
+            }
+            if (compare(added.start, added.slotId, node) < 0) {
+                node.left = insert(node.left, added);
+                if (node.left.priority > node.priority) {
+                    node = rotateRight(node);
+                }
+            } else {
+                node.right = insert(node.right, added);
+                if (node.right.priority > node.priority) {
+                    node = rotateLeft(node);
+                }
+            }
+            update(node);
+            return node;
+        }
+
+        private static Node remove(Node node, Instant start, Long slotId) {
+            if (node == null) {
+                return null;
+            }
+            int comparison = compare(start, slotId, node);
+            if (comparison == 0) {
+                return merge(node.left, node.right);
+            }
+            if (comparison < 0) {
+                node.left = remove(node.left, start, slotId);
+            } else {
+                node.right = remove(node.right, start, slotId);
+            }
+            update(node);
+            return node;
+        }
+
+        /**
+         * Joins two treaps whose keys are all smaller in the first one.
+         */
+        private static Node merge(Node left, Node right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                update(left);
+                return left;
+            }
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+
+        /**
+         * Rotations restore the heap order of priorities after an insert.
+         */
+        private static Node rotateRight(Node node) {
+            Node pivot = node.left;
+            node.left = pivot.right;
+            update(node);
+            pivot.right = node;
+            update(pivot);
+            return pivot;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node pivot = node.right;
+            node.right = pivot.left;
+            update(node);
+            pivot.left = node;
+            update(pivot);
+            return pivot;
+        }
+
+        /**
+         * Recomputes the latest gap end of a node's subtree from its children.
+         */
+        private static void update(Node node) {
+            Instant maxEnd = node.end;
+            if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = node.left.maxEnd;
+            }
+            if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = node.right.maxEnd;
+            }
+            node.maxEnd = maxEnd;
+        }
+
+        /**
+         * Orders gaps by start, then slot ID.
+         */
+        private static int compare(Instant start, Long slotId, Node node) {
+            int comparison = start.compareTo(node.start);
+            return comparison != 0 ? comparison : slotId.compareTo(node.slotId);
+        }
+    }
+
+    /**
+     * Finds the booking overlapping [start, end) in a slot calendar, if any.
+     * Only the booking with the greatest start before {@code end} can overlap, because bookings on a slot are disjoint.
+     *
+     * @param calendar The slot calendar; the caller must hold its monitor.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @return The overlapping booking, or {@code null} if there is none.
+     */
+    private static Booking findOverlap(NavigableMap<Instant, Booking> calendar, Instant start, Instant end) {
+        Map.Entry<Instant, Booking> candidate = calendar.lowerEntry(end);
+        return (candidate != null && candidate.getValue().end().isAfter(start)) ? candidate.getValue() : null;
+    }
+}
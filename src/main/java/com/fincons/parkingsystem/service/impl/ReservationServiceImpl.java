@@ -1,21 +1,32 @@
 package com.fincons.parkingsystem.service.impl;
 
+import com.fincons.parkingsystem.dto.CursorPage;
+import com.fincons.parkingsystem.dto.ParkingSessionDto;
 import com.fincons.parkingsystem.dto.ReservationDto;
 import com.fincons.parkingsystem.dto.ReservationRequestDto;
 import com.fincons.parkingsystem.dto.ReservationUpdate;
 import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+import com.fincons.parkingsystem.dto.VehicleEnteredEvent;
 import com.fincons.parkingsystem.entity.*;
+import com.fincons.parkingsystem.exception.BadRequestException;
 import com.fincons.parkingsystem.exception.ConflictException;
 import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.mapper.ParkingSessionMapper;
 import com.fincons.parkingsystem.mapper.ReservationMapper;
 import com.fincons.parkingsystem.repository.*;
+import com.fincons.parkingsystem.service.ActiveReservationLookupService;
 import com.fincons.parkingsystem.service.KafkaProducerService;
+import com.fincons.parkingsystem.service.ReservationCalendarService;
 import com.fincons.parkingsystem.service.ReservationService;
+import com.fincons.parkingsystem.service.WaitlistService;
 import jakarta.persistence.OptimisticLockException;
+import com.fincons.parkingsystem.utils.CursorUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.postgresql.util.PSQLException;
 import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.retry.annotation.Backoff;
@@ -25,8 +36,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;import java.time.Instant;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +51,7 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ReservationServiceImpl implements ReservationService {
 
     private final ReservationRepository reservationRepository;
@@ -45,18 +61,30 @@ public class ReservationServiceImpl implements ReservationService {
     private final ReservationMapper reservationMapper;
     private final ParkingSessionRepository parkingSessionRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final ReservationCalendarService reservationCalendarService;
+    private final WaitlistService waitlistService;
+    private final ActiveReservationLookupService activeReservationLookupService;
+    private final ParkingSessionMapper parkingSessionMapper;
 
     // A reservation is held for 15 minutes before it automatically expires.
     private static final int RESERVATION_EXPIRATION_MINUTES = 15;
+    // The longest time window a single scheduled reservation may book.
+    private static final int MAX_RESERVATION_WINDOW_HOURS = 24;
+    // Statuses in which a reservation holds its window.
+    private static final List<ReservationStatus> BOOKED_STATUSES = List.of(ReservationStatus.SCHEDULED, ReservationStatus.ACTIVE);
 
     /**
      * Creates a new reservation for a vehicle. This method is transactional and retryable to handle
      * potential deadlocks or optimistic locking conflicts in a high-concurrency environment.
-     * It finds an available slot, reserves it, and creates a reservation record.
+     * Without a booking window, it reserves an available slot right away. With a future window,
+     * it books a slot in the in-memory reservation calendar and leaves the slot untouched until
+     * the window starts.
      *
      * @param reservationRequestDto The request DTO containing the vehicle and parking lot details.
      * @return A DTO representing the newly created reservation.
-     * @throws ConflictException if the vehicle already has an active session or reservation, or if no slots are available.
+     * @throws ConflictException if the vehicle already has an active session or reservation, a reservation
+     *                           overlapping the requested window, or if no slots are available.
+     * @throws BadRequestException if the requested booking window is invalid.
      * @throws ResourceNotFoundException if the specified parking lot does not exist.
      */
     @Override
@@ -72,6 +100,14 @@ public class ReservationServiceImpl implements ReservationService {
     )
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public ReservationDto createReservation(ReservationRequestDto reservationRequestDto) {
+        boolean scheduled = reservationRequestDto.getStartTime() != null || reservationRequestDto.getEndTime() != null;
+        ReservationMode mode = reservationRequestDto.getMode() != null ? reservationRequestDto.getMode() : ReservationMode.SLOT;
+        if (scheduled && mode == ReservationMode.CAPACITY) {
+            throw new BadRequestException("Capacity reservations cannot be booked for a future time window.");
+        }
+        if (scheduled) {
+            validateBookingWindow(reservationRequestDto.getStartTime(), reservationRequestDto.getEndTime());
+        }
 
         Vehicle vehicle = vehicleRepository.findByVehicleNumber(reservationRequestDto.getVehicleNumber())
                 .orElseGet(() -> {
@@ -82,18 +118,100 @@ public class ReservationServiceImpl implements ReservationService {
                     return vehicleRepository.save(newVehicle);
                 });
 
-        if (parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)) {
+        if (!scheduled && parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)) {
             throw new ConflictException("Vehicle already has an active parking session.");
         }
-        if (reservationRepository.existsByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)) {
+        if (!scheduled && reservationRepository.existsByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)) {
             throw new ConflictException("Vehicle already has an active reservation.");
         }
+        Instant windowStart = scheduled ? reservationRequestDto.getStartTime() : Instant.now();
+        Instant windowEnd = scheduled ? reservationRequestDto.getEndTime() : windowStart.plus(Duration.ofMinutes(RESERVATION_EXPIRATION_MINUTES));
+        if (reservationRepository.existsOverlappingForVehicle(vehicle, BOOKED_STATUSES, windowStart, windowEnd)) {
+            throw new ConflictException("Vehicle already has a reservation overlapping the requested time window.");
+        }
 
         ParkingLot parkingLot = parkingLotRepository.findById(reservationRequestDto.getParkingLotId())
                 .orElseThrow(() -> new ResourceNotFoundException("Parking lot not found with id: " + reservationRequestDto.getParkingLotId()));
 
-        ParkingSlot availableSlot = parkingSlotRepository.findFirstByParkingLotAndStatusOrderByIdAsc(parkingLot, SlotStatus.AVAILABLE)
-                .orElseThrow(() -> new ConflictException("No available parking slots in this lot for reservation."));
+        if (scheduled) {
+            return createScheduledReservation(vehicle, parkingLot, reservationRequestDto.getStartTime(), reservationRequestDto.getEndTime());
+        }
+        return mode == ReservationMode.CAPACITY
+                ? createCapacityReservation(vehicle, parkingLot)
+                : createImmediateReservation(vehicle, parkingLot);
+    }
+
+    /**
+     * Holds one unit of the lot's reserved capacity without pinning a slot. Creation is a single
+     * conditional counter update, so it takes no slot-row locks and publishes no slot events.
+     * A concrete slot is assigned when the vehicle arrives.
+     *
+     * @param vehicle The vehicle the reservation is made for.
+     * @param parkingLot The parking lot to reserve in.
+     * @return A DTO representing the newly created reservation.
+     * @throws ConflictException if every available slot in the lot is already held by a reservation.
+     */
+    private ReservationDto createCapacityReservation(Vehicle vehicle, ParkingLot parkingLot) {
+        if (parkingLotRepository.incrementReservedCapacity(parkingLot.getId()) == 0) {
+            throw new ConflictException("No available parking capacity in this lot for reservation.");
+        }
+
+        Instant now = Instant.now();
+        Instant expiration = now.plus(Duration.ofMinutes(RESERVATION_EXPIRATION_MINUTES));
+        Reservation reservation = Reservation.builder()
+                .vehicle(vehicle)
+                .parkingLotId(parkingLot.getId())
+                .reservationTime(now)
+                .expirationTime(expiration)
+                .startTime(now)
+                .endTime(expiration)
+                .mode(ReservationMode.CAPACITY)
+                .status(ReservationStatus.ACTIVE)
+                .build();
+        Reservation savedReservation = reservationRepository.save(reservation);
+        activeReservationLookupService.track(savedReservation);
+
+        ReservationDto dto = reservationMapper.toDto(savedReservation);
+        dto.setParkingLotName(parkingLot.getName());
+        dto.setParkingLotId(parkingLot.getId());
+        kafkaProducerService.SendReservationProduce(new ReservationUpdate(dto));
+        return dto;
+    }
+
+    /**
+     * Reserves an available slot right away and holds it for the standard expiration period.
+     * Slots with an upcoming booking overlapping the hold, in the calendar or in the database, are skipped.
+     *
+     * @param vehicle The vehicle the reservation is made for.
+     * @param parkingLot The parking lot to reserve in.
+     * @return A DTO representing the newly created reservation.
+     * @throws ConflictException if no slot is available for the hold period.
+     */
+    private ReservationDto createImmediateReservation(Vehicle vehicle, ParkingLot parkingLot) {
+        Instant now = Instant.now();
+        Instant expiration = now.plus(Duration.ofMinutes(RESERVATION_EXPIRATION_MINUTES));
+
+        if (parkingLot.getReservedCapacity() > 0
+                && parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE) <= parkingLot.getReservedCapacity()) {
+            throw new ConflictException("The remaining slots in this lot are held for reservations.");
+        }
+
+        ParkingSlot availableSlot = null;
+        for (ParkingSlot candidate : parkingSlotRepository.findByParkingLotAndStatusOrderByIdAsc(parkingLot, SlotStatus.AVAILABLE)) {
+            if (!reservationCalendarService.isSlotFree(candidate.getId(), now, expiration)) {
+                continue;
+            }
+            // Lock the chosen slot and re-check it, since it may have been taken since it was listed.
+            ParkingSlot locked = parkingSlotRepository.findByIdForUpdate(candidate.getId()).orElse(null);
+            if (locked != null && locked.getStatus() == SlotStatus.AVAILABLE
+                    && !reservationRepository.existsOverlappingOnSlot(locked.getId(), BOOKED_STATUSES, now, expiration)) {
+                availableSlot = locked;
+                break;
+            }
+        }
+        if (availableSlot == null) {
+            throw new ConflictException("No available parking slots in this lot for reservation.");
+        }
 
         availableSlot.setStatus(SlotStatus.RESERVED);
         parkingSlotRepository.save(availableSlot);
@@ -101,15 +219,21 @@ public class ReservationServiceImpl implements ReservationService {
         Reservation reservation = Reservation.builder()
                 .vehicle(vehicle)
                 .parkingSlot(availableSlot)
-                .reservationTime(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant())
-                .expirationTime(
-                Instant.now().plus(Duration.ofMinutes(RESERVATION_EXPIRATION_MINUTES))
-        )
+                .parkingLotId(parkingLot.getId())
+                .reservationTime(now)
+                .expirationTime(expiration)
+                .startTime(now)
+                .endTime(expiration)
+                .mode(ReservationMode.SLOT)
                 .status(ReservationStatus.ACTIVE)
                 .build();
 
         Reservation savedReservation = reservationRepository.save(reservation);
-        SlotStatusUpdateDto statusUpdateDto = new SlotStatusUpdateDto(parkingLot.getId(), availableSlot.getId(), availableSlot.getSlotNumber(),SlotStatus.RESERVED);
+        activeReservationLookupService.track(savedReservation);
+        if (!reservationCalendarService.tryBook(savedReservation.getId(), parkingLot.getId(), availableSlot.getId(), now, expiration)) {
+            throw new ConflictException("The selected parking slot was booked concurrently. Please try again.");
+        }
+        SlotStatusUpdateDto statusUpdateDto = new SlotStatusUpdateDto(parkingLot.getId(), availableSlot.getId(), availableSlot.getSlotNumber(), SlotStatus.AVAILABLE, SlotStatus.RESERVED);
         kafkaProducerService.sendSlotUpdateProduce(statusUpdateDto);
 
         ReservationDto dto = reservationMapper.toDto(savedReservation);
@@ -120,12 +244,89 @@ public class ReservationServiceImpl implements ReservationService {
     }
 
     /**
-     * Cancels an active reservation. This makes the previously reserved slot available again.
+     * Books a slot for a future time window. The slot is found in logarithmic time in the in-memory
+     * reservation calendar and its status is not changed until the window starts. Because the calendar
+     * only knows this instance's bookings, the chosen slot is confirmed against the `reservations` table;
+     * in the SERIALIZABLE transaction, concurrent bookings of the same slot on other instances make one
+     * of the transactions fail and retry. Slots that are under service or booked elsewhere are skipped.
+     *
+     * @param vehicle The vehicle the reservation is made for.
+     * @param parkingLot The parking lot to reserve in.
+     * @param startTime The start of the booking window (inclusive).
+     * @param endTime The end of the booking window (exclusive).
+     * @return A DTO representing the newly created reservation.
+     * @throws ConflictException if every slot in the lot is booked for an overlapping window.
+     */
+    private ReservationDto createScheduledReservation(Vehicle vehicle, ParkingLot parkingLot, Instant startTime, Instant endTime) {
+        Set<Long> excludedSlotIds = new HashSet<>();
+        ParkingSlot slot = null;
+        while (slot == null) {
+            Long slotId = reservationCalendarService.findFreeSlot(parkingLot.getId(), startTime, endTime, excludedSlotIds)
+                    .orElseThrow(() -> new ConflictException("No parking slots in this lot are free for the requested time window."));
+            ParkingSlot candidate = parkingSlotRepository.findById(slotId).orElse(null);
+            if (candidate == null || candidate.getStatus() == SlotStatus.UNDER_SERVICE
+                    || reservationRepository.existsOverlappingOnSlot(slotId, BOOKED_STATUSES, startTime, endTime)) {
+                excludedSlotIds.add(slotId);
+            } else {
+                slot = candidate;
+            }
+        }
+
+        Instant expiration = startTime.plus(Duration.ofMinutes(RESERVATION_EXPIRATION_MINUTES));
+        Reservation reservation = Reservation.builder()
+                .vehicle(vehicle)
+                .parkingSlot(slot)
+                .parkingLotId(parkingLot.getId())
+                .reservationTime(Instant.now())
+                .expirationTime(expiration.isBefore(endTime) ? expiration : endTime)
+                .startTime(startTime)
+                .endTime(endTime)
+                .mode(ReservationMode.SLOT)
+                .status(ReservationStatus.SCHEDULED)
+                .build();
+
+        Reservation savedReservation = reservationRepository.save(reservation);
+        if (!reservationCalendarService.tryBook(savedReservation.getId(), parkingLot.getId(), slot.getId(), startTime, endTime)) {
+            throw new ConflictException("The selected parking slot was booked concurrently. Please try again.");
+        }
+
+        ReservationDto dto = reservationMapper.toDto(savedReservation);
+        dto.setParkingLotName(parkingLot.getName());
+        dto.setParkingSlotId(slot.getId());
+        kafkaProducerService.SendReservationProduce(new ReservationUpdate(dto));
+        return dto;
+    }
+
+    /**
+     * Validates a requested booking window.
+     *
+     * @param startTime The requested start of the window.
+     * @param endTime The requested end of the window.
+     * @throws BadRequestException if the window is incomplete, not in the future, empty, or too long.
+     */
+    private void validateBookingWindow(Instant startTime, Instant endTime) {
+        if (startTime == null || endTime == null) {
+            throw new BadRequestException("Both start time and end time are required for a scheduled reservation.");
+        }
+        if (!startTime.isAfter(Instant.now())) {
+            throw new BadRequestException("Reservation start time must be in the future.");
+        }
+        if (!endTime.isAfter(startTime)) {
+            throw new BadRequestException("Reservation end time must be after the start time.");
+        }
+        if (Duration.between(startTime, endTime).compareTo(Duration.ofHours(MAX_RESERVATION_WINDOW_HOURS)) > 0) {
+            throw new BadRequestException("A reservation window cannot be longer than " + MAX_RESERVATION_WINDOW_HOURS + " hours.");
+        }
+    }
+
+    /**
+     * Cancels an active or scheduled reservation. An active reservation makes its slot available again;
+     * a scheduled one only releases its booked window, since it never held the slot.
      * This operation is transactional and retryable.
      *
      * @param reservationId The ID of the reservation to cancel.
      * @throws ResourceNotFoundException if the reservation or its associated slot is not found.
-     * @throws ConflictException if the reservation is not in an active state.
+     * @throws ConflictException if the reservation is neither active nor scheduled.
      */
     @Override
     @Retryable(
@@ -143,20 +344,37 @@ public class ReservationServiceImpl implements ReservationService {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + reservationId));
 
+        if (reservation.getStatus() == ReservationStatus.SCHEDULED) {
+            reservation.setStatus(ReservationStatus.CANCELLED);
+            reservationRepository.save(reservation);
+            reservationCalendarService.release(reservation.getId());
+            kafkaProducerService.SendReservationProduce(new ReservationUpdate(reservationMapper.toDto(reservation)));
+            return;
+        }
         if (reservation.getStatus() != ReservationStatus.ACTIVE) {
             throw new ConflictException("Only active reservations can be cancelled.");
         }
 
         reservation.setStatus(ReservationStatus.CANCELLED);
         reservationRepository.save(reservation);
+        activeReservationLookupService.track(reservation);
+        if (reservation.getMode() == ReservationMode.CAPACITY) {
+            parkingLotRepository.decrementReservedCapacity(reservation.getParkingLotId());
+            kafkaProducerService.SendReservationProduce(new ReservationUpdate(reservationMapper.toDto(reservation)));
+            handOverReleasedCapacity(reservation.getParkingLotId());
+            return;
+        }
+        reservationCalendarService.release(reservation.getId());
 
         ParkingSlot reservedSlot = parkingSlotRepository.findById(reservation.getParkingSlotId())
                 .orElseThrow(() -> new ResourceNotFoundException("No reserved slot found for this reservation."));
         
         reservedSlot.setStatus(SlotStatus.AVAILABLE);
+        // The freed slot goes straight to the next vehicle on the lot's waitlist, if any.
+        waitlistService.handOverSlot(reservedSlot);
         parkingSlotRepository.save(reservedSlot);
         kafkaProducerService.SendReservationProduce(new ReservationUpdate(reservationMapper.toDto(reservation)));
-        kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(reservedSlot.getParkingLotId(), reservedSlot.getId(), reservedSlot.getSlotNumber(),SlotStatus.AVAILABLE));
+        kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(reservedSlot.getParkingLotId(), reservedSlot.getId(), reservedSlot.getSlotNumber(), SlotStatus.RESERVED, reservedSlot.getStatus()));
     }
 
     /**
@@ -174,25 +392,52 @@ public class ReservationServiceImpl implements ReservationService {
         Page<Reservation> reservations =
                 reservationRepository.findAllByCustom(pageable);
 
-        return reservations.map(reservation -> {
-            ReservationDto dto = reservationMapper.toDto(reservation);
+        return reservations.map(this::toDtoWithLotName);
+    }
 
-            parkingSlotRepository.findByIdWithInactive(reservation.getParkingSlotId())
-                    .flatMap(slot ->
-                            parkingLotRepository.findByIdWithInactive(slot.getParkingLotId())
-                    )
-                    .ifPresent(parkingLot ->
-                            dto.setParkingLotName(parkingLot.getName())
-                    );
+    /**
+     * Retrieves a page of reservations using keyset pagination, newest first.
+     * The page is read through the primary key without a count query.
+     *
+     * @param after The opaque cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return A {@link CursorPage} of DTOs for reservations.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public CursorPage<ReservationDto> getReservationStatus(String after, int limit) {
+        Long afterId = CursorUtil.decode(after);
+        List<Reservation> reservations = reservationRepository.findByIdLessThanOrderByIdDesc(
+                afterId != null ? afterId : Long.MAX_VALUE, Limit.of(CursorUtil.validateLimit(limit) + 1));
+        return CursorUtil.toPage(reservations, limit, Reservation::getId, this::toDtoWithLotName);
+    }
 
-            return dto;
-        });
+    /**
+     * Maps a reservation to its DTO and adds the parking lot name, safely handling cases where
+     * the lot or slot has been soft-deleted.
+     *
+     * @param reservation The reservation to map.
+     * @return The enriched DTO.
+     */
+    private ReservationDto toDtoWithLotName(Reservation reservation) {
+        ReservationDto dto = reservationMapper.toDto(reservation);
+
+        Optional<ParkingLot> reservedLot = reservation.getParkingLotId() != null
+                ? parkingLotRepository.findByIdWithInactive(reservation.getParkingLotId())
+                : parkingSlotRepository.findByIdWithInactive(reservation.getParkingSlotId())
+                .flatMap(slot -> parkingLotRepository.findByIdWithInactive(slot.getParkingLotId()));
+        reservedLot.ifPresent(parkingLot ->
+                dto.setParkingLotName(parkingLot.getName())
+        );
+
+        return dto;
     }
 
 
     /**
      * Processes the arrival of a vehicle with an active reservation. This converts the reservation
      * into an active parking session, marks the slot as occupied, and updates the reservation status to COMPLETED.
+     * A capacity reservation is assigned the first available slot in its lot at this point.
      *
      * @param reservationId The ID of the reservation to process.
      * @throws ResourceNotFoundException if the reservation or its slot is not found.
@@ -213,14 +458,89 @@ public class ReservationServiceImpl implements ReservationService {
     public void processArrival(Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + reservationId));
+        completeArrival(reservation);
+    }
+
+    /**
+     * Processes the arrival of a vehicle identified by its number plate. The active reservation is
+     * looked up in the in-memory index first and verified against the database; on a miss it is read
+     * through the (vehicle_id, status) index. Transient database failures are retried, each attempt
+     * in a new transaction.
+     *
+     * @param vehicleNumber The registration number of the arriving vehicle.
+     * @param parkingLotId The lot the vehicle is arriving at, or {@code null} to accept any lot.
+     * @return A DTO of the parking session started for the vehicle.
+     * @throws ResourceNotFoundException if the vehicle has no active reservation.
+     * @throws ConflictException if the reservation is for a different parking lot.
+     */
+    @Override
+    @Retryable(
+            retryFor = {
+                    OptimisticLockException.class,
+                    PSQLException.class,
+                    CannotAcquireLockException.class,
+                    DeadlockLoserDataAccessException.class
+            },
+            maxAttempts = 3,
+            backoff = @Backoff(delay = 100)
+    )
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public ParkingSessionDto processArrivalByVehicle(String vehicleNumber, Long parkingLotId) {
+        return checkInByVehicle(vehicleNumber, parkingLotId);
+    }
+
+    /**
+     * Checks in a vehicle identified by its number plate. It joins the caller's transaction and is not
+     * retryable: a transient failure marks that transaction for rollback, so only the caller that owns
+     * the transaction (the arrival endpoint or vehicle entry) can usefully retry it.
+     *
+     * @param vehicleNumber The registration number of the arriving vehicle.
+     * @param parkingLotId The lot the vehicle is arriving at, or {@code null} to accept any lot.
+     * @return A DTO of the parking session started for the vehicle.
+     * @throws ResourceNotFoundException if the vehicle has no active reservation.
+     * @throws ConflictException if the reservation is for a different parking lot.
+     */
+    @Override
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public ParkingSessionDto checkInByVehicle(String vehicleNumber, Long parkingLotId) {
+        Reservation reservation = activeReservationLookupService.findReservationId(vehicleNumber)
+                .flatMap(reservationRepository::findById)
+                .filter(candidate -> candidate.getStatus() == ReservationStatus.ACTIVE
+                        && vehicleNumber.equals(candidate.getVehicle().getVehicleNumber()))
+                .or(() -> vehicleRepository.findByVehicleNumber(vehicleNumber)
+                        .flatMap(vehicle -> reservationRepository.findFirstByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)))
+                .orElseThrow(() -> new ResourceNotFoundException("No active reservation found for vehicle: " + vehicleNumber));
+
+        if (parkingLotId != null && !parkingLotId.equals(resolveParkingLotId(reservation))) {
+            throw new ConflictException("This vehicle has an active reservation in another parking lot.");
+        }
+        ParkingSession session = completeArrival(reservation);
+        return parkingSessionMapper.toDto(session);
+    }
 
+    /**
+     * Converts an active reservation into a parking session: the slot is marked occupied, a session
+     * is started and the reservation is marked COMPLETED.
+     *
+     * @param reservation The reservation of the arriving vehicle.
+     * @return The new parking session.
+     * @throws ResourceNotFoundException if the reserved slot is not found.
+     * @throws ConflictException if the reservation is not active.
+     */
+    private ParkingSession completeArrival(Reservation reservation) {
+        if (reservation.getStatus() == ReservationStatus.SCHEDULED) {
+            throw new ConflictException("Reservation window has not started yet.");
+        }
         if (reservation.getStatus() != ReservationStatus.ACTIVE) {
             throw new ConflictException("Reservation is not active.");
         }
 
-        ParkingSlot reservedSlot = parkingSlotRepository.findById(reservation.getParkingSlotId())
+        ParkingSlot reservedSlot = reservation.getMode() == ReservationMode.CAPACITY
+                ? assignSlotOnArrival(reservation)
+                : parkingSlotRepository.findById(reservation.getParkingSlotId())
                 .orElseThrow(() -> new ResourceNotFoundException("No reserved slot found for this reservation."));
 
+        SlotStatus previousStatus = reservedSlot.getStatus();
         reservedSlot.setStatus(SlotStatus.OCCUPIED);
         parkingSlotRepository.save(reservedSlot);
 
@@ -230,18 +550,67 @@ public class ReservationServiceImpl implements ReservationService {
                 .entryTime(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant())
                 .status(ParkingSessionStatus.ACTIVE)
                 .build();
-        parkingSessionRepository.save(newSession);
+        ParkingSession savedSession = parkingSessionRepository.save(newSession);
 
-        kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(reservedSlot.getParkingLotId(), reservedSlot.getId(), reservedSlot.getSlotNumber(),SlotStatus.OCCUPIED));
+        kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(reservedSlot.getParkingLotId(), reservedSlot.getId(), reservedSlot.getSlotNumber(), previousStatus, SlotStatus.OCCUPIED));
+        String parkingLotName = parkingLotRepository.findByIdWithInactive(reservedSlot.getParkingLotId())
+                .map(ParkingLot::getName)
+                .orElse(null);
+        kafkaProducerService.sendVehicleEntry(new VehicleEnteredEvent(savedSession.getId(), reservation.getVehicle().getVehicleNumber(),
+                reservedSlot.getParkingLotId(), reservedSlot.getId(), reservedSlot.getSlotNumber(), parkingLotName, savedSession.getEntryTime()));
 
         reservation.setStatus(ReservationStatus.COMPLETED);
+        // The session now holds the slot, so the booked window is no longer needed.
+        reservationCalendarService.release(reservation.getId());
+        activeReservationLookupService.track(reservation);
         kafkaProducerService.SendReservationProduce(new ReservationUpdate(reservationMapper.toDto(reservation)));
         reservationRepository.save(reservation);
+        return savedSession;
+    }
+
+    /**
+     * Resolves the parking lot of a reservation, falling back to its slot for reservations made
+     * before the lot was stored on the reservation itself.
+     *
+     * @param reservation The reservation.
+     * @return The ID of the reservation's parking lot, or {@code null} if it cannot be resolved.
+     */
+    private Long resolveParkingLotId(Reservation reservation) {
+        if (reservation.getParkingLotId() != null) {
+            return reservation.getParkingLotId();
+        }
+        return parkingSlotRepository.findByIdWithInactive(reservation.getParkingSlotId())
+                .map(ParkingSlot::getParkingLotId)
+                .orElse(null);
+    }
+
+    /**
+     * Assigns a concrete slot to an arriving capacity reservation and gives back its held capacity.
+     * The first available slot in the lot is taken under a pessimistic lock; the held capacity
+     * guarantees that one is free.
+     *
+     * @param reservation The capacity reservation being claimed.
+     * @return The locked slot assigned to the reservation.
+     * @throws ResourceNotFoundException if the reservation's parking lot no longer exists.
+     * @throws ConflictException if no slot is available in the lot.
+     */
+    private ParkingSlot assignSlotOnArrival(Reservation reservation) {
+        ParkingLot parkingLot = parkingLotRepository.findById(reservation.getParkingLotId())
+                .orElseThrow(() -> new ResourceNotFoundException("Parking lot not found with id: " + reservation.getParkingLotId()));
+        parkingLotRepository.decrementReservedCapacity(parkingLot.getId());
+
+        ParkingSlot assignedSlot = parkingSlotRepository.findFirstByParkingLotAndStatusOrderByIdAsc(parkingLot, SlotStatus.AVAILABLE)
+                .orElseThrow(() -> new ConflictException("No available parking slots in this lot."));
+        reservation.setParkingSlot(assignedSlot);
+        reservation.setParkingSlotId(assignedSlot.getId());
+        return assignedSlot;
     }
 
     /**
      * A scheduled task that runs every minute to find and expire unclaimed reservations.
      * It marks the reservation as EXPIRED and sets the corresponding slot back to AVAILABLE.
+     * Scheduled reservations that never got their slot only release their booked window, and
+     * capacity reservations give back their held capacity.
      * This is a self-healing mechanism to free up slots that were reserved but never used.
      */
     @Scheduled(fixedRate = 60000)
@@ -257,21 +626,137 @@ public class ReservationServiceImpl implements ReservationService {
     )
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public void expireReservations() {
+        Instant now = Instant.now();
         List<Reservation> expiredReservations = reservationRepository.findAll()
                 .stream()
-                .filter(r -> r.getStatus() == ReservationStatus.ACTIVE && r.getExpirationTime().isBefore(Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant()))
+                .filter(r -> (r.getStatus() == ReservationStatus.ACTIVE || r.getStatus() == ReservationStatus.SCHEDULED)
+                        && r.getExpirationTime().isBefore(now))
                 .toList();
 
         for (Reservation reservation : expiredReservations) {
+            boolean heldSlot = reservation.getStatus() == ReservationStatus.ACTIVE;
             reservation.setStatus(ReservationStatus.EXPIRED);
             reservationRepository.save(reservation);
+            activeReservationLookupService.track(reservation);
+            reservationCalendarService.release(reservation.getId());
 
+            if (heldSlot && reservation.getMode() == ReservationMode.CAPACITY) {
+                parkingLotRepository.decrementReservedCapacity(reservation.getParkingLotId());
+                kafkaProducerService.SendReservationProduce(new ReservationUpdate(reservationMapper.toDto(reservation)));
+                handOverReleasedCapacity(reservation.getParkingLotId());
+                continue;
+            }
+            if (!heldSlot) {
+                kafkaProducerService.SendReservationProduce(new ReservationUpdate(reservationMapper.toDto(reservation)));
+                continue;
+            }
             parkingSlotRepository.findByIdWithInactive(reservation.getParkingSlotId()).ifPresent(reservedSlot -> {
                 reservedSlot.setStatus(SlotStatus.AVAILABLE);
+                waitlistService.handOverSlot(reservedSlot);
                 parkingSlotRepository.save(reservedSlot);
-                kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(reservedSlot.getParkingLotId(),reservedSlot.getId(), reservedSlot.getSlotNumber(),SlotStatus.AVAILABLE));
+                kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(reservedSlot.getParkingLotId(),reservedSlot.getId(), reservedSlot.getSlotNumber(), SlotStatus.RESERVED, reservedSlot.getStatus()));
                 kafkaProducerService.SendReservationProduce(new ReservationUpdate(reservationMapper.toDto(reservation)));
             });
         }
+        reservationCalendarService.pruneEndedBefore(now);
+    }
+
+    /**
+     * Hands the slot made free by a released capacity reservation to the next waiting vehicle of the lot.
+     * The first available slot is taken under a pessimistic lock and is left untouched if nobody is waiting.
+     *
+     * @param parkingLotId The unique identifier of the parking lot whose capacity was released.
+     */
+    private void handOverReleasedCapacity(Long parkingLotId) {
+        parkingLotRepository.findById(parkingLotId)
+                .flatMap(parkingLot -> parkingSlotRepository.findFirstByParkingLotAndStatusOrderByIdAsc(parkingLot, SlotStatus.AVAILABLE))
+                .filter(waitlistService::handOverSlot)
+                .ifPresent(slot -> {
+                    parkingSlotRepository.save(slot);
+                    kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(slot.getParkingLotId(), slot.getId(), slot.getSlotNumber(), SlotStatus.AVAILABLE, slot.getStatus()));
+                });
+    }
+
+    /**
+     * A scheduled task that runs every minute to activate scheduled reservations whose window has started.
+     * The booked slot is marked RESERVED if it is free. If it is still taken (for example by a walk-in
+     * that has not left yet), the reservation is moved to another available slot that is free for the
+     * rest of its window. If no slot can be found, it stays scheduled and will expire normally.
+     */
+    @Scheduled(fixedRate = 60000)
+    @Retryable(
+            retryFor = {
+                    OptimisticLockException.class,
+                    PSQLException.class,
+                    CannotAcquireLockException.class,
+                    DeadlockLoserDataAccessException.class
+            },
+            maxAttempts = 3,
+            backoff = @Backoff(delay = 100)
+    )
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public void activateScheduledReservations() {
+        Instant now = Instant.now();
+        List<Reservation> dueReservations = reservationRepository.findByStatusAndStartTimeLessThanEqual(ReservationStatus.SCHEDULED, now);
+
+        for (Reservation reservation : dueReservations) {
+            ParkingSlot slot = parkingSlotRepository.findByIdForUpdate(reservation.getParkingSlotId())
+                    .filter(candidate -> candidate.getStatus() == SlotStatus.AVAILABLE)
+                    .orElseGet(() -> relocateScheduledReservation(reservation, now));
+            if (slot == null) {
+                log.warn("No free slot to activate scheduled reservation {}; it will expire if none frees up", reservation.getId());
+                continue;
+            }
+
+            slot.setStatus(SlotStatus.RESERVED);
+            parkingSlotRepository.save(slot);
+            reservation.setParkingSlot(slot);
+            reservation.setParkingSlotId(slot.getId());
+            reservation.setStatus(ReservationStatus.ACTIVE);
+            reservationRepository.save(reservation);
+            activeReservationLookupService.track(reservation);
+
+            kafkaProducerService.sendSlotUpdateProduce(new SlotStatusUpdateDto(slot.getParkingLotId(), slot.getId(), slot.getSlotNumber(), SlotStatus.AVAILABLE, SlotStatus.RESERVED));
+            ReservationDto dto = reservationMapper.toDto(reservation);
+            dto.setParkingSlotId(slot.getId());
+            kafkaProducerService.SendReservationProduce(new ReservationUpdate(dto));
+        }
+    }
+
+    /**
+     * Moves a due scheduled reservation whose booked slot is not available to another available slot
+     * in the same lot that is free for the remainder of the booked window.
+     *
+     * @param reservation The scheduled reservation to move.
+     * @param now The current time.
+     * @return The locked replacement slot, or {@code null} if none is free.
+     */
+    private ParkingSlot relocateScheduledReservation(Reservation reservation, Instant now) {
+        ParkingSlot bookedSlot = parkingSlotRepository.findByIdWithInactive(reservation.getParkingSlotId()).orElse(null);
+        if (bookedSlot == null) {
+            return null;
+        }
+        ParkingLot parkingLot = parkingLotRepository.findById(bookedSlot.getParkingLotId()).orElse(null);
+        if (parkingLot == null) {
+            return null;
+        }
+        for (ParkingSlot candidate : parkingSlotRepository.findByParkingLotAndStatusOrderByIdAsc(parkingLot, SlotStatus.AVAILABLE)) {
+            if (!reservationCalendarService.isSlotFree(candidate.getId(), now, reservation.getEndTime())) {
+                continue;
+            }
+            ParkingSlot locked = parkingSlotRepository.findByIdForUpdate(candidate.getId()).orElse(null);
+            if (locked == null || locked.getStatus() != SlotStatus.AVAILABLE
+                    || reservationRepository.existsOverlappingOnSlot(locked.getId(), BOOKED_STATUSES, now, reservation.getEndTime())) {
+                continue;
+            }
+            reservationCalendarService.release(reservation.getId());
+            if (reservationCalendarService.tryBook(reservation.getId(), parkingLot.getId(), locked.getId(), now, reservation.getEndTime())) {
+                log.info("Scheduled reservation {} moved from slot {} to slot {}", reservation.getId(), bookedSlot.getId(), locked.getId());
+                return locked;
+            }
+            // Keep the original booking while looking further.
+            reservationCalendarService.tryBook(reservation.getId(), parkingLot.getId(), bookedSlot.getId(), reservation.getStartTime(), reservation.getEndTime());
+        }
+        return null;
     }
 }
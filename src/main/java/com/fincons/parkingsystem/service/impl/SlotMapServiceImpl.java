@@ -0,0 +1,252 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.dto.SlotDeltasDto;
+import com.fincons.parkingsystem.dto.SlotMapSnapshotDto;
+import com.fincons.parkingsystem.dto.SlotStatusBitmapDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+import com.fincons.parkingsystem.entity.ParkingSlot;
+import com.fincons.parkingsystem.entity.SlotStatus;
+import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.repository.ParkingSlotRepository;
+import com.fincons.parkingsystem.service.SlotMapService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation for the in-memory slot map of each parking lot.
+ * A lot's map is loaded from the database when its snapshot is first requested and is then kept
+ * current by the slot-update events. Each applied change gets the next per-lot sequence number and
+ * is kept in a fixed-size ring buffer ({@code parking.slot-map.delta-buffer-size}) so it can be
+ * replayed to reconnecting clients. Changes to a lot whose map is not loaded are numbered too, so
+ * every change carries a sequence number; they cannot be replayed. Changes set a slot's status rather than adjust a counter, so a
+ * change that is also reflected in the loaded snapshot does no harm.
+ * Slots are kept in slot number order, along with a bit-packed copy of their statuses that is
+ * updated on every change, so a whole-lot status bitmap is served without building anything.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotMapServiceImpl implements SlotMapService {
+
+    private final ParkingLotRepository parkingLotRepository;
+    private final ParkingSlotRepository parkingSlotRepository;
+
+    @Value("${parking.slot-map.delta-buffer-size:1024}")
+    private int deltaBufferSize = 1024;
+
+    // Identifies this run of the server: sequence numbers are only comparable within one epoch.
+    private final long epoch = System.currentTimeMillis();
+
+    private final Map<Long, LotSlotMap> slotMaps = new ConcurrentHashMap<>();
+    // The last sequence number of lots whose map is not loaded (never loaded or evicted), so a loaded map continues from it.
+    private final Map<Long, Long> unloadedSequences = new ConcurrentHashMap<>();
+
+    // Slot numbers are generated as "1", "2", ...; comparing the length first keeps them in numeric order.
+    private static final Comparator<String> SLOT_NUMBER_ORDER = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    /**
+     * Returns the full slot map of a parking lot, loading it from the database on first use.
+     * Changes consumed while the lot is loading wait until the map is in place.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A compact snapshot of every active slot with the sequence number it reflects.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     */
+    @Override
+    public SlotMapSnapshotDto getSnapshot(Long parkingLotId) {
+        return slotMaps.computeIfAbsent(parkingLotId, this::load).snapshot(parkingLotId, epoch);
+    }
+
+    /**
+     * Returns the statuses of every slot of a parking lot, packed 2 bits per slot in slot number order.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The packed statuses with the sequence number they reflect.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     */
+    @Override
+    public SlotStatusBitmapDto getStatusBitmap(Long parkingLotId) {
+        return slotMaps.computeIfAbsent(parkingLotId, this::load).bitmap(parkingLotId, epoch);
+    }
+
+    /**
+     * Returns the slot changes of a parking lot after a given sequence number.
+     * A resync is required if the epoch differs, or if the changes have left the ring buffer.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @param epoch The epoch of the snapshot or deltas the client holds.
+     * @param since The sequence number of the last change the client has applied.
+     * @return The missed changes, or a response asking the client to reload the snapshot.
+     */
+    @Override
+    public SlotDeltasDto getDeltasSince(Long parkingLotId, long epoch, long since) {
+        LotSlotMap slotMap = slotMaps.get(parkingLotId);
+        if (slotMap == null || epoch != this.epoch) {
+            long sequence = slotMap != null ? slotMap.sequence() : unloadedSequences.getOrDefault(parkingLotId, 0L);
+            return new SlotDeltasDto(parkingLotId, this.epoch, sequence, true, List.of());
+        }
+        return slotMap.deltasSince(parkingLotId, this.epoch, since);
+    }
+
+    /**
+     * Applies a slot status change to the lot's slot map, if it is loaded, and stamps the
+     * change with the lot's next sequence number whether or not the map is loaded.
+     *
+     * @param statusUpdateDto The slot status change; its {@code sequence} is set by this method.
+     */
+    @Override
+    public void applyUpdate(SlotStatusUpdateDto statusUpdateDto) {
+        slotMaps.compute(statusUpdateDto.getParkingLotId(), (id, slotMap) -> {
+            if (slotMap == null) {
+                // Runs under the same lock as a load, so the loaded map continues from this number.
+                statusUpdateDto.setSequence(unloadedSequences.merge(id, 1L, Long::sum));
+                return null;
+            }
+            slotMap.apply(statusUpdateDto);
+            return slotMap;
+        });
+    }
+
+    /**
+     * Drops the slot map of a parking lot, after the surrounding transaction commits.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     */
+    @Override
+    public void evict(Long parkingLotId) {
+        Runnable apply = () -> slotMaps.computeIfPresent(parkingLotId, (id, slotMap) -> {
+            unloadedSequences.put(id, slotMap.sequence());
+            return null;
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Loads the slot map of a parking lot from the database.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return The loaded slot map.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     */
+    private LotSlotMap load(Long parkingLotId) {
+        if (!parkingLotRepository.existsById(parkingLotId)) {
+            throw new ResourceNotFoundException("Parking lot not found with id: " + parkingLotId);
+        }
+        LotSlotMap slotMap = new LotSlotMap(deltaBufferSize, unloadedSequences.getOrDefault(parkingLotId, 0L));
+        // Sorted first, so every slot is appended at the end of the map.
+        parkingSlotRepository.findByParkingLotId(parkingLotId).stream()
+                .sorted(Comparator.comparing(ParkingSlot::getSlotNumber, SLOT_NUMBER_ORDER))
+                .forEach(slot -> slotMap.put(slot.getId(), slot.getSlotNumber(), slot.getStatus()));
+        log.info("Slot map of parking lot {} loaded with {} slots", parkingLotId, slotMap.slotIds.size());
+        return slotMap;
+    }
+
+    /**
+     * The slot map of one parking lot: parallel lists of slot IDs, numbers and statuses in slot number
+     * order, the statuses packed 2 bits per slot, the last sequence number, and a ring buffer of the
+     * most recent changes. All access is synchronized.
+     */
+    private static class LotSlotMap {
+        private final List<Long> slotIds = new ArrayList<>();
+        private final List<String> slotNumbers = new ArrayList<>();
+        private final List<SlotStatus> statuses = new ArrayList<>();
+        private final Map<Long, Integer> indexBySlotId = new HashMap<>();
+        private byte[] packedStatuses = new byte[0];
+        private final SlotStatusUpdateDto[] recentChanges;
+        // Changes up to this sequence number were never recorded in the ring buffer.
+        private final long baseSequence;
+        private long sequence;
+
+        LotSlotMap(int bufferSize, long baseSequence) {
+            this.recentChanges = new SlotStatusUpdateDto[bufferSize];
+            this.baseSequence = baseSequence;
+            this.sequence = baseSequence;
+        }
+
+        synchronized long sequence() {
+            return sequence;
+        }
+
+        synchronized void put(Long slotId, String slotNumber, SlotStatus status) {
+            Integer index = indexBySlotId.get(slotId);
+            if (index != null) {
+                statuses.set(index, status);
+                pack(index, status);
+                return;
+            }
+            int position = Collections.binarySearch(slotNumbers, slotNumber, SLOT_NUMBER_ORDER);
+            position = position < 0 ? -position - 1 : position;
+            slotIds.add(position, slotId);
+            slotNumbers.add(position, slotNumber);
+            statuses.add(position, status);
+            if (packedStatuses.length * 4 < statuses.size()) {
+                packedStatuses = Arrays.copyOf(packedStatuses, Math.max(16, packedStatuses.length * 2));
+            }
+            // Slots after the new one shift by one place.
+            for (int i = position; i < slotIds.size(); i++) {
+                indexBySlotId.put(slotIds.get(i), i);
+                pack(i, statuses.get(i));
+            }
+        }
+
+        // The 2-bit codes are the SlotStatus ordinals.
+        private void pack(int index, SlotStatus status) {
+            int shift = (index % 4) * 2;
+            int cleared = packedStatuses[index / 4] & ~(0b11 << shift);
+            packedStatuses[index / 4] = (byte) (cleared | (status.ordinal() << shift));
+        }
+
+        synchronized void apply(SlotStatusUpdateDto change) {
+            put(change.getSlotId(), change.getParkingSlotNumber(), change.getNewStatus());
+            sequence++;
+            change.setSequence(sequence);
+            recentChanges[(int) (sequence % recentChanges.length)] = change;
+        }
+
+        synchronized SlotMapSnapshotDto snapshot(Long parkingLotId, long epoch) {
+            return new SlotMapSnapshotDto(parkingLotId, epoch, sequence,
+                    List.copyOf(slotIds), List.copyOf(slotNumbers), List.copyOf(statuses));
+        }
+
+        synchronized SlotStatusBitmapDto bitmap(Long parkingLotId, long epoch) {
+            return new SlotStatusBitmapDto(parkingLotId, epoch, sequence, statuses.size(),
+                    Arrays.copyOf(packedStatuses, (statuses.size() + 3) / 4));
+        }
+
+        synchronized SlotDeltasDto deltasSince(Long parkingLotId, long epoch, long since) {
+            long oldestReplayable = Math.max(baseSequence, sequence - recentChanges.length);
+            if (since < oldestReplayable || since > sequence) {
+                return new SlotDeltasDto(parkingLotId, epoch, sequence, true, List.of());
+            }
+            List<SlotStatusUpdateDto> deltas = new ArrayList<>((int) (sequence - since));
+            for (long next = since + 1; next <= sequence; next++) {
+                deltas.add(recentChanges[(int) (next % recentChanges.length)]);
+            }
+            return new SlotDeltasDto(parkingLotId, epoch, sequence, false, deltas);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.dto.ParkingLotStatsBucketDto;
+import com.fincons.parkingsystem.entity.ParkingLotStatsBucket;
+import com.fincons.parkingsystem.entity.StatsGranularity;
+import com.fincons.parkingsystem.entity.StatsRollupWatermark;
+import com.fincons.parkingsystem.exception.BadRequestException;
+import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.repository.ParkingLotStatsBucketRepository;
+import com.fincons.parkingsystem.repository.ParkingSessionRepository;
+import com.fincons.parkingsystem.repository.StatsRollupWatermarkRepository;
+import com.fincons.parkingsystem.service.StatsRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation for the hourly and daily statistics rollups of parking lots.
+ * A scheduled job adds the sessions that entered or completed since its watermark to the buckets with
+ * set-based upserts, so each session is aggregated once and history queries read pre-aggregated rows.
+ * The watermark row is locked while a window is processed, so concurrent instances never roll up the
+ * same window twice. Peak occupancy is observed from the in-memory dashboard and written at each run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatsRollupServiceImpl implements StatsRollupService {
+
+    private static final String WATERMARK = "parking-lot-stats-buckets";
+
+    private final ParkingLotStatsBucketRepository parkingLotStatsBucketRepository;
+    private final StatsRollupWatermarkRepository statsRollupWatermarkRepository;
+    private final ParkingSessionRepository parkingSessionRepository;
+    private final ParkingLotRepository parkingLotRepository;
+
+    // Sessions younger than this are left for the next run, so transactions still in flight are not skipped.
+    @Value("${parking.stats.rollup.lag-ms:60000}")
+    private long lagMs;
+
+    // Largest window processed in one run, so catching up on a long history is spread over several runs.
+    @Value("${parking.stats.rollup.max-window-hours:168}")
+    private long maxWindowHours;
+
+    @Value("${parking.stats.history.max-buckets:1000}")
+    private long maxBuckets;
+
+    // Latest occupancy of every lot, and the highest occupancy of lots that changed since the last run.
+    private final Map<Long, Double> currentOccupancy = new ConcurrentHashMap<>();
+    private final Map<Long, Double> peakOccupancy = new ConcurrentHashMap<>();
+
+    // Start of the hourly bucket written by the last run; only accessed by the scheduled job.
+    private Instant lastPeakBucket;
+
+    /**
+     * Records the current occupancy of a parking lot. Only updates in-memory maps, so it is cheap
+     * enough to be called for every dashboard change.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @param occupancyPercentage The current occupancy percentage.
+     */
+    @Override
+    public void recordOccupancy(Long parkingLotId, double occupancyPercentage) {
+        currentOccupancy.put(parkingLotId, occupancyPercentage);
+        peakOccupancy.merge(parkingLotId, occupancyPercentage, Math::max);
+    }
+
+    /**
+     * A scheduled task that writes the observed peak occupancies and rolls the next window of sessions
+     * up into the hourly and daily buckets, then advances the watermark in the same transaction.
+     */
+    @Override
+    @Scheduled(fixedRateString = "${parking.stats.rollup.interval-ms:60000}", initialDelayString = "${parking.stats.rollup.interval-ms:60000}")
+    @Transactional
+    public void rollUp() {
+        Instant now = Instant.now();
+        writePeakOccupancy(now);
+
+        if (!statsRollupWatermarkRepository.existsById(WATERMARK)) {
+            Instant start = parkingSessionRepository.findEarliestEntryTime().map(StatsGranularity.DAILY::truncate).orElse(now);
+            statsRollupWatermarkRepository.createIfMissing(WATERMARK, start, now);
+        }
+        StatsRollupWatermark watermark = statsRollupWatermarkRepository.findByNameForUpdate(WATERMARK)
+                .orElseThrow(() -> new IllegalStateException("Statistics rollup watermark is missing."));
+
+        Instant from = watermark.getProcessedUntil();
+        Instant to = now.minusMillis(lagMs);
+        Instant windowEnd = from.plus(maxWindowHours, ChronoUnit.HOURS);
+        if (windowEnd.isBefore(to)) {
+            to = windowEnd;
+        }
+        if (!to.isAfter(from)) {
+            return;
+        }
+
+        for (StatsGranularity granularity : StatsGranularity.values()) {
+            parkingLotStatsBucketRepository.addEntries(granularity.name(), granularity.getSqlUnit(), from, to, now);
+            parkingLotStatsBucketRepository.addExits(granularity.name(), granularity.getSqlUnit(), from, to, now);
+        }
+        watermark.setProcessedUntil(to);
+        watermark.setUpdatedAt(now);
+        statsRollupWatermarkRepository.save(watermark);
+        log.debug("Rolled up parking lot statistics from {} to {}", from, to);
+    }
+
+    /**
+     * Retrieves the statistics buckets of a parking lot within a time range, oldest first.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @param from The start of the range; the bucket containing it is included.
+     * @param to The exclusive end of the range.
+     * @param granularity The length of the buckets.
+     * @return A list of {@link ParkingLotStatsBucketDto} objects.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     * @throws BadRequestException if the range is empty or spans too many buckets.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ParkingLotStatsBucketDto> getHistory(Long parkingLotId, Instant from, Instant to, StatsGranularity granularity) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("The start of the range must be before its end.");
+        }
+        if (granularity.countBuckets(from, to) > maxBuckets) {
+            throw new BadRequestException("The range spans more than " + maxBuckets + " buckets; use a coarser granularity or a shorter range.");
+        }
+        parkingLotRepository.findByIdWithInactive(parkingLotId)
+                .orElseThrow(() -> new ResourceNotFoundException("Parking lot not found with id: " + parkingLotId));
+
+        return parkingLotStatsBucketRepository.findRange(parkingLotId, granularity, granularity.truncate(from), to).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Helper method to write the observed peak occupancies into the current hourly and daily buckets.
+     * Lots whose occupancy did not change are only written when a new hour starts, so that the new
+     * buckets also record the occupancy they start with.
+     *
+     * @param now The current time.
+     */
+    private void writePeakOccupancy(Instant now) {
+        Instant bucket = StatsGranularity.HOURLY.truncate(now);
+        Map<Long, Double> peaks = new HashMap<>();
+        if (!bucket.equals(lastPeakBucket)) {
+            peaks.putAll(currentOccupancy);
+            lastPeakBucket = bucket;
+        }
+        for (Long parkingLotId : List.copyOf(peakOccupancy.keySet())) {
+            Double peak = peakOccupancy.remove(parkingLotId);
+            if (peak != null) {
+                peaks.merge(parkingLotId, peak, Math::max);
+            }
+        }
+        peaks.forEach((parkingLotId, peak) -> {
+            for (StatsGranularity granularity : StatsGranularity.values()) {
+                parkingLotStatsBucketRepository.raisePeakOccupancy(parkingLotId, granularity.name(), granularity.truncate(now), peak, now);
+            }
+        });
+    }
+
+    /**
+     * Helper method to convert a bucket to its DTO, deriving the average dwell time.
+     *
+     * @param bucket The bucket entity.
+     * @return The corresponding {@link ParkingLotStatsBucketDto}.
+     */
+    private ParkingLotStatsBucketDto toDto(ParkingLotStatsBucket bucket) {
+        double averageDwellMinutes = bucket.getExits() > 0 ? bucket.getTotalDwellSeconds() / bucket.getExits() / 60 : 0.0;
+        return ParkingLotStatsBucketDto.builder()
+                .bucketStart(bucket.getBucketStart())
+                .revenue(bucket.getRevenue())
+                .entries(bucket.getEntries())
+                .exits(bucket.getExits())
+                .peakOccupancy(bucket.getPeakOccupancy())
+                .averageDwellMinutes(averageDwellMinutes)
+                .build();
+    }
+}
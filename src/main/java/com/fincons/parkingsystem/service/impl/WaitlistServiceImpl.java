@@ -0,0 +1,228 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.dto.ReservationDto;
+import com.fincons.parkingsystem.dto.ReservationUpdate;
+import com.fincons.parkingsystem.dto.WaitlistEntryDto;
+import com.fincons.parkingsystem.dto.WaitlistRequestDto;
+import com.fincons.parkingsystem.entity.*;
+import com.fincons.parkingsystem.exception.ConflictException;
+import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.mapper.ReservationMapper;
+import com.fincons.parkingsystem.mapper.WaitlistEntryMapper;
+import com.fincons.parkingsystem.repository.*;
+import com.fincons.parkingsystem.service.ActiveReservationLookupService;
+import com.fincons.parkingsystem.service.KafkaProducerService;
+import com.fincons.parkingsystem.service.ReservationCalendarService;
+import com.fincons.parkingsystem.service.WaitlistService;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PSQLException;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service implementation for the per-lot FIFO waitlist.
+ * Instead of clients retrying reservations and entries against a full lot, they queue once;
+ * every slot freed by an exit, a cancellation or an expiry is assigned to exactly one waiter,
+ * who is notified through the reservation topic.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final VehicleRepository vehicleRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final ParkingSlotRepository parkingSlotRepository;
+    private final ParkingSessionRepository parkingSessionRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationCalendarService reservationCalendarService;
+    private final WaitlistEntryMapper waitlistEntryMapper;
+    private final ReservationMapper reservationMapper;
+    private final KafkaProducerService kafkaProducerService;
+    private final ActiveReservationLookupService activeReservationLookupService;
+
+    // A handed-over slot is held for 15 minutes, like any other reservation.
+    private static final int RESERVATION_EXPIRATION_MINUTES = 15;
+    private static final List<ReservationStatus> BOOKED_STATUSES = List.of(ReservationStatus.SCHEDULED, ReservationStatus.ACTIVE);
+
+    /**
+     * Adds a vehicle to the waitlist of a full parking lot.
+     *
+     * @param waitlistRequestDto The request DTO containing the vehicle and parking lot details.
+     * @return A DTO representing the new waitlist entry, including its queue position.
+     * @throws ResourceNotFoundException if the parking lot does not exist.
+     * @throws ConflictException if the vehicle is already parked, reserved or waiting, or if the lot still has free slots.
+     */
+    @Override
+    @Retryable(
+            retryFor = {
+                    OptimisticLockException.class,
+                    PSQLException.class,
+                    CannotAcquireLockException.class,
+                    DeadlockLoserDataAccessException.class
+            },
+            maxAttempts = 3,
+            backoff = @Backoff(delay = 100)
+    )
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public WaitlistEntryDto joinWaitlist(WaitlistRequestDto waitlistRequestDto) {
+        ParkingLot parkingLot = parkingLotRepository.findById(waitlistRequestDto.getParkingLotId())
+                .orElseThrow(() -> new ResourceNotFoundException("Parking lot not found with id: " + waitlistRequestDto.getParkingLotId()));
+
+        Vehicle vehicle = vehicleRepository.findByVehicleNumber(waitlistRequestDto.getVehicleNumber())
+                .orElseGet(() -> vehicleRepository.save(Vehicle.builder()
+                        .vehicleNumber(waitlistRequestDto.getVehicleNumber())
+                        .vehicleType(waitlistRequestDto.getVehicleType())
+                        .build()));
+
+        if (parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)) {
+            throw new ConflictException("Vehicle already has an active parking session.");
+        }
+        if (reservationRepository.existsByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)) {
+            throw new ConflictException("Vehicle already has an active reservation.");
+        }
+        if (waitlistEntryRepository.existsByVehicleAndStatus(vehicle, WaitlistStatus.WAITING)) {
+            throw new ConflictException("Vehicle is already on a waitlist.");
+        }
+        long availableSlots = parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE);
+        if (availableSlots > parkingLot.getReservedCapacity()) {
+            throw new ConflictException("This parking lot still has available slots.");
+        }
+
+        WaitlistEntry entry = waitlistEntryRepository.save(WaitlistEntry.builder()
+                .vehicle(vehicle)
+                .parkingLotId(parkingLot.getId())
+                .status(WaitlistStatus.WAITING)
+                .build());
+
+        WaitlistEntryDto dto = waitlistEntryMapper.toDto(entry);
+        dto.setPosition(waitlistEntryRepository.countByParkingLotIdAndStatusAndIdLessThanEqual(parkingLot.getId(), WaitlistStatus.WAITING, entry.getId()));
+        log.info("Vehicle {} joined the waitlist of parking lot {} at position {}", vehicle.getVehicleNumber(), parkingLot.getId(), dto.getPosition());
+        return dto;
+    }
+
+    /**
+     * Removes a waiting vehicle from the waitlist.
+     *
+     * @param entryId The unique identifier of the waitlist entry.
+     * @throws ResourceNotFoundException if the entry does not exist.
+     * @throws ConflictException if the entry is no longer waiting.
+     */
+    @Override
+    @Transactional
+    public void leaveWaitlist(Long entryId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + entryId));
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new ConflictException("Only waiting entries can be removed from the waitlist.");
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        waitlistEntryRepository.save(entry);
+    }
+
+    /**
+     * Retrieves the waiting entries of a parking lot in queue order.
+     *
+     * @param parkingLotId The unique identifier of the parking lot.
+     * @return A list of DTOs for the waiting entries, first in line first.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getWaitlist(Long parkingLotId) {
+        List<WaitlistEntry> entries = waitlistEntryRepository.findByParkingLotIdAndStatusOrderByIdAsc(parkingLotId, WaitlistStatus.WAITING);
+        long position = 0;
+        List<WaitlistEntryDto> dtos = new ArrayList<>(entries.size());
+        for (WaitlistEntry entry : entries) {
+            WaitlistEntryDto dto = waitlistEntryMapper.toDto(entry);
+            dto.setPosition(++position);
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    /**
+     * Hands a slot that has just become available to the next waiting vehicle of its lot.
+     * Waiters that meanwhile parked or reserved elsewhere are dropped from the queue. A slot with
+     * an upcoming scheduled booking inside the hold period is not handed over. The hold is booked in
+     * the calendar under a provisional key before the reservation is saved, so nothing is persisted
+     * when the window is taken concurrently.
+     *
+     * @param parkingSlot The freed slot, with status AVAILABLE.
+     * @return {@code true} if the slot was handed to a waiter, {@code false} otherwise.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean handOverSlot(ParkingSlot parkingSlot) {
+        if (parkingSlot.isDeleted() || parkingSlot.getStatus() != SlotStatus.AVAILABLE) {
+            return false;
+        }
+        Instant now = Instant.now();
+        Instant expiration = now.plus(Duration.ofMinutes(RESERVATION_EXPIRATION_MINUTES));
+        if (!reservationCalendarService.isSlotFree(parkingSlot.getId(), now, expiration)
+                || reservationRepository.existsOverlappingOnSlot(parkingSlot.getId(), BOOKED_STATUSES, now, expiration)) {
+            return false;
+        }
+
+        Optional<WaitlistEntry> next;
+        while ((next = waitlistEntryRepository.findNextWaitingForUpdate(parkingSlot.getParkingLotId())).isPresent()) {
+            WaitlistEntry entry = next.get();
+            Vehicle vehicle = entry.getVehicle();
+            if (parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)
+                    || reservationRepository.existsByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)) {
+                entry.setStatus(WaitlistStatus.CANCELLED);
+                waitlistEntryRepository.save(entry);
+                continue;
+            }
+
+            // Waitlist entry IDs are positive, so their negation never collides with a reservation ID.
+            Long provisionalKey = -entry.getId();
+            if (!reservationCalendarService.tryBook(provisionalKey, parkingSlot.getParkingLotId(), parkingSlot.getId(), now, expiration)) {
+                // A scheduled booking took the window concurrently; keep the waiter queued.
+                return false;
+            }
+            Reservation reservation = reservationRepository.save(Reservation.builder()
+                    .vehicle(vehicle)
+                    .parkingSlot(parkingSlot)
+                    .parkingLotId(parkingSlot.getParkingLotId())
+                    .reservationTime(now)
+                    .expirationTime(expiration)
+                    .startTime(now)
+                    .endTime(expiration)
+                    .mode(ReservationMode.SLOT)
+                    .status(ReservationStatus.ACTIVE)
+                    .build());
+            reservationCalendarService.rekey(provisionalKey, reservation.getId());
+
+            parkingSlot.setStatus(SlotStatus.RESERVED);
+            entry.setStatus(WaitlistStatus.ASSIGNED);
+            entry.setReservationId(reservation.getId());
+            waitlistEntryRepository.save(entry);
+            activeReservationLookupService.track(reservation);
+
+            ReservationDto dto = reservationMapper.toDto(reservation);
+            dto.setParkingSlotId(parkingSlot.getId());
+            dto.setParkingLotId(parkingSlot.getParkingLotId());
+            ReservationUpdate update = new ReservationUpdate(dto);
+            update.setWaitlistEntryId(entry.getId());
+            kafkaProducerService.SendReservationProduce(update);
+            log.info("Slot {} handed to waitlisted vehicle {} as reservation {}", parkingSlot.getId(), vehicle.getVehicleNumber(), reservation.getId());
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,15 +1,39 @@
 package com.fincons.parkingsystem.service.impl;
 
+import com.fincons.parkingsystem.config.CborMessageConverter;
 import com.fincons.parkingsystem.dto.*;
+import com.fincons.parkingsystem.service.RelayOwnershipService;
 import com.fincons.parkingsystem.service.WebSocketService;
+import com.fincons.parkingsystem.service.WebSocketSubscriptionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Service implementation for broadcasting messages over WebSocket.
  * This class uses SimpMessagingTemplate to send messages to STOMP destinations.
+ * Per-lot occupancy, slot status and alert messages are coalesced over a short flush window
+ * ({@code parking.websocket.flush-window-ms}): each lot gets at most one occupancy update, one
+ * batch of slot changes and one alert per window, however many changes happened in it.
+ * With {@code parking.websocket.cbor.enabled}, these per-lot messages are also sent CBOR-encoded in a
+ * compact schema (see {@link CborMessageConverter}) to the same destinations under {@code /topic/cbor},
+ * e.g. {@code /topic/cbor/slots/{lotId}}, for clients on constrained links. They go out in binary
+ * frames with {@code content-type: application/octet-stream} and {@code x-encoding: cbor}.
+ * Vehicle entries and exits go to the global {@code /topic/sessions-entry} and {@code /topic/sessions-exit},
+ * to the per-lot {@code /topic/sessions-entry/{lotId}} and {@code /topic/sessions-exit/{lotId}}, and are
+ * counted per lot into one SESSION_ACTIVITY message per flush window on {@code /topic/sessions-activity}.
+ * Messages for destinations without subscribers are dropped before they are built or serialized
+ * (see {@link WebSocketSubscriptionService}), and so are messages another instance relays to the
+ * external STOMP broker (see {@link RelayOwnershipService}).
  */
 @Service
 @RequiredArgsConstructor
@@ -17,64 +41,243 @@ import org.springframework.stereotype.Service;
 public class WebSocketServiceImpl implements WebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketSubscriptionService subscriptionService;
+    private final RelayOwnershipService relayOwnershipService;
+
+    @Value("${parking.websocket.cbor.enabled:false}")
+    private boolean cborEnabled;
+
+    // Updates waiting for the next flush, per parking lot. Entries are only changed inside
+    // compute() and taken out with remove(), so a flushed entry is never touched again.
+    private final Map<Long, PendingLotUpdates> pendingUpdates = new ConcurrentHashMap<>();
+    // Entries and exits per parking lot counted during the current flush window, under the same rules.
+    private final Map<Long, SessionActivityDto> pendingActivity = new ConcurrentHashMap<>();
+
     /**
-     * Sends a real-time occupancy update for a specific parking lot.
+     * Queues a real-time occupancy update for a specific parking lot.
+     * Only the latest update of each lot is sent when the flush window ends.
      *
      * @param parkingLotId The ID of the parking lot being updated.
      * @param payload The data payload, typically an {@link com.fincons.parkingsystem.dto.OccupancyUpdateDto}.
      */
     @Override
     public void sendSlotUpdate(Long parkingLotId, Object payload) {
-        String topic = "/topic/dashboard/" + parkingLotId;
-        log.info("Sending occupancy update to WebSocket topic {}: {}", topic, payload);
-        messagingTemplate.convertAndSend(topic, new WebSocketMessage<>("OCCUPANCY_UPDATE", payload));
+        if (!isWatched(parkingLotId, "/dashboard/" + parkingLotId)) {
+            return;
+        }
+        pendingUpdates.compute(parkingLotId, (id, pending) -> {
+            PendingLotUpdates updates = pending != null ? pending : new PendingLotUpdates();
+            updates.occupancy = payload;
+            return updates;
+        });
+    }
+
+    /**
+     * Checks whether any client watches the dashboard, slots or alerts of a parking lot.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @return {@code true} if one of the lot's destinations has subscribers.
+     */
+    @Override
+    public boolean isLotWatched(Long parkingLotId) {
+        return isWatched(parkingLotId, "/dashboard/" + parkingLotId) || isWatched(parkingLotId, "/slots/" + parkingLotId)
+                || isWatched(parkingLotId, "/alerts/" + parkingLotId);
     }
+
     /**
-     * Sends a real-time notification that a vehicle has entered.
+     * Sends a real-time notification that a vehicle has entered, to the global and per-lot entry topics,
+     * and counts it for the aggregated activity stream.
      *
      * @param vehicleEnteredEvent The event details for the vehicle entry.
      */
     @Override
     public void sendEntrySessionUpdate(VehicleEnteredEvent vehicleEnteredEvent) {
         log.info("Sending WebSocket message for session entry update");
-        messagingTemplate.convertAndSend("/topic/sessions-entry", new WebSocketMessage<>("SESSION_ENTRY", vehicleEnteredEvent));
+        sendSessionMessage("/topic/sessions-entry", vehicleEnteredEvent.getParkingLotId(), new WebSocketMessage<>("SESSION_ENTRY", vehicleEnteredEvent));
+        countActivity(vehicleEnteredEvent.getParkingLotId(), vehicleEnteredEvent.getParkingLotName(), 1, 0);
     }
     /**
-     * Sends a real-time notification that a vehicle has exited.
+     * Sends a real-time notification that a vehicle has exited, to the global and per-lot exit topics,
+     * and counts it for the aggregated activity stream.
      *
      * @param vehicleExitedEvent The event details for the vehicle exit.
      */
     @Override
     public void sendExitSessionUpdate(VehicleExitedEvent vehicleExitedEvent) {
         log.info("Sending WebSocket message for session exit update");
-        messagingTemplate.convertAndSend("/topic/sessions-exit", new WebSocketMessage<>("SESSION_EXIT", vehicleExitedEvent));
+        sendSessionMessage("/topic/sessions-exit", vehicleExitedEvent.getParkingLotId(), new WebSocketMessage<>("SESSION_EXIT", vehicleExitedEvent));
+        countActivity(vehicleExitedEvent.getParkingLotId(), vehicleExitedEvent.getParkingLotName(), 0, 1);
+    }
+
+    /**
+     * Sends a session message to a global topic and to its per-lot topic, skipping topics without subscribers.
+     *
+     * @param topic The global topic, e.g. {@code /topic/sessions-entry}.
+     * @param parkingLotId The ID of the parking lot of the session.
+     * @param message The message to send.
+     */
+    private void sendSessionMessage(String topic, Long parkingLotId, WebSocketMessage<?> message) {
+        if (relayOwnershipService.ownsGlobalTopics() && subscriptionService.hasSubscribers(topic)) {
+            messagingTemplate.convertAndSend(topic, message);
+        }
+        String lotTopic = topic + "/" + parkingLotId;
+        if (relayOwnershipService.ownsLot(parkingLotId) && subscriptionService.hasSubscribers(lotTopic)) {
+            messagingTemplate.convertAndSend(lotTopic, message);
+        }
+    }
+
+    /**
+     * Counts vehicle entries and exits of a parking lot for the next SESSION_ACTIVITY message.
+     *
+     * @param parkingLotId The ID of the parking lot.
+     * @param parkingLotName The name of the parking lot.
+     * @param entries The number of entries to add.
+     * @param exits The number of exits to add.
+     */
+    private void countActivity(Long parkingLotId, String parkingLotName, int entries, int exits) {
+        if (!relayOwnershipService.ownsGlobalTopics() || !subscriptionService.hasSubscribers("/topic/sessions-activity")) {
+            return;
+        }
+        pendingActivity.compute(parkingLotId, (id, pending) -> {
+            SessionActivityDto activity = pending != null ? pending : new SessionActivityDto(parkingLotId, parkingLotName, 0, 0);
+            activity.setEntries(activity.getEntries() + entries);
+            activity.setExits(activity.getExits() + exits);
+            return activity;
+        });
     }
     /**
-     * Sends a high occupancy alert for a specific parking lot.
+     * Queues a high occupancy alert for a specific parking lot.
+     * Only the latest alert of each lot is sent when the flush window ends.
      *
      * @param alert The alert DTO containing the warning message and occupancy details.
      */
     @Override
     public void sendHighOccupancyAlert(HighOccupancyAlertDto alert) {
-        String topic = "/topic/alerts/" + alert.getParkingLotId();
-        log.warn("Sending high occupancy alert to WebSocket topic {}: {}", topic, alert);
-        messagingTemplate.convertAndSend(topic, new WebSocketMessage<>("HIGH_OCCUPANCY_ALERT", alert));
+        if (!isWatched(alert.getParkingLotId(), "/alerts/" + alert.getParkingLotId())) {
+            return;
+        }
+        pendingUpdates.compute(alert.getParkingLotId(), (id, pending) -> {
+            PendingLotUpdates updates = pending != null ? pending : new PendingLotUpdates();
+            updates.alert = alert;
+            return updates;
+        });
     }
     /**
-     * Sends a slot status update for a specific parking lot.
+     * Queues a slot status update for a specific parking lot.
+     * Changes of the same slot within a flush window are merged into one, from its first previous
+     * status to its last new status.
      *
-     **/
+     * @param parkingLotId The ID of the parking lot the slot belongs to.
+     * @param statusUpdateDto The slot status change.
+     */
     @Override
     public void SendSlotStatusUpdate(Long parkingLotId, SlotStatusUpdateDto statusUpdateDto) {
-        String topic="/topic/slots/"+parkingLotId;
-        log.info("Sending slot status update to WebSocket topic {}: {}", topic, statusUpdateDto);
-        messagingTemplate.convertAndSend(topic, new WebSocketMessage<>("SLOT_STATUS_UPDATE", statusUpdateDto));
+        if (!isWatched(parkingLotId, "/slots/" + parkingLotId)) {
+            return;
+        }
+        pendingUpdates.compute(parkingLotId, (id, pending) -> {
+            PendingLotUpdates updates = pending != null ? pending : new PendingLotUpdates();
+            if (updates.slotChanges.isEmpty()) {
+                updates.fromSequence = statusUpdateDto.getSequence();
+            }
+            updates.slotChanges.merge(statusUpdateDto.getSlotId(), statusUpdateDto, (first, latest) ->
+                    new SlotStatusUpdateDto(latest.getParkingLotId(), latest.getSlotId(), latest.getParkingSlotNumber(),
+                            first.getPreviousStatus(), latest.getNewStatus(), latest.getSequence()));
+            updates.toSequence = Math.max(updates.toSequence, statusUpdateDto.getSequence());
+            return updates;
+        });
+    }
+
+    /**
+     * Sends the updates coalesced during the last flush window, lot by lot.
+     * Occupancy goes to {@code /topic/dashboard/{lotId}} as OCCUPANCY_UPDATE, slot changes to
+     * {@code /topic/slots/{lotId}} as a single SLOT_STATUS_BATCH {@link SlotStatusBatchDto}, and the alert to
+     * {@code /topic/alerts/{lotId}} as HIGH_OCCUPANCY_ALERT. The entries and exits of all lots go to
+     * {@code /topic/sessions-activity} as a single SESSION_ACTIVITY list of {@link SessionActivityDto}.
+     */
+    @Scheduled(fixedRateString = "${parking.websocket.flush-window-ms:100}")
+    public void flushPendingUpdates() {
+        for (Long parkingLotId : pendingUpdates.keySet()) {
+            PendingLotUpdates updates = pendingUpdates.remove(parkingLotId);
+            if (updates == null) {
+                continue;
+            }
+            if (updates.occupancy != null) {
+                sendLotMessage("/dashboard/" + parkingLotId, new WebSocketMessage<>("OCCUPANCY_UPDATE", updates.occupancy));
+            }
+            if (!updates.slotChanges.isEmpty()) {
+                sendLotMessage("/slots/" + parkingLotId,
+                        new WebSocketMessage<>("SLOT_STATUS_BATCH", new SlotStatusBatchDto(parkingLotId,
+                                updates.fromSequence, updates.toSequence, List.copyOf(updates.slotChanges.values()))));
+            }
+            if (updates.alert != null) {
+                log.warn("Sending high occupancy alert for parking lot {}: {}", parkingLotId, updates.alert);
+                sendLotMessage("/alerts/" + parkingLotId, new WebSocketMessage<>("HIGH_OCCUPANCY_ALERT", updates.alert));
+            }
+            log.debug("Flushed updates for parking lot {}: {} slot change(s)", parkingLotId, updates.slotChanges.size());
+        }
+        List<SessionActivityDto> activity = new ArrayList<>();
+        for (Long parkingLotId : pendingActivity.keySet()) {
+            SessionActivityDto lotActivity = pendingActivity.remove(parkingLotId);
+            if (lotActivity != null) {
+                activity.add(lotActivity);
+            }
+        }
+        if (!activity.isEmpty()) {
+            messagingTemplate.convertAndSend("/topic/sessions-activity", new WebSocketMessage<>("SESSION_ACTIVITY", activity));
+        }
+    }
+
+    /**
+     * Checks whether this instance sends a lot's messages and a per-lot destination has subscribers
+     * in any of the enabled encodings.
+     *
+     * @param parkingLotId The ID of the parking lot the destination belongs to.
+     * @param destination The destination below the topic prefix, e.g. {@code /slots/1}.
+     * @return {@code true} if a message sent to the destination could reach a client.
+     */
+    private boolean isWatched(Long parkingLotId, String destination) {
+        if (!relayOwnershipService.ownsLot(parkingLotId)) {
+            return false;
+        }
+        return subscriptionService.hasSubscribers("/topic" + destination)
+                || (cborEnabled && subscriptionService.hasSubscribers("/topic/cbor" + destination));
+    }
+
+    /**
+     * Sends a per-lot message as JSON to {@code /topic{destination}} and, if enabled, as CBOR to
+     * {@code /topic/cbor{destination}}, skipping encodings that nobody subscribed to.
+     *
+     * @param destination The destination below the topic prefix, e.g. {@code /slots/1}.
+     * @param message The message to send.
+     */
+    private void sendLotMessage(String destination, WebSocketMessage<?> message) {
+        if (subscriptionService.hasSubscribers("/topic" + destination)) {
+            messagingTemplate.convertAndSend("/topic" + destination, message);
+        }
+        if (cborEnabled && subscriptionService.hasSubscribers("/topic/cbor" + destination)) {
+            messagingTemplate.convertAndSend("/topic/cbor" + destination, message, CborMessageConverter.createHeaders());
+        }
     }
 
     @Override
     public void reservationUpdate(ReservationUpdate reservationUpdate) {
+        if (!relayOwnershipService.ownsGlobalTopics() || !subscriptionService.hasSubscribers("/topic/reservation")) {
+            return;
+        }
         String topic="/topic/reservation";
         log.info("Sending reservation update to WebSocket topic {}: {}", topic, reservationUpdate);
         messagingTemplate.convertAndSend("/topic/reservation", new WebSocketMessage<>("RESERVATION_UPDATE", reservationUpdate));
     }
+
+    /**
+     * The updates of one parking lot collected during the current flush window.
+     */
+    private static class PendingLotUpdates {
+        private Object occupancy;
+        private HighOccupancyAlertDto alert;
+        private final Map<Long, SlotStatusUpdateDto> slotChanges = new LinkedHashMap<>();
+        private long fromSequence;
+        private long toSequence;
+    }
 }
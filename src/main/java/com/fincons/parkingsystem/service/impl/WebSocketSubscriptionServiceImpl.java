@@ -0,0 +1,140 @@
+package com.fincons.parkingsystem.service.impl;
+
+import com.fincons.parkingsystem.service.WebSocketSubscriptionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation that tracks the subscriptions of this instance's STOMP sessions.
+ * It counts subscribers per destination from SUBSCRIBE, UNSUBSCRIBE and DISCONNECT events.
+ * Subscriptions to patterns are kept apart and matched like the simple broker matches them.
+ * With the broker relay ({@code parking.websocket.broker.mode=relay}), subscribers of other
+ * instances are invisible here, so every destination is reported as subscribed.
+ */
+@Service
+@Slf4j
+public class WebSocketSubscriptionServiceImpl implements WebSocketSubscriptionService {
+
+    @Value("${parking.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    // Destination of each subscription, per session and subscription ID.
+    private final Map<String, Map<String, String>> subscriptionsBySession = new ConcurrentHashMap<>();
+    // Number of subscriptions per plain destination and per destination pattern.
+    private final Map<String, Integer> destinationCounts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> patternCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether a message sent to a destination could reach a subscriber of this instance.
+     *
+     * @param destination The destination, e.g. {@code /topic/slots/1}.
+     * @return {@code true} if the destination may have subscribers, {@code false} if it certainly has none.
+     */
+    @Override
+    public boolean hasSubscribers(String destination) {
+        if ("relay".equalsIgnoreCase(brokerMode) || destinationCounts.containsKey(destination)) {
+            return true;
+        }
+        for (String pattern : patternCounts.keySet()) {
+            if (pathMatcher.match(pattern, destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records a new subscription.
+     *
+     * @param event The event published when a client subscribes.
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionId = headers.getSessionId();
+        String subscriptionId = headers.getSubscriptionId();
+        String destination = headers.getDestination();
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+        String previous = subscriptionsBySession.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        increment(destination);
+        log.debug("Session {} subscribed to {}", sessionId, destination);
+    }
+
+    /**
+     * Removes a subscription that the client ended.
+     *
+     * @param event The event published when a client unsubscribes.
+     */
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = headers.getSessionId() != null ? subscriptionsBySession.get(headers.getSessionId()) : null;
+        if (subscriptions == null || headers.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = subscriptions.remove(headers.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    /**
+     * Removes every subscription of a session that was closed.
+     *
+     * @param event The event published when a session disconnects.
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = subscriptionsBySession.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    /**
+     * Helper method to count one more subscription to a destination or pattern.
+     *
+     * @param destination The subscribed destination.
+     */
+    private void increment(String destination) {
+        countsFor(destination).merge(destination, 1, Integer::sum);
+    }
+
+    /**
+     * Helper method to count one subscription less, forgetting destinations without subscribers.
+     *
+     * @param destination The unsubscribed destination.
+     */
+    private void decrement(String destination) {
+        countsFor(destination).computeIfPresent(destination, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Helper method to select the counters of a destination.
+     *
+     * @param destination The destination.
+     * @return The pattern counters if the destination is a pattern, the plain counters otherwise.
+     */
+    private Map<String, Integer> countsFor(String destination) {
+        return pathMatcher.isPattern(destination) ? patternCounts : destinationCounts;
+    }
+}
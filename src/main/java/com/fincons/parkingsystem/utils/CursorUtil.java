@@ -0,0 +1,92 @@
+package com.fincons.parkingsystem.utils;
+
+import com.fincons.parkingsystem.dto.CursorPage;
+import com.fincons.parkingsystem.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility methods for keyset (cursor) pagination.
+ * A cursor is the ID of the last row of a page, encoded as an opaque URL-safe token so clients
+ * do not depend on its content.
+ */
+public final class CursorUtil {
+
+    /** The number of items returned when no limit is given. */
+    public static final int DEFAULT_LIMIT = 20;
+    /** The largest page a client may request. */
+    public static final int MAX_LIMIT = 100;
+
+    private static final String PREFIX = "id:";
+
+    private CursorUtil() {
+    }
+
+    /**
+     * Encodes the ID of the last row of a page as an opaque cursor.
+     *
+     * @param id The ID of the last row.
+     * @return The opaque cursor.
+     */
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes an opaque cursor back to the ID of the last row of the previous page.
+     *
+     * @param cursor The cursor received from the client, or {@code null} for the first page.
+     * @return The decoded ID, or {@code null} if no cursor was given.
+     * @throws BadRequestException if the cursor is malformed.
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid pagination cursor.");
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid pagination cursor.");
+        }
+    }
+
+    /**
+     * Validates a requested page size.
+     *
+     * @param limit The requested number of items.
+     * @return The same limit, if valid.
+     * @throws BadRequestException if the limit is not between 1 and {@link #MAX_LIMIT}.
+     */
+    public static int validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        return limit;
+    }
+
+    /**
+     * Builds a cursor page from rows fetched with one extra row beyond the limit.
+     * The extra row only signals that a next page exists and is not returned.
+     *
+     * @param rows The fetched rows, at most {@code limit + 1}, in page order.
+     * @param limit The requested number of items.
+     * @param idOf Extracts the cursor ID from a row.
+     * @param mapper Converts a row to the returned item.
+     * @param <E> the type of the fetched rows.
+     * @param <T> the type of the returned items.
+     * @return The cursor page.
+     */
+    public static <E, T> CursorPage<T> toPage(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encode(idOf.apply(pageRows.get(pageRows.size() - 1))) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor, limit, hasNext);
+    }
+}
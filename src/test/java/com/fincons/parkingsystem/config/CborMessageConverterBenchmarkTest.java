@@ -0,0 +1,79 @@
+package com.fincons.parkingsystem.config;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fincons.parkingsystem.dto.WebSocketMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.fincons.parkingsystem.config.CborMessageConverterTest.CBOR_HEADERS;
+import static com.fincons.parkingsystem.config.CborMessageConverterTest.encodedSize;
+import static com.fincons.parkingsystem.config.CborMessageConverterTest.realtimeMessages;
+
+/**
+ * Benchmark of {@link CborMessageConverter}.
+ * This class logs the encoded size and serialization time of the realtime messages for JSON, plain
+ * CBOR and compact CBOR. It is tagged {@code benchmark}, so it is skipped by {@code mvn test} and run
+ * with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class CborMessageConverterBenchmarkTest {
+
+    private static final int ITERATIONS = 2_000;
+
+    /**
+     * Logs bytes per round and serialization time for each format over a batch of slot changes and
+     * an occupancy update.
+     */
+    @Test
+    void benchmark_reportsSizeAndSerializationTimePerFormat() {
+        List<WebSocketMessage<?>> messages = realtimeMessages();
+        MappingJackson2MessageConverter plainCbor = new MappingJackson2MessageConverter(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        plainCbor.setObjectMapper(new CBORMapper());
+
+        report("JSON", new MappingJackson2MessageConverter(), new MessageHeaders(Map.of()), messages);
+        report("CBOR", plainCbor, CBOR_HEADERS, messages);
+        report("CBOR compact", new CborMessageConverter(), CBOR_HEADERS, messages);
+    }
+
+    /**
+     * Encodes the messages repeatedly, after a warm-up of as many rounds, and logs their size and
+     * the mean serialization time of a round.
+     *
+     * @param format The name of the format to report.
+     * @param messageConverter The converter to encode with.
+     * @param headers The headers selecting the format.
+     * @param messages The messages to encode in every round.
+     */
+    private void report(String format, MessageConverter messageConverter, MessageHeaders headers, List<WebSocketMessage<?>> messages) {
+        encodeRounds(messageConverter, headers, messages);
+        long start = System.nanoTime();
+        encodeRounds(messageConverter, headers, messages);
+        long nanosPerRound = (System.nanoTime() - start) / ITERATIONS;
+        log.info("{}: {} B per round, {} us per round", format, encodedSize(messageConverter, headers, messages),
+                String.format("%.1f", nanosPerRound / 1000.0));
+    }
+
+    /**
+     * Encodes the messages {@link #ITERATIONS} times.
+     *
+     * @param messageConverter The converter to encode with.
+     * @param headers The headers selecting the format.
+     * @param messages The messages to encode in every round.
+     */
+    private void encodeRounds(MessageConverter messageConverter, MessageHeaders headers, List<WebSocketMessage<?>> messages) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (WebSocketMessage<?> message : messages) {
+                messageConverter.toMessage(message, headers);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.fincons.parkingsystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
+import com.fincons.parkingsystem.dto.SlotStatusBatchDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+import com.fincons.parkingsystem.dto.WebSocketMessage;
+import com.fincons.parkingsystem.entity.SlotStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CborMessageConverter}.
+ * This class tests the encoding selection, the delivery of CBOR messages in binary STOMP frames, the compact schema, and that the compact schema
+ * encodes the realtime messages smaller than JSON and plain CBOR. Serialization times are reported
+ * by {@link CborMessageConverterBenchmarkTest}.
+ */
+class CborMessageConverterTest {
+
+    static final MessageHeaders CBOR_HEADERS = new MessageHeaders(CborMessageConverter.createHeaders());
+
+    private final CborMessageConverter converter = new CborMessageConverter();
+
+    /**
+     * Tests that only messages sent with the CBOR encoding header are converted, not every binary message.
+     */
+    @Test
+    void toMessage_convertsOnlyCborEncoding() {
+        OccupancyUpdateDto update = new OccupancyUpdateDto(1L, 8, 2, 80.0, 1, 7);
+
+        assertNull(converter.toMessage(update, new MessageHeaders(Map.of())));
+        assertNull(converter.toMessage(update, new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_OCTET_STREAM))));
+        assertNotNull(converter.toMessage(update, CBOR_HEADERS));
+    }
+
+    /**
+     * Tests that a CBOR message sent through the messaging template reaches a STOMP client in a binary
+     * WebSocket frame carrying the encoding header, and that the received bytes decode to the message.
+     */
+    @Test
+    void convertAndSend_reachesStompClientAsBinaryFrame() throws Exception {
+        // Arrange
+        List<Message<?>> sent = new ArrayList<>();
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        template.setMessageConverter(new CompositeMessageConverter(List.of(
+                converter, new ByteArrayMessageConverter(), new MappingJackson2MessageConverter())));
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.isOpen()).thenReturn(true);
+        SlotStatusUpdateDto change = new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED, -200);
+
+        // Act
+        template.convertAndSend("/topic/cbor/slots/1", new WebSocketMessage<>("SLOT_STATUS_UPDATE", change), CborMessageConverter.createHeaders());
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(sent.get(0));
+        headers.setMessageTypeIfNotSet(SimpMessageType.MESSAGE);
+        headers.setSessionId("session-1");
+        headers.setSubscriptionId("sub-0");
+        new StompSubProtocolHandler().handleMessageToClient(session,
+                MessageBuilder.createMessage(sent.get(0).getPayload(), headers.getMessageHeaders()));
+
+        // Assert
+        ArgumentCaptor<org.springframework.web.socket.WebSocketMessage<?>> frame = ArgumentCaptor.forClass(org.springframework.web.socket.WebSocketMessage.class);
+        verify(session).sendMessage(frame.capture());
+        BinaryMessage binary = assertInstanceOf(BinaryMessage.class, frame.getValue());
+        Message<byte[]> received = new StompDecoder().decode(binary.getPayload()).get(0);
+        StompHeaderAccessor stompHeaders = StompHeaderAccessor.wrap(received);
+        assertEquals(CborMessageConverter.CBOR_ENCODING, stompHeaders.getFirstNativeHeader(CborMessageConverter.ENCODING_HEADER));
+        assertEquals("[\"SLOT_STATUS_UPDATE\",[1,10,\"A1\",0,1,-200]]",
+                new ObjectMapper().writeValueAsString(new CBORMapper().readTree(received.getPayload())));
+    }
+
+    /**
+     * Tests that a slot change is encoded as a positional array and decodes back to the same value.
+     */
+    @Test
+    void toMessage_usesCompactSchemaAndRoundTrips() throws Exception {
+        SlotStatusUpdateDto change = new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED, 42);
+
+        Message<?> message = converter.toMessage(change, CBOR_HEADERS);
+        byte[] encoded = (byte[]) message.getPayload();
+
+        assertEquals("[1,10,\"A1\",0,1,42]", new ObjectMapper().writeValueAsString(new CBORMapper().readTree(encoded)));
+        assertEquals(change, converter.fromMessage(message, SlotStatusUpdateDto.class));
+    }
+
+    /**
+     * Tests that over a batch of slot changes and an occupancy update, plain CBOR is smaller than
+     * JSON and the compact schema is smaller than plain CBOR.
+     */
+    @Test
+    void toMessage_compactSchemaIsSmallestFormat() {
+        List<WebSocketMessage<?>> messages = realtimeMessages();
+        MappingJackson2MessageConverter plainCbor = new MappingJackson2MessageConverter(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        plainCbor.setObjectMapper(new CBORMapper());
+
+        long json = encodedSize(new MappingJackson2MessageConverter(), new MessageHeaders(Map.of()), messages);
+        long cbor = encodedSize(plainCbor, CBOR_HEADERS, messages);
+        long compact = encodedSize(converter, CBOR_HEADERS, messages);
+
+        assertTrue(cbor < json);
+        assertTrue(compact < cbor);
+    }
+
+    /**
+     * Returns a batch of 50 slot changes and an occupancy update, the messages a busy lot sends per flush window.
+     *
+     * @return The messages to encode.
+     */
+    static List<WebSocketMessage<?>> realtimeMessages() {
+        List<SlotStatusUpdateDto> changes = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            changes.add(new SlotStatusUpdateDto(1L, 100 + i, String.valueOf(i), SlotStatus.AVAILABLE, SlotStatus.OCCUPIED, 1000 + i));
+        }
+        return List.of(
+                new WebSocketMessage<>("SLOT_STATUS_BATCH", new SlotStatusBatchDto(1L, 1001, 1050, changes)),
+                new WebSocketMessage<>("OCCUPANCY_UPDATE", new OccupancyUpdateDto(1L, 80, 20, 80.0, 5, 1050)));
+    }
+
+    /**
+     * Returns the total encoded size of the messages.
+     *
+     * @param messageConverter The converter to encode with.
+     * @param headers The headers selecting the format.
+     * @param messages The messages to encode.
+     * @return The total size of the messages in bytes.
+     */
+    static long encodedSize(MessageConverter messageConverter, MessageHeaders headers, List<WebSocketMessage<?>> messages) {
+        long bytes = 0;
+        for (WebSocketMessage<?> message : messages) {
+            bytes += ((byte[]) messageConverter.toMessage(message, headers).getPayload()).length;
+        }
+        return bytes;
+    }
+}
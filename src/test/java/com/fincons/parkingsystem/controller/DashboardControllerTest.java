@@ -0,0 +1,117 @@
+package com.fincons.parkingsystem.controller;
+
+import com.fincons.parkingsystem.dto.OccupancyHistoryDto;
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
+import com.fincons.parkingsystem.service.ParkingLotDashboardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for {@link DashboardController}.
+ * This class tests that the in-memory dashboard state is served with a strong ETag and that
+ * unchanged polls get a 304 (Not Modified) without a body.
+ */
+@WebMvcTest(DashboardController.class)
+public class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ParkingLotDashboardService parkingLotDashboardService;
+
+    /**
+     * Tests that a lot's occupancy is returned with an ETag built from its snapshot sequence.
+     */
+    @Test
+    void testGetLot_ReturnsOccupancyWithETag() throws Exception {
+        // Arrange
+        when(parkingLotDashboardService.getEpoch()).thenReturn(1700000000000L);
+        when(parkingLotDashboardService.getOccupancy(1L)).thenReturn(Optional.of(new OccupancyUpdateDto(1L, 3, 7, 30.0, 0, 4)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard/lots/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1700000000000-4\""))
+                .andExpect(jsonPath("$.data.occupiedSlots").value(3))
+                .andExpect(jsonPath("$.data.sequence").value(4));
+    }
+
+    /**
+     * Tests that a poll with the current ETag of a lot gets a 304 without a body.
+     */
+    @Test
+    void testGetLot_NotModified() throws Exception {
+        // Arrange
+        when(parkingLotDashboardService.getEpoch()).thenReturn(1700000000000L);
+        when(parkingLotDashboardService.getOccupancy(1L)).thenReturn(Optional.of(new OccupancyUpdateDto(1L, 3, 7, 30.0, 0, 4)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard/lots/{id}", 1L).header("If-None-Match", "\"1700000000000-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    /**
+     * Tests that a lot without dashboard state is reported as not found.
+     */
+    @Test
+    void testGetLot_NotFound() throws Exception {
+        // Arrange
+        when(parkingLotDashboardService.getOccupancy(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard/lots/{id}", 99L))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests that the occupancy history of a lot is returned for the requested number of minutes.
+     */
+    @Test
+    void testGetLotHistory_ReturnsSamples() throws Exception {
+        // Arrange
+        when(parkingLotDashboardService.getOccupancyHistory(1L, 2)).thenReturn(Optional.of(new OccupancyHistoryDto(
+                1L, Instant.parse("2026-03-01T10:00:00Z"), 60, Arrays.asList(null, 4), Arrays.asList(null, 1), Arrays.asList(null, 5))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard/lots/{id}/history", 1L).param("minutes", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.intervalSeconds").value(60))
+                .andExpect(jsonPath("$.data.occupiedSlots[1]").value(4));
+    }
+
+    /**
+     * Tests that an unchanged poll of all lots gets a 304 without reading the snapshots.
+     */
+    @Test
+    void testGetAllLots_NotModifiedSkipsSnapshots() throws Exception {
+        // Arrange
+        when(parkingLotDashboardService.getEpoch()).thenReturn(1700000000000L);
+        when(parkingLotDashboardService.getVersion()).thenReturn(12L);
+        when(parkingLotDashboardService.getAllOccupancies()).thenReturn(List.of(new OccupancyUpdateDto(1L, 3, 7, 30.0, 0, 4)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard/lots"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1700000000000-12\""))
+                .andExpect(jsonPath("$.data[0].parkingLotId").value(1));
+        mockMvc.perform(get("/api/dashboard/lots").header("If-None-Match", "\"1700000000000-12\""))
+                .andExpect(status().isNotModified());
+        verify(parkingLotDashboardService, times(1)).getAllOccupancies();
+    }
+}
@@ -0,0 +1,43 @@
+package com.fincons.parkingsystem.controller;
+
+import com.fincons.parkingsystem.service.LotStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Unit tests for {@link LotStreamController}.
+ * This class tests the endpoint that opens the Server-Sent Events stream of a parking lot.
+ */
+@WebMvcTest(LotStreamController.class)
+public class LotStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LotStreamService lotStreamService;
+
+    /**
+     * Tests that the stream is opened asynchronously and resumes from the Last-Event-ID header.
+     */
+    @Test
+    void testStreamLot_ResumesFromLastEventId() throws Exception {
+        // Arrange
+        when(lotStreamService.subscribe(1L, "1700000000000-4")).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/stream/lots/{id}", 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "1700000000000-4"))
+                .andExpect(request().asyncStarted());
+    }
+}
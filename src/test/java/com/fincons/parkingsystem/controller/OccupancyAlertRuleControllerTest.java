@@ -0,0 +1,78 @@
+package com.fincons.parkingsystem.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fincons.parkingsystem.dto.OccupancyAlertRuleDto;
+import com.fincons.parkingsystem.service.OccupancyAlertService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for {@link OccupancyAlertRuleController}.
+ * This class tests the endpoints for reading and updating the alert rule of a parking lot.
+ */
+@WebMvcTest(OccupancyAlertRuleController.class)
+public class OccupancyAlertRuleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OccupancyAlertService occupancyAlertService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Tests that the effective rule of a lot is returned with its alert state.
+     */
+    @Test
+    void testGetAlertRule_Success() throws Exception {
+        // Arrange
+        when(occupancyAlertService.getRule(1L)).thenReturn(new OccupancyAlertRuleDto(1L, 80.0, 70.0, 300L, true, false));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/parking-lots/{id}/alert-rule", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.enterThreshold").value(80.0))
+                .andExpect(jsonPath("$.data.defaultRule").value(true))
+                .andExpect(jsonPath("$.data.alertActive").value(false));
+    }
+
+    /**
+     * Tests that a valid rule is saved and an out-of-range threshold is rejected before reaching the service.
+     */
+    @Test
+    void testUpdateAlertRule_ValidatesThresholds() throws Exception {
+        // Arrange
+        OccupancyAlertRuleDto rule = new OccupancyAlertRuleDto(null, 90.0, 75.0, 600L, false, false);
+        when(occupancyAlertService.updateRule(eq(1L), any(OccupancyAlertRuleDto.class)))
+                .thenReturn(new OccupancyAlertRuleDto(1L, 90.0, 75.0, 600L, false, false));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/parking-lots/{id}/alert-rule", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rule)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.exitThreshold").value(75.0))
+                .andExpect(jsonPath("$.data.defaultRule").value(false));
+
+        rule.setEnterThreshold(120.0);
+        mockMvc.perform(put("/api/parking-lots/{id}/alert-rule", 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rule)))
+                .andExpect(status().isBadRequest());
+        verify(occupancyAlertService, never()).updateRule(eq(2L), any(OccupancyAlertRuleDto.class));
+    }
+}
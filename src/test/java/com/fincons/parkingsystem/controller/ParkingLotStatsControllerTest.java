@@ -1,15 +1,27 @@
 package com.fincons.parkingsystem.controller;
 
+import com.fincons.parkingsystem.dto.ParkingLotStatsBucketDto;
 import com.fincons.parkingsystem.dto.ParkingLotStatsDto;
+import com.fincons.parkingsystem.entity.StatsGranularity;
 import com.fincons.parkingsystem.service.ParkingLotStatsService;
+import com.fincons.parkingsystem.service.StatsRollupService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,6 +37,8 @@ public class ParkingLotStatsControllerTest {
 
     @MockBean
     private ParkingLotStatsService parkingLotStatsService;
+    @MockBean
+    private StatsRollupService statsRollupService;
 
     /**
      * Tests the successful retrieval of statistics for a specific parking lot.
@@ -52,4 +66,70 @@ public class ParkingLotStatsControllerTest {
                 .andExpect(jsonPath("$.data.parkingLotName").value("Test Lot"))
                 .andExpect(jsonPath("$.data.occupancyPercentage").value(50.0));
     }
+
+    /**
+     * Tests that the statistics of the requested lots are streamed in one response wrapper, with
+     * duplicate IDs removed.
+     */
+    @Test
+    void testGetStatsBatch_StreamsRequestedLots() throws Exception {
+        // Arrange
+        when(parkingLotStatsService.getParkingLotStats(List.of(1L, 2L))).thenReturn(List.of(
+                ParkingLotStatsDto.builder().parkingLotId(1L).totalRevenue(10.0).build(),
+                ParkingLotStatsDto.builder().parkingLotId(2L).totalRevenue(20.0).build()));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/parking-lots/stats").param("ids", "2", "1", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[1].totalRevenue").value(20.0));
+    }
+
+    /**
+     * Tests that without IDs the statistics of all lots are streamed batch by batch until a short batch.
+     */
+    @Test
+    void testGetStatsBatch_StreamsAllLots() throws Exception {
+        // Arrange
+        when(parkingLotStatsService.getParkingLotStatsAfter(0L, 500)).thenReturn(List.of(ParkingLotStatsDto.builder().parkingLotId(1L).build()));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/parking-lots/stats"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].parkingLotId").value(1));
+        verify(parkingLotStatsService, times(1)).getParkingLotStatsAfter(anyLong(), anyInt());
+    }
+
+    /**
+     * Tests that the statistics history is returned for the requested range and granularity.
+     */
+    @Test
+    void testGetStatsHistory_Success() throws Exception {
+        // Arrange
+        Instant from = Instant.parse("2026-03-01T00:00:00Z");
+        Instant to = Instant.parse("2026-04-01T00:00:00Z");
+        ParkingLotStatsBucketDto bucket = new ParkingLotStatsBucketDto(from, 420.0, 35, 33, 87.5, 95.0);
+        when(statsRollupService.getHistory(1L, from, to, StatsGranularity.DAILY)).thenReturn(List.of(bucket));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/parking-lots/{id}/stats/history", 1L)
+                        .param("from", "2026-03-01T00:00:00Z")
+                        .param("to", "2026-04-01T00:00:00Z")
+                        .param("granularity", "DAILY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].revenue").value(420.0))
+                .andExpect(jsonPath("$.data[0].peakOccupancy").value(87.5))
+                .andExpect(jsonPath("$.data[0].averageDwellMinutes").value(95.0));
+    }
 }
@@ -1,6 +1,8 @@
 package com.fincons.parkingsystem.controller;
 
+import com.fincons.parkingsystem.dto.CursorPage;
 import com.fincons.parkingsystem.dto.ParkingSessionDto;
+import com.fincons.parkingsystem.dto.SessionExportFormat;
 import com.fincons.parkingsystem.service.ParkingSessionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,19 +12,28 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Unit tests for {@link ParkingSessionController}.
- * This class tests the endpoints for retrieving active and historical parking sessions.
+ * This class tests the endpoints for retrieving and exporting active and historical parking sessions.
  */
 @WebMvcTest(ParkingSessionController.class)
 public class ParkingSessionControllerTest {
@@ -72,4 +83,67 @@ public class ParkingSessionControllerTest {
                 .andExpect(jsonPath("$.data.content").isArray())
                 .andExpect(jsonPath("$.data.totalElements").value(1));
     }
+
+    /**
+     * Tests that a request with a {@code limit} parameter is served by the cursor-paginated history endpoint.
+     */
+    @Test
+    void testGetSessionHistory_WithCursor_Success() throws Exception {
+        // Arrange
+        CursorPage<ParkingSessionDto> page = new CursorPage<>(Collections.singletonList(new ParkingSessionDto()), "aWQ6NQ", 1, true);
+        when(parkingSessionService.getSessionHistory("aWQ6OQ", 1)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/sessions/history")
+                        .param("after", "aWQ6OQ")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.content").isArray())
+                .andExpect(jsonPath("$.data.nextCursor").value("aWQ6NQ"))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+    }
+
+    /**
+     * Tests that the CSV export is streamed as a file attachment for the requested time range.
+     */
+    @Test
+    void testExportSessions_StreamsCsvAttachment() throws Exception {
+        // Arrange
+        Instant from = Instant.parse("2026-09-01T00:00:00Z");
+        Instant to = Instant.parse("2026-10-01T00:00:00Z");
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(parkingSessionService).exportSessions(eq(SessionExportFormat.CSV), eq(from), eq(to), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/sessions/export")
+                        .param("format", "CSV")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sessions.csv\""))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    /**
+     * Tests that an export whose time range ends before it starts is rejected before streaming.
+     */
+    @Test
+    void testExportSessions_InvalidRange_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/sessions/export")
+                        .param("from", "2026-10-01T00:00:00Z")
+                        .param("to", "2026-09-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(parkingSessionService);
+    }
 }
@@ -2,8 +2,11 @@ package com.fincons.parkingsystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fincons.parkingsystem.dto.ParkingSlotDto;
+import com.fincons.parkingsystem.dto.SlotDeltasDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
 import com.fincons.parkingsystem.entity.SlotStatus;
 import com.fincons.parkingsystem.service.ParkingSlotService;
+import com.fincons.parkingsystem.service.SlotMapService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,6 +19,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -38,6 +42,9 @@ public class ParkingSlotControllerTest {
     @MockBean
     private ParkingSlotService parkingSlotService;
 
+    @MockBean
+    private SlotMapService slotMapService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -81,4 +88,23 @@ public class ParkingSlotControllerTest {
                 .andExpect(jsonPath("$.data.id").value(1L))
                 .andExpect(jsonPath("$.data.status").value("OCCUPIED"));
     }
+
+    /**
+     * Tests that the slot changes after a given sequence number are returned for a reconnecting client.
+     */
+    @Test
+    void testGetSlotMapDeltas_Success() throws Exception {
+        // Arrange
+        SlotStatusUpdateDto change = new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED, 6L);
+        when(slotMapService.getDeltasSince(1L, 42L, 5L)).thenReturn(new SlotDeltasDto(1L, 42L, 6L, false, List.of(change)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/parking-slots/by-lot/{parkingLotId}/map/deltas", 1L)
+                        .param("epoch", "42")
+                        .param("since", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.resyncRequired").value(false))
+                .andExpect(jsonPath("$.data.sequence").value(6))
+                .andExpect(jsonPath("$.data.deltas[0].newStatus").value("OCCUPIED"));
+    }
 }
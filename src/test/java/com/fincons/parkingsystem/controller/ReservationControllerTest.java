@@ -1,6 +1,7 @@
 package com.fincons.parkingsystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fincons.parkingsystem.dto.ParkingSessionDto;
 import com.fincons.parkingsystem.dto.ReservationDto;
 import com.fincons.parkingsystem.dto.ReservationRequestDto;
 import com.fincons.parkingsystem.entity.ReservationStatus;
@@ -139,4 +140,22 @@ public class ReservationControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Vehicle arrival processed successfully."));
     }
+
+    /**
+     * Tests the processing of a reserved vehicle's arrival by its number plate.
+     */
+    @Test
+    void testProcessArrivalByVehicle_Success() throws Exception {
+        // Arrange
+        ParkingSessionDto sessionDto = new ParkingSessionDto();
+        sessionDto.setId(7L);
+        when(reservationService.processArrivalByVehicle("TEST-CAR", 1L)).thenReturn(sessionDto);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/reservations/arrival/by-vehicle/{vehicleNumber}", "TEST-CAR")
+                        .param("parkingLotId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.id").value(7L));
+    }
 }
@@ -0,0 +1,74 @@
+package com.fincons.parkingsystem.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fincons.parkingsystem.dto.WaitlistEntryDto;
+import com.fincons.parkingsystem.dto.WaitlistRequestDto;
+import com.fincons.parkingsystem.entity.VehicleType;
+import com.fincons.parkingsystem.entity.WaitlistStatus;
+import com.fincons.parkingsystem.service.WaitlistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for {@link WaitlistController}.
+ * This class tests the endpoints for joining, leaving and listing a lot's waitlist.
+ */
+@WebMvcTest(WaitlistController.class)
+public class WaitlistControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Tests that joining the waitlist returns the new entry with its position.
+     */
+    @Test
+    void testJoinWaitlist_Success() throws Exception {
+        // Arrange
+        WaitlistEntryDto entry = WaitlistEntryDto.builder().id(5L).vehicleNumber("TEST-CAR").parkingLotId(1L)
+                .status(WaitlistStatus.WAITING).position(2L).build();
+        when(waitlistService.joinWaitlist(any(WaitlistRequestDto.class))).thenReturn(entry);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new WaitlistRequestDto("TEST-CAR", VehicleType.CAR, 1L))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.id").value(5L))
+                .andExpect(jsonPath("$.data.position").value(2L));
+    }
+
+    /**
+     * Tests that a lot's waitlist is returned in queue order.
+     */
+    @Test
+    void testGetWaitlist_Success() throws Exception {
+        // Arrange
+        when(waitlistService.getWaitlist(1L)).thenReturn(List.of(
+                WaitlistEntryDto.builder().id(5L).position(1L).build(),
+                WaitlistEntryDto.builder().id(6L).position(2L).build()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/waitlist/by-lot/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].id").value(5L));
+    }
+}
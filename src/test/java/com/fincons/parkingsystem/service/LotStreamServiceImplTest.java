@@ -0,0 +1,112 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
+import com.fincons.parkingsystem.dto.SlotDeltasDto;
+import com.fincons.parkingsystem.dto.SlotMapSnapshotDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+import com.fincons.parkingsystem.entity.SlotStatus;
+import com.fincons.parkingsystem.service.impl.LotStreamServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link LotStreamServiceImpl}.
+ * This class tests that streams start from the lot's snapshot or from the client's last event ID,
+ * that each push reads the slot changes after the subscriber's position, and that a stream gets no
+ * new send while its previous one is still pending.
+ */
+@ExtendWith(MockitoExtension.class)
+class LotStreamServiceImplTest {
+
+    private static final long EPOCH = 1700000000000L;
+
+    @Mock
+    private SlotMapService slotMapService;
+    @Mock
+    private ParkingLotDashboardService parkingLotDashboardService;
+
+    @InjectMocks
+    private LotStreamServiceImpl lotStreamService;
+
+    /**
+     * Sends events on the calling thread, so pushes complete before the assertions.
+     */
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(lotStreamService, "sendExecutor", new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    }
+
+    /**
+     * Tests that a new stream starts with the snapshot and later pushes only the changes after it.
+     */
+    @Test
+    void subscribe_withoutLastEventId_startsFromSnapshot() {
+        // Arrange
+        when(slotMapService.getSnapshot(1L)).thenReturn(new SlotMapSnapshotDto(1L, EPOCH, 5, List.of(), List.of(), List.of()));
+        when(parkingLotDashboardService.getOccupancy(1L)).thenReturn(Optional.of(new OccupancyUpdateDto(1L, 2, 8, 20.0, 0, 3)));
+        when(slotMapService.getDeltasSince(1L, EPOCH, 5)).thenReturn(new SlotDeltasDto(1L, EPOCH, 6, false,
+                List.of(new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED, 6))));
+
+        // Act
+        assertNotNull(lotStreamService.subscribe(1L, null));
+        lotStreamService.pushUpdates();
+
+        // Assert
+        verify(slotMapService, times(1)).getSnapshot(1L);
+        verify(slotMapService).getDeltasSince(1L, EPOCH, 5);
+    }
+
+    /**
+     * Tests that a reconnecting client resumes from its last event ID without reloading the snapshot.
+     */
+    @Test
+    void subscribe_withLastEventId_resumesFromDeltas() {
+        // Arrange
+        when(slotMapService.getDeltasSince(1L, EPOCH, 4)).thenReturn(new SlotDeltasDto(1L, EPOCH, 5, false,
+                List.of(new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED, 5))));
+        when(parkingLotDashboardService.getOccupancy(1L)).thenReturn(Optional.empty());
+
+        // Act
+        lotStreamService.subscribe(1L, EPOCH + "-4");
+
+        // Assert
+        verify(slotMapService, never()).getSnapshot(anyLong());
+    }
+
+    /**
+     * Tests that pushes are handed to the send threads and that a stream with a pending send is skipped.
+     */
+    @Test
+    void pushUpdates_skipsStreamWithPendingSend() {
+        // Arrange
+        when(slotMapService.getSnapshot(1L)).thenReturn(new SlotMapSnapshotDto(1L, EPOCH, 5, List.of(), List.of(), List.of()));
+        when(parkingLotDashboardService.getOccupancy(1L)).thenReturn(Optional.empty());
+        lotStreamService.subscribe(1L, null);
+        List<Runnable> pending = new ArrayList<>();
+        ReflectionTestUtils.setField(lotStreamService, "sendExecutor", new ExecutorServiceAdapter(pending::add));
+
+        // Act
+        lotStreamService.pushUpdates();
+        lotStreamService.pushUpdates();
+        lotStreamService.sendHeartbeats();
+
+        // Assert
+        assertEquals(1, pending.size());
+        verify(slotMapService, never()).getDeltasSince(anyLong(), anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,97 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.HighOccupancyAlertDto;
+import com.fincons.parkingsystem.dto.OccupancyAlertRuleDto;
+import com.fincons.parkingsystem.entity.OccupancyAlertRule;
+import com.fincons.parkingsystem.exception.BadRequestException;
+import com.fincons.parkingsystem.repository.OccupancyAlertRuleRepository;
+import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.service.impl.OccupancyAlertServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OccupancyAlertServiceImpl}.
+ * This class tests that alerts are only sent on state changes, with hysteresis, a minimum
+ * re-alert interval and per-lot rules.
+ */
+@ExtendWith(MockitoExtension.class)
+class OccupancyAlertServiceImplTest {
+
+    @Mock
+    private OccupancyAlertRuleRepository occupancyAlertRuleRepository;
+    @Mock
+    private ParkingLotRepository parkingLotRepository;
+    @Mock
+    private WebSocketService webSocketService;
+
+    @InjectMocks
+    private OccupancyAlertServiceImpl occupancyAlertService;
+
+    /**
+     * Tests that churn around the enter threshold raises one alert, which is only cleared below the exit threshold.
+     */
+    @Test
+    void evaluate_sendsOnlyStateChangesWithHysteresis() {
+        // Arrange
+        when(occupancyAlertRuleRepository.findAll()).thenReturn(List.of(new OccupancyAlertRule(1L, 80.0, 70.0, 0, null)));
+        occupancyAlertService.refreshRules();
+
+        // Act
+        for (double occupancy : new double[]{50, 80, 90, 79, 85, 75, 69, 80}) {
+            occupancyAlertService.evaluate(1L, occupancy);
+        }
+
+        // Assert
+        ArgumentCaptor<HighOccupancyAlertDto> alerts = ArgumentCaptor.forClass(HighOccupancyAlertDto.class);
+        verify(webSocketService, times(3)).sendHighOccupancyAlert(alerts.capture());
+        List<HighOccupancyAlertDto> sent = alerts.getAllValues();
+        assertTrue(sent.get(0).isActive());
+        assertEquals(80.0, sent.get(0).getOccupancyPercentage());
+        assertFalse(sent.get(1).isActive());
+        assertEquals(69.0, sent.get(1).getOccupancyPercentage());
+        assertTrue(sent.get(2).isActive());
+    }
+
+    /**
+     * Tests that an alert is not raised again within the minimum re-alert interval.
+     */
+    @Test
+    void evaluate_respectsMinimumRealertInterval() {
+        // Arrange
+        when(occupancyAlertRuleRepository.findAll()).thenReturn(List.of(new OccupancyAlertRule(1L, 80.0, 70.0, 3600, null)));
+        occupancyAlertService.refreshRules();
+
+        // Act
+        occupancyAlertService.evaluate(1L, 85);
+        occupancyAlertService.evaluate(1L, 60);
+        occupancyAlertService.evaluate(1L, 95);
+
+        // Assert
+        verify(webSocketService, times(2)).sendHighOccupancyAlert(any(HighOccupancyAlertDto.class));
+    }
+
+    /**
+     * Tests that a rule whose exit threshold is above its enter threshold is rejected.
+     */
+    @Test
+    void updateRule_rejectsInvertedThresholds() {
+        // Arrange
+        when(parkingLotRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> occupancyAlertService.updateRule(1L, new OccupancyAlertRuleDto(null, 70.0, 80.0, 60L, false, false)));
+        verify(occupancyAlertRuleRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,203 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.OccupancyHistoryDto;
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+import com.fincons.parkingsystem.entity.SlotStatus;
+import com.fincons.parkingsystem.repository.ParkingSessionRepository;
+import com.fincons.parkingsystem.repository.ParkingSlotRepository;
+import com.fincons.parkingsystem.service.impl.ParkingLotDashboardServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ParkingLotDashboardServiceImpl}.
+ * This class tests that slot status events are applied to the in-memory snapshots as deltas,
+ * that every published snapshot carries the next sequence number, and that the periodic
+ * reconciliation corrects the counts from the database.
+ */
+@ExtendWith(MockitoExtension.class)
+class ParkingLotDashboardServiceImplTest {
+
+    @Mock
+    private ParkingSlotRepository parkingSlotRepository;
+    @Mock
+    private WebSocketService webSocketService;
+    @Mock
+    private OccupancyAlertService occupancyAlertService;
+    @Mock
+    private StatsRollupService statsRollupService;
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+
+    @InjectMocks
+    private ParkingLotDashboardServiceImpl parkingLotDashboardService;
+
+    /**
+     * Seeds the dashboard of lot 1 with 3 available slots and 1 occupied slot.
+     */
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(parkingLotDashboardService, "historyMinutes", 60);
+        when(parkingSlotRepository.countSlotsGroupedByParkingLotAndStatus()).thenReturn(List.of(
+                new Object[]{1L, SlotStatus.AVAILABLE, 3L},
+                new Object[]{1L, SlotStatus.OCCUPIED, 1L}));
+        when(webSocketService.isLotWatched(1L)).thenReturn(true);
+        parkingLotDashboardService.reconcileDashboards();
+        reset(webSocketService);
+        lenient().when(webSocketService.isLotWatched(1L)).thenReturn(true);
+    }
+
+    /**
+     * Tests that a slot status event moves one slot between counters without querying the database.
+     */
+    @Test
+    void updateOccupancy_appliesDeltaWithoutQueries() {
+        // Act
+        parkingLotDashboardService.updateOccupancy(new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED));
+
+        // Assert
+        ArgumentCaptor<OccupancyUpdateDto> captor = ArgumentCaptor.forClass(OccupancyUpdateDto.class);
+        verify(webSocketService).sendSlotUpdate(eq(1L), captor.capture());
+        assertEquals(2, captor.getValue().getOccupiedSlots());
+        assertEquals(2, captor.getValue().getAvailableSlots());
+        assertEquals(50.0, captor.getValue().getOccupancyPercentage());
+        assertEquals(2, captor.getValue().getSequence());
+        assertEquals(2, parkingLotDashboardService.getVersion());
+        assertEquals(List.of(captor.getValue()), parkingLotDashboardService.getAllOccupancies());
+        verify(parkingSlotRepository, times(1)).countSlotsGroupedByParkingLotAndStatus();
+        verifyNoMoreInteractions(parkingSlotRepository);
+    }
+
+    /**
+     * Tests that a slot event for a lot unknown at startup reads the lot's counts with one grouped query.
+     */
+    @Test
+    void updateOccupancy_loadsUnknownLotWithOneGroupedQuery() {
+        // Arrange
+        when(webSocketService.isLotWatched(2L)).thenReturn(true);
+        when(parkingSlotRepository.countSlotsGroupedByStatus(2L)).thenReturn(List.of(
+                new Object[]{SlotStatus.AVAILABLE, 1L},
+                new Object[]{SlotStatus.OCCUPIED, 1L}));
+
+        // Act
+        parkingLotDashboardService.updateOccupancy(new SlotStatusUpdateDto(2L, 20L, "B1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED));
+
+        // Assert
+        assertTrue(parkingLotDashboardService.isWarmedUp());
+        ArgumentCaptor<OccupancyUpdateDto> captor = ArgumentCaptor.forClass(OccupancyUpdateDto.class);
+        verify(webSocketService).sendSlotUpdate(eq(2L), captor.capture());
+        assertEquals(50.0, captor.getValue().getOccupancyPercentage());
+        verify(parkingSlotRepository, times(1)).countSlotsGroupedByStatus(2L);
+    }
+
+    /**
+     * Tests that a sample records the current counts of a lot as the latest minute of its history,
+     * with earlier minutes unknown.
+     */
+    @Test
+    void sampleOccupancyHistory_recordsCurrentCounts() {
+        // Act
+        parkingLotDashboardService.sampleOccupancyHistory();
+        OccupancyHistoryDto history = parkingLotDashboardService.getOccupancyHistory(1L, 90).orElseThrow();
+
+        // Assert
+        assertEquals(60, history.getOccupiedSlots().size());
+        assertEquals(60, history.getIntervalSeconds());
+        assertEquals(1, history.getOccupiedSlots().get(59));
+        assertEquals(3, history.getAvailableSlots().get(59));
+        assertEquals(0, history.getReservedSlots().get(59));
+        assertNull(history.getOccupiedSlots().get(58));
+        assertTrue(parkingLotDashboardService.getOccupancyHistory(2L, 60).isEmpty());
+    }
+
+    /**
+     * Tests that the history before startup is rebuilt from per-minute session changes as a running
+     * count of occupied slots, without overwriting samples already taken.
+     */
+    @Test
+    void rehydrateOccupancyHistory_rebuildsOccupiedSlotsFromSessions() {
+        // Arrange
+        long baseMinute = System.currentTimeMillis() / 60_000 - 60;
+        when(parkingSessionRepository.sumOccupancyChangesByParkingLotAndMinute(any(Instant.class), any(Instant.class))).thenReturn(List.of(
+                new Object[]{1L, baseMinute, 2L},
+                new Object[]{1L, baseMinute + 10, 1L},
+                new Object[]{1L, baseMinute + 20, -2L}));
+        parkingLotDashboardService.sampleOccupancyHistory();
+
+        // Act
+        parkingLotDashboardService.rehydrateOccupancyHistory();
+
+        // Assert
+        OccupancyHistoryDto history = parkingLotDashboardService.getOccupancyHistory(1L, 60).orElseThrow();
+        List<Integer> occupied = history.getOccupiedSlots();
+        assertEquals(2, occupied.get(0));
+        assertEquals(2, occupied.get(9));
+        assertEquals(3, occupied.get(10));
+        assertEquals(1, occupied.get(20));
+        assertNull(history.getReservedSlots().get(20));
+        assertEquals(3, history.getAvailableSlots().get(59));
+    }
+
+    /**
+     * Tests that reconciliation overwrites drifted counters and re-broadcasts only changed lots.
+     */
+    @Test
+    void reconcileDashboards_correctsDriftAndBroadcastsChanges() {
+        // Arrange
+        when(parkingSlotRepository.countSlotsGroupedByParkingLotAndStatus()).thenReturn(List.of(
+                new Object[]{1L, SlotStatus.AVAILABLE, 1L},
+                new Object[]{1L, SlotStatus.RESERVED, 3L}));
+
+        // Act
+        parkingLotDashboardService.reconcileDashboards();
+        parkingLotDashboardService.reconcileDashboards();
+
+        // Assert
+        ArgumentCaptor<OccupancyUpdateDto> captor = ArgumentCaptor.forClass(OccupancyUpdateDto.class);
+        verify(webSocketService, times(1)).sendSlotUpdate(eq(1L), captor.capture());
+        assertEquals(3, captor.getValue().getOccupiedSlots());
+        assertEquals(75.0, captor.getValue().getOccupancyPercentage());
+        assertEquals(3, captor.getValue().getReservedSlots());
+        assertEquals(2, captor.getValue().getSequence());
+    }
+
+    /**
+     * Tests that reconciliation leaves a lot alone when a delta was applied while the counts were read,
+     * since the counts may predate that delta.
+     */
+    @Test
+    void reconcileDashboards_keepsDeltaAppliedDuringRead() {
+        // Arrange
+        when(parkingSlotRepository.countSlotsGroupedByParkingLotAndStatus()).thenAnswer(invocation -> {
+            parkingLotDashboardService.updateOccupancy(new SlotStatusUpdateDto(1L, 101L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED));
+            return List.<Object[]>of(
+                    new Object[]{1L, SlotStatus.AVAILABLE, 3L},
+                    new Object[]{1L, SlotStatus.OCCUPIED, 1L});
+        });
+
+        // Act
+        parkingLotDashboardService.reconcileDashboards();
+
+        // Assert
+        OccupancyUpdateDto occupancy = parkingLotDashboardService.getOccupancy(1L).orElseThrow();
+        assertEquals(2, occupancy.getOccupiedSlots());
+        assertEquals(2, occupancy.getSequence());
+    }
+}
@@ -55,6 +55,12 @@ class ParkingLotServiceImplTest {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private SlotMapService slotMapService;
+
+    @Mock
+    private ParkingLotStatsService parkingLotStatsService;
+
     @InjectMocks
     private ParkingLotServiceImpl parkingLotService;
 
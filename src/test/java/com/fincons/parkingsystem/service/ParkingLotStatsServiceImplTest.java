@@ -0,0 +1,265 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.ParkingLotStatsDto;
+import com.fincons.parkingsystem.entity.ParkingLot;
+import com.fincons.parkingsystem.entity.ParkingLotStats;
+import com.fincons.parkingsystem.entity.SlotStatus;
+import com.fincons.parkingsystem.entity.StatsRollupWatermark;
+import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.repository.ParkingLotStatsRepository;
+import com.fincons.parkingsystem.repository.ParkingSessionRepository;
+import com.fincons.parkingsystem.repository.ParkingSlotRepository;
+import com.fincons.parkingsystem.repository.StatsRollupWatermarkRepository;
+import com.fincons.parkingsystem.service.impl.ParkingLotStatsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ParkingLotStatsServiceImpl}.
+ * This class tests that revenue and session counts are read from the per-lot rollup, that completed
+ * sessions are added to it, and that the statistics of a lot are cached and loaded once for concurrent callers.
+ */
+@ExtendWith(MockitoExtension.class)
+class ParkingLotStatsServiceImplTest {
+
+    @Mock
+    private ParkingLotRepository parkingLotRepository;
+    @Mock
+    private ParkingSlotRepository parkingSlotRepository;
+    @Mock
+    private ParkingLotStatsRepository parkingLotStatsRepository;
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+    @Mock
+    private StatsRollupWatermarkRepository statsRollupWatermarkRepository;
+
+    @InjectMocks
+    private ParkingLotStatsServiceImpl parkingLotStatsService;
+
+    private ParkingLot parkingLot;
+
+    /**
+     * Sets up a parking lot with 10 slots, 4 of them occupied and 6 available.
+     */
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(parkingLotStatsService, "catchUpLagMs", 60000L);
+        parkingLot = new ParkingLot(1L, "Test Lot", "Location", 10, 10.0, 0, Instant.now(), null, false, 0);
+        lenient().when(parkingLotRepository.findByIdWithInactive(1L)).thenReturn(Optional.of(parkingLot));
+        lenient().when(parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.OCCUPIED)).thenReturn(4L);
+        lenient().when(parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE)).thenReturn(6L);
+    }
+
+    /**
+     * Tests that the statistics are read from the rollup row of the lot.
+     */
+    @Test
+    void getParkingLotStats_readsRollup() {
+        // Arrange
+        when(parkingLotStatsRepository.findById(1L)).thenReturn(Optional.of(new ParkingLotStats(1L, 1250.0, 300L, LocalDate.now(ZoneOffset.UTC), 40.0, 3L, Instant.now())));
+
+        // Act
+        ParkingLotStatsDto stats = parkingLotStatsService.getParkingLotStats(1L);
+
+        // Assert
+        assertEquals(1250.0, stats.getTotalRevenue());
+        assertEquals(300L, stats.getCompletedSessions());
+        assertEquals(40.0, stats.getRevenueToday());
+        assertEquals(3L, stats.getSessionsToday());
+        assertEquals(40.0, stats.getOccupancyPercentage());
+    }
+
+    /**
+     * Tests that daily counters of an earlier day and lots without completed sessions are reported as zero.
+     */
+    @Test
+    void getParkingLotStats_reportsZeroForStaleOrMissingRollup() {
+        // Arrange
+        when(parkingLotStatsRepository.findById(1L))
+                .thenReturn(Optional.of(new ParkingLotStats(1L, 1250.0, 300L, LocalDate.now(ZoneOffset.UTC).minusDays(1), 40.0, 3L, Instant.now())))
+                .thenReturn(Optional.empty());
+
+        // Act
+        ParkingLotStatsDto stale = parkingLotStatsService.getParkingLotStats(1L);
+        parkingLotStatsService.evict(1L);
+        ParkingLotStatsDto missing = parkingLotStatsService.getParkingLotStats(1L);
+
+        // Assert
+        assertEquals(1250.0, stale.getTotalRevenue());
+        assertEquals(0.0, stale.getRevenueToday());
+        assertEquals(0L, stale.getSessionsToday());
+        assertEquals(0.0, missing.getTotalRevenue());
+        assertEquals(0L, missing.getCompletedSessions());
+    }
+
+    /**
+     * Tests that concurrent cache misses for the same lot run a single load, that later calls are served
+     * from the cache, and that the lot is loaded again once evicted.
+     */
+    @Test
+    void getParkingLotStats_coalescesConcurrentMissesAndCachesUntilEvicted() throws Exception {
+        // Arrange
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(parkingLotStatsRepository.findById(1L)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<ParkingLotStatsDto> first = executor.submit(() -> parkingLotStatsService.getParkingLotStats(1L));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            List<Future<ParkingLotStatsDto>> waiting = List.of(
+                    executor.submit(() -> parkingLotStatsService.getParkingLotStats(1L)),
+                    executor.submit(() -> parkingLotStatsService.getParkingLotStats(1L)),
+                    executor.submit(() -> parkingLotStatsService.getParkingLotStats(1L)));
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            // Assert
+            ParkingLotStatsDto loaded = first.get(5, TimeUnit.SECONDS);
+            for (Future<ParkingLotStatsDto> future : waiting) {
+                assertSame(loaded, future.get(5, TimeUnit.SECONDS));
+            }
+            assertSame(loaded, parkingLotStatsService.getParkingLotStats(1L));
+            verify(parkingLotRepository, times(1)).findByIdWithInactive(1L);
+
+            parkingLotStatsService.evict(1L);
+            parkingLotStatsService.getParkingLotStats(1L);
+            verify(parkingLotRepository, times(2)).findByIdWithInactive(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that a failed load is rethrown to its caller and not cached.
+     */
+    @Test
+    void getParkingLotStats_doesNotCacheFailures() {
+        // Arrange
+        when(parkingLotRepository.findByIdWithInactive(2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> parkingLotStatsService.getParkingLotStats(2L));
+        assertThrows(ResourceNotFoundException.class, () -> parkingLotStatsService.getParkingLotStats(2L));
+        verify(parkingLotRepository, times(2)).findByIdWithInactive(2L);
+    }
+
+    /**
+     * Tests that the statistics of several lots are built from one query each for the lots, their rollup
+     * rows and their grouped slot counts.
+     */
+    @Test
+    void getParkingLotStats_batchUsesGroupedQueries() {
+        // Arrange
+        ParkingLot otherLot = new ParkingLot(2L, "Other Lot", "Location", 4, 5.0, 0, Instant.now(), null, true, 0);
+        when(parkingLotRepository.findAllByIdWithInactive(List.of(1L, 2L))).thenReturn(List.of(parkingLot, otherLot));
+        when(parkingLotStatsRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+                new ParkingLotStats(2L, 80.0, 8L, LocalDate.now(ZoneOffset.UTC), 10.0, 1L, Instant.now())));
+        when(parkingSlotRepository.countSlotsGroupedByParkingLotAndStatus(List.of(1L, 2L))).thenReturn(List.of(
+                new Object[]{1L, SlotStatus.OCCUPIED, 5L},
+                new Object[]{1L, SlotStatus.AVAILABLE, 5L},
+                new Object[]{2L, SlotStatus.OCCUPIED, 4L}));
+
+        // Act
+        List<ParkingLotStatsDto> stats = parkingLotStatsService.getParkingLotStats(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(2, stats.size());
+        assertEquals(50.0, stats.get(0).getOccupancyPercentage());
+        assertEquals(0.0, stats.get(0).getTotalRevenue());
+        assertEquals(100.0, stats.get(1).getOccupancyPercentage());
+        assertEquals(0L, stats.get(1).getAvailableSlots());
+        assertEquals(80.0, stats.get(1).getTotalRevenue());
+        verify(parkingSlotRepository, never()).countByParkingLotAndStatus(any(), any());
+    }
+
+    /**
+     * Tests that a completed session is added to the rollup of the UTC day it completed on.
+     */
+    @Test
+    void recordCompletedSession_upsertsRollup() {
+        // Act
+        parkingLotStatsService.recordCompletedSession(1L, 15.0, Instant.parse("2026-03-01T23:30:00Z"));
+
+        // Assert
+        verify(parkingLotStatsRepository).addCompletedSession(eq(1L), eq(15.0), eq(LocalDate.of(2026, 3, 1)), any(Instant.class));
+    }
+
+    /**
+     * Tests that the catch-up job counts the sessions exited after its watermark, advances the watermark
+     * and evicts the lots whose statistics changed.
+     */
+    @Test
+    void catchUpStats_countsWindowAfterWatermarkAndEvictsChangedLots() {
+        // Arrange
+        Instant processedUntil = Instant.now().minus(Duration.ofMinutes(10));
+        StatsRollupWatermark watermark = new StatsRollupWatermark("parking-lot-stats", processedUntil, processedUntil);
+        when(statsRollupWatermarkRepository.existsById("parking-lot-stats")).thenReturn(true);
+        when(statsRollupWatermarkRepository.findByNameForUpdate("parking-lot-stats")).thenReturn(Optional.of(watermark));
+        when(parkingLotStatsRepository.findById(1L)).thenReturn(Optional.empty());
+        when(parkingLotStatsRepository.findParkingLotIdsUpdatedSince(any(Instant.class))).thenReturn(List.of(1L));
+        parkingLotStatsService.getParkingLotStats(1L);
+
+        // Act
+        parkingLotStatsService.catchUpStats();
+        parkingLotStatsService.getParkingLotStats(1L);
+
+        // Assert
+        Instant to = watermark.getProcessedUntil();
+        assertTrue(to.isAfter(processedUntil) && to.isBefore(Instant.now().minusSeconds(59)));
+        verify(parkingLotStatsRepository).addUncountedSessions(eq(processedUntil), eq(to), eq(LocalDate.now(ZoneOffset.UTC)), any(Instant.class), any(Instant.class));
+        verify(statsRollupWatermarkRepository).save(watermark);
+        verify(parkingLotStatsRepository, times(2)).findById(1L);
+    }
+
+    /**
+     * Tests that the first run of the catch-up job starts at the oldest session, so past sessions are counted.
+     */
+    @Test
+    void catchUpStats_startsAtOldestSession() {
+        // Arrange
+        Instant oldest = Instant.parse("2026-01-10T08:30:00Z");
+        when(statsRollupWatermarkRepository.existsById("parking-lot-stats")).thenReturn(false);
+        when(parkingSessionRepository.findEarliestEntryTime()).thenReturn(Optional.of(oldest));
+        StatsRollupWatermark watermark = new StatsRollupWatermark("parking-lot-stats", oldest, Instant.now());
+        when(statsRollupWatermarkRepository.findByNameForUpdate("parking-lot-stats")).thenReturn(Optional.of(watermark));
+
+        // Act
+        parkingLotStatsService.catchUpStats();
+
+        // Assert
+        verify(statsRollupWatermarkRepository).createIfMissing(eq("parking-lot-stats"), eq(oldest), any(Instant.class));
+        verify(parkingLotStatsRepository).addUncountedSessions(eq(oldest), any(Instant.class), any(LocalDate.class), any(Instant.class), any(Instant.class));
+    }
+}
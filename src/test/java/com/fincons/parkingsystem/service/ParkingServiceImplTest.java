@@ -22,6 +22,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -46,6 +47,12 @@ class ParkingServiceImplTest {
     private ReservationRepository reservationRepository;
     @Mock
     private KafkaProducerService kafkaProducerService;
+    @Mock
+    private WaitlistService waitlistService;
+    @Mock
+    private ReservationService reservationService;
+    @Mock
+    private ParkingLotStatsService parkingLotStatsService;
 
     @InjectMocks
     private ParkingServiceImpl parkingService;
@@ -62,9 +69,9 @@ class ParkingServiceImplTest {
     @BeforeEach
     void setUp() {
         vehicle = new Vehicle(1L, "TEST1234", VehicleType.CAR, false);
-        parkingLot = new ParkingLot(1L, "Test Lot", "Location", 10, 10.0, Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), null, false, 0);
+        parkingLot = new ParkingLot(1L, "Test Lot", "Location", 10, 10.0, 0, Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), null, false, 0);
         parkingSlot = new ParkingSlot(101L, "A1", SlotStatus.AVAILABLE, parkingLot, 1L, false, 0);
-        parkingSession = new ParkingSession(1L, vehicle, parkingSlot, 101L, Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant().minus(Duration.ofHours(1)), null, 0.0, ParkingSessionStatus.ACTIVE, false, 0);
+        parkingSession = new ParkingSession(1L, vehicle, parkingSlot, 101L, Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant().minus(Duration.ofHours(1)), null, 0.0, ParkingSessionStatus.ACTIVE, false, false, 0);
         entryRequest = new VehicleEntryRequestDto("TEST1234", VehicleType.CAR, 1L);
     }
 
@@ -94,6 +101,7 @@ class ParkingServiceImplTest {
         verify(parkingSessionRepository, times(1)).save(any(ParkingSession.class));
         verify(kafkaProducerService, times(1)).sendVehicleEntry(any(VehicleEnteredEvent.class));
         verify(kafkaProducerService, times(1)).sendSlotUpdateProduce(any(SlotStatusUpdateDto.class));
+        verify(parkingLotStatsService, times(1)).evict(parkingLot.getId());
     }
 
     /**
@@ -126,6 +134,27 @@ class ParkingServiceImplTest {
         assertThrows(ConflictException.class, () -> parkingService.enterVehicle(entryRequest));
     }
 
+    /**
+     * Tests that a vehicle arriving with an active reservation is checked in against it instead of being rejected.
+     */
+    @Test
+    void enterVehicle_convertsActiveReservationIntoSession() {
+        // Arrange
+        ParkingSessionDto sessionDto = new ParkingSessionDto();
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(vehicleRepository.findByVehicleNumber("TEST1234")).thenReturn(Optional.of(vehicle));
+        when(parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)).thenReturn(false);
+        when(reservationRepository.existsByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)).thenReturn(true);
+        when(reservationService.checkInByVehicle("TEST1234", 1L)).thenReturn(sessionDto);
+
+        // Act
+        ParkingSessionDto result = parkingService.enterVehicle(entryRequest);
+
+        // Assert
+        assertSame(sessionDto, result);
+        verify(parkingSlotRepository, never()).findFirstByParkingLotAndStatusOrderByIdAsc(any(), any());
+    }
+
     /**
      * Tests the successful exit of a vehicle, including charge calculation and status updates.
      */
@@ -150,6 +179,7 @@ class ParkingServiceImplTest {
         assertEquals(SlotStatus.AVAILABLE, parkingSlot.getStatus());
         verify(kafkaProducerService, times(1)).sendVehicleExit(any(VehicleExitedEvent.class));
         verify(kafkaProducerService, times(1)).sendSlotUpdateProduce(any(SlotStatusUpdateDto.class));
+        verify(parkingLotStatsService, times(1)).recordCompletedSession(eq(1L), eq(parkingSession.getTotalAmount()), any(Instant.class));
     }
 
     /**
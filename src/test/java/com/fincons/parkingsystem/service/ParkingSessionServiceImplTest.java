@@ -1,39 +1,55 @@
 package com.fincons.parkingsystem.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fincons.parkingsystem.dto.CursorPage;
 import com.fincons.parkingsystem.dto.ParkingSessionDto;
+import com.fincons.parkingsystem.dto.SessionExportFormat;
 import com.fincons.parkingsystem.entity.ParkingLot;
 import com.fincons.parkingsystem.entity.ParkingSession;
 import com.fincons.parkingsystem.entity.ParkingSessionStatus;
 import com.fincons.parkingsystem.entity.ParkingSlot;
+import com.fincons.parkingsystem.exception.BadRequestException;
 import com.fincons.parkingsystem.exception.ResourceNotFoundException;
 import com.fincons.parkingsystem.mapper.ParkingSessionMapper;
 import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.repository.ParkingSessionExportRepository;
 import com.fincons.parkingsystem.repository.ParkingSessionRepository;
 import com.fincons.parkingsystem.repository.ParkingSlotRepository;
 import com.fincons.parkingsystem.service.impl.ParkingSessionServiceImpl;
+import com.fincons.parkingsystem.utils.CursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.eq;
 
 /**
  * Unit tests for {@link ParkingSessionServiceImpl}.
- * This class tests the retrieval of active and historical parking sessions,
+ * This class tests the retrieval and export of active and historical parking sessions,
  * ensuring that the service correctly interacts with repositories and mappers.
  */
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +63,11 @@ class ParkingSessionServiceImplTest {
     private ParkingSlotRepository parkingSlotRepository;
     @Mock
     private ParkingSessionMapper parkingSessionMapper;
+    @Mock
+    private ParkingSessionExportRepository parkingSessionExportRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     @InjectMocks
     private ParkingSessionServiceImpl parkingSessionService;
@@ -157,4 +178,95 @@ class ParkingSessionServiceImplTest {
             parkingSessionService.getActiveSessions(PageRequest.of(0, 10));
         });
     }
+
+    /**
+     * Tests that a cursor page of the session history fetches one extra row to detect a next page
+     * and returns a cursor that resumes after the last returned session.
+     */
+    @Test
+    void getSessionHistory_withCursor_returnsNextCursor() {
+        // Arrange
+        ParkingSession older = new ParkingSession();
+        older.setId(0L);
+        older.setParkingSlotId(parkingSlot.getId());
+        when(parkingSessionRepository.findByIdLessThanOrderByIdDesc(eq(5L), eq(Limit.of(2)))).thenReturn(List.of(parkingSession, older));
+        when(parkingSessionMapper.toDto(any(ParkingSession.class))).thenReturn(parkingSessionDto);
+        when(parkingSlotRepository.findByIdWithInactive(anyLong())).thenReturn(Optional.of(parkingSlot));
+        when(parkingLotRepository.findByIdWithInactive(anyLong())).thenReturn(Optional.of(parkingLot));
+
+        // Act
+        CursorPage<ParkingSessionDto> result = parkingSessionService.getSessionHistory(CursorUtil.encode(5L), 1);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(parkingSession.getId(), CursorUtil.decode(result.getNextCursor()));
+    }
+
+    /**
+     * Verifies that the export writes one JSON object per line for each session read from the cursor.
+     */
+    @Test
+    void exportSessions_asNdjson_writesOneLinePerSession() throws Exception {
+        // Arrange
+        stubExportedSessions();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        parkingSessionService.exportSessions(SessionExportFormat.NDJSON, null, null, outputStream);
+
+        // Assert
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Lot, \"North\"", objectMapper.readTree(lines[0]).get("parkingLotName").asText());
+        assertEquals("2026-09-01T08:00:00Z", objectMapper.readTree(lines[0]).get("entryTime").asText());
+        assertFalse(objectMapper.readTree(lines[1]).has("exitTime"));
+    }
+
+    /**
+     * Verifies that the CSV export writes a header and quotes fields containing separators or quotes.
+     */
+    @Test
+    void exportSessions_asCsv_writesHeaderAndEscapedRows() throws Exception {
+        // Arrange
+        Instant from = Instant.parse("2026-09-01T00:00:00Z");
+        Instant to = Instant.parse("2026-10-01T00:00:00Z");
+        stubExportedSessions();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        parkingSessionService.exportSessions(SessionExportFormat.CSV, from, to, outputStream);
+
+        // Assert
+        assertEquals("""
+                id,vehicleNumber,parkingSlotId,parkingSlotNumber,parkingLotName,entryTime,exitTime,totalAmount,status
+                1,AB123,10,1,"Lot, ""North""\",2026-09-01T08:00:00Z,2026-09-01T10:00:00Z,20.0,COMPLETED
+                2,CD456,11,2,Lot B,2026-09-02T08:00:00Z,,,ACTIVE
+                """, outputStream.toString(StandardCharsets.UTF_8));
+        verify(parkingSessionExportRepository).forEachSession(eq(from), eq(to), any());
+    }
+
+    /**
+     * Helper method that makes the export repository read a completed and an active session.
+     */
+    private void stubExportedSessions() {
+        doAnswer(invocation -> {
+            Consumer<ParkingSessionDto> action = invocation.getArgument(2);
+            action.accept(ParkingSessionDto.builder().id(1L).vehicleNumber("AB123").parkingSlotId(10L).parkingSlotNumber(1L)
+                    .parkingLotName("Lot, \"North\"").entryTime(Instant.parse("2026-09-01T08:00:00Z"))
+                    .exitTime(Instant.parse("2026-09-01T10:00:00Z")).totalAmount(20.0).status(ParkingSessionStatus.COMPLETED).build());
+            action.accept(ParkingSessionDto.builder().id(2L).vehicleNumber("CD456").parkingSlotId(11L).parkingSlotNumber(2L)
+                    .parkingLotName("Lot B").entryTime(Instant.parse("2026-09-02T08:00:00Z")).status(ParkingSessionStatus.ACTIVE).build());
+            return null;
+        }).when(parkingSessionExportRepository).forEachSession(any(), any(), any());
+    }
+
+    /**
+     * Verifies that a malformed cursor is rejected with a {@link BadRequestException}.
+     */
+    @Test
+    void getActiveSessions_withInvalidCursor_throwsBadRequestException() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> parkingSessionService.getActiveSessions("not-a-cursor", 10));
+    }
 }
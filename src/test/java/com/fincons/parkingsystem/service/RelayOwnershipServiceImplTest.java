@@ -0,0 +1,83 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.service.impl.RelayOwnershipServiceImpl;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RelayOwnershipServiceImpl}.
+ * This class tests that with the broker relay each lot is owned by the instance holding its
+ * partition of the relay group, and that every instance owns everything with the in-memory broker.
+ */
+@ExtendWith(MockitoExtension.class)
+class RelayOwnershipServiceImplTest {
+
+    @Mock
+    private Consumer<String, byte[]> consumer;
+
+    @InjectMocks
+    private RelayOwnershipServiceImpl relayOwnershipService;
+
+    /**
+     * Tests that every instance sends every message with the in-memory broker.
+     */
+    @Test
+    void ownsEverything_withSimpleBroker() {
+        // Arrange
+        ReflectionTestUtils.setField(relayOwnershipService, "brokerMode", "simple");
+
+        // Act & Assert
+        assertTrue(relayOwnershipService.ownsLot(1L));
+        assertTrue(relayOwnershipService.ownsGlobalTopics());
+    }
+
+    /**
+     * Tests that two instances splitting the partitions between them own every lot exactly once,
+     * and that an instance stops owning the lots of a revoked partition.
+     */
+    @Test
+    void ownsLotsOfAssignedPartitions_withBrokerRelay() {
+        // Arrange
+        ReflectionTestUtils.setField(relayOwnershipService, "brokerMode", "relay");
+        RelayOwnershipServiceImpl otherInstance = new RelayOwnershipServiceImpl();
+        ReflectionTestUtils.setField(otherInstance, "brokerMode", "relay");
+        when(consumer.partitionsFor("slot-update")).thenReturn(IntStream.range(0, 4)
+                .mapToObj(partition -> new PartitionInfo("slot-update", partition, null, null, null)).toList());
+        assertFalse(relayOwnershipService.ownsGlobalTopics());
+
+        // Act
+        relayOwnershipService.onPartitionsAssigned(consumer, List.of(partition(0), partition(1)));
+        otherInstance.onPartitionsAssigned(consumer, List.of(partition(2), partition(3)));
+
+        // Assert
+        assertTrue(relayOwnershipService.ownsGlobalTopics());
+        assertFalse(otherInstance.ownsGlobalTopics());
+        LongStream.rangeClosed(1, 50).forEach(parkingLotId -> assertTrue(
+                relayOwnershipService.ownsLot(parkingLotId) ^ otherInstance.ownsLot(parkingLotId)));
+        relayOwnershipService.onPartitionsRevokedBeforeCommit(consumer, List.of(partition(0), partition(1)));
+        assertEquals(0, LongStream.rangeClosed(1, 50).filter(relayOwnershipService::ownsLot).count());
+    }
+
+    /**
+     * Returns the given partition of the slot-update topic.
+     */
+    private static TopicPartition partition(int partition) {
+        return new TopicPartition("slot-update", partition);
+    }
+}
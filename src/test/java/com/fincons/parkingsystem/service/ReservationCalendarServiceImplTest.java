@@ -0,0 +1,118 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.repository.ParkingSlotRepository;
+import com.fincons.parkingsystem.repository.ReservationRepository;
+import com.fincons.parkingsystem.service.impl.ReservationCalendarServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ReservationCalendarServiceImpl}.
+ * This class tests that booking and releasing windows keeps the per-lot free-gap index in step with
+ * the per-slot bookings, so that free slots are found for any window.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservationCalendarServiceImplTest {
+
+    private static final Instant NINE = Instant.parse("2026-11-03T09:00:00Z");
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @InjectMocks
+    private ReservationCalendarServiceImpl reservationCalendarService;
+
+    /**
+     * Registers lot 1 with slots 101 and 102.
+     */
+    @BeforeEach
+    void setUp() {
+        lenient().when(parkingSlotRepository.findIdsByParkingLotId(1L)).thenReturn(List.of(101L, 102L));
+    }
+
+    /**
+     * Tests that a slot is offered only for windows that fit in a gap between its bookings, and that
+     * the lot's slot IDs are loaded once.
+     */
+    @Test
+    void findFreeSlot_findsSlotWhoseGapCoversWindow() {
+        // Arrange
+        assertTrue(reservationCalendarService.findFreeSlot(1L, NINE, hours(2), Set.of()).isPresent());
+        assertTrue(reservationCalendarService.tryBook(1L, 1L, 101L, NINE, hours(2)));
+        assertTrue(reservationCalendarService.tryBook(2L, 1L, 102L, hours(1), hours(3)));
+        assertTrue(reservationCalendarService.tryBook(3L, 1L, 101L, hours(4), hours(5)));
+
+        // Act & Assert
+        assertEquals(Optional.empty(), reservationCalendarService.findFreeSlot(1L, hours(1), hours(2), Set.of()));
+        assertEquals(Optional.of(101L), reservationCalendarService.findFreeSlot(1L, hours(2), hours(4), Set.of()));
+        assertEquals(Optional.of(102L), reservationCalendarService.findFreeSlot(1L, hours(3), hours(5), Set.of()));
+        assertEquals(Optional.of(102L), reservationCalendarService.findFreeSlot(1L, hours(5), hours(6), Set.of(101L)));
+        assertFalse(reservationCalendarService.tryBook(4L, 1L, 102L, hours(2), hours(4)));
+        verify(parkingSlotRepository, times(1)).findIdsByParkingLotId(1L);
+    }
+
+    /**
+     * Tests that releasing a booking merges its window back into the free gaps around it.
+     */
+    @Test
+    void release_mergesWindowBackIntoFreeGap() {
+        // Arrange
+        reservationCalendarService.tryBook(1L, 1L, 101L, NINE, hours(2));
+        reservationCalendarService.tryBook(2L, 1L, 101L, hours(3), hours(4));
+        reservationCalendarService.tryBook(3L, 1L, 102L, NINE, hours(8));
+        assertEquals(Optional.empty(), reservationCalendarService.findFreeSlot(1L, hours(1), hours(5), Set.of()));
+
+        // Act
+        reservationCalendarService.release(2L);
+
+        // Assert
+        assertEquals(Optional.of(101L), reservationCalendarService.findFreeSlot(1L, hours(2), hours(8), Set.of()));
+        assertTrue(reservationCalendarService.isSlotFree(101L, hours(3), hours(4)));
+        assertFalse(reservationCalendarService.isSlotFree(102L, hours(3), hours(4)));
+    }
+
+    /**
+     * Tests that a window booked under a provisional key is held by the reservation it is re-keyed to.
+     */
+    @Test
+    void rekey_movesBookingToReservation() {
+        // Arrange
+        assertTrue(reservationCalendarService.tryBook(-5L, 1L, 101L, NINE, hours(1)));
+
+        // Act
+        reservationCalendarService.rekey(-5L, 9L);
+
+        // Assert
+        reservationCalendarService.release(-5L);
+        assertFalse(reservationCalendarService.isSlotFree(101L, NINE, hours(1)));
+        reservationCalendarService.release(9L);
+        assertTrue(reservationCalendarService.isSlotFree(101L, NINE, hours(1)));
+    }
+
+    /**
+     * Returns the time the given number of hours after nine o'clock.
+     */
+    private static Instant hours(long hours) {
+        return NINE.plus(Duration.ofHours(hours));
+    }
+}
@@ -1,10 +1,12 @@
 package com.fincons.parkingsystem.service;
 
+import com.fincons.parkingsystem.dto.ParkingSessionDto;
 import com.fincons.parkingsystem.dto.ReservationDto;
 import com.fincons.parkingsystem.dto.ReservationRequestDto;
 import com.fincons.parkingsystem.entity.*;
 import com.fincons.parkingsystem.exception.ConflictException;
 import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.mapper.ParkingSessionMapper;
 import com.fincons.parkingsystem.mapper.ReservationMapper;
 import com.fincons.parkingsystem.repository.*;
 import com.fincons.parkingsystem.service.impl.ReservationServiceImpl;
@@ -14,19 +16,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.retry.annotation.AnnotationAwareRetryOperationsInterceptor;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -51,6 +59,14 @@ class ReservationServiceImplTest {
     private ParkingSessionRepository parkingSessionRepository;
     @Mock
     private KafkaProducerService kafkaProducerService;
+    @Mock
+    private WaitlistService waitlistService;
+    @Mock
+    private ActiveReservationLookupService activeReservationLookupService;
+    @Mock
+    private ParkingSessionMapper parkingSessionMapper;
+    @Mock
+    private ReservationCalendarService reservationCalendarService;
 
     @InjectMocks
     private ReservationServiceImpl reservationService;
@@ -67,9 +83,9 @@ class ReservationServiceImplTest {
     @BeforeEach
     void setUp() {
         vehicle = new Vehicle(1L, "TEST1234", VehicleType.CAR, false);
-        parkingLot = new ParkingLot(1L, "Test Lot", "Location", 10, 10.0, Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), null, false, 0);
+        parkingLot = new ParkingLot(1L, "Test Lot", "Location", 10, 10.0, 0, Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), null, false, 0);
         parkingSlot = new ParkingSlot(101L, "A1", SlotStatus.AVAILABLE, parkingLot, 1L, false, 0);
-        reservation = new Reservation(1L, vehicle, parkingSlot, 101L, Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant().plus(Duration.ofMinutes(15)), ReservationStatus.ACTIVE, false, 0);
+        reservation = new Reservation(1L, vehicle, parkingSlot, 101L, 1L, Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant(), Instant.now().atZone(java.time.ZoneId.systemDefault()).toInstant().plus(Duration.ofMinutes(15)), null, null, ReservationMode.SLOT, ReservationStatus.ACTIVE, false, 0);
         reservationRequestDto = new ReservationRequestDto("TEST1234", VehicleType.CAR, 1L);
     }
 
@@ -83,8 +99,11 @@ class ReservationServiceImplTest {
         when(parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)).thenReturn(false);
         when(reservationRepository.existsByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)).thenReturn(false);
         when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
-        when(parkingSlotRepository.findFirstByParkingLotAndStatusOrderByIdAsc(parkingLot, SlotStatus.AVAILABLE)).thenReturn(Optional.of(parkingSlot));
+        when(parkingSlotRepository.findByParkingLotAndStatusOrderByIdAsc(parkingLot, SlotStatus.AVAILABLE)).thenReturn(List.of(parkingSlot));
+        when(reservationCalendarService.isSlotFree(eq(101L), any(Instant.class), any(Instant.class))).thenReturn(true);
+        when(parkingSlotRepository.findByIdForUpdate(101L)).thenReturn(Optional.of(parkingSlot));
         when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
+        when(reservationCalendarService.tryBook(eq(1L), eq(1L), eq(101L), any(Instant.class), any(Instant.class))).thenReturn(true);
         when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
 
         // Act
@@ -105,6 +124,8 @@ class ReservationServiceImplTest {
         when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
         when(parkingSlotRepository.findById(reservation.getParkingSlotId())).thenReturn(Optional.of(parkingSlot));
 
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+
         // Act
         reservationService.cancelReservation(1L);
 
@@ -136,6 +157,8 @@ class ReservationServiceImplTest {
         // Arrange
         when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
         when(parkingSlotRepository.findById(reservation.getParkingSlotId())).thenReturn(Optional.of(parkingSlot));
+        when(parkingSessionRepository.save(any(ParkingSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
 
         // Act
         reservationService.processArrival(1L);
@@ -158,6 +181,8 @@ class ReservationServiceImplTest {
         when(reservationRepository.findAll()).thenReturn(expiredList);
         when(parkingSlotRepository.findByIdWithInactive(reservation.getParkingSlotId())).thenReturn(Optional.of(parkingSlot));
 
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+
         // Act
         reservationService.expireReservations();
 
@@ -167,4 +192,275 @@ class ReservationServiceImplTest {
         verify(reservationRepository, times(1)).save(reservation);
         verify(parkingSlotRepository, times(1)).save(parkingSlot);
     }
+
+    /**
+     * Tests that a reservation with a future window is booked in the calendar without touching the slot.
+     */
+    @Test
+    void createReservation_scheduled_booksWindowWithoutReservingSlot() {
+        // Arrange
+        Instant start = Instant.now().plus(Duration.ofHours(2));
+        Instant end = start.plus(Duration.ofHours(1));
+        ReservationRequestDto scheduledRequest = new ReservationRequestDto("TEST1234", VehicleType.CAR, 1L, start, end, ReservationMode.SLOT);
+        when(vehicleRepository.findByVehicleNumber(anyString())).thenReturn(Optional.of(vehicle));
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(reservationCalendarService.findFreeSlot(eq(1L), eq(start), eq(end), any())).thenReturn(Optional.of(101L));
+        when(parkingSlotRepository.findById(101L)).thenReturn(Optional.of(parkingSlot));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+        when(reservationCalendarService.tryBook(2L, 1L, 101L, start, end)).thenReturn(true);
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+
+        // Act
+        ReservationDto result = reservationService.createReservation(scheduledRequest);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(SlotStatus.AVAILABLE, parkingSlot.getStatus());
+        verify(parkingSlotRepository, never()).save(any(ParkingSlot.class));
+        verify(kafkaProducerService, never()).sendSlotUpdateProduce(any());
+    }
+
+    /**
+     * Verifies that a {@link ConflictException} is thrown when every slot is booked for the requested window.
+     */
+    @Test
+    void createReservation_scheduled_throwsConflictException_whenWindowFullyBooked() {
+        // Arrange
+        Instant start = Instant.now().plus(Duration.ofHours(2));
+        Instant end = start.plus(Duration.ofHours(1));
+        ReservationRequestDto scheduledRequest = new ReservationRequestDto("TEST1234", VehicleType.CAR, 1L, start, end, ReservationMode.SLOT);
+        when(vehicleRepository.findByVehicleNumber(anyString())).thenReturn(Optional.of(vehicle));
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(reservationCalendarService.findFreeSlot(eq(1L), eq(start), eq(end), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> reservationService.createReservation(scheduledRequest));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    /**
+     * Tests that a slot the calendar offers but the database shows as booked, for example by another
+     * instance, is skipped in favour of the next free slot.
+     */
+    @Test
+    void createReservation_scheduled_skipsSlotBookedInDatabase() {
+        // Arrange
+        Instant start = Instant.now().plus(Duration.ofHours(2));
+        Instant end = start.plus(Duration.ofHours(1));
+        ParkingSlot otherSlot = new ParkingSlot(102L, "A2", SlotStatus.AVAILABLE, parkingLot, 1L, false, 0);
+        ReservationRequestDto scheduledRequest = new ReservationRequestDto("TEST1234", VehicleType.CAR, 1L, start, end, ReservationMode.SLOT);
+        when(vehicleRepository.findByVehicleNumber(anyString())).thenReturn(Optional.of(vehicle));
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(reservationCalendarService.findFreeSlot(eq(1L), eq(start), eq(end), any()))
+                .thenAnswer(invocation -> Optional.of(invocation.<Set<Long>>getArgument(3).contains(101L) ? 102L : 101L));
+        when(parkingSlotRepository.findById(101L)).thenReturn(Optional.of(parkingSlot));
+        when(parkingSlotRepository.findById(102L)).thenReturn(Optional.of(otherSlot));
+        when(reservationRepository.existsOverlappingOnSlot(eq(101L), any(), eq(start), eq(end))).thenReturn(true);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+        when(reservationCalendarService.tryBook(2L, 1L, 102L, start, end)).thenReturn(true);
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+
+        // Act
+        ReservationDto result = reservationService.createReservation(scheduledRequest);
+
+        // Assert
+        assertEquals(102L, result.getParkingSlotId());
+    }
+
+    /**
+     * Verifies that a vehicle cannot hold two reservations with overlapping windows.
+     */
+    @Test
+    void createReservation_scheduled_throwsConflictException_whenVehicleHasOverlappingReservation() {
+        // Arrange
+        Instant start = Instant.now().plus(Duration.ofHours(2));
+        Instant end = start.plus(Duration.ofHours(1));
+        ReservationRequestDto scheduledRequest = new ReservationRequestDto("TEST1234", VehicleType.CAR, 1L, start, end, ReservationMode.SLOT);
+        when(vehicleRepository.findByVehicleNumber(anyString())).thenReturn(Optional.of(vehicle));
+        when(reservationRepository.existsOverlappingForVehicle(eq(vehicle), any(), eq(start), eq(end))).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> reservationService.createReservation(scheduledRequest));
+        verify(reservationCalendarService, never()).findFreeSlot(any(), any(), any(), any());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    /**
+     * Tests that a capacity reservation only takes a unit of lot capacity and does not touch any slot.
+     */
+    @Test
+    void createReservation_capacity_takesCapacityWithoutPinningSlot() {
+        // Arrange
+        ReservationRequestDto capacityRequest = new ReservationRequestDto("TEST1234", VehicleType.CAR, 1L, null, null, ReservationMode.CAPACITY);
+        when(vehicleRepository.findByVehicleNumber(anyString())).thenReturn(Optional.of(vehicle));
+        when(parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)).thenReturn(false);
+        when(reservationRepository.existsByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)).thenReturn(false);
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(parkingLotRepository.incrementReservedCapacity(1L)).thenReturn(1);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+
+        // Act
+        ReservationDto result = reservationService.createReservation(capacityRequest);
+
+        // Assert
+        assertNotNull(result);
+        verifyNoInteractions(parkingSlotRepository, reservationCalendarService);
+        verify(kafkaProducerService, never()).sendSlotUpdateProduce(any());
+    }
+
+    /**
+     * Verifies that a {@link ConflictException} is thrown when the lot has no capacity left to hold.
+     */
+    @Test
+    void createReservation_capacity_throwsConflictException_whenLotFull() {
+        // Arrange
+        ReservationRequestDto capacityRequest = new ReservationRequestDto("TEST1234", VehicleType.CAR, 1L, null, null, ReservationMode.CAPACITY);
+        when(vehicleRepository.findByVehicleNumber(anyString())).thenReturn(Optional.of(vehicle));
+        when(parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)).thenReturn(false);
+        when(reservationRepository.existsByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)).thenReturn(false);
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(parkingLotRepository.incrementReservedCapacity(1L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> reservationService.createReservation(capacityRequest));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    /**
+     * Tests that the arrival of a capacity reservation assigns the first available slot and releases the held capacity.
+     */
+    @Test
+    void processArrival_capacity_assignsSlotAndReleasesCapacity() {
+        // Arrange
+        reservation.setMode(ReservationMode.CAPACITY);
+        reservation.setParkingSlot(null);
+        reservation.setParkingSlotId(null);
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(parkingSlotRepository.findFirstByParkingLotAndStatusOrderByIdAsc(parkingLot, SlotStatus.AVAILABLE)).thenReturn(Optional.of(parkingSlot));
+        when(parkingSessionRepository.save(any(ParkingSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+
+        // Act
+        reservationService.processArrival(1L);
+
+        // Assert
+        assertEquals(ReservationStatus.COMPLETED, reservation.getStatus());
+        assertEquals(101L, reservation.getParkingSlotId());
+        assertEquals(SlotStatus.OCCUPIED, parkingSlot.getStatus());
+        verify(parkingLotRepository, times(1)).decrementReservedCapacity(1L);
+    }
+
+    /**
+     * Tests that an arrival by number plate uses the in-memory index and starts a session.
+     */
+    @Test
+    void processArrivalByVehicle_usesIndexedReservation() {
+        // Arrange
+        when(activeReservationLookupService.findReservationId("TEST1234")).thenReturn(Optional.of(1L));
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(parkingSlotRepository.findById(101L)).thenReturn(Optional.of(parkingSlot));
+        when(parkingSessionRepository.save(any(ParkingSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+        when(parkingSessionMapper.toDto(any(ParkingSession.class))).thenReturn(new ParkingSessionDto());
+
+        // Act
+        ParkingSessionDto result = reservationService.processArrivalByVehicle("TEST1234", 1L);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(ReservationStatus.COMPLETED, reservation.getStatus());
+        assertEquals(SlotStatus.OCCUPIED, parkingSlot.getStatus());
+        verify(vehicleRepository, never()).findByVehicleNumber(anyString());
+        verify(activeReservationLookupService).track(reservation);
+    }
+
+    /**
+     * Tests that an arrival by number plate falls back to the database when the index misses.
+     */
+    @Test
+    void processArrivalByVehicle_fallsBackToDatabaseOnIndexMiss() {
+        // Arrange
+        when(activeReservationLookupService.findReservationId("TEST1234")).thenReturn(Optional.empty());
+        when(vehicleRepository.findByVehicleNumber("TEST1234")).thenReturn(Optional.of(vehicle));
+        when(reservationRepository.findFirstByVehicleAndStatus(vehicle, ReservationStatus.ACTIVE)).thenReturn(Optional.of(reservation));
+        when(parkingSlotRepository.findById(101L)).thenReturn(Optional.of(parkingSlot));
+        when(parkingSessionRepository.save(any(ParkingSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+        when(parkingSessionMapper.toDto(any(ParkingSession.class))).thenReturn(new ParkingSessionDto());
+
+        // Act
+        ParkingSessionDto result = reservationService.processArrivalByVehicle("TEST1234", null);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(ReservationStatus.COMPLETED, reservation.getStatus());
+    }
+
+    /**
+     * Verifies that a {@link ConflictException} is thrown when the reservation is for another lot.
+     */
+    @Test
+    void processArrivalByVehicle_throwsConflictException_whenReservedInAnotherLot() {
+        // Arrange
+        when(activeReservationLookupService.findReservationId("TEST1234")).thenReturn(Optional.of(1L));
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> reservationService.processArrivalByVehicle("TEST1234", 2L));
+        assertEquals(ReservationStatus.ACTIVE, reservation.getStatus());
+    }
+
+    /**
+     * Tests that the arrival endpoint retries a transient database failure.
+     */
+    @Test
+    void processArrivalByVehicle_retriesTransientFailures() {
+        // Arrange
+        ReservationService retrying = withRetry(reservationService);
+        when(activeReservationLookupService.findReservationId("TEST1234"))
+                .thenThrow(new CannotAcquireLockException("could not serialize access"));
+
+        // Act & Assert
+        assertThrows(CannotAcquireLockException.class, () -> retrying.processArrivalByVehicle("TEST1234", 1L));
+        verify(activeReservationLookupService, times(3)).findReservationId("TEST1234");
+    }
+
+    /**
+     * Tests that a check-in joining the caller's transaction is not retried inside it, so the
+     * transient failure reaches the caller that owns the transaction.
+     */
+    @Test
+    void checkInByVehicle_doesNotRetryInsideCallerTransaction() {
+        // Arrange
+        ReservationService retrying = withRetry(reservationService);
+        when(activeReservationLookupService.findReservationId("TEST1234"))
+                .thenThrow(new CannotAcquireLockException("could not serialize access"));
+
+        // Act & Assert
+        assertThrows(CannotAcquireLockException.class, () -> retrying.checkInByVehicle("TEST1234", 1L));
+        verify(activeReservationLookupService, times(1)).findReservationId("TEST1234");
+    }
+
+    /**
+     * Helper method to wrap the service in the same {@code @Retryable} advice Spring Retry applies to the bean.
+     *
+     * @param target The service to wrap.
+     * @return A proxy of the service honouring its {@code @Retryable} annotations.
+     */
+    private static ReservationService withRetry(ReservationService target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(ReservationService.class);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(new AnnotationAwareRetryOperationsInterceptor()));
+        return (ReservationService) proxyFactory.getProxy();
+    }
 }
@@ -0,0 +1,159 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.SlotDeltasDto;
+import com.fincons.parkingsystem.dto.SlotMapSnapshotDto;
+import com.fincons.parkingsystem.dto.SlotStatusBitmapDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+import com.fincons.parkingsystem.entity.ParkingSlot;
+import com.fincons.parkingsystem.entity.SlotStatus;
+import com.fincons.parkingsystem.exception.ResourceNotFoundException;
+import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.repository.ParkingSlotRepository;
+import com.fincons.parkingsystem.service.impl.SlotMapServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link SlotMapServiceImpl}.
+ * This class tests the slot map snapshot, the sequencing of slot changes and their replay to
+ * reconnecting clients.
+ */
+@ExtendWith(MockitoExtension.class)
+class SlotMapServiceImplTest {
+
+    @Mock
+    private ParkingLotRepository parkingLotRepository;
+    @Mock
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @InjectMocks
+    private SlotMapServiceImpl slotMapService;
+
+    /**
+     * Tests that changes applied after the snapshot are numbered and replayed from a given sequence.
+     */
+    @Test
+    void getDeltasSince_replaysChangesAfterSnapshot() {
+        // Arrange
+        ParkingSlot slot = new ParkingSlot();
+        slot.setId(10L);
+        slot.setSlotNumber("A1");
+        slot.setStatus(SlotStatus.AVAILABLE);
+        when(parkingLotRepository.existsById(1L)).thenReturn(true);
+        when(parkingSlotRepository.findByParkingLotId(1L)).thenReturn(List.of(slot));
+        SlotMapSnapshotDto snapshot = slotMapService.getSnapshot(1L);
+
+        // Act
+        SlotStatusUpdateDto occupied = new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED);
+        SlotStatusUpdateDto freed = new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.OCCUPIED, SlotStatus.AVAILABLE);
+        slotMapService.applyUpdate(occupied);
+        slotMapService.applyUpdate(freed);
+        SlotDeltasDto deltas = slotMapService.getDeltasSince(1L, snapshot.getEpoch(), 1L);
+
+        // Assert
+        assertEquals(0, snapshot.getSequence());
+        assertEquals(List.of(SlotStatus.AVAILABLE), snapshot.getStatuses());
+        assertEquals(1, occupied.getSequence());
+        assertFalse(deltas.isResyncRequired());
+        assertEquals(2, deltas.getSequence());
+        assertEquals(List.of(freed), deltas.getDeltas());
+        assertEquals(2, slotMapService.getSnapshot(1L).getSequence());
+    }
+
+    /**
+     * Tests that a client is asked to reload the snapshot when its changes can no longer be replayed.
+     */
+    @Test
+    void getDeltasSince_requiresResyncForOtherEpochOrEvictedLot() {
+        // Arrange
+        when(parkingLotRepository.existsById(1L)).thenReturn(true);
+        when(parkingSlotRepository.findByParkingLotId(1L)).thenReturn(List.of());
+        long epoch = slotMapService.getSnapshot(1L).getEpoch();
+        slotMapService.applyUpdate(new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED));
+
+        // Act & Assert
+        assertTrue(slotMapService.getDeltasSince(1L, epoch - 1, 0L).isResyncRequired());
+        slotMapService.evict(1L);
+        assertTrue(slotMapService.getDeltasSince(1L, epoch, 0L).isResyncRequired());
+        // A reloaded lot continues its sequence but cannot replay changes from before the eviction.
+        assertEquals(1, slotMapService.getSnapshot(1L).getSequence());
+        assertTrue(slotMapService.getDeltasSince(1L, epoch, 0L).isResyncRequired());
+    }
+
+    /**
+     * Tests that changes to a lot whose map is not loaded are still numbered, and that the map loaded
+     * afterwards continues from the last number.
+     */
+    @Test
+    void applyUpdate_numbersChangesOfUnloadedLot() {
+        // Arrange
+        SlotStatusUpdateDto occupied = new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED);
+        SlotStatusUpdateDto freed = new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.OCCUPIED, SlotStatus.AVAILABLE);
+        when(parkingLotRepository.existsById(1L)).thenReturn(true);
+        when(parkingSlotRepository.findByParkingLotId(1L)).thenReturn(List.of());
+
+        // Act
+        slotMapService.applyUpdate(occupied);
+        slotMapService.applyUpdate(freed);
+
+        // Assert
+        assertEquals(1, occupied.getSequence());
+        assertEquals(2, freed.getSequence());
+        assertEquals(2, slotMapService.getSnapshot(1L).getSequence());
+    }
+
+    /**
+     * Verifies that a {@link ResourceNotFoundException} is thrown for an unknown parking lot.
+     */
+    @Test
+    void getSnapshot_throwsResourceNotFoundException_whenLotNotFound() {
+        // Arrange
+        when(parkingLotRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> slotMapService.getSnapshot(99L));
+    }
+
+    /**
+     * Tests that slot statuses are packed 2 bits per slot in slot number order and follow slot changes.
+     */
+    @Test
+    void getStatusBitmap_packsStatusesInSlotNumberOrder() {
+        // Arrange
+        when(parkingLotRepository.existsById(1L)).thenReturn(true);
+        when(parkingSlotRepository.findByParkingLotId(1L)).thenReturn(List.of(
+                slot(12L, "10", SlotStatus.OCCUPIED),
+                slot(11L, "2", SlotStatus.RESERVED),
+                slot(10L, "1", SlotStatus.AVAILABLE),
+                slot(13L, "3", SlotStatus.UNDER_SERVICE),
+                slot(14L, "4", SlotStatus.AVAILABLE)));
+
+        // Act
+        SlotStatusBitmapDto loaded = slotMapService.getStatusBitmap(1L);
+        slotMapService.applyUpdate(new SlotStatusUpdateDto(1L, 14L, "4", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED));
+        SlotStatusBitmapDto updated = slotMapService.getStatusBitmap(1L);
+
+        // Assert
+        assertEquals(5, loaded.getSlotCount());
+        // Slots "1", "2", "3", "4" in the first byte from the lowest bits up, then "10".
+        assertArrayEquals(new byte[]{0b00_11_10_00, 0b01}, loaded.getStatuses());
+        assertArrayEquals(new byte[]{(byte) 0b01_11_10_00, 0b01}, updated.getStatuses());
+        assertEquals(List.of("1", "2", "3", "4", "10"), slotMapService.getSnapshot(1L).getSlotNumbers());
+    }
+
+    private static ParkingSlot slot(Long id, String slotNumber, SlotStatus status) {
+        ParkingSlot slot = new ParkingSlot();
+        slot.setId(id);
+        slot.setSlotNumber(slotNumber);
+        slot.setStatus(status);
+        return slot;
+    }
+}
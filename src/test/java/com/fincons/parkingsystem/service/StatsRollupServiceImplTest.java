@@ -0,0 +1,170 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.ParkingLotStatsBucketDto;
+import com.fincons.parkingsystem.entity.ParkingLot;
+import com.fincons.parkingsystem.entity.ParkingLotStatsBucket;
+import com.fincons.parkingsystem.entity.StatsGranularity;
+import com.fincons.parkingsystem.entity.StatsRollupWatermark;
+import com.fincons.parkingsystem.exception.BadRequestException;
+import com.fincons.parkingsystem.repository.ParkingLotRepository;
+import com.fincons.parkingsystem.repository.ParkingLotStatsBucketRepository;
+import com.fincons.parkingsystem.repository.ParkingSessionRepository;
+import com.fincons.parkingsystem.repository.StatsRollupWatermarkRepository;
+import com.fincons.parkingsystem.service.impl.StatsRollupServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StatsRollupServiceImpl}.
+ * This class tests that each run rolls up only the window after the watermark, that observed peak
+ * occupancies are written once, and that history requests are validated and mapped.
+ */
+@ExtendWith(MockitoExtension.class)
+class StatsRollupServiceImplTest {
+
+    private static final String WATERMARK = "parking-lot-stats-buckets";
+
+    @Mock
+    private ParkingLotStatsBucketRepository parkingLotStatsBucketRepository;
+    @Mock
+    private StatsRollupWatermarkRepository statsRollupWatermarkRepository;
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+    @Mock
+    private ParkingLotRepository parkingLotRepository;
+
+    @InjectMocks
+    private StatsRollupServiceImpl statsRollupService;
+
+    /**
+     * Configures a one-minute lag, a one-day catch-up window and at most 100 buckets per request.
+     */
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(statsRollupService, "lagMs", 60000L);
+        ReflectionTestUtils.setField(statsRollupService, "maxWindowHours", 24L);
+        ReflectionTestUtils.setField(statsRollupService, "maxBuckets", 100L);
+    }
+
+    /**
+     * Tests that a run processes the sessions between the watermark and the lagged current time, for
+     * both granularities, and advances the watermark.
+     */
+    @Test
+    void rollUp_processesWindowAfterWatermark() {
+        // Arrange
+        Instant processedUntil = Instant.now().minus(Duration.ofMinutes(10));
+        StatsRollupWatermark watermark = new StatsRollupWatermark(WATERMARK, processedUntil, processedUntil);
+        when(statsRollupWatermarkRepository.existsById(WATERMARK)).thenReturn(true);
+        when(statsRollupWatermarkRepository.findByNameForUpdate(WATERMARK)).thenReturn(Optional.of(watermark));
+
+        // Act
+        statsRollupService.rollUp();
+
+        // Assert
+        Instant to = watermark.getProcessedUntil();
+        assertTrue(to.isAfter(processedUntil) && to.isBefore(Instant.now().minusSeconds(59)));
+        verify(parkingLotStatsBucketRepository).addEntries(eq("HOURLY"), eq("hour"), eq(processedUntil), eq(to), any(Instant.class));
+        verify(parkingLotStatsBucketRepository).addExits(eq("DAILY"), eq("day"), eq(processedUntil), eq(to), any(Instant.class));
+        verify(statsRollupWatermarkRepository).save(watermark);
+    }
+
+    /**
+     * Tests that the first run starts at the day of the oldest session and catches up one window at a time.
+     */
+    @Test
+    void rollUp_startsAtOldestSessionAndLimitsWindow() {
+        // Arrange
+        Instant oldest = Instant.parse("2026-01-10T08:30:00Z");
+        when(statsRollupWatermarkRepository.existsById(WATERMARK)).thenReturn(false);
+        when(parkingSessionRepository.findEarliestEntryTime()).thenReturn(Optional.of(oldest));
+        StatsRollupWatermark watermark = new StatsRollupWatermark(WATERMARK, Instant.parse("2026-01-10T00:00:00Z"), Instant.now());
+        when(statsRollupWatermarkRepository.findByNameForUpdate(WATERMARK)).thenReturn(Optional.of(watermark));
+
+        // Act
+        statsRollupService.rollUp();
+
+        // Assert
+        verify(statsRollupWatermarkRepository).createIfMissing(eq(WATERMARK), eq(Instant.parse("2026-01-10T00:00:00Z")), any(Instant.class));
+        assertEquals(Instant.parse("2026-01-11T00:00:00Z"), watermark.getProcessedUntil());
+    }
+
+    /**
+     * Tests that only the highest occupancy observed since the last run is written to the hourly and
+     * daily buckets, and that nothing is rolled up while the window is still within the lag.
+     */
+    @Test
+    void rollUp_writesPeakOccupancyOnce() {
+        // Arrange
+        StatsRollupWatermark watermark = new StatsRollupWatermark(WATERMARK, Instant.now(), Instant.now());
+        when(statsRollupWatermarkRepository.existsById(WATERMARK)).thenReturn(true);
+        when(statsRollupWatermarkRepository.findByNameForUpdate(WATERMARK)).thenReturn(Optional.of(watermark));
+        statsRollupService.recordOccupancy(1L, 90.0);
+        statsRollupService.recordOccupancy(1L, 60.0);
+
+        // Act
+        statsRollupService.rollUp();
+
+        // Assert
+        verify(parkingLotStatsBucketRepository).raisePeakOccupancy(eq(1L), eq("HOURLY"), any(Instant.class), eq(90.0), any(Instant.class));
+        verify(parkingLotStatsBucketRepository).raisePeakOccupancy(eq(1L), eq("DAILY"), any(Instant.class), eq(90.0), any(Instant.class));
+        verify(parkingLotStatsBucketRepository, times(2)).raisePeakOccupancy(anyLong(), anyString(), any(Instant.class), anyDouble(), any(Instant.class));
+        verify(parkingLotStatsBucketRepository, never()).addEntries(any(), any(), any(), any(), any());
+        verify(statsRollupWatermarkRepository, never()).save(any());
+    }
+
+    /**
+     * Tests that buckets are read from the start of the bucket containing the range start and mapped with their average dwell time.
+     */
+    @Test
+    void getHistory_mapsBuckets() {
+        // Arrange
+        Instant bucketStart = Instant.parse("2026-03-01T10:00:00Z");
+        when(parkingLotRepository.findByIdWithInactive(1L)).thenReturn(Optional.of(new ParkingLot()));
+        when(parkingLotStatsBucketRepository.findRange(1L, StatsGranularity.HOURLY, bucketStart, Instant.parse("2026-03-01T12:00:00Z")))
+                .thenReturn(List.of(new ParkingLotStatsBucket(7L, 1L, StatsGranularity.HOURLY, bucketStart, 30.0, 4, 2, 7200.0, 75.0, bucketStart)));
+
+        // Act
+        List<ParkingLotStatsBucketDto> history = statsRollupService.getHistory(1L, Instant.parse("2026-03-01T10:15:00Z"),
+                Instant.parse("2026-03-01T12:00:00Z"), StatsGranularity.HOURLY);
+
+        // Assert
+        assertEquals(1, history.size());
+        assertEquals(60.0, history.get(0).getAverageDwellMinutes());
+        assertEquals(75.0, history.get(0).getPeakOccupancy());
+    }
+
+    /**
+     * Tests that empty ranges and ranges spanning too many buckets are rejected, while the same range
+     * with a coarser granularity is accepted.
+     */
+    @Test
+    void getHistory_rejectsInvalidRanges() {
+        // Arrange
+        Instant from = Instant.parse("2026-03-01T00:00:00Z");
+        when(parkingLotRepository.findByIdWithInactive(1L)).thenReturn(Optional.of(new ParkingLot()));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> statsRollupService.getHistory(1L, from, from, StatsGranularity.HOURLY));
+        assertThrows(BadRequestException.class, () -> statsRollupService.getHistory(1L, from, from.plus(Duration.ofDays(30)), StatsGranularity.HOURLY));
+        assertEquals(List.of(), statsRollupService.getHistory(1L, from, from.plus(Duration.ofDays(30)), StatsGranularity.DAILY));
+    }
+}
@@ -0,0 +1,182 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.ReservationDto;
+import com.fincons.parkingsystem.dto.ReservationUpdate;
+import com.fincons.parkingsystem.dto.WaitlistEntryDto;
+import com.fincons.parkingsystem.dto.WaitlistRequestDto;
+import com.fincons.parkingsystem.entity.*;
+import com.fincons.parkingsystem.exception.ConflictException;
+import com.fincons.parkingsystem.mapper.ReservationMapper;
+import com.fincons.parkingsystem.mapper.WaitlistEntryMapper;
+import com.fincons.parkingsystem.repository.*;
+import com.fincons.parkingsystem.service.impl.WaitlistServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link WaitlistServiceImpl}.
+ * This class tests joining the waitlist and handing freed slots to waiting vehicles.
+ */
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceImplTest {
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+    @Mock
+    private VehicleRepository vehicleRepository;
+    @Mock
+    private ParkingLotRepository parkingLotRepository;
+    @Mock
+    private ParkingSlotRepository parkingSlotRepository;
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ReservationCalendarService reservationCalendarService;
+    @Mock
+    private WaitlistEntryMapper waitlistEntryMapper;
+    @Mock
+    private ReservationMapper reservationMapper;
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+    @Mock
+    private ActiveReservationLookupService activeReservationLookupService;
+
+    @InjectMocks
+    private WaitlistServiceImpl waitlistService;
+
+    private Vehicle vehicle;
+    private ParkingLot parkingLot;
+    private ParkingSlot parkingSlot;
+    private WaitlistEntry entry;
+
+    /**
+     * Initializes mock objects and test data before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        vehicle = new Vehicle(1L, "TEST1234", VehicleType.CAR, false);
+        parkingLot = new ParkingLot(1L, "Test Lot", "Location", 10, 10.0, 0, Instant.now(), null, false, 0);
+        parkingSlot = new ParkingSlot(101L, "A1", SlotStatus.AVAILABLE, parkingLot, 1L, false, 0);
+        entry = new WaitlistEntry(5L, vehicle, 1L, WaitlistStatus.WAITING, null, Instant.now(), 0);
+    }
+
+    /**
+     * Tests that a vehicle can join the waitlist of a full lot and is told its position.
+     */
+    @Test
+    void joinWaitlist_success() {
+        // Arrange
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(vehicleRepository.findByVehicleNumber("TEST1234")).thenReturn(Optional.of(vehicle));
+        when(parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE)).thenReturn(0L);
+        when(waitlistEntryRepository.save(any(WaitlistEntry.class))).thenReturn(entry);
+        when(waitlistEntryMapper.toDto(entry)).thenReturn(new WaitlistEntryDto());
+        when(waitlistEntryRepository.countByParkingLotIdAndStatusAndIdLessThanEqual(1L, WaitlistStatus.WAITING, 5L)).thenReturn(3L);
+
+        // Act
+        WaitlistEntryDto result = waitlistService.joinWaitlist(new WaitlistRequestDto("TEST1234", VehicleType.CAR, 1L));
+
+        // Assert
+        assertEquals(3L, result.getPosition());
+    }
+
+    /**
+     * Verifies that a {@link ConflictException} is thrown when the lot still has free slots.
+     */
+    @Test
+    void joinWaitlist_throwsConflictException_whenLotNotFull() {
+        // Arrange
+        when(parkingLotRepository.findById(1L)).thenReturn(Optional.of(parkingLot));
+        when(vehicleRepository.findByVehicleNumber("TEST1234")).thenReturn(Optional.of(vehicle));
+        when(parkingSlotRepository.countByParkingLotAndStatus(parkingLot, SlotStatus.AVAILABLE)).thenReturn(2L);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> waitlistService.joinWaitlist(new WaitlistRequestDto("TEST1234", VehicleType.CAR, 1L)));
+        verify(waitlistEntryRepository, never()).save(any(WaitlistEntry.class));
+    }
+
+    /**
+     * Tests that a freed slot is reserved for the first waiting vehicle and the waiter is notified.
+     */
+    @Test
+    void handOverSlot_assignsSlotToNextWaiter() {
+        // Arrange
+        when(reservationCalendarService.isSlotFree(eq(101L), any(Instant.class), any(Instant.class))).thenReturn(true);
+        when(waitlistEntryRepository.findNextWaitingForUpdate(1L)).thenReturn(Optional.of(entry));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation saved = invocation.getArgument(0);
+            saved.setId(9L);
+            return saved;
+        });
+        when(reservationCalendarService.tryBook(eq(-5L), eq(1L), eq(101L), any(Instant.class), any(Instant.class))).thenReturn(true);
+        when(reservationMapper.toDto(any(Reservation.class))).thenReturn(new ReservationDto());
+
+        // Act
+        boolean handedOver = waitlistService.handOverSlot(parkingSlot);
+
+        // Assert
+        assertTrue(handedOver);
+        assertEquals(SlotStatus.RESERVED, parkingSlot.getStatus());
+        assertEquals(WaitlistStatus.ASSIGNED, entry.getStatus());
+        assertEquals(9L, entry.getReservationId());
+        verify(reservationCalendarService).rekey(-5L, 9L);
+        ArgumentCaptor<ReservationUpdate> update = ArgumentCaptor.forClass(ReservationUpdate.class);
+        verify(kafkaProducerService).SendReservationProduce(update.capture());
+        assertEquals(5L, update.getValue().getWaitlistEntryId());
+    }
+
+    /**
+     * Tests that no reservation is persisted when the hold window is booked concurrently, and the waiter stays queued.
+     */
+    @Test
+    void handOverSlot_persistsNothing_whenWindowTakenConcurrently() {
+        // Arrange
+        when(reservationCalendarService.isSlotFree(eq(101L), any(Instant.class), any(Instant.class))).thenReturn(true);
+        when(waitlistEntryRepository.findNextWaitingForUpdate(1L)).thenReturn(Optional.of(entry));
+        when(reservationCalendarService.tryBook(eq(-5L), eq(1L), eq(101L), any(Instant.class), any(Instant.class))).thenReturn(false);
+
+        // Act
+        boolean handedOver = waitlistService.handOverSlot(parkingSlot);
+
+        // Assert
+        assertFalse(handedOver);
+        assertEquals(SlotStatus.AVAILABLE, parkingSlot.getStatus());
+        assertEquals(WaitlistStatus.WAITING, entry.getStatus());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    /**
+     * Tests that a waiter who has meanwhile parked is dropped and the slot stays available when nobody else waits.
+     */
+    @Test
+    void handOverSlot_skipsWaiterWithActiveSession() {
+        // Arrange
+        when(reservationCalendarService.isSlotFree(eq(101L), any(Instant.class), any(Instant.class))).thenReturn(true);
+        when(waitlistEntryRepository.findNextWaitingForUpdate(1L)).thenReturn(Optional.of(entry), Optional.empty());
+        when(parkingSessionRepository.existsByVehicleAndStatus(vehicle, ParkingSessionStatus.ACTIVE)).thenReturn(true);
+
+        // Act
+        boolean handedOver = waitlistService.handOverSlot(parkingSlot);
+
+        // Assert
+        assertFalse(handedOver);
+        assertEquals(SlotStatus.AVAILABLE, parkingSlot.getStatus());
+        assertEquals(WaitlistStatus.CANCELLED, entry.getStatus());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+}
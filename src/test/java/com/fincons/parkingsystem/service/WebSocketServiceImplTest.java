@@ -0,0 +1,165 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.dto.HighOccupancyAlertDto;
+import com.fincons.parkingsystem.dto.OccupancyUpdateDto;
+import com.fincons.parkingsystem.dto.SessionActivityDto;
+import com.fincons.parkingsystem.dto.SlotStatusBatchDto;
+import com.fincons.parkingsystem.dto.SlotStatusUpdateDto;
+import com.fincons.parkingsystem.dto.VehicleEnteredEvent;
+import com.fincons.parkingsystem.dto.VehicleExitedEvent;
+import com.fincons.parkingsystem.dto.WebSocketMessage;
+import com.fincons.parkingsystem.entity.SlotStatus;
+import com.fincons.parkingsystem.service.impl.WebSocketServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link WebSocketServiceImpl}.
+ * This class tests that per-lot updates are coalesced until the flush window ends, that session
+ * updates reach per-lot topics and the aggregated activity stream, and that updates of lots without
+ * subscribers, or relayed by another instance, are dropped.
+ */
+@ExtendWith(MockitoExtension.class)
+class WebSocketServiceImplTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private WebSocketSubscriptionService subscriptionService;
+    @Mock
+    private RelayOwnershipService relayOwnershipService;
+
+    @InjectMocks
+    private WebSocketServiceImpl webSocketService;
+
+    /**
+     * Lets this instance send the messages of every lot and of the global topics.
+     */
+    @BeforeEach
+    void setUp() {
+        lenient().when(relayOwnershipService.ownsLot(any())).thenReturn(true);
+        lenient().when(relayOwnershipService.ownsGlobalTopics()).thenReturn(true);
+    }
+
+    /**
+     * Tests that a burst of updates for one lot is sent as one occupancy update, one slot batch and one alert.
+     */
+    @Test
+    void flushPendingUpdates_coalescesBurstPerLot() {
+        // Arrange
+        when(subscriptionService.hasSubscribers(anyString())).thenReturn(true);
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            webSocketService.sendSlotUpdate(1L, new OccupancyUpdateDto(1L, sequence, 10 - sequence, 10.0 * sequence, 0, sequence));
+            webSocketService.sendHighOccupancyAlert(new HighOccupancyAlertDto(1L, "High occupancy detected!", 80.0 + sequence, true, 80.0));
+        }
+        webSocketService.SendSlotStatusUpdate(1L, new SlotStatusUpdateDto(1L, 10L, "A1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED));
+        webSocketService.SendSlotStatusUpdate(1L, new SlotStatusUpdateDto(1L, 11L, "A2", SlotStatus.AVAILABLE, SlotStatus.RESERVED));
+        webSocketService.SendSlotStatusUpdate(1L, new SlotStatusUpdateDto(1L, 11L, "A2", SlotStatus.RESERVED, SlotStatus.OCCUPIED));
+        verifyNoInteractions(messagingTemplate);
+
+        // Act
+        webSocketService.flushPendingUpdates();
+        webSocketService.flushPendingUpdates();
+
+        // Assert
+        ArgumentCaptor<WebSocketMessage<?>> occupancy = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/dashboard/1"), occupancy.capture());
+        assertEquals(3, ((OccupancyUpdateDto) occupancy.getValue().getPayload()).getSequence());
+
+        ArgumentCaptor<WebSocketMessage<?>> slots = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/slots/1"), slots.capture());
+        assertEquals("SLOT_STATUS_BATCH", slots.getValue().getType());
+        List<SlotStatusUpdateDto> changes = ((SlotStatusBatchDto) slots.getValue().getPayload()).getChanges();
+        assertEquals(2, changes.size());
+        SlotStatusUpdateDto merged = changes.get(1);
+        assertEquals(SlotStatus.AVAILABLE, merged.getPreviousStatus());
+        assertEquals(SlotStatus.OCCUPIED, merged.getNewStatus());
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/alerts/1"), any(WebSocketMessage.class));
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    /**
+     * Tests that entries and exits go to the watched per-lot topic only and are counted per lot
+     * into one aggregated activity message.
+     */
+    @Test
+    void sessionUpdates_sendPerLotAndAggregateActivity() {
+        // Arrange
+        Set<String> watched = Set.of("/topic/sessions-entry/1", "/topic/sessions-activity");
+        when(subscriptionService.hasSubscribers(anyString())).thenAnswer(invocation -> watched.contains(invocation.<String>getArgument(0)));
+        VehicleEnteredEvent entry = new VehicleEnteredEvent(5L, "AB123", 1L, 10L, "A1", "Lot 1", Instant.now());
+
+        // Act
+        webSocketService.sendEntrySessionUpdate(entry);
+        webSocketService.sendEntrySessionUpdate(new VehicleEnteredEvent(6L, "CD456", 2L, 20L, "B1", "Lot 2", Instant.now()));
+        webSocketService.sendExitSessionUpdate(new VehicleExitedEvent(4L, "EF789", 1L, "Lot 1", 11L, "A2", Instant.now(), Instant.now(), 5.0));
+        webSocketService.flushPendingUpdates();
+
+        // Assert
+        ArgumentCaptor<WebSocketMessage<?>> entryMessage = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/sessions-entry/1"), entryMessage.capture());
+        assertEquals(entry, entryMessage.getValue().getPayload());
+
+        ArgumentCaptor<WebSocketMessage<?>> activity = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/sessions-activity"), activity.capture());
+        assertEquals("SESSION_ACTIVITY", activity.getValue().getType());
+        assertEquals(Set.of(new SessionActivityDto(1L, "Lot 1", 1, 1), new SessionActivityDto(2L, "Lot 2", 1, 0)),
+                Set.copyOf((List<?>) activity.getValue().getPayload()));
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    /**
+     * Tests that updates of a lot nobody watches are neither queued nor sent.
+     */
+    @Test
+    void updatesOfUnwatchedLot_areDropped() {
+        // Arrange
+        when(subscriptionService.hasSubscribers(anyString())).thenReturn(false);
+
+        // Act
+        webSocketService.sendSlotUpdate(2L, new OccupancyUpdateDto(2L, 1, 9, 10.0, 0, 1));
+        webSocketService.SendSlotStatusUpdate(2L, new SlotStatusUpdateDto(2L, 20L, "B1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED));
+        webSocketService.flushPendingUpdates();
+
+        // Assert
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    /**
+     * Tests that messages relayed by another instance are neither queued nor sent, even though
+     * every destination is reported as subscribed.
+     */
+    @Test
+    void updatesOwnedByAnotherInstance_areDropped() {
+        // Arrange
+        lenient().when(subscriptionService.hasSubscribers(anyString())).thenReturn(true);
+        when(relayOwnershipService.ownsLot(2L)).thenReturn(false);
+        when(relayOwnershipService.ownsGlobalTopics()).thenReturn(false);
+
+        // Act
+        webSocketService.sendSlotUpdate(2L, new OccupancyUpdateDto(2L, 1, 9, 10.0, 0, 1));
+        webSocketService.SendSlotStatusUpdate(2L, new SlotStatusUpdateDto(2L, 20L, "B1", SlotStatus.AVAILABLE, SlotStatus.OCCUPIED));
+        webSocketService.sendEntrySessionUpdate(new VehicleEnteredEvent(6L, "CD456", 2L, 20L, "B1", "Lot 2", Instant.now()));
+        webSocketService.flushPendingUpdates();
+
+        // Assert
+        verifyNoInteractions(messagingTemplate);
+    }
+}
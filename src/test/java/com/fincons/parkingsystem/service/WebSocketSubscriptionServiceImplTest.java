@@ -0,0 +1,77 @@
+package com.fincons.parkingsystem.service;
+
+import com.fincons.parkingsystem.service.impl.WebSocketSubscriptionServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link WebSocketSubscriptionServiceImpl}.
+ * This class tests that subscriber counts follow SUBSCRIBE, UNSUBSCRIBE and DISCONNECT events.
+ */
+class WebSocketSubscriptionServiceImplTest {
+
+    private final WebSocketSubscriptionServiceImpl subscriptionService = new WebSocketSubscriptionServiceImpl();
+
+    /**
+     * Tests that a destination stays subscribed until its last subscriber unsubscribes.
+     */
+    @Test
+    void hasSubscribers_followsSubscribeAndUnsubscribe() {
+        subscriptionService.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s1", "sub-0", "/topic/slots/1")));
+        subscriptionService.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s2", "sub-0", "/topic/slots/1")));
+
+        assertTrue(subscriptionService.hasSubscribers("/topic/slots/1"));
+        assertFalse(subscriptionService.hasSubscribers("/topic/slots/2"));
+
+        subscriptionService.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "s1", "sub-0", null)));
+        assertTrue(subscriptionService.hasSubscribers("/topic/slots/1"));
+
+        subscriptionService.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "s2", "sub-0", null)));
+        assertFalse(subscriptionService.hasSubscribers("/topic/slots/1"));
+    }
+
+    /**
+     * Tests that pattern subscriptions match destinations and are removed when the session disconnects.
+     */
+    @Test
+    void hasSubscribers_matchesPatternsUntilDisconnect() {
+        subscriptionService.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s1", "sub-0", "/topic/alerts/*")));
+
+        assertTrue(subscriptionService.hasSubscribers("/topic/alerts/7"));
+        assertFalse(subscriptionService.hasSubscribers("/topic/slots/7"));
+
+        subscriptionService.onDisconnect(new SessionDisconnectEvent(this, frame(StompCommand.DISCONNECT, "s1", null, null), "s1", CloseStatus.NORMAL));
+        assertFalse(subscriptionService.hasSubscribers("/topic/alerts/7"));
+    }
+
+    /**
+     * Builds a STOMP frame as received from a client.
+     *
+     * @param command The STOMP command.
+     * @param sessionId The session ID.
+     * @param subscriptionId The subscription ID, or {@code null}.
+     * @param destination The destination, or {@code null}.
+     * @return The message of the frame.
+     */
+    private Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(command);
+        headers.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            headers.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            headers.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}